@@ -0,0 +1,90 @@
+package org.example.diploma.benchmark;
+
+import org.example.diploma.dto.ExerciseSnapshotDTO;
+import org.example.diploma.model.Exercise;
+import org.example.diploma.model.Module;
+import org.example.diploma.repository.ExerciseRepository;
+import org.example.diploma.service.ExerciseCache;
+import org.example.diploma.service.ExerciseService;
+import org.example.diploma.service.StudentService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+// AnswerCheckBenchmark - проверка ответа: снимок упражнения из кэша по идентификатору и сравнение ответа
+// (путь PracticeSessionService.submitAnswers и StudentController.submitAnswer без записи попытки)
+// ожидание: время не зависит от количества упражнений, пока их модули помещаются в кэш
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AnswerCheckBenchmark {
+    private static final int EXERCISES_PER_MODULE = 100;
+
+    @Param({"100", "10000", "1000000"})
+    private int rows;
+
+    private StudentService studentService;
+    private long[] exerciseIds;
+    private String[] answers;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        Map<Long, List<Exercise>> byModule = new HashMap<>();
+        Map<Long, Exercise> byId = new HashMap<>();
+        int modules = (rows + EXERCISES_PER_MODULE - 1) / EXERCISES_PER_MODULE;
+        for (int m = 0; m < modules; m++) {
+            Module module = SyntheticData.module(m + 1);
+            List<Exercise> exercises = SyntheticData.exercises(module, (long) m * EXERCISES_PER_MODULE + 1,
+                    Math.min(EXERCISES_PER_MODULE, rows - m * EXERCISES_PER_MODULE));
+            byModule.put(module.getId(), exercises);
+            exercises.forEach(exercise -> byId.put(exercise.getId(), exercise));
+        }
+
+        ExerciseRepository exerciseRepository = InMemoryRepositories.repository(ExerciseRepository.class)
+                .on("findByModuleId", args -> byModule.getOrDefault((Long) args[0], List.of()))
+                .on("findById", args -> Optional.ofNullable(byId.get((Long) args[0])))
+                .build();
+        ExerciseService exerciseService = new ExerciseService(exerciseRepository, null, new ExerciseCache(modules), null,
+                null, null, 42L, 500);
+        studentService = new StudentService(null, null, exerciseService, null, null, null, null, null);
+        byModule.keySet().forEach(studentService::getPracticeExercises);
+
+        // случайный порядок вопросов, половина ответов неверные
+        SplittableRandom random = new SplittableRandom(42);
+        exerciseIds = new long[4096];
+        answers = new String[exerciseIds.length];
+        List<Long> ids = new ArrayList<>(byId.keySet());
+        for (int i = 0; i < exerciseIds.length; i++) {
+            Exercise exercise = byId.get(ids.get(random.nextInt(ids.size())));
+            exerciseIds[i] = exercise.getId();
+            answers[i] = random.nextBoolean() ? exercise.getCorrectAnswer() : exercise.getOption2();
+        }
+    }
+
+    @Benchmark
+    public boolean checkAnswer() {
+        int i = next++ & (exerciseIds.length - 1);
+        ExerciseSnapshotDTO snapshot = studentService.getPracticeExercise(exerciseIds[i]).orElseThrow();
+        return studentService.checkAnswer(snapshot.toReference(), answers[i]);
+    }
+}
@@ -0,0 +1,79 @@
+package org.example.diploma.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.example.diploma.service.AttemptExportService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+// AttemptExportBenchmark - потоковая выгрузка попыток до 10^7 строк
+// логика:
+//  - строки отдает синтетический JDBC, вывод уходит в OutputStream.nullOutputStream()
+//  - куча ограничена 64 МБ: если выгрузка начнет накапливать строки, бенчмарк упадет с OutOfMemoryError
+//    на 10^7 строках (проверка постоянной памяти); выделение памяти на строку - с профилировщиком -prof gc
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(value = 1, jvmArgsAppend = "-Xmx64m")
+public class AttemptExportBenchmark {
+    private static final int DISTINCT_VALUES = 1000;
+
+    @Param({"100", "10000", "1000000", "10000000"})
+    private long rows;
+
+    @Param({"CSV", "NDJSON"})
+    private AttemptExportService.Format format;
+
+    private AttemptExportService exportService;
+
+    @Setup
+    public void setUp() {
+        String[] students = new String[DISTINCT_VALUES];
+        String[] questions = new String[DISTINCT_VALUES];
+        String[] answers = new String[DISTINCT_VALUES];
+        for (int i = 0; i < DISTINCT_VALUES; i++) {
+            students[i] = "student" + i;
+            questions[i] = "What is the translation of: word" + i + "?";
+            answers[i] = i % 10 == 0 ? "слово, " + i : "слово" + i;   // часть полей CSV требует кавычек
+        }
+        Timestamp time = Timestamp.valueOf(LocalDateTime.of(2025, 1, 1, 12, 0));
+
+        exportService = new AttemptExportService(SyntheticJdbc.dataSource(rows, (row, column) -> {
+            int i = (int) (row % DISTINCT_VALUES);
+            return switch (column) {
+                case 1 -> row + 1;
+                case 2 -> students[i];
+                case 3 -> "group";
+                case 4 -> "Module";
+                case 5 -> questions[i];
+                case 6 -> answers[(i + 1) % DISTINCT_VALUES];
+                case 7 -> answers[i];
+                case 8 -> row % 3 != 0;
+                case 9 -> time;
+                case 10 -> row % 10 == 0 ? null : (int) (row % 60);
+                default -> null;
+            };
+        }), null, new ObjectMapper(), 1000);
+    }
+
+    @Benchmark
+    public long export() throws IOException {
+        return exportService.export(AttemptExportService.Scope.GROUP, 1L, format, OutputStream.nullOutputStream());
+    }
+}
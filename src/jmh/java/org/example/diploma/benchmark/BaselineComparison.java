@@ -0,0 +1,104 @@
+package org.example.diploma.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+
+// BaselineComparison - сравнение результатов JMH с сохраненной базовой линией
+// вход (аргументы): результат JMH (JSON), базовая линия (JSON), допустимое ухудшение в процентах,
+//                   необязательный файл порогов по бенчмаркам (ключ - Класс.метод, значение - проценты)
+// выход: код 0, если ни один бенчмарк не ухудшился больше порога (или базовой линии нет), иначе 1
+// логика:
+//  - бенчмарки сопоставляются по имени и параметрам (@Param)
+//  - для режимов времени (avgt, ss, sample) хуже - больше, для thrpt хуже - меньше
+//  - новая базовая линия: скопировать target/jmh-result.json в src/jmh/baseline.json
+public final class BaselineComparison {
+
+    private BaselineComparison() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 3) {
+            System.err.println("usage: BaselineComparison <result.json> <baseline.json> <threshold%> [thresholds.properties]");
+            System.exit(2);
+        }
+        Path result = Path.of(args[0]);
+        Path baseline = Path.of(args[1]);
+        double defaultThreshold = Double.parseDouble(args[2]);
+        Properties thresholds = new Properties();
+        if (args.length > 3 && Files.exists(Path.of(args[3]))) {
+            try (InputStream in = Files.newInputStream(Path.of(args[3]))) {
+                thresholds.load(in);
+            }
+        }
+
+        if (!Files.exists(baseline)) {
+            System.out.println("No baseline at " + baseline + ", comparison skipped");
+            return;
+        }
+        ObjectMapper mapper = new ObjectMapper();
+        Map<String, JsonNode> current = index(mapper.readTree(result.toFile()));
+        Map<String, JsonNode> previous = index(mapper.readTree(baseline.toFile()));
+
+        int regressions = 0;
+        for (Map.Entry<String, JsonNode> entry : current.entrySet()) {
+            JsonNode run = entry.getValue();
+            JsonNode base = previous.get(entry.getKey());
+            double score = run.path("primaryMetric").path("score").asDouble();
+            String unit = run.path("primaryMetric").path("scoreUnit").asText();
+            if (base == null) {
+                System.out.printf("NEW   %-80s %14.3f %s%n", entry.getKey(), score, unit);
+                continue;
+            }
+            double baseScore = base.path("primaryMetric").path("score").asDouble();
+            boolean higherIsBetter = "thrpt".equals(run.path("mode").asText());
+            double change = baseScore == 0 ? 0 : (score - baseScore) / baseScore * 100;
+            double worse = higherIsBetter ? -change : change;
+            double threshold = threshold(thresholds, run.path("benchmark").asText(), defaultThreshold);
+
+            boolean regressed = worse > threshold;
+            if (regressed) {
+                regressions++;
+            }
+            System.out.printf("%-5s %-80s %14.3f -> %14.3f %s (%+.1f%%, limit %.1f%%)%n",
+                    regressed ? "FAIL" : "OK", entry.getKey(), baseScore, score, unit, change, threshold);
+        }
+
+        if (regressions > 0) {
+            System.out.println(regressions + " benchmark(s) regressed beyond threshold");
+            System.exit(1);
+        }
+    }
+
+    // index - результаты по ключу "benchmark{param=value,...}"
+    private static Map<String, JsonNode> index(JsonNode runs) {
+        Map<String, JsonNode> byKey = new LinkedHashMap<>();
+        for (JsonNode run : runs) {
+            Map<String, String> params = new TreeMap<>();
+            Iterator<Map.Entry<String, JsonNode>> fields = run.path("params").fields();
+            while (fields.hasNext()) {
+                Map.Entry<String, JsonNode> field = fields.next();
+                params.put(field.getKey(), field.getValue().asText());
+            }
+            byKey.put(run.path("benchmark").asText() + (params.isEmpty() ? "" : params.toString()), run);
+        }
+        return byKey;
+    }
+
+    // threshold - порог для бенчмарка: по "Класс.метод", затем по "Класс", затем общий
+    private static double threshold(Properties thresholds, String benchmark, double defaultThreshold) {
+        String method = benchmark.substring(benchmark.lastIndexOf('.', benchmark.lastIndexOf('.') - 1) + 1);
+        String type = method.substring(0, method.indexOf('.'));
+        String value = thresholds.getProperty(method, thresholds.getProperty(type));
+        return value != null ? Double.parseDouble(value) : defaultThreshold;
+    }
+}
@@ -0,0 +1,53 @@
+package org.example.diploma.benchmark;
+
+import org.example.diploma.model.Exercise;
+import org.example.diploma.model.Module;
+import org.example.diploma.model.Word;
+import org.example.diploma.service.MultipleChoiceGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+// ExerciseGenerationBenchmark - генерация упражнений модуля (ExerciseService.generateMultipleChoiceExercise
+// использует тот же MultipleChoiceGenerator)
+// ожидание: время на упражнение не растет с размером модуля (выбор неправильных вариантов за O(1))
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ExerciseGenerationBenchmark {
+
+    @Param({"100", "10000", "1000000"})
+    private int rows;
+
+    private Module module;
+    private List<Word> words;
+    private MultipleChoiceGenerator generator;
+
+    @Setup
+    public void setUp() {
+        module = SyntheticData.module(1);
+        words = SyntheticData.words(module, 1, rows);
+        generator = new MultipleChoiceGenerator(new SplittableRandom(42));
+    }
+
+    // generateModule - все упражнения модуля из rows слов
+    @Benchmark
+    public List<Exercise> generateModule() {
+        return generator.generate(module, words);
+    }
+}
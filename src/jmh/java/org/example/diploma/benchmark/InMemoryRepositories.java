@@ -0,0 +1,55 @@
+package org.example.diploma.benchmark;
+
+import java.lang.reflect.Proxy;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+// InMemoryRepositories - репозитории Spring Data над синтетическими данными в памяти
+// назначение: сервисы создаются в бенчмарках без Spring и базы; реализуются только методы,
+// которые вызывает измеряемый путь, остальные бросают UnsupportedOperationException
+final class InMemoryRepositories {
+
+    private InMemoryRepositories() {
+    }
+
+    // Builder - реализации методов репозитория по имени метода
+    static final class Builder<T> {
+        private final Class<T> type;
+        private final Map<String, Function<Object[], Object>> methods = new HashMap<>();
+
+        private Builder(Class<T> type) {
+            this.type = type;
+        }
+
+        Builder<T> on(String method, Function<Object[], Object> implementation) {
+            methods.put(method, implementation);
+            return this;
+        }
+
+        T build() {
+            Object proxy = Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (self, method, args) -> {
+                switch (method.getName()) {
+                    case "toString":
+                        return "InMemory" + type.getSimpleName();
+                    case "hashCode":
+                        return System.identityHashCode(self);
+                    case "equals":
+                        return self == args[0];
+                    default:
+                        break;
+                }
+                Function<Object[], Object> implementation = methods.get(method.getName());
+                if (implementation == null) {
+                    throw new UnsupportedOperationException(type.getSimpleName() + "." + method.getName());
+                }
+                return implementation.apply(args);
+            });
+            return type.cast(proxy);
+        }
+    }
+
+    static <T> Builder<T> repository(Class<T> type) {
+        return new Builder<>(type);
+    }
+}
@@ -0,0 +1,87 @@
+package org.example.diploma.benchmark;
+
+import org.example.diploma.dto.ModuleExerciseProgressDTO;
+import org.example.diploma.repository.AttemptRepository;
+import org.example.diploma.service.StudentService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+// ModuleProgressBenchmark - StudentService.getModuleProgress над репозиторием попыток в памяти
+// логика:
+//  - rows попыток распределены по STUDENTS студентам и MODULES модулям
+//  - репозиторий читает только попытки студента (как индекс idx_attempts_user_exercise_correct),
+//    поэтому время растет с количеством попыток одного студента, а не всей таблицы
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ModuleProgressBenchmark {
+    private static final int STUDENTS = 100;
+    private static final int MODULES = 20;
+    private static final int EXERCISES_PER_MODULE = 50;
+
+    @Param({"100", "10000", "1000000"})
+    private int rows;
+
+    private StudentService studentService;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        // попытки студента: номер упражнения (модуль * EXERCISES_PER_MODULE + позиция) и правильность
+        List<List<int[]>> attemptsByStudent = new ArrayList<>(STUDENTS);
+        for (int s = 0; s < STUDENTS; s++) {
+            attemptsByStudent.add(new ArrayList<>());
+        }
+        SplittableRandom random = new SplittableRandom(42);
+        for (int i = 0; i < rows; i++) {
+            int exercise = random.nextInt(MODULES * EXERCISES_PER_MODULE);
+            attemptsByStudent.get(i % STUDENTS).add(new int[]{exercise, random.nextInt(3) > 0 ? 1 : 0});
+        }
+
+        AttemptRepository attemptRepository = InMemoryRepositories.repository(AttemptRepository.class)
+                .on("findModuleProgressByStudent", args -> {
+                    List<int[]> attempts = attemptsByStudent.get((int) ((Long) args[0] - 1));
+                    BitSet solved = new BitSet(MODULES * EXERCISES_PER_MODULE);
+                    for (int[] attempt : attempts) {
+                        if (attempt[1] == 1) {
+                            solved.set(attempt[0]);
+                        }
+                    }
+                    List<ModuleExerciseProgressDTO> progress = new ArrayList<>();
+                    for (Object id : (Collection<?>) args[1]) {
+                        int module = (int) ((Long) id - 1);
+                        long count = solved.get(module * EXERCISES_PER_MODULE, (module + 1) * EXERCISES_PER_MODULE)
+                                .cardinality();
+                        progress.add(new ModuleExerciseProgressDTO((Long) id, (long) EXERCISES_PER_MODULE, count));
+                    }
+                    return progress;
+                })
+                .build();
+        studentService = new StudentService(null, attemptRepository, null, null, null, null, null, null);
+    }
+
+    @Benchmark
+    public double moduleProgress() {
+        int i = next++;
+        return studentService.getModuleProgress((long) (i % STUDENTS) + 1, (long) (i % MODULES) + 1);
+    }
+}
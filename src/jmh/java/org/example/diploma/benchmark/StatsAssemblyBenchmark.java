@@ -0,0 +1,91 @@
+package org.example.diploma.benchmark;
+
+import org.example.diploma.dto.GroupStatsReportDTO;
+import org.example.diploma.dto.StudentStatsDTO;
+import org.example.diploma.service.GroupStatsService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+// StatsAssemblyBenchmark - сборка статистики группы из строк сводной таблицы
+// логика:
+//  - groupReport: GroupStatsService.getGroupReport над rows строками (студент, модуль), отдаваемыми
+//    синтетическим JDBC (измеряется свертка строк в итоги, а не база)
+//  - studentRows: создание rows строк StudentStatsDTO, как при чтении student_attempt_stats
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StatsAssemblyBenchmark {
+    private static final int MODULES_PER_STUDENT = 10;
+
+    @Param({"100", "10000", "1000000"})
+    private int rows;
+
+    private GroupStatsService groupStatsService;
+    private String[] studentNames;
+    private LocalDateTime lastActivity;
+
+    @Setup
+    public void setUp() {
+        int students = (rows + MODULES_PER_STUDENT - 1) / MODULES_PER_STUDENT;
+        studentNames = new String[students];
+        for (int s = 0; s < students; s++) {
+            studentNames[s] = "student" + s;
+        }
+        String[] titles = new String[MODULES_PER_STUDENT];
+        for (int m = 0; m < titles.length; m++) {
+            titles[m] = "Module " + m;
+        }
+        lastActivity = LocalDateTime.of(2025, 1, 1, 12, 0);
+        Timestamp time = Timestamp.valueOf(lastActivity);
+
+        groupStatsService = new GroupStatsService(new JdbcTemplate(SyntheticJdbc.dataSource(rows, (row, column) -> {
+            int student = (int) (row / MODULES_PER_STUDENT);
+            int module = (int) (row % MODULES_PER_STUDENT);
+            return switch (column) {
+                case 1 -> (long) student + 1;
+                case 2 -> studentNames[student];
+                case 3 -> 1L;
+                case 4 -> "group";
+                case 5 -> (long) module + 1;
+                case 6 -> titles[module];
+                case 7 -> 20L + row % 7;
+                case 8 -> 10L + row % 5;
+                case 9 -> 80L + row % 11;
+                case 10 -> 20L;
+                case 11 -> time;
+                default -> null;
+            };
+        })));
+    }
+
+    @Benchmark
+    public GroupStatsReportDTO groupReport() {
+        return groupStatsService.getGroupReport(1L);
+    }
+
+    @Benchmark
+    public void studentRows(Blackhole blackhole) {
+        for (int i = 0; i < rows; i++) {
+            blackhole.consume(new StudentStatsDTO((long) i, studentNames[i / MODULES_PER_STUDENT], 1L, "group",
+                    20L + i % 7, 10L + i % 5, lastActivity, (long) MODULES_PER_STUDENT));
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package org.example.diploma.benchmark;
+
+import org.example.diploma.model.Exercise;
+import org.example.diploma.model.Module;
+import org.example.diploma.model.Word;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// SyntheticData - воспроизводимые синтетические слова и упражнения для бенчмарков
+final class SyntheticData {
+
+    private SyntheticData() {
+    }
+
+    static Module module(long id) {
+        Module module = new Module();
+        module.setId(id);
+        module.setTitle("Module " + id);
+        return module;
+    }
+
+    // words - count слов модуля с уникальными идентификаторами, начиная с firstId
+    static List<Word> words(Module module, long firstId, int count) {
+        List<Word> words = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Word word = new Word();
+            word.setId(firstId + i);
+            word.setEnglish("word" + (firstId + i));
+            word.setRussian("слово" + (firstId + i));
+            word.setModule(module);
+            words.add(word);
+        }
+        return words;
+    }
+
+    // exercises - упражнения модуля (правильный ответ - первый вариант) с идентификаторами, начиная с firstId
+    static List<Exercise> exercises(Module module, long firstId, int count) {
+        List<Exercise> exercises = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            long id = firstId + i;
+            Exercise exercise = new Exercise();
+            exercise.setId(id);
+            exercise.setModule(module);
+            exercise.setQuestion("What is the translation of: word" + id + "?");
+            exercise.setCorrectAnswer("слово" + id);
+            exercise.setOption1("слово" + id);
+            exercise.setOption2("слово" + (id + 1));
+            exercise.setOption3("слово" + (id + 2));
+            exercise.setOption4("слово" + (id + 3));
+            exercise.setSourceWordId(id);
+            exercises.add(exercise);
+        }
+        return exercises;
+    }
+}
@@ -0,0 +1,127 @@
+package org.example.diploma.benchmark;
+
+import javax.sql.DataSource;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+
+// SyntheticJdbc - источник данных JDBC, который на любой запрос отдает синтетические строки
+// назначение: сервисы на JdbcTemplate (потоковые отчеты, выгрузка) измеряются без базы;
+// строки вычисляются на лету, поэтому 10^7 строк не занимают память самого источника
+final class SyntheticJdbc {
+
+    // RowSource - значение столбца (с 1, как в JDBC) строки row; null - NULL в базе
+    @FunctionalInterface
+    interface RowSource {
+        Object value(long row, int column);
+    }
+
+    private SyntheticJdbc() {
+    }
+
+    // dataSource - источник, каждый запрос которого возвращает rows строк из source
+    // примечание: SQL и параметры запроса игнорируются
+    static DataSource dataSource(long rows, RowSource source) {
+        Connection connection = proxy(Connection.class, (method, args) -> {
+            if (method.getName().equals("prepareStatement")) {
+                return statement(rows, source);
+            }
+            return null;
+        });
+        return proxy(DataSource.class, (method, args) ->
+                method.getName().equals("getConnection") ? connection : null);
+    }
+
+    private static PreparedStatement statement(long rows, RowSource source) {
+        return proxy(PreparedStatement.class, (method, args) ->
+                method.getName().equals("executeQuery") ? resultSet(rows, source) : null);
+    }
+
+    private static ResultSet resultSet(long rows, RowSource source) {
+        long[] row = {-1};
+        boolean[] wasNull = {false};
+        return proxy(ResultSet.class, (method, args) -> {
+            switch (method.getName()) {
+                case "next":
+                    return ++row[0] < rows;
+                case "wasNull":
+                    return wasNull[0];
+                case "getLong":
+                case "getInt":
+                case "getString":
+                case "getBoolean":
+                case "getTimestamp":
+                case "getObject":
+                    Object value = source.value(row[0], (Integer) args[0]);
+                    wasNull[0] = value == null;
+                    return convert(value, method.getReturnType());
+                default:
+                    return null;
+            }
+        });
+    }
+
+    private static Object convert(Object value, Class<?> type) {
+        if (type == long.class) {
+            return value == null ? 0L : ((Number) value).longValue();
+        }
+        if (type == int.class) {
+            return value == null ? 0 : ((Number) value).intValue();
+        }
+        if (type == boolean.class) {
+            return value != null && (Boolean) value;
+        }
+        return value;
+    }
+
+    @FunctionalInterface
+    private interface Handler {
+        Object invoke(Method method, Object[] args);
+    }
+
+    // proxy - реализация интерфейса JDBC: нереализованные методы возвращают null или нули
+    private static <T> T proxy(Class<T> type, Handler handler) {
+        Object proxy = Proxy.newProxyInstance(SyntheticJdbc.class.getClassLoader(), new Class<?>[]{type},
+                (self, method, args) -> {
+                    if (method.getName().equals("unwrap") || method.getName().equals("isWrapperFor")) {
+                        return method.getReturnType() == boolean.class ? false : null;
+                    }
+                    Object result = handler.invoke(method, args);
+                    if (result == null && method.getReturnType().isPrimitive()) {
+                        return defaultValue(method.getReturnType());
+                    }
+                    return result;
+                });
+        return type.cast(proxy);
+    }
+
+    private static Object defaultValue(Class<?> type) {
+        if (type == boolean.class) {
+            return false;
+        }
+        if (type == void.class) {
+            return null;
+        }
+        if (type == long.class) {
+            return 0L;
+        }
+        if (type == double.class) {
+            return 0.0;
+        }
+        if (type == float.class) {
+            return 0.0f;
+        }
+        if (type == short.class) {
+            return (short) 0;
+        }
+        if (type == byte.class) {
+            return (byte) 0;
+        }
+        if (type == char.class) {
+            return (char) 0;
+        }
+        return 0;
+    }
+}
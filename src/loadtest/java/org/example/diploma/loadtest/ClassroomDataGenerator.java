@@ -0,0 +1,274 @@
+package org.example.diploma.loadtest;
+
+import org.example.diploma.model.Exercise;
+import org.example.diploma.model.Module;
+import org.example.diploma.model.Word;
+import org.example.diploma.service.MultipleChoiceGenerator;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.sql.Connection;
+import java.sql.Timestamp;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+
+// ClassroomDataGenerator - синтетический набор данных класса: преподаватели, группы, студенты, модули
+// со словами и упражнениями и история попыток
+// логика:
+//  - все таблицы заполняются пакетными INSERT через JDBC с явными идентификаторами (после MAX(id)),
+//    поэтому генератор можно запускать и на пустой, и на рабочей базе
+//  - упражнения создаются тем же MultipleChoiceGenerator, что и в приложении
+//  - попытки идут сессиями: активность студентов неравномерна (логнормальная), сессии чаще в будни
+//    в учебные часы и вечером, время ответа логнормальное (медиана около 7 секунд), у части попыток
+//    времени нет (как у записанных до измерения времени сервером)
+//  - сводные таблицы статистики не заполняются: после генерации нужен AttemptStatsRollupService.rebuild()
+public class ClassroomDataGenerator {
+    public static final String PASSWORD = "loadtest";
+
+    private static final int BATCH_SIZE = 1000;
+    private static final String INSERT_ATTEMPT_SQL =
+            "INSERT INTO attempts (id, user_id, exercise_id, selected_answer, is_correct, attempt_time, time_spent_seconds) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final LoadTestConfig config;
+    private final SplittableRandom random;
+
+    public ClassroomDataGenerator(JdbcTemplate jdbcTemplate, LoadTestConfig config) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.config = config;
+        this.random = new SplittableRandom(config.seed);
+    }
+
+    // generate - создание набора данных
+    // выход: ClassroomDataset с учетными записями для виртуальных пользователей (пароль PASSWORD)
+    public ClassroomDataset generate() {
+        ClassroomDataset dataset = new ClassroomDataset();
+        String password = new BCryptPasswordEncoder().encode(PASSWORD);
+        long userId = nextId("users");
+        long groupId = nextId("study_groups");
+        long moduleId = nextId("modules");
+        long wordId = nextId("words");
+        long exerciseId = nextId("exercises");
+
+        List<Object[]> users = new ArrayList<>();
+        List<Object[]> groups = new ArrayList<>();
+        List<Object[]> modules = new ArrayList<>();
+        List<Object[]> groupModules = new ArrayList<>();
+        List<Object[]> words = new ArrayList<>();
+        List<Object[]> exercises = new ArrayList<>();
+        List<ModuleExercises> moduleExercises = new ArrayList<>();
+        List<StudentProfile> profiles = new ArrayList<>();
+        MultipleChoiceGenerator generator = new MultipleChoiceGenerator(random.split());
+
+        for (int t = 0; t < config.teachers; t++) {
+            long teacherId = userId++;
+            ClassroomDataset.Teacher teacher = new ClassroomDataset.Teacher(teacherId, "teacher-" + teacherId);
+            users.add(new Object[]{teacherId, teacher.username, password, "TEACHER", null});
+            dataset.teachers.add(teacher);
+
+            List<Long> teacherModules = new ArrayList<>();
+            for (int m = 0; m < config.modulesPerTeacher; m++) {
+                Module module = new Module();
+                module.setId(moduleId++);
+                module.setTitle("Module " + module.getId());
+                modules.add(new Object[]{module.getId(), module.getTitle(), "Synthetic module", teacherId});
+                teacherModules.add(module.getId());
+
+                List<Word> moduleWords = new ArrayList<>(config.wordsPerModule);
+                for (int w = 0; w < config.wordsPerModule; w++) {
+                    Word word = new Word();
+                    word.setId(wordId++);
+                    word.setEnglish("word" + word.getId());
+                    word.setRussian("слово" + word.getId());
+                    moduleWords.add(word);
+                    words.add(new Object[]{word.getId(), word.getEnglish(), word.getRussian(), module.getId()});
+                }
+
+                ModuleExercises generated = new ModuleExercises(config.wordsPerModule);
+                List<Exercise> moduleExerciseList = generator.generate(module, moduleWords);
+                for (int e = 0; e < moduleExerciseList.size(); e++) {
+                    Exercise exercise = moduleExerciseList.get(e);
+                    long id = exerciseId++;
+                    exercises.add(new Object[]{id, exercise.getQuestion(), exercise.getCorrectAnswer(),
+                            exercise.getOption1(), exercise.getOption2(), exercise.getOption3(), exercise.getOption4(),
+                            module.getId(), exercise.getSourceWordId(), exercise.getDistractorWordIds()});
+                    generated.ids[e] = id;
+                    generated.correct[e] = exercise.getCorrectAnswer();
+                    generated.options[e] = new String[]{exercise.getOption1(), exercise.getOption2(),
+                            exercise.getOption3(), exercise.getOption4()};
+                }
+                moduleExercises.add(generated);
+            }
+
+            for (int g = 0; g < config.groupsPerTeacher; g++) {
+                long id = groupId++;
+                groups.add(new Object[]{id, "Group " + id, "Synthetic group", teacherId});
+                teacher.groupIds.add(id);
+                teacherModules.forEach(module -> groupModules.add(new Object[]{id, module}));
+
+                for (int s = 0; s < config.studentsPerGroup; s++) {
+                    long studentId = userId++;
+                    ClassroomDataset.Student student = new ClassroomDataset.Student(studentId, "student-" + studentId,
+                            id, List.copyOf(teacherModules));
+                    users.add(new Object[]{studentId, student.username, password, "STUDENT", id});
+                    dataset.students.add(student);
+                    profiles.add(new StudentProfile(student,
+                            List.copyOf(moduleExercises.subList(moduleExercises.size() - teacherModules.size(), moduleExercises.size())),
+                            Math.exp(random.nextGaussian()), 0.45 + random.nextDouble() * 0.5));
+                }
+            }
+        }
+
+        // преподаватели вставляются раньше групп (study_groups.teacher_id), студенты - после (users.group_id)
+        List<Object[]> teachers = users.stream().filter(row -> row[4] == null).toList();
+        List<Object[]> students = users.stream().filter(row -> row[4] != null).toList();
+        batch("INSERT INTO users (id, username, password, role, group_id) VALUES (?, ?, ?, ?, ?)", teachers);
+        batch("INSERT INTO study_groups (id, name, description, teacher_id) VALUES (?, ?, ?, ?)", groups);
+        batch("INSERT INTO users (id, username, password, role, group_id) VALUES (?, ?, ?, ?, ?)", students);
+        batch("INSERT INTO modules (id, title, description, user_id) VALUES (?, ?, ?, ?)", modules);
+        batch("INSERT INTO group_modules (group_id, module_id) VALUES (?, ?)", groupModules);
+        batch("INSERT INTO words (id, english, russian, module_id) VALUES (?, ?, ?, ?)", words);
+        batch("INSERT INTO exercises (id, question, correct_answer, option1, option2, option3, option4, module_id, " +
+                "source_word_id, distractor_word_ids) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)", exercises);
+        System.out.printf("generated %d users, %d groups, %d modules, %d words, %d exercises%n",
+                users.size(), groups.size(), modules.size(), words.size(), exercises.size());
+
+        if (!profiles.isEmpty()) {
+            generateAttempts(profiles);
+        }
+        restartIdentities();
+        return dataset;
+    }
+
+    // generateAttempts - история попыток сессиями по 5-30 ответов
+    private void generateAttempts(List<StudentProfile> profiles) {
+        double[] cumulative = new double[profiles.size()];
+        double sum = 0;
+        for (int i = 0; i < profiles.size(); i++) {
+            sum += profiles.get(i).activity;
+            cumulative[i] = sum;
+        }
+
+        LocalDate today = LocalDate.now();
+        long attemptId = nextId("attempts");
+        long written = 0;
+        long reportEvery = Math.max(1, config.attempts / 10);
+        List<Object[]> rows = new ArrayList<>(BATCH_SIZE);
+        while (written < config.attempts) {
+            StudentProfile student = profiles.get(pick(cumulative, random.nextDouble() * sum));
+            ModuleExercises module = student.modules.get(random.nextInt(student.modules.size()));
+            LocalDateTime time = sessionStart(today);
+            int length = 5 + random.nextInt(26);
+            int position = random.nextInt(module.ids.length);
+
+            for (int k = 0; k < length && written < config.attempts; k++, written++) {
+                int e = (position + k) % module.ids.length;
+                Integer timeSpent = random.nextInt(50) == 0 ? null
+                        : (int) Math.max(1, Math.min(600, Math.round(Math.exp(Math.log(7) + 0.7 * random.nextGaussian()))));
+                // навык растет к концу сессии
+                boolean correct = random.nextDouble() < Math.min(0.98, student.skill + 0.01 * k);
+                String selected = correct ? module.correct[e] : wrongOption(module, e);
+
+                rows.add(new Object[]{attemptId++, student.student.id, module.ids[e], selected, correct,
+                        Timestamp.valueOf(time), timeSpent});
+                time = time.plusSeconds((timeSpent == null ? 7 : timeSpent) + 1 + random.nextInt(4));
+                if (rows.size() == BATCH_SIZE) {
+                    jdbcTemplate.batchUpdate(INSERT_ATTEMPT_SQL, rows);
+                    rows.clear();
+                }
+                if ((written + 1) % reportEvery == 0) {
+                    System.out.printf("generated %d / %d attempts%n", written + 1, config.attempts);
+                }
+            }
+        }
+        if (!rows.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_ATTEMPT_SQL, rows);
+        }
+    }
+
+    // sessionStart - начало сессии: будни в 3 раза чаще выходных, 60% сессий в учебные часы, 40% вечером
+    private LocalDateTime sessionStart(LocalDate today) {
+        LocalDate day;
+        do {
+            day = today.minusDays(1 + random.nextInt(config.historyDays));
+        } while ((day.getDayOfWeek() == DayOfWeek.SATURDAY || day.getDayOfWeek() == DayOfWeek.SUNDAY)
+                && random.nextInt(3) != 0);
+        double hour = random.nextDouble() < 0.6 ? 11.5 + 2.0 * random.nextGaussian() : 20 + 1.5 * random.nextGaussian();
+        long seconds = (long) (Math.max(0, Math.min(23.5, hour)) * 3600);
+        return day.atStartOfDay().plusSeconds(seconds);
+    }
+
+    private String wrongOption(ModuleExercises module, int e) {
+        String[] options = module.options[e];
+        for (int attempt = 0; attempt < options.length; attempt++) {
+            String option = options[random.nextInt(options.length)];
+            if (!option.equals(module.correct[e])) {
+                return option;
+            }
+        }
+        return options[0].equals(module.correct[e]) ? options[1] : options[0];
+    }
+
+    private static int pick(double[] cumulative, double value) {
+        int index = Arrays.binarySearch(cumulative, value);
+        return Math.min(index >= 0 ? index : -index - 1, cumulative.length - 1);
+    }
+
+    private void batch(String sql, List<Object[]> rows) {
+        for (int from = 0; from < rows.size(); from += BATCH_SIZE) {
+            jdbcTemplate.batchUpdate(sql, rows.subList(from, Math.min(from + BATCH_SIZE, rows.size())));
+        }
+    }
+
+    private long nextId(String table) {
+        Long max = jdbcTemplate.queryForObject("SELECT MAX(id) FROM " + table, Long.class);
+        return max == null ? 1 : max + 1;
+    }
+
+    // restartIdentities - H2 не сдвигает AUTO_INCREMENT после вставки явных идентификаторов (MySQL сдвигает сам)
+    private void restartIdentities() {
+        String product = jdbcTemplate.execute((Connection connection) ->
+                connection.getMetaData().getDatabaseProductName());
+        if (!"H2".equals(product)) {
+            return;
+        }
+        for (String table : List.of("users", "study_groups", "modules", "words", "exercises", "attempts")) {
+            jdbcTemplate.execute("ALTER TABLE " + table + " ALTER COLUMN id RESTART WITH " + nextId(table));
+        }
+    }
+
+    // ModuleExercises - упражнения модуля для генерации ответов
+    private static final class ModuleExercises {
+        private final long[] ids;
+        private final String[] correct;
+        private final String[][] options;
+
+        private ModuleExercises(int size) {
+            this.ids = new long[size];
+            this.correct = new String[size];
+            this.options = new String[size][];
+        }
+    }
+
+    // StudentProfile - модули студента, относительная активность и вероятность правильного ответа
+    private static final class StudentProfile {
+        private final ClassroomDataset.Student student;
+        private final List<ModuleExercises> modules;
+        private final double activity;
+        private final double skill;
+
+        private StudentProfile(ClassroomDataset.Student student, List<ModuleExercises> modules,
+                               double activity, double skill) {
+            this.student = student;
+            this.modules = modules;
+            this.activity = activity;
+            this.skill = skill;
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package org.example.diploma.loadtest;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// ClassroomDataset - учетные записи и идентификаторы созданного набора данных (для виртуальных пользователей)
+public class ClassroomDataset {
+    final List<Teacher> teachers = new ArrayList<>();
+    final List<Student> students = new ArrayList<>();
+
+    static class Teacher {
+        final long id;
+        final String username;
+        final List<Long> groupIds = new ArrayList<>();
+
+        Teacher(long id, String username) {
+            this.id = id;
+            this.username = username;
+        }
+    }
+
+    static class Student {
+        final long id;
+        final String username;
+        final long groupId;
+        final List<Long> moduleIds;
+
+        Student(long id, String username, long groupId, List<Long> moduleIds) {
+            this.id = id;
+            this.username = username;
+            this.groupId = groupId;
+            this.moduleIds = moduleIds;
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package org.example.diploma.loadtest;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+// LatencyRecorder - задержки запросов по эндпоинтам
+// логика:
+//  - эндпоинт - шаблон URL без идентификаторов (например, GET /student/modules/{id}/practice)
+//  - запросы, начатые до окончания разогрева, не учитываются
+//  - ошибка - статус 4xx/5xx или исключение клиента (таймаут, разрыв соединения)
+public class LatencyRecorder {
+    private final Map<String, Endpoint> endpoints = new TreeMap<>();
+    private final long measureFromNanos;
+    private long measureToNanos;
+
+    // Конструктор LatencyRecorder
+    // вход: measureFromNanos - момент окончания разогрева (System.nanoTime())
+    public LatencyRecorder(long measureFromNanos) {
+        this.measureFromNanos = measureFromNanos;
+    }
+
+    // record - учет одного запроса
+    // вход:
+    //   - endpoint - шаблон эндпоинта
+    //   - startNanos - начало запроса
+    //   - endNanos - окончание запроса
+    //   - error - запрос завершился ошибкой
+    public void record(String endpoint, long startNanos, long endNanos, boolean error) {
+        if (startNanos < measureFromNanos) {
+            return;
+        }
+        synchronized (this) {
+            endpoints.computeIfAbsent(endpoint, name -> new Endpoint()).add(endNanos - startNanos, error);
+        }
+    }
+
+    // finish - фиксирует конец измерения (для расчета пропускной способности)
+    public synchronized void finish(long endNanos) {
+        measureToNanos = endNanos;
+    }
+
+    // summary - итоги по эндпоинтам и общий итог (ключ "total")
+    // выход: для каждого эндпоинта count, errors, throughput (запросов в секунду), p50/p95/p99/max (мс)
+    public synchronized Map<String, Map<String, Object>> summary() {
+        double seconds = Math.max(1e-9, (measureToNanos - measureFromNanos) / 1e9);
+        Map<String, Map<String, Object>> result = new LinkedHashMap<>();
+        Endpoint total = new Endpoint();
+        endpoints.forEach((name, endpoint) -> {
+            result.put(name, endpoint.summary(seconds));
+            total.addAll(endpoint);
+        });
+        result.put("total", total.summary(seconds));
+        return result;
+    }
+
+    // print - таблица итогов в stdout
+    public void print() {
+        System.out.printf("%-52s %8s %7s %9s %9s %9s %9s %9s%n",
+                "endpoint", "count", "errors", "req/s", "p50 ms", "p95 ms", "p99 ms", "max ms");
+        summary().forEach((name, row) -> System.out.printf("%-52s %8d %7d %9.1f %9.1f %9.1f %9.1f %9.1f%n",
+                name, row.get("count"), row.get("errors"), row.get("throughput"),
+                row.get("p50"), row.get("p95"), row.get("p99"), row.get("max")));
+    }
+
+    // Endpoint - задержки одного эндпоинта в наносекундах
+    private static final class Endpoint {
+        private long[] latencies = new long[1024];
+        private int count;
+        private int errors;
+
+        private void add(long latency, boolean error) {
+            if (count == latencies.length) {
+                latencies = Arrays.copyOf(latencies, count * 2);
+            }
+            latencies[count++] = latency;
+            if (error) {
+                errors++;
+            }
+        }
+
+        private void addAll(Endpoint other) {
+            for (int i = 0; i < other.count; i++) {
+                add(other.latencies[i], false);
+            }
+            errors += other.errors;
+        }
+
+        private Map<String, Object> summary(double seconds) {
+            long[] sorted = Arrays.copyOf(latencies, count);
+            Arrays.sort(sorted);
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("count", count);
+            row.put("errors", errors);
+            row.put("throughput", count / seconds);
+            row.put("p50", percentile(sorted, 0.50));
+            row.put("p95", percentile(sorted, 0.95));
+            row.put("p99", percentile(sorted, 0.99));
+            row.put("max", sorted.length == 0 ? 0.0 : sorted[sorted.length - 1] / 1e6);
+            return row;
+        }
+
+        // percentile - ближайший ранг, мс
+        private static double percentile(long[] sorted, double quantile) {
+            if (sorted.length == 0) {
+                return 0.0;
+            }
+            int rank = (int) Math.ceil(quantile * sorted.length) - 1;
+            return sorted[Math.max(0, rank)] / 1e6;
+        }
+    }
+}
@@ -0,0 +1,404 @@
+package org.example.diploma.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.example.diploma.DiplomaApplication;
+import org.example.diploma.service.AttemptStatsRollupService;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.io.File;
+import java.net.CookieManager;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// LoadTest - нагрузочный тест: синтетический набор данных и виртуальные студенты и преподаватели
+// логика:
+//  - без loadtest.base-url приложение запускается в этом же процессе на случайном порту со встроенной
+//    H2 (схема - миграции Flyway), иначе нагружается внешний экземпляр, а данные пишутся по loadtest.jdbc-url
+//  - студенты входят в систему и решают упражнения: практика со страницами (GET вопроса, POST ответа)
+//    и практика через JSON API (пакет вопросов, пакет ответов), иногда открывают кабинет и результаты
+//  - преподаватели открывают статистику группы, результаты и детальную статистику студентов
+//  - каждый виртуальный пользователь - отдельный поток со своей сессией (cookie) и своим seed,
+//    между действиями - пауза с экспоненциальным распределением (среднее loadtest.think-ms)
+//  - итоги (p50/p95/p99, пропускная способность, ошибки по эндпоинтам) печатаются и пишутся в loadtest.report
+public final class LoadTest {
+    private static final ObjectMapper JSON = new ObjectMapper();
+    private static final Pattern CSRF_INPUT = Pattern.compile("name=\"_csrf\"\\s+value=\"([^\"]+)\"");
+    private static final Pattern CSRF_META = Pattern.compile("name=\"_csrf\"\\s+content=\"([^\"]+)\"");
+    private static final Pattern CSRF_HEADER_META = Pattern.compile("name=\"_csrf_header\"\\s+content=\"([^\"]+)\"");
+    private static final Pattern SUBMIT_ACTION = Pattern.compile("action=\"/student/exercises/(\\d+)/submit\"");
+    private static final Pattern ANSWER_OPTION = Pattern.compile("name=\"selectedAnswer\"\\s+value=\"([^\"]*)\"");
+
+    private LoadTest() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadTestConfig config = new LoadTestConfig();
+        System.out.println(config);
+
+        ConfigurableApplicationContext context = null;
+        String baseUrl;
+        JdbcTemplate jdbcTemplate;
+        AttemptStatsRollupService rollupService;
+        if (config.baseUrl.isEmpty()) {
+            System.setProperty("spring.devtools.restart.enabled", "false");
+            context = SpringApplication.run(DiplomaApplication.class, embeddedArguments(config));
+            baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+            jdbcTemplate = context.getBean(JdbcTemplate.class);
+            rollupService = context.getBean(AttemptStatsRollupService.class);
+        } else {
+            if (config.jdbcUrl.isEmpty()) {
+                throw new IllegalStateException("loadtest.jdbc-url is required together with loadtest.base-url");
+            }
+            DriverManagerDataSource dataSource = new DriverManagerDataSource(config.jdbcUrl, config.jdbcUser, config.jdbcPassword);
+            baseUrl = config.baseUrl.replaceAll("/+$", "");
+            jdbcTemplate = new JdbcTemplate(dataSource);
+            rollupService = new AttemptStatsRollupService(jdbcTemplate, new DataSourceTransactionManager(dataSource), false, false);
+        }
+
+        try {
+            long generationStart = System.nanoTime();
+            ClassroomDataset dataset = new ClassroomDataGenerator(jdbcTemplate, config).generate();
+            rollupService.rebuild();
+            double generationSeconds = (System.nanoTime() - generationStart) / 1e9;
+            System.out.printf("dataset ready in %.1f s, load against %s%n", generationSeconds, baseUrl);
+
+            LatencyRecorder recorder = run(config, dataset, baseUrl);
+            recorder.print();
+            writeReport(config, generationSeconds, recorder);
+        } finally {
+            if (context != null) {
+                context.close();
+            }
+        }
+    }
+
+    // embeddedArguments - параметры встроенного приложения: H2 в режиме MySQL, схема из миграций Flyway,
+    // настройки как в рабочем профиле (асинхронная запись попыток, кэш шаблонов, без SQL в логе)
+    private static String[] embeddedArguments(LoadTestConfig config) {
+        return new String[]{
+                "--server.port=0",
+                "--spring.datasource.url=jdbc:h2:mem:loadtest;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+                "--spring.datasource.username=sa",
+                "--spring.datasource.password=",
+                "--spring.datasource.hikari.maximum-pool-size=" + config.poolSize,
+                "--spring.flyway.enabled=true",
+                "--spring.flyway.locations=classpath:db/migration/common",
+                "--spring.jpa.hibernate.ddl-auto=none",
+                "--spring.jpa.show-sql=false",
+                "--spring.jpa.properties.hibernate.generate_statistics=false",
+                "--app.attempts.ingestion.mode=async",
+                "--app.attempts.archive.cron=-",
+                "--app.export.fetch-size=1000",
+                "--app.stats.live.window-ms=1000",
+                "--app.query-budget.strict=false",
+                "--spring.thymeleaf.cache=true",
+                "--management.endpoints.web.exposure.include=health,prometheus",
+                "--logging.level.root=WARN",
+                "--logging.level.org.example.diploma=WARN",
+                "--logging.level.org.springframework.web=WARN",
+                "--logging.level.org.hibernate=WARN",
+                "--logging.level.org.thymeleaf=WARN"
+        };
+    }
+
+    // run - разогрев и измерение: все виртуальные пользователи работают до конца измерения
+    private static LatencyRecorder run(LoadTestConfig config, ClassroomDataset dataset, String baseUrl)
+            throws InterruptedException {
+        long start = System.nanoTime();
+        long measureFrom = start + Duration.ofSeconds(config.warmupSeconds).toNanos();
+        long deadline = measureFrom + Duration.ofSeconds(config.durationSeconds).toNanos();
+        LatencyRecorder recorder = new LatencyRecorder(measureFrom);
+
+        Map<Long, List<Long>> studentsByGroup = new LinkedHashMap<>();
+        dataset.students.forEach(student ->
+                studentsByGroup.computeIfAbsent(student.groupId, group -> new ArrayList<>()).add(student.id));
+
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < config.studentUsers && !dataset.students.isEmpty(); i++) {
+            ClassroomDataset.Student student = dataset.students.get(i % dataset.students.size());
+            VirtualUser user = new StudentUser(baseUrl, recorder, config, deadline, config.seed + i, student);
+            threads.add(new Thread(user, "student-" + i));
+        }
+        for (int i = 0; i < config.teacherUsers && !dataset.teachers.isEmpty(); i++) {
+            ClassroomDataset.Teacher teacher = dataset.teachers.get(i % dataset.teachers.size());
+            VirtualUser user = new TeacherUser(baseUrl, recorder, config, deadline, config.seed + 10_000 + i,
+                    teacher, studentsByGroup);
+            threads.add(new Thread(user, "teacher-" + i));
+        }
+        threads.forEach(Thread::start);
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        recorder.finish(Math.min(System.nanoTime(), deadline));
+        return recorder;
+    }
+
+    private static void writeReport(LoadTestConfig config, double generationSeconds, LatencyRecorder recorder)
+            throws java.io.IOException {
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("config", config.toString());
+        report.put("generationSeconds", generationSeconds);
+        report.put("warmupSeconds", config.warmupSeconds);
+        report.put("durationSeconds", config.durationSeconds);
+        report.put("endpoints", recorder.summary());
+        File file = new File(config.report);
+        if (file.getParentFile() != null) {
+            file.getParentFile().mkdirs();
+        }
+        JSON.writerWithDefaultPrettyPrinter().writeValue(file, report);
+        System.out.println("report: " + file.getAbsolutePath());
+    }
+
+    // VirtualUser - пользователь со своей HTTP-сессией; запросы учитываются в LatencyRecorder
+    private abstract static class VirtualUser implements Runnable {
+        protected final SplittableRandom random;
+        private final String baseUrl;
+        private final LatencyRecorder recorder;
+        private final LoadTestConfig config;
+        private final long deadline;
+        private final HttpClient client;
+
+        VirtualUser(String baseUrl, LatencyRecorder recorder, LoadTestConfig config, long deadline, long seed) {
+            this.baseUrl = baseUrl;
+            this.recorder = recorder;
+            this.config = config;
+            this.deadline = deadline;
+            this.random = new SplittableRandom(seed);
+            this.client = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .cookieHandler(new CookieManager())
+                    .followRedirects(HttpClient.Redirect.NEVER)
+                    .connectTimeout(Duration.ofSeconds(10))
+                    .build();
+        }
+
+        abstract String username();
+
+        // iteration - один сценарий пользователя (сессия практики, просмотр статистики)
+        abstract void iteration() throws Exception;
+
+        @Override
+        public void run() {
+            try {
+                login();
+                while (running()) {
+                    iteration();
+                }
+            } catch (Exception e) {
+                System.err.println(Thread.currentThread().getName() + " stopped: " + e);
+            }
+        }
+
+        boolean running() {
+            return System.nanoTime() < deadline;
+        }
+
+        private void login() throws Exception {
+            String csrf = find(CSRF_INPUT, get("GET /login", "/login").body());
+            HttpResponse<String> response = postForm("POST /login", "/login",
+                    Map.of("username", username(), "password", ClassroomDataGenerator.PASSWORD, "_csrf", csrf));
+            String location = response.headers().firstValue("Location").orElse("");
+            if (response.statusCode() != 302 || location.contains("error")) {
+                throw new IllegalStateException("login failed for " + username() + ": " + response.statusCode() + " " + location);
+            }
+        }
+
+        void think() throws InterruptedException {
+            long pause = Math.round(-config.thinkMs * Math.log(1 - random.nextDouble()));
+            Thread.sleep(Math.min(pause, Math.max(0, (deadline - System.nanoTime()) / 1_000_000)));
+        }
+
+        HttpResponse<String> get(String endpoint, String path) throws Exception {
+            return send(endpoint, HttpRequest.newBuilder(URI.create(baseUrl + path)).GET());
+        }
+
+        HttpResponse<String> postForm(String endpoint, String path, Map<String, String> form) throws Exception {
+            StringBuilder body = new StringBuilder();
+            form.forEach((name, value) -> body.append(body.isEmpty() ? "" : "&")
+                    .append(URLEncoder.encode(name, StandardCharsets.UTF_8)).append('=')
+                    .append(URLEncoder.encode(value, StandardCharsets.UTF_8)));
+            return send(endpoint, HttpRequest.newBuilder(URI.create(baseUrl + path))
+                    .header("Content-Type", "application/x-www-form-urlencoded")
+                    .POST(HttpRequest.BodyPublishers.ofString(body.toString())));
+        }
+
+        HttpResponse<String> postJson(String endpoint, String path, Object body, String csrfHeader, String csrf)
+                throws Exception {
+            return send(endpoint, HttpRequest.newBuilder(URI.create(baseUrl + path))
+                    .header("Content-Type", "application/json")
+                    .header(csrfHeader, csrf)
+                    .POST(HttpRequest.BodyPublishers.ofString(JSON.writeValueAsString(body))));
+        }
+
+        // send - запрос с учетом задержки; ошибка - статус 4xx/5xx или перенаправление на вход (сессия потеряна)
+        private HttpResponse<String> send(String endpoint, HttpRequest.Builder request) throws Exception {
+            long start = System.nanoTime();
+            try {
+                HttpResponse<String> response = client.send(request.timeout(Duration.ofSeconds(30)).build(),
+                        HttpResponse.BodyHandlers.ofString());
+                boolean toLogin = response.statusCode() == 302 && !endpoint.equals("POST /login")
+                        && response.headers().firstValue("Location").orElse("").contains("/login");
+                recorder.record(endpoint, start, System.nanoTime(), response.statusCode() >= 400 || toLogin);
+                return response;
+            } catch (Exception e) {
+                recorder.record(endpoint, start, System.nanoTime(), true);
+                throw e;
+            }
+        }
+
+        static String find(Pattern pattern, String html) {
+            Matcher matcher = pattern.matcher(html);
+            if (!matcher.find()) {
+                throw new IllegalStateException("no match for " + pattern.pattern());
+            }
+            return unescape(matcher.group(1));
+        }
+
+        static List<String> findAll(Pattern pattern, String html) {
+            List<String> values = new ArrayList<>();
+            Matcher matcher = pattern.matcher(html);
+            while (matcher.find()) {
+                values.add(unescape(matcher.group(1)));
+            }
+            return values;
+        }
+
+        private static String unescape(String value) {
+            return value.replace("&quot;", "\"").replace("&#39;", "'").replace("&lt;", "<")
+                    .replace("&gt;", ">").replace("&amp;", "&");
+        }
+    }
+
+    // StudentUser - студент: 70% сессий - практика со страницами, 30% - через JSON API
+    private static final class StudentUser extends VirtualUser {
+        private final ClassroomDataset.Student student;
+
+        StudentUser(String baseUrl, LatencyRecorder recorder, LoadTestConfig config, long deadline, long seed,
+                    ClassroomDataset.Student student) {
+            super(baseUrl, recorder, config, deadline, seed);
+            this.student = student;
+        }
+
+        @Override
+        String username() {
+            return student.username;
+        }
+
+        @Override
+        void iteration() throws Exception {
+            long moduleId = student.moduleIds.get(random.nextInt(student.moduleIds.size()));
+            if (random.nextInt(10) < 7) {
+                pagePractice(moduleId, 5 + random.nextInt(11));
+            } else {
+                apiPractice(moduleId);
+            }
+            if (random.nextInt(5) == 0) {
+                think();
+                get("GET /student/dashboard", "/student/dashboard");
+            }
+            if (random.nextInt(5) == 0) {
+                think();
+                get("GET /student/results", "/student/results");
+            }
+            think();
+        }
+
+        // pagePractice - answers ответов на странице практики; практика начинается заново (exerciseIndex=0)
+        private void pagePractice(long moduleId, int answers) throws Exception {
+            String path = "/student/modules/" + moduleId + "/practice";
+            HttpResponse<String> page = get("GET /student/modules/{id}/practice", path + "?exerciseIndex=0");
+            for (int i = 0; i < answers && running() && page.statusCode() == 200; i++) {
+                String html = page.body();
+                String exerciseId = find(SUBMIT_ACTION, html);
+                List<String> options = findAll(ANSWER_OPTION, html);
+                think();
+                postForm("POST /student/exercises/{id}/submit", "/student/exercises/" + exerciseId + "/submit",
+                        Map.of("selectedAnswer", options.get(random.nextInt(options.size())),
+                                "_csrf", find(CSRF_INPUT, html)));
+                page = get("GET /student/modules/{id}/practice", path);
+            }
+        }
+
+        // apiPractice - страница практики без перезагрузок, один пакет вопросов и один пакет ответов
+        private void apiPractice(long moduleId) throws Exception {
+            String html = get("GET /student/modules/{id}/practice/session",
+                    "/student/modules/" + moduleId + "/practice/session").body();
+            String csrf = find(CSRF_META, html);
+            String csrfHeader = find(CSRF_HEADER_META, html);
+            HttpResponse<String> batch = get("GET /student/api/practice/modules/{id}/questions",
+                    "/student/api/practice/modules/" + moduleId + "/questions?offset=0&limit=10");
+            if (batch.statusCode() != 200) {
+                return;
+            }
+            List<Map<String, Object>> answers = new ArrayList<>();
+            for (JsonNode question : JSON.readTree(batch.body()).path("questions")) {
+                JsonNode options = question.path("options");
+                Map<String, Object> answer = new LinkedHashMap<>();
+                answer.put("exerciseId", question.path("id").asLong());
+                answer.put("selectedAnswer", options.get(random.nextInt(options.size())).asText());
+                answers.add(answer);
+                think();
+            }
+            if (!answers.isEmpty() && running()) {
+                postJson("POST /student/api/practice/answers", "/student/api/practice/answers", answers, csrfHeader, csrf);
+            }
+        }
+    }
+
+    // TeacherUser - преподаватель: статистика групп, результаты, детальная статистика студентов
+    private static final class TeacherUser extends VirtualUser {
+        private final ClassroomDataset.Teacher teacher;
+        private final Map<Long, List<Long>> studentsByGroup;
+
+        TeacherUser(String baseUrl, LatencyRecorder recorder, LoadTestConfig config, long deadline, long seed,
+                    ClassroomDataset.Teacher teacher, Map<Long, List<Long>> studentsByGroup) {
+            super(baseUrl, recorder, config, deadline, seed);
+            this.teacher = teacher;
+            this.studentsByGroup = studentsByGroup;
+        }
+
+        @Override
+        String username() {
+            return teacher.username;
+        }
+
+        @Override
+        void iteration() throws Exception {
+            long groupId = teacher.groupIds.get(random.nextInt(teacher.groupIds.size()));
+            get("GET /teacher/groups/{id}/stats", "/teacher/groups/" + groupId + "/stats");
+            think();
+            if (random.nextInt(2) == 0) {
+                get("GET /teacher/results?groupId={id}", "/teacher/results?groupId=" + groupId);
+                think();
+            }
+            List<Long> students = studentsByGroup.getOrDefault(groupId, List.of());
+            if (!students.isEmpty() && random.nextInt(3) == 0) {
+                long studentId = students.get(random.nextInt(students.size()));
+                get("GET /teacher/groups/{id}/students/{id}/stats",
+                        "/teacher/groups/" + groupId + "/students/" + studentId + "/stats");
+                think();
+            }
+            if (random.nextInt(5) == 0) {
+                get("GET /teacher/dashboard", "/teacher/dashboard");
+                think();
+            }
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package org.example.diploma.loadtest;
+
+// LoadTestConfig - параметры набора данных и нагрузки (системные свойства loadtest.*)
+// назначение: одинаковые значения (включая seed) дают один и тот же набор данных и один и тот же
+// порядок действий виртуальных пользователей
+public class LoadTestConfig {
+    // набор данных
+    final int teachers = intProperty("teachers", 2);
+    final int groupsPerTeacher = intProperty("groups-per-teacher", 3);
+    final int studentsPerGroup = intProperty("students-per-group", 25);
+    final int modulesPerTeacher = intProperty("modules-per-teacher", 4);
+    final int wordsPerModule = intProperty("words-per-module", 60);
+    final long attempts = longProperty("attempts", 1_000_000);
+    final int historyDays = intProperty("history-days", 180);
+    final long seed = longProperty("seed", 42);
+
+    // нагрузка
+    final int studentUsers = intProperty("student-users", 40);
+    final int teacherUsers = intProperty("teacher-users", 4);
+    final int warmupSeconds = intProperty("warmup-seconds", 10);
+    final int durationSeconds = intProperty("duration-seconds", 60);
+    final int thinkMs = intProperty("think-ms", 200);
+
+    // пул соединений встроенного приложения (по умолчанию - как у Hikari в приложении); без open-in-view
+    // запрос держит не больше одного соединения одновременно
+    final int poolSize = intProperty("pool-size", 10);
+
+    // внешнее окружение: если baseUrl задан, приложение не запускается, данные пишутся по jdbcUrl
+    final String baseUrl = stringProperty("base-url", "");
+    final String jdbcUrl = stringProperty("jdbc-url", "");
+    final String jdbcUser = stringProperty("jdbc-user", "root");
+    final String jdbcPassword = stringProperty("jdbc-password", "");
+
+    final String report = stringProperty("report", "target/loadtest-report.json");
+
+    @Override
+    public String toString() {
+        return String.format("dataset: %d teachers x %d groups x %d students, %d modules x %d words per teacher, " +
+                        "%d attempts over %d days, seed %d%nload: %d students + %d teachers, warmup %ds, duration %ds, think %dms, pool %d",
+                teachers, groupsPerTeacher, studentsPerGroup, modulesPerTeacher, wordsPerModule, attempts, historyDays,
+                seed, studentUsers, teacherUsers, warmupSeconds, durationSeconds, thinkMs, poolSize);
+    }
+
+    private static String stringProperty(String name, String defaultValue) {
+        String value = System.getProperty("loadtest." + name);
+        return value == null || value.isBlank() ? defaultValue : value.trim();
+    }
+
+    private static int intProperty(String name, int defaultValue) {
+        return Integer.parseInt(stringProperty(name, Integer.toString(defaultValue)));
+    }
+
+    private static long longProperty(String name, long defaultValue) {
+        return Long.parseLong(stringProperty(name, Long.toString(defaultValue)));
+    }
+}
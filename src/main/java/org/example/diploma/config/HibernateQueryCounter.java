@@ -0,0 +1,147 @@
+package org.example.diploma.config;
+
+import org.hibernate.SessionEventListener;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// HibernateQueryCounter - счетчики работы Hibernate в пределах текущего HTTP-запроса (или QueryBudget.Scope)
+// назначение: мост от событий сессий Hibernate к метрикам запроса (QueryMetricsFilter) и проверке бюджета (QueryBudget)
+// логика:
+//  - Hibernate создает экземпляр на каждую сессию (hibernate.session.events.auto), в том числе на временные
+//    сессии ленивой загрузки вне транзакции, поэтому считаются и запросы из шаблонов
+//  - как StatementInspector (hibernate.session_factory.statement_inspector) получает текст каждого SQL:
+//    параметры в нем - "?", поэтому один и тот же текст с разными параметрами - одна строка счетчика
+//  - счетчики хранятся в ThreadLocal и ведутся только между beginRequest() и endRequest() (поток обработки запроса);
+//    сессии фоновых потоков (запись попыток, архивация) не учитываются
+public class HibernateQueryCounter implements SessionEventListener, StatementInspector {
+    private static final ThreadLocal<Counts> CURRENT = new ThreadLocal<>();
+
+    private long executeStartedAt;
+
+    // Конструктор HibernateQueryCounter - вызывается Hibernate при открытии сессии
+    public HibernateQueryCounter() {
+        Counts counts = CURRENT.get();
+        if (counts != null) {
+            counts.sessions++;
+        }
+    }
+
+    // beginRequest - начало учета для текущего потока
+    // логика: вложенный учет (QueryBudget.Scope внутри запроса) считает отдельно, внешний учет продолжается после него
+    public static void beginRequest() {
+        CURRENT.set(new Counts(CURRENT.get()));
+    }
+
+    // endRequest - окончание учета для текущего потока
+    // выход: накопленные счетчики (пустые, если учет не был начат)
+    public static Counts endRequest() {
+        Counts counts = CURRENT.get();
+        if (counts == null) {
+            return new Counts(null);
+        }
+        if (counts.outer != null) {
+            counts.outer.add(counts);
+            CURRENT.set(counts.outer);
+        } else {
+            CURRENT.remove();
+        }
+        return counts;
+    }
+
+    @Override
+    public String inspect(String sql) {
+        Counts counts = CURRENT.get();
+        if (counts != null) {
+            counts.sql.merge(sql, 1, Integer::sum);
+        }
+        return sql;
+    }
+
+    @Override
+    public void jdbcConnectionAcquisitionStart() {
+        Counts counts = CURRENT.get();
+        if (counts != null) {
+            counts.connections++;
+        }
+    }
+
+    @Override
+    public void jdbcPrepareStatementStart() {
+        Counts counts = CURRENT.get();
+        if (counts != null) {
+            counts.statements++;
+        }
+    }
+
+    @Override
+    public void jdbcExecuteStatementStart() {
+        executeStartedAt = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcExecuteStatementEnd() {
+        Counts counts = CURRENT.get();
+        if (counts != null) {
+            counts.executionNanos += System.nanoTime() - executeStartedAt;
+        }
+    }
+
+    // Counts - счетчики одного запроса
+    public static class Counts {
+        private final Counts outer;
+        private final Map<String, Integer> sql = new HashMap<>();
+        private int sessions;
+        private int connections;
+        private int statements;
+        private long executionNanos;
+
+        private Counts(Counts outer) {
+            this.outer = outer;
+        }
+
+        private void add(Counts inner) {
+            inner.sql.forEach((text, count) -> sql.merge(text, count, Integer::sum));
+            sessions += inner.sessions;
+            connections += inner.connections;
+            statements += inner.statements;
+            executionNanos += inner.executionNanos;
+        }
+
+        public int getSessions() {
+            return sessions;
+        }
+
+        public int getConnections() {
+            return connections;
+        }
+
+        public int getStatements() {
+            return statements;
+        }
+
+        public long getExecutionNanos() {
+            return executionNanos;
+        }
+
+        // getSql - выполненные запросы (текст SQL, как его сформировал Hibernate) с числом выполнений
+        public Map<String, Integer> getSql() {
+            return Collections.unmodifiableMap(sql);
+        }
+
+        // getRepeatedSelects - SELECT, выполненные не меньше threshold раз (признак N+1), по убыванию числа выполнений
+        // примечание: повторяющиеся INSERT/UPDATE не учитываются - это пакетная запись без JDBC batch, а не N+1
+        public Map<String, Integer> getRepeatedSelects(int threshold) {
+            Map<String, Integer> repeated = new LinkedHashMap<>();
+            sql.entrySet().stream()
+                    .filter(entry -> entry.getValue() >= threshold)
+                    .filter(entry -> entry.getKey().stripLeading().regionMatches(true, 0, "select", 0, 6))
+                    .sorted(Map.Entry.<String, Integer>comparingByValue().reversed())
+                    .forEach(entry -> repeated.put(entry.getKey(), entry.getValue()));
+            return repeated;
+        }
+    }
+}
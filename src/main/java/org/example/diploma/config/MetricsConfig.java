@@ -0,0 +1,64 @@
+package org.example.diploma.config;
+
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.example.diploma.service.ExerciseCache;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+// MetricsConfig - метрики Micrometer (экспорт в формате Prometheus: /actuator/prometheus на порту management.server.port)
+// логика:
+//  - контроллеры: http.server.requests (Actuator, теги uri/method/status/outcome)
+//  - репозитории: spring.data.repository.invocations (Actuator, теги repository/method/state)
+//  - сервисы с @Timed: app.service (теги class/method/exception)
+//  - Hibernate на запрос: QueryMetricsFilter (и проверка бюджета запросов QueryBudget)
+//  - кэш упражнений: app.exercise.cache.* (счетчики ExerciseCache)
+@Configuration
+public class MetricsConfig {
+
+    // timedAspect - таймеры для классов и методов с @Timed
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry meterRegistry) {
+        return new TimedAspect(meterRegistry);
+    }
+
+    // queryMetricsFilter - фильтр снаружи цепочки Spring Security, чтобы учитывать весь запрос
+    @Bean
+    public FilterRegistrationBean<QueryMetricsFilter> queryMetricsFilter(MeterRegistry meterRegistry,
+                                                                         QueryBudget queryBudget) {
+        FilterRegistrationBean<QueryMetricsFilter> registration =
+                new FilterRegistrationBean<>(new QueryMetricsFilter(meterRegistry, queryBudget));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 1);
+        return registration;
+    }
+
+    // exerciseCacheMetrics - счетчики кэша упражнений: попадания и промахи (тег result), вытеснения, инвалидации, размер
+    // примечание: FunctionCounter читает счетчики кэша при каждом сборе метрик, сам кэш о Micrometer не знает
+    @Bean
+    public MeterBinder exerciseCacheMetrics(ExerciseCache exerciseCache) {
+        return registry -> {
+            FunctionCounter.builder("app.exercise.cache.requests", exerciseCache, ExerciseCache::getHits)
+                    .description("Exercise cache lookups")
+                    .tag("result", "hit")
+                    .register(registry);
+            FunctionCounter.builder("app.exercise.cache.requests", exerciseCache, ExerciseCache::getMisses)
+                    .description("Exercise cache lookups")
+                    .tag("result", "miss")
+                    .register(registry);
+            FunctionCounter.builder("app.exercise.cache.evictions", exerciseCache, ExerciseCache::getEvictions)
+                    .description("Modules evicted from the exercise cache by the LRU bound")
+                    .register(registry);
+            FunctionCounter.builder("app.exercise.cache.invalidations", exerciseCache, ExerciseCache::getInvalidations)
+                    .description("Modules dropped from the exercise cache after their exercises changed")
+                    .register(registry);
+            Gauge.builder("app.exercise.cache.modules", exerciseCache, ExerciseCache::getSize)
+                    .description("Modules in the exercise cache")
+                    .register(registry);
+        };
+    }
+}
@@ -0,0 +1,118 @@
+package org.example.diploma.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// QueryBudget - бюджет SQL-запросов Hibernate на HTTP-запрос и поиск N+1
+// логика:
+//  - превышение бюджета: больше max-statements SQL-запросов за один HTTP-запрос (или Scope)
+//  - признак N+1: один и тот же SELECT (тот же текст, другие параметры) выполнен не меньше repeat-threshold раз
+//  - нарушения пишутся в лог (WARN, с повторяющимися SQL) и считаются метрикой hibernate.query.budget.violations
+//    (теги name, kind = budget | n_plus_one)
+//  - в строгом режиме (app.query-budget.strict=true, для тестов) нарушение - IllegalStateException
+@Component
+public class QueryBudget {
+    private static final Logger log = LoggerFactory.getLogger(QueryBudget.class);
+
+    private final MeterRegistry meterRegistry;
+    private final int maxStatements;
+    private final int repeatThreshold;
+    private final boolean strict;
+
+    // Конструктор QueryBudget - внедрение зависимостей
+    // вход:
+    //   - meterRegistry - реестр метрик
+    //   - maxStatements - максимум SQL-запросов Hibernate на один HTTP-запрос
+    //   - repeatThreshold - число выполнений одного SELECT, начиная с которого запрос считается N+1
+    //   - strict - бросать исключение при нарушении
+    // выход: созданный экземпляр QueryBudget
+    @Autowired
+    public QueryBudget(MeterRegistry meterRegistry,
+                       @Value("${app.query-budget.max-statements:50}") int maxStatements,
+                       @Value("${app.query-budget.repeat-threshold:10}") int repeatThreshold,
+                       @Value("${app.query-budget.strict:false}") boolean strict) {
+        this.meterRegistry = meterRegistry;
+        this.maxStatements = maxStatements;
+        this.repeatThreshold = repeatThreshold;
+        this.strict = strict;
+    }
+
+    // open - отдельный учет запросов (например, вызов сервиса в тесте); проверка бюджета - при закрытии
+    // вход: name - имя для лога и метрики
+    // выход: Scope для try-with-resources
+    public Scope open(String name) {
+        HibernateQueryCounter.beginRequest();
+        return new Scope(name);
+    }
+
+    // check - проверка счетчиков запроса
+    // вход:
+    //   - name - имя запроса (например, "GET /teacher/groups/{id}/stats")
+    //   - counts - счетчики HibernateQueryCounter
+    // выход: void
+    // исключения:
+    //  - IllegalStateException - в строгом режиме при нарушении бюджета или признаке N+1
+    public void check(String name, HibernateQueryCounter.Counts counts) {
+        List<String> violations = new ArrayList<>();
+        if (counts.getStatements() > maxStatements) {
+            record(name, "budget");
+            violations.add(counts.getStatements() + " statements (budget " + maxStatements + ")");
+        }
+        Map<String, Integer> repeated = counts.getRepeatedSelects(repeatThreshold);
+        if (!repeated.isEmpty()) {
+            record(name, "n_plus_one");
+            repeated.forEach((sql, count) -> violations.add("N+1: " + count + " x " + sql));
+        }
+        if (violations.isEmpty()) {
+            return;
+        }
+
+        String message = String.format("Query budget exceeded by %s (%d statements, %d sessions, %d ms in SQL): %s",
+                name, counts.getStatements(), counts.getSessions(),
+                TimeUnit.NANOSECONDS.toMillis(counts.getExecutionNanos()), String.join("; ", violations));
+        if (strict) {
+            throw new IllegalStateException(message);
+        }
+        log.warn(message);
+    }
+
+    private void record(String name, String kind) {
+        Counter.builder("hibernate.query.budget.violations")
+                .description("Requests over the SQL statement budget or with repeated SELECTs (N+1)")
+                .tags("name", name, "kind", kind)
+                .register(meterRegistry)
+                .increment();
+    }
+
+    // Scope - учет запросов до close(); счетчики доступны после закрытия
+    public final class Scope implements AutoCloseable {
+        private final String name;
+        private HibernateQueryCounter.Counts counts;
+
+        private Scope(String name) {
+            this.name = name;
+        }
+
+        public HibernateQueryCounter.Counts getCounts() {
+            return counts;
+        }
+
+        @Override
+        public void close() {
+            if (counts == null) {
+                counts = HibernateQueryCounter.endRequest();
+                check(name, counts);
+            }
+        }
+    }
+}
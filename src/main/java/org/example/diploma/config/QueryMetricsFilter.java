@@ -0,0 +1,90 @@
+package org.example.diploma.config;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+// QueryMetricsFilter - метрики Hibernate на один HTTP-запрос
+// назначение: рост числа запросов к базе на страницу (N+1) виден в метриках без SQL в логе
+// логика:
+//  - оборачивает весь запрос, включая отрисовку шаблона (ленивые загрузки из представлений тоже учитываются)
+//  - hibernate.queries.per.request - число SQL-запросов, hibernate.sessions.per.request - число сессий
+//    (без open-in-view - по одной на вызов репозитория вне транзакции), hibernate.connections.per.request - число
+//    соединений, взятых сессиями, hibernate.query.time.per.request - время выполнения
+//  - теги: uri (шаблон эндпоинта, как в http.server.requests), method, outcome (класс статуса ответа)
+//  - успешно обработанный запрос проверяется по бюджету запросов (QueryBudget)
+public class QueryMetricsFilter extends OncePerRequestFilter {
+    private final MeterRegistry meterRegistry;
+    private final QueryBudget queryBudget;
+
+    // Конструктор QueryMetricsFilter
+    // вход:
+    //   - meterRegistry - реестр метрик
+    //   - queryBudget - проверка бюджета запросов и N+1
+    // выход: созданный экземпляр QueryMetricsFilter
+    public QueryMetricsFilter(MeterRegistry meterRegistry, QueryBudget queryBudget) {
+        this.meterRegistry = meterRegistry;
+        this.queryBudget = queryBudget;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        HibernateQueryCounter.beginRequest();
+        boolean failed = true;
+        HibernateQueryCounter.Counts counts;
+        try {
+            chain.doFilter(request, response);
+            failed = false;
+        } finally {
+            counts = HibernateQueryCounter.endRequest();
+            record(request, failed ? HttpStatus.INTERNAL_SERVER_ERROR.value() : response.getStatus(), counts);
+        }
+        queryBudget.check(request.getMethod() + " " + uri(request), counts);
+    }
+
+    private static String uri(HttpServletRequest request) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return pattern != null ? pattern.toString() : "UNKNOWN";
+    }
+
+    private void record(HttpServletRequest request, int status, HibernateQueryCounter.Counts counts) {
+        HttpStatus.Series series = HttpStatus.Series.resolve(status);
+        Tags tags = Tags.of(
+                "uri", uri(request),
+                "method", request.getMethod(),
+                "outcome", series != null ? series.name() : "UNKNOWN");
+
+        DistributionSummary.builder("hibernate.queries.per.request")
+                .description("SQL statements prepared by Hibernate per HTTP request")
+                .tags(tags)
+                .register(meterRegistry)
+                .record(counts.getStatements());
+        DistributionSummary.builder("hibernate.sessions.per.request")
+                .description("Hibernate sessions opened per HTTP request")
+                .tags(tags)
+                .register(meterRegistry)
+                .record(counts.getSessions());
+        DistributionSummary.builder("hibernate.connections.per.request")
+                .description("JDBC connections acquired by Hibernate sessions per HTTP request")
+                .tags(tags)
+                .register(meterRegistry)
+                .record(counts.getConnections());
+        Timer.builder("hibernate.query.time.per.request")
+                .description("Time spent executing Hibernate SQL statements per HTTP request")
+                .tags(tags)
+                .register(meterRegistry)
+                .record(counts.getExecutionNanos(), TimeUnit.NANOSECONDS);
+    }
+}
@@ -28,6 +28,8 @@ public class SecurityConfig {
         http
                 .authorizeHttpRequests(authz -> authz
                         .requestMatchers("/", "/register", "/login", "/css/**", "/js/**").permitAll()
+                        // actuator слушает только management.server.port (не публичный порт приложения)
+                        .requestMatchers("/actuator/health", "/actuator/prometheus").permitAll()
                         .requestMatchers("/teacher/**").hasRole("TEACHER")
                         .requestMatchers("/teacher/groups/**").hasRole("TEACHER")
                         .requestMatchers("/student/**").hasRole("STUDENT")
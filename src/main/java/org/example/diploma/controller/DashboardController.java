@@ -3,10 +3,15 @@ package org.example.diploma.controller;
 import org.example.diploma.model.*;
 import org.example.diploma.model.Module;
 import org.example.diploma.service.ExerciseService;
+import org.example.diploma.service.GenerationJobService;
 import org.example.diploma.service.ModuleService;
 import org.example.diploma.service.UserService;
+import org.example.diploma.service.WordImportService;
 import org.example.diploma.service.WordService;
+import org.example.diploma.dto.GenerationJobDTO;
 import org.example.diploma.dto.StudentStatsDTO;
+import org.example.diploma.dto.UserSnapshotDTO;
+import org.example.diploma.dto.WordImportResultDTO;
 import org.example.diploma.service.StatsService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
@@ -14,8 +19,14 @@ import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 import java.util.Optional;
 
@@ -26,6 +37,8 @@ public class DashboardController {
     private final ModuleService moduleService;
     private final WordService wordService;
     private final ExerciseService exerciseService;
+    private final WordImportService wordImportService;
+    private final GenerationJobService generationJobService;
 
     // Конструктор DashboardController - внедрение зависимостей сервисов
     // вход:
@@ -33,13 +46,18 @@ public class DashboardController {
     //   - moduleService - сервис для работы с модулями
     //   - wordService - сервис для работы со словами
     //   - exerciseService - сервис для работы с упражнениями
+    //   - wordImportService - сервис массового импорта слов
+    //   - generationJobService - сервис фоновых задач генерации упражнений
     // выход: созданный экземпляр DashboardController
     @Autowired
-    public DashboardController(UserService userService, ModuleService moduleService, WordService wordService, ExerciseService exerciseService) {
+    public DashboardController(UserService userService, ModuleService moduleService, WordService wordService, ExerciseService exerciseService,
+                               WordImportService wordImportService, GenerationJobService generationJobService) {
         this.userService = userService;
         this.moduleService = moduleService;
         this.wordService = wordService;
         this.exerciseService = exerciseService;
+        this.wordImportService = wordImportService;
+        this.generationJobService = generationJobService;
     }
 
     @Autowired
@@ -51,14 +69,14 @@ public class DashboardController {
     //   - model - модель Spring MVC для передачи данных в представление
     // выход: имя представления dashboard или перенаправление на логин
     // логика:
-    //  - получает пользователя по имени из userDetails
+    //  - получает снимок текущего пользователя (кэшируется по идентификатору из principal)
     //  - добавляет в модель модули пользователя
     //  - возвращает шаблон teacher/dashboard
     @GetMapping("/dashboard")
     public String teacherDashboard(@AuthenticationPrincipal UserDetails userDetails, Model model) {
-        Optional<User> userOptional = userService.findByUsername(userDetails.getUsername());
+        Optional<UserSnapshotDTO> userOptional = userService.getCurrentUser(userDetails);
         if (userOptional.isPresent()) {
-            User user = userOptional.get();
+            UserSnapshotDTO user = userOptional.get();
             model.addAttribute("modules", moduleService.getUserModules(user.getId()));
             return "teacher/dashboard";
         }
@@ -71,14 +89,14 @@ public class DashboardController {
     //   - model - модель Spring MVC для передачи данных в представление
     // выход: имя представления со списком модулей или перенаправление на логин
     // логика:
-    //  - получает пользователя по имени из userDetails
+    //  - получает снимок текущего пользователя (кэшируется по идентификатору из principal)
     //  - добавляет в модель модули пользователя
     //  - возвращает шаблон teacher/modules
     @GetMapping("/modules")
     public String listModules(@AuthenticationPrincipal UserDetails userDetails, Model model) {
-        Optional<User> userOptional = userService.findByUsername(userDetails.getUsername());
+        Optional<UserSnapshotDTO> userOptional = userService.getCurrentUser(userDetails);
         if (userOptional.isPresent()) {
-            User user = userOptional.get();
+            UserSnapshotDTO user = userOptional.get();
             model.addAttribute("modules", moduleService.getUserModules(user.getId()));
             return "teacher/modules";
         }
@@ -112,9 +130,9 @@ public class DashboardController {
     public String createModule(@AuthenticationPrincipal UserDetails userDetails,
                                @ModelAttribute Module module,
                                RedirectAttributes redirectAttributes) {
-        Optional<User> userOptional = userService.findByUsername(userDetails.getUsername());
+        Optional<UserSnapshotDTO> userOptional = userService.getCurrentUser(userDetails);
         if (userOptional.isPresent()) {
-            User user = userOptional.get();
+            UserSnapshotDTO user = userOptional.get();
 
             // Проверяем уникальность названия модуля для данного пользователя
             if (!moduleService.isModuleTitleUniqueForUser(module.getTitle(), user.getId())) {
@@ -122,7 +140,7 @@ public class DashboardController {
                 return "redirect:/teacher/modules/new";
             }
 
-            module.setUser(user);
+            module.setUser(userService.getUserReference(user.getId()));
             moduleService.saveModule(module);
             redirectAttributes.addFlashAttribute("success", "Module created successfully");
             return "redirect:/teacher/modules";
@@ -221,20 +239,60 @@ public class DashboardController {
         return "redirect:/teacher/modules/" + moduleId + "/edit";
     }
 
+    // importWords - массовый импорт слов в модуль
+    // вход:
+    //   - userDetails - данные аутентифицированного пользователя
+    //   - moduleId - идентификатор модуля
+    //   - text - вставленный список слов (по одной паре на строку)
+    //   - file - загруженный CSV/TSV файл (используется, если выбран)
+    //   - redirectAttributes - атрибуты для перенаправления (итоги импорта)
+    // выход: строка перенаправления на форму редактирования модуля
+    // логика:
+    //  - импорт разрешен только в модуль текущего преподавателя
+    //  - файл читается потоково, без загрузки в память целиком
+    //  - повторы пропускаются, ошибочные строки отклоняются, итоги показываются преподавателю
+    @PostMapping("/modules/{moduleId}/words/import")
+    public String importWords(@AuthenticationPrincipal UserDetails userDetails,
+                              @PathVariable Long moduleId,
+                              @RequestParam(required = false) String text,
+                              @RequestParam(required = false) MultipartFile file,
+                              RedirectAttributes redirectAttributes) {
+        Optional<UserSnapshotDTO> userOptional = userService.getCurrentUser(userDetails);
+        if (userOptional.isEmpty() || !moduleService.isModuleOwnedBy(moduleId, userOptional.get().getId())) {
+            redirectAttributes.addAttribute("error", "Module not found");
+            return "redirect:/teacher/modules";
+        }
+
+        try (Reader reader = file != null && !file.isEmpty()
+                ? new InputStreamReader(file.getInputStream(), StandardCharsets.UTF_8)
+                : new StringReader(text != null ? text : "")) {
+            WordImportResultDTO result = wordImportService.importWords(moduleId, reader);
+            redirectAttributes.addFlashAttribute("success", String.format(
+                    "Imported %d words, skipped %d duplicates, rejected %d lines",
+                    result.getAccepted(), result.getDuplicates(), result.getRejected()));
+            if (!result.getErrors().isEmpty()) {
+                redirectAttributes.addFlashAttribute("importErrors", result.getErrors());
+            }
+        } catch (IOException | RuntimeException e) {
+            redirectAttributes.addFlashAttribute("error", "Error importing words: " + e.getMessage());
+        }
+        return "redirect:/teacher/modules/" + moduleId + "/edit";
+    }
+
     // deleteWord - удаление слова из модуля
     // вход:
     //   - id - идентификатор слова для удаления
     //   - redirectAttributes - атрибуты для перенаправления (сообщения об успехе)
     // выход: строка перенаправления на форму редактирования модуля
     // логика:
+    //  - модуль слова определяется по внешнему ключу (слово и модуль не загружаются)
     //  - удаляет слово по идентификатору
     //  - перенаправляет на страницу редактирования модуля
     @PostMapping("/words/{id}/delete")
     public String deleteWord(@PathVariable Long id, RedirectAttributes redirectAttributes) {
-        Optional<Word> wordOptional = wordService.getWordById(id);
-        if (wordOptional.isPresent()) {
-            Word word = wordOptional.get();
-            Long moduleId = word.getModule().getId();
+        Optional<Long> moduleIdOptional = wordService.getModuleIdByWordId(id);
+        if (moduleIdOptional.isPresent()) {
+            Long moduleId = moduleIdOptional.get();
             wordService.deleteWord(id);
             redirectAttributes.addFlashAttribute("success", "Word deleted successfully");
             return "redirect:/teacher/modules/" + moduleId + "/edit";
@@ -274,20 +332,29 @@ public class DashboardController {
 
     // generateExercises - генерация упражнений для модуля
     // вход:
+    //   - userDetails - данные аутентифицированного пользователя
     //   - id - идентификатор модуля
-    //   - redirectAttributes - атрибуты для перенаправления (сообщения об успехе/ошибке)
+    //   - redirectAttributes - атрибуты для перенаправления (идентификатор задачи или ошибка)
     // выход: строка перенаправления на страницу упражнений модуля
     // логика:
-    //  - вызывает сервис для генерации упражнений на основе слов модуля
-    // исключения:
-    //  - Exception - если произошла ошибка при генерации упражнений
+    //  - генерация запускается фоновой задачей, запрос не ждет ее завершения
+    //  - страница упражнений получает идентификатор задачи и опрашивает ее ход
+    //  - повторное нажатие, пока задача идет, возвращает ту же задачу
     @PostMapping("/modules/{id}/generate-exercises")
-    public String generateExercises(@PathVariable Long id, RedirectAttributes redirectAttributes) {
-        try {
-            moduleService.generateExercisesForModule(id);
-            redirectAttributes.addFlashAttribute("success", "Exercises generated successfully");
-        } catch (Exception e) {
-            redirectAttributes.addFlashAttribute("error", "Error generating exercises: " + e.getMessage());
+    public String generateExercises(@AuthenticationPrincipal UserDetails userDetails,
+                                    @PathVariable Long id,
+                                    RedirectAttributes redirectAttributes) {
+        Optional<UserSnapshotDTO> userOptional = userService.getCurrentUser(userDetails);
+        if (userOptional.isEmpty() || !moduleService.isModuleOwnedBy(id, userOptional.get().getId())) {
+            redirectAttributes.addAttribute("error", "Module not found");
+            return "redirect:/teacher/modules";
+        }
+
+        GenerationJobDTO job = generationJobService.submit(id, userOptional.get().getId());
+        if ("FAILED".equals(job.getStatus())) {
+            redirectAttributes.addAttribute("error", "Error generating exercises: " + job.getError());
+        } else {
+            redirectAttributes.addAttribute("job", job.getJobId());
         }
         return "redirect:/teacher/modules/" + id + "/exercises";
     }
@@ -298,13 +365,13 @@ public class DashboardController {
     //   - redirectAttributes - атрибуты для перенаправления (сообщения об успехе)
     // выход: строка перенаправления на страницу упражнений модуля
     // логика:
+    //  - модуль упражнения определяется по внешнему ключу (упражнение и модуль не загружаются)
     //  - удаляет упражнение по идентификатору
     @PostMapping("/exercises/{id}/delete")
     public String deleteExercise(@PathVariable Long id, RedirectAttributes redirectAttributes) {
-        Optional<Exercise> exerciseOptional = exerciseService.getExerciseById(id);
-        if (exerciseOptional.isPresent()) {
-            Exercise exercise = exerciseOptional.get();
-            Long moduleId = exercise.getModule().getId();
+        Optional<Long> moduleIdOptional = exerciseService.getModuleIdByExerciseId(id);
+        if (moduleIdOptional.isPresent()) {
+            Long moduleId = moduleIdOptional.get();
             exerciseService.deleteExercise(id);
             redirectAttributes.addFlashAttribute("success", "Exercise deleted successfully");
             return "redirect:/teacher/modules/" + moduleId + "/exercises";
@@ -342,9 +409,9 @@ public class DashboardController {
     public String showResults(@AuthenticationPrincipal UserDetails userDetails,
                               @RequestParam(required = false) Long groupId,
                               Model model) {
-        Optional<User> userOptional = userService.findByUsername(userDetails.getUsername());
+        Optional<UserSnapshotDTO> userOptional = userService.getCurrentUser(userDetails);
         if (userOptional.isPresent()) {
-            User teacher = userOptional.get();
+            UserSnapshotDTO teacher = userOptional.get();
 
             // Получить статистику студентов
             List<StudentStatsDTO> studentStats = statsService.getStudentStatsByTeacher(teacher.getId(), groupId);
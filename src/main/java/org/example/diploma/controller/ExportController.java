@@ -0,0 +1,128 @@
+package org.example.diploma.controller;
+
+import jakarta.servlet.http.HttpServletResponse;
+import org.example.diploma.dto.UserSnapshotDTO;
+import org.example.diploma.service.AttemptExportService;
+import org.example.diploma.service.UserService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Optional;
+import java.util.zip.GZIPOutputStream;
+
+@Controller
+@RequestMapping("/teacher/export")
+public class ExportController {
+    private final AttemptExportService attemptExportService;
+    private final UserService userService;
+
+    // Конструктор ExportController - внедрение зависимостей сервисов
+    // вход:
+    //   - attemptExportService - сервис потоковой выгрузки попыток
+    //   - userService - сервис для работы с пользователями
+    // выход: созданный экземпляр ExportController
+    @Autowired
+    public ExportController(AttemptExportService attemptExportService, UserService userService) {
+        this.attemptExportService = attemptExportService;
+        this.userService = userService;
+    }
+
+    // exportStudent - выгрузка попыток одного студента
+    // вход:
+    //   - studentId - идентификатор студента (должен состоять в группе преподавателя)
+    //   - format - csv или ndjson
+    //   - gzip - сжимать ли выгрузку
+    // выход: файл выгрузки или 404, если студент не относится к преподавателю
+    @GetMapping("/students/{studentId}")
+    public void exportStudent(@AuthenticationPrincipal UserDetails userDetails,
+                              @PathVariable Long studentId,
+                              @RequestParam(defaultValue = "csv") String format,
+                              @RequestParam(defaultValue = "false") boolean gzip,
+                              HttpServletResponse response) throws IOException {
+        Optional<UserSnapshotDTO> teacher = userService.getCurrentUser(userDetails);
+        if (teacher.isEmpty() || !attemptExportService.isStudentOfTeacher(studentId, teacher.get().getId())) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+        stream(AttemptExportService.Scope.STUDENT, studentId, "student-" + studentId, format, gzip, response);
+    }
+
+    // exportGroup - выгрузка попыток всех студентов группы
+    // вход:
+    //   - groupId - идентификатор группы преподавателя
+    //   - format - csv или ndjson
+    //   - gzip - сжимать ли выгрузку
+    // выход: файл выгрузки или 404, если группа не принадлежит преподавателю
+    @GetMapping("/groups/{groupId}")
+    public void exportGroup(@AuthenticationPrincipal UserDetails userDetails,
+                            @PathVariable Long groupId,
+                            @RequestParam(defaultValue = "csv") String format,
+                            @RequestParam(defaultValue = "false") boolean gzip,
+                            HttpServletResponse response) throws IOException {
+        Optional<UserSnapshotDTO> teacher = userService.getCurrentUser(userDetails);
+        if (teacher.isEmpty() || !attemptExportService.isGroupOfTeacher(groupId, teacher.get().getId())) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+        stream(AttemptExportService.Scope.GROUP, groupId, "group-" + groupId, format, gzip, response);
+    }
+
+    // exportAll - выгрузка попыток студентов всех групп преподавателя
+    // вход:
+    //   - format - csv или ndjson
+    //   - gzip - сжимать ли выгрузку
+    // выход: файл выгрузки
+    @GetMapping("/all")
+    public void exportAll(@AuthenticationPrincipal UserDetails userDetails,
+                          @RequestParam(defaultValue = "csv") String format,
+                          @RequestParam(defaultValue = "false") boolean gzip,
+                          HttpServletResponse response) throws IOException {
+        Optional<UserSnapshotDTO> teacher = userService.getCurrentUser(userDetails);
+        if (teacher.isEmpty()) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+        stream(AttemptExportService.Scope.TEACHER, teacher.get().getId(), "all-groups", format, gzip, response);
+    }
+
+    // stream - настройка заголовков и потоковая запись выгрузки в ответ
+    // логика:
+    //  - заголовки выставляются до первой строки, дальше ответ пишется по мере чтения курсора (chunked)
+    //  - при gzip выгрузка отдается файлом .gz, чтобы таблицу можно было сохранить и распаковать локально
+    private void stream(AttemptExportService.Scope scope, Long id, String name, String format, boolean gzip,
+                        HttpServletResponse response) throws IOException {
+        AttemptExportService.Format exportFormat = "ndjson".equalsIgnoreCase(format)
+                ? AttemptExportService.Format.NDJSON
+                : AttemptExportService.Format.CSV;
+        String extension = exportFormat == AttemptExportService.Format.NDJSON ? ".ndjson" : ".csv";
+
+        if (gzip) {
+            response.setContentType("application/gzip");
+            extension += ".gz";
+        } else {
+            response.setContentType(exportFormat == AttemptExportService.Format.NDJSON
+                    ? "application/x-ndjson" : "text/csv");
+            response.setCharacterEncoding("UTF-8");
+        }
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"attempts-" + name + extension + "\"");
+
+        OutputStream out = response.getOutputStream();
+        if (gzip) {
+            GZIPOutputStream gzipOut = new GZIPOutputStream(out, 64 * 1024);
+            attemptExportService.export(scope, id, exportFormat, gzipOut);
+            gzipOut.finish();
+        } else {
+            attemptExportService.export(scope, id, exportFormat, out);
+        }
+        out.flush();
+    }
+}
@@ -0,0 +1,80 @@
+package org.example.diploma.controller;
+
+import org.example.diploma.dto.GenerationJobDTO;
+import org.example.diploma.dto.UserSnapshotDTO;
+import org.example.diploma.service.GenerationJobService;
+import org.example.diploma.service.ModuleService;
+import org.example.diploma.service.UserService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Optional;
+
+@RestController
+@RequestMapping("/teacher/jobs")
+public class GenerationJobController {
+    private final GenerationJobService generationJobService;
+    private final ModuleService moduleService;
+    private final UserService userService;
+
+    // Конструктор GenerationJobController - внедрение зависимостей сервисов
+    // вход:
+    //   - generationJobService - сервис фоновых задач генерации
+    //   - moduleService - сервис для работы с модулями
+    //   - userService - сервис для работы с пользователями
+    // выход: созданный экземпляр GenerationJobController
+    @Autowired
+    public GenerationJobController(GenerationJobService generationJobService, ModuleService moduleService,
+                                   UserService userService) {
+        this.generationJobService = generationJobService;
+        this.moduleService = moduleService;
+        this.userService = userService;
+    }
+
+    // startGeneration - запуск генерации упражнений для одного или нескольких модулей
+    // вход: moduleIds - идентификаторы модулей преподавателя
+    // выход: JSON-список задач (по одной на модуль) или 404, если какой-то модуль не принадлежит преподавателю
+    @PostMapping("/generation")
+    public ResponseEntity<List<GenerationJobDTO>> startGeneration(@AuthenticationPrincipal UserDetails userDetails,
+                                                                  @RequestParam List<Long> moduleIds) {
+        Optional<UserSnapshotDTO> teacher = userService.getCurrentUser(userDetails);
+        if (teacher.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        Long teacherId = teacher.get().getId();
+        for (Long moduleId : moduleIds) {
+            if (!moduleService.isModuleOwnedBy(moduleId, teacherId)) {
+                return ResponseEntity.notFound().build();
+            }
+        }
+
+        List<GenerationJobDTO> jobs = new ArrayList<>();
+        for (Long moduleId : new LinkedHashSet<>(moduleIds)) {
+            jobs.add(generationJobService.submit(moduleId, teacherId));
+        }
+        return ResponseEntity.accepted().body(jobs);
+    }
+
+    // getJob - опрос состояния задачи
+    // вход: jobId - идентификатор задачи
+    // выход: JSON с состоянием, процентом выполнения и ошибкой, или 404
+    @GetMapping("/{jobId}")
+    public ResponseEntity<GenerationJobDTO> getJob(@AuthenticationPrincipal UserDetails userDetails,
+                                                   @PathVariable String jobId) {
+        return userService.getCurrentUser(userDetails)
+                .flatMap(teacher -> generationJobService.getJob(jobId, teacher.getId()))
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+}
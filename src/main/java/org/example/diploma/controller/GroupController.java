@@ -1,20 +1,25 @@
 package org.example.diploma.controller;
 
+import org.example.diploma.dto.GroupStatsReportDTO;
 import org.example.diploma.dto.StudentDetailedStatsDTO;
 import org.example.diploma.dto.StudentStatsDTO;
+import org.example.diploma.dto.UserSnapshotDTO;
 import org.example.diploma.model.Group;
 import org.example.diploma.model.Module;
-import org.example.diploma.model.User;
 import org.example.diploma.service.GroupService;
+import org.example.diploma.service.GroupStatsService;
+import org.example.diploma.service.LiveStatsService;
 import org.example.diploma.service.ModuleService;
 import org.example.diploma.service.StatsService;
 import org.example.diploma.service.UserService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
 import java.util.List;
@@ -27,6 +32,8 @@ public class GroupController {
     private final UserService userService;
     private final ModuleService moduleService;
     private final StatsService statsService;
+    private final GroupStatsService groupStatsService;
+    private final LiveStatsService liveStatsService;
 
     // Конструктор GroupController - внедрение зависимостей сервисов
     // вход:
@@ -34,14 +41,19 @@ public class GroupController {
     //   - userService - сервис для работы с пользователями
     //   - moduleService - сервис для работы с модулями
     //   - statsService - сервис для работы со статистикой
+    //   - groupStatsService - сервис отчета по группе
+    //   - liveStatsService - сервис потоков живой статистики
     // выход: созданный экземпляр GroupController
     @Autowired
     public GroupController(GroupService groupService, UserService userService,
-                           ModuleService moduleService, StatsService statsService) {
+                           ModuleService moduleService, StatsService statsService,
+                           GroupStatsService groupStatsService, LiveStatsService liveStatsService) {
         this.groupService = groupService;
         this.userService = userService;
         this.moduleService = moduleService;
         this.statsService = statsService;
+        this.groupStatsService = groupStatsService;
+        this.liveStatsService = liveStatsService;
     }
 
     // listGroups - отображение списка групп преподавателя
@@ -50,16 +62,16 @@ public class GroupController {
     //   - model - модель Spring MVC для передачи данных в представление
     // выход: имя представления со списком групп или перенаправление на логин/ошибку
     // логика:
-    //  - получает преподавателя по имени из userDetails
+    //  - получает снимок текущего преподавателя (кэшируется по идентификатору из principal)
     //  - добавляет в модель список групп преподавателя
     // исключения:
     //  - Exception - если произошла ошибка при загрузке групп
     @GetMapping
     public String listGroups(@AuthenticationPrincipal UserDetails userDetails, Model model) {
         try {
-            Optional<User> teacherOptional = userService.findByUsername(userDetails.getUsername());
+            Optional<UserSnapshotDTO> teacherOptional = userService.getCurrentUser(userDetails);
             if (teacherOptional.isPresent()) {
-                User teacher = teacherOptional.get();
+                UserSnapshotDTO teacher = teacherOptional.get();
                 model.addAttribute("groups", groupService.getTeacherGroups(teacher.getId()));
                 return "teacher/groups";
             }
@@ -96,16 +108,16 @@ public class GroupController {
     public String createGroup(@AuthenticationPrincipal UserDetails userDetails,
                               @ModelAttribute Group group,
                               RedirectAttributes redirectAttributes) {
-        Optional<User> teacherOptional = userService.findByUsername(userDetails.getUsername());
+        Optional<UserSnapshotDTO> teacherOptional = userService.getCurrentUser(userDetails);
         if (teacherOptional.isPresent()) {
-            User teacher = teacherOptional.get();
+            UserSnapshotDTO teacher = teacherOptional.get();
 
             if (!groupService.isGroupNameUniqueForTeacher(group.getName(), teacher.getId())) {
                 redirectAttributes.addFlashAttribute("error", "Group with this name already exists");
                 return "redirect:/teacher/groups/new";
             }
 
-            group.setTeacher(teacher);
+            group.setTeacher(userService.getUserReference(teacher.getId()));
             groupService.saveGroup(group);
             redirectAttributes.addFlashAttribute("success", "Group created successfully");
         }
@@ -118,11 +130,11 @@ public class GroupController {
     //   - model - модель Spring MVC для передачи данных в представление
     // выход: имя представления с деталями группы или перенаправление на список групп
     // логика:
-    //  - получает группу по идентификатору
+    //  - получает группу по идентификатору вместе с преподавателем и назначенными модулями (один запрос)
     //  - добавляет в модель группу, список студентов группы, доступных студентов и модули преподавателя
     @GetMapping("/{id}")
     public String viewGroup(@PathVariable Long id, Model model) {
-        Optional<Group> groupOptional = groupService.getGroupById(id);
+        Optional<Group> groupOptional = groupService.getGroupWithModules(id);
         if (groupOptional.isPresent()) {
             Group group = groupOptional.get();
             model.addAttribute("group", group);
@@ -225,7 +237,8 @@ public class GroupController {
     //   - model - модель Spring MVC для передачи данных в представление
     // выход: имя представления со статистикой группы или перенаправление на список групп
     // логика:
-    //  - получает статистику студентов группы и общую статистику группы
+    //  - итоги группы, строки студентов и модулей строятся одним запросом (см. GroupStatsService)
+    //  - версия живой статистики берется до снимка: поток пришлет только не вошедшие в снимок приращения
     //  - добавляет данные в модель
     @GetMapping("/{id}/stats")
     public String viewGroupStats(@PathVariable Long id, Model model) {
@@ -233,19 +246,40 @@ public class GroupController {
         if (groupOptional.isPresent()) {
             Group group = groupOptional.get();
 
-            // получить статистику студентов
-            List<StudentStatsDTO> studentStats = statsService.getStudentStatsByGroup(id);
-            StatsService.GroupStatsDTO groupStats = statsService.getGroupStats(id);
+            long statsVersion = liveStatsService.getSnapshotVersion();
+            GroupStatsReportDTO report = groupStatsService.getGroupReport(id);
 
             model.addAttribute("group", group);
-            model.addAttribute("studentStats", studentStats);
-            model.addAttribute("groupStats", groupStats);
+            model.addAttribute("studentStats", report.getStudents());
+            model.addAttribute("moduleStats", report.getModules());
+            model.addAttribute("groupStats", report);
+            model.addAttribute("statsVersion", statsVersion);
 
             return "teacher/group-stats";
         }
         return "redirect:/teacher/groups";
     }
 
+    // streamGroupStats - поток приращений статистики группы (Server-Sent Events)
+    // вход:
+    //   - userDetails - данные аутентифицированного пользователя
+    //   - id - идентификатор группы
+    //   - since - версия снимка статистики на странице
+    // выход: поток событий "stats" или 404, если группа не найдена или принадлежит другому преподавателю
+    // логика:
+    //  - страница статистики загружается один раз, дальше счетчики обновляются из потока без повторных запросов
+    @GetMapping(value = "/{id}/stats/stream", produces = "text/event-stream")
+    public ResponseEntity<SseEmitter> streamGroupStats(@AuthenticationPrincipal UserDetails userDetails,
+                                                      @PathVariable Long id, @RequestParam long since) {
+        Optional<UserSnapshotDTO> teacher = userService.getCurrentUser(userDetails);
+        Optional<Group> group = groupService.getGroupById(id);
+        if (teacher.isEmpty() || group.isEmpty() || group.get().getTeacher() == null
+                || !teacher.get().getId().equals(group.get().getTeacher().getId())) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(liveStatsService.subscribe(id, since));
+    }
+
     // viewStudentDetailedStats - просмотр детальной статистики студента
     // вход:
     //   - groupId - идентификатор группы
@@ -253,6 +287,7 @@ public class GroupController {
     //   - model - модель Spring MVC для передачи данных в представление
     // выход: имя представления с детальной статистикой студента или перенаправление
     // логика:
+    //  - студент передается в представление снимком (UserSnapshotDTO): группа не загружается
     //  - проверяет, что студент принадлежит указанной группе
     //  - получает детальную статистику студента по модулям и упражнениям
     //  - получает общую статистику студента
@@ -262,52 +297,35 @@ public class GroupController {
     public String viewStudentDetailedStats(@PathVariable Long groupId,
                                            @PathVariable Long studentId,
                                            Model model) {
-        System.out.println("=== DEBUG: viewStudentDetailedStats ===");
-        System.out.println("Group ID: " + groupId);
-        System.out.println("Student ID: " + studentId);
-
         Optional<Group> groupOptional = groupService.getGroupById(groupId);
-        Optional<User> studentOptional = userService.findUserById(studentId);
-
-        System.out.println("Group found: " + groupOptional.isPresent());
-        System.out.println("Student found: " + studentOptional.isPresent());
+        Optional<UserSnapshotDTO> studentOptional = userService.findUserById(studentId).map(UserSnapshotDTO::from);
 
         if (groupOptional.isPresent() && studentOptional.isPresent()) {
             Group group = groupOptional.get();
-            User student = studentOptional.get();
-
-            System.out.println("Student group: " + (student.getGroup() != null ? student.getGroup().getId() : "null"));
+            UserSnapshotDTO student = studentOptional.get();
 
             // проверка, что студент действительно в этой группе
-            if (student.getGroup() == null || !student.getGroup().getId().equals(groupId)) {
-                System.out.println("Student not in group - redirecting");
+            if (!groupId.equals(student.getGroupId())) {
                 return "redirect:/teacher/groups/" + groupId + "/stats?error=student_not_in_group";
             }
 
             List<StudentDetailedStatsDTO> detailedStats = statsService.getDetailedStatsByStudent(studentId);
             List<StudentStatsDTO> studentStats = statsService.getStudentStatsByGroup(groupId);
 
-            System.out.println("Detailed stats count: " + detailedStats.size());
-            System.out.println("Student stats count: " + studentStats.size());
-
             // нужно найти общую статистику этого студента
             StudentStatsDTO studentGeneralStats = studentStats.stream()
                     .filter(stat -> stat.getStudentId().equals(studentId))
                     .findFirst()
                     .orElse(new StudentStatsDTO(studentId, student.getUsername(), 0L, 0L, null));
 
-            System.out.println("Student general stats: " + studentGeneralStats);
-
             model.addAttribute("group", group);
             model.addAttribute("student", student);
             model.addAttribute("detailedStats", detailedStats);
             model.addAttribute("studentGeneralStats", studentGeneralStats);
 
-            System.out.println("=== DEBUG: Rendering template ===");
             return "teacher/student-detailed-stats";
         }
 
-        System.out.println("=== DEBUG: Redirecting to groups ===");
         return "redirect:/teacher/groups";
     }
 }
\ No newline at end of file
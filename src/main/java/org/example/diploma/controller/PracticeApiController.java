@@ -0,0 +1,90 @@
+package org.example.diploma.controller;
+
+import jakarta.servlet.http.HttpSession;
+import org.example.diploma.dto.PracticeAnswerDTO;
+import org.example.diploma.dto.PracticeBatchDTO;
+import org.example.diploma.dto.PracticeResultDTO;
+import org.example.diploma.dto.UserSnapshotDTO;
+import org.example.diploma.service.PracticeSessionService;
+import org.example.diploma.service.StudentService;
+import org.example.diploma.service.UserService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+import java.util.Optional;
+
+@RestController
+@RequestMapping("/student/api/practice")
+public class PracticeApiController {
+    private final PracticeSessionService practiceSessionService;
+    private final StudentService studentService;
+    private final UserService userService;
+
+    // Конструктор PracticeApiController - внедрение зависимостей сервисов
+    // вход:
+    //   - practiceSessionService - сервис пакетной практики
+    //   - studentService - сервис студента (проверка доступа к модулю)
+    //   - userService - сервис для работы с пользователями
+    // выход: созданный экземпляр PracticeApiController
+    @Autowired
+    public PracticeApiController(PracticeSessionService practiceSessionService,
+                                 StudentService studentService,
+                                 UserService userService) {
+        this.practiceSessionService = practiceSessionService;
+        this.studentService = studentService;
+        this.userService = userService;
+    }
+
+    // getQuestions - пакет вопросов модуля (offset=0 - начало сессии практики)
+    // вход:
+    //   - session - HTTP-сессия (моменты выдачи вопросов для измерения времени ответа)
+    //   - id - идентификатор модуля
+    //   - offset - позиция первого вопроса
+    //   - limit - размер пакета
+    // выход: JSON-пакет вопросов без правильных ответов или 404, если модуль не назначен группе студента
+    @GetMapping("/modules/{id}/questions")
+    public ResponseEntity<PracticeBatchDTO> getQuestions(@AuthenticationPrincipal UserDetails userDetails,
+                                                         @PathVariable Long id,
+                                                         @RequestParam(defaultValue = "0") int offset,
+                                                         @RequestParam(defaultValue = "10") int limit,
+                                                         HttpSession session) {
+        Optional<UserSnapshotDTO> student = userService.getCurrentUser(userDetails);
+        if (student.isEmpty() || !studentService.canAccessModule(student.get().getGroupId(), id)) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(practiceSessionService.getBatch(session, id, offset, limit));
+    }
+
+    // submitAnswers - проверка пакета ответов
+    // вход:
+    //   - answers - JSON-массив ответов {exerciseId, selectedAnswer}
+    //   - session - HTTP-сессия (время ответа измеряется сервером от выдачи вопроса)
+    // выход: JSON-список результатов в порядке ответов; 400 для пустого или слишком большого пакета,
+    //        404, если какое-то упражнение не найдено или недоступно (пакет не записывается)
+    @PostMapping("/answers")
+    public ResponseEntity<List<PracticeResultDTO>> submitAnswers(@AuthenticationPrincipal UserDetails userDetails,
+                                                                 @RequestBody List<PracticeAnswerDTO> answers,
+                                                                 HttpSession session) {
+        Optional<UserSnapshotDTO> student = userService.getCurrentUser(userDetails);
+        if (student.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        try {
+            return practiceSessionService.submitAnswers(session, student.get(), answers)
+                    .map(ResponseEntity::ok)
+                    .orElseGet(() -> ResponseEntity.notFound().build());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+}
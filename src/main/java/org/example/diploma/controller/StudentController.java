@@ -1,10 +1,16 @@
 package org.example.diploma.controller;
 
+import jakarta.servlet.http.HttpSession;
+import org.example.diploma.dto.AttemptHistoryPageDTO;
+import org.example.diploma.dto.ExerciseSnapshotDTO;
 import org.example.diploma.dto.ModuleProgressDTO;
+import org.example.diploma.dto.PracticeSession;
+import org.example.diploma.dto.UserSnapshotDTO;
 import org.example.diploma.model.*;
 import org.example.diploma.model.Module;
 import org.example.diploma.service.*;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Controller;
@@ -12,6 +18,7 @@ import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 import java.util.stream.Collectors;
@@ -24,6 +31,8 @@ public class StudentController {
     private final ExerciseService exerciseService;
     private final ModuleService moduleService;
     private final WordService wordService;
+    private final SpacedRepetitionService spacedRepetitionService;
+    private final PracticeSessionService practiceSessionService;
 
     // Конструктор StudentController - внедрение зависимостей сервисов
     // вход:
@@ -32,18 +41,24 @@ public class StudentController {
     //   - exerciseService - сервис для работы с упражнениями
     //   - moduleService - сервис для работы с модулями
     //   - wordService - сервис для работы со словами
+    //   - spacedRepetitionService - сервис интервального повторения слов
+    //   - practiceSessionService - сервис пакетной практики
     // выход: созданный экземпляр StudentController
     @Autowired
     public StudentController(StudentService studentService,
                              UserService userService,
                              ExerciseService exerciseService,
                              ModuleService moduleService,
-                             WordService wordService) {
+                             WordService wordService,
+                             SpacedRepetitionService spacedRepetitionService,
+                             PracticeSessionService practiceSessionService) {
         this.studentService = studentService;
         this.userService = userService;
         this.exerciseService = exerciseService;
         this.moduleService = moduleService;
         this.wordService = wordService;
+        this.spacedRepetitionService = spacedRepetitionService;
+        this.practiceSessionService = practiceSessionService;
     }
 
     // studentDashboard - отображение главной страницы студента
@@ -52,20 +67,21 @@ public class StudentController {
     //   - model - модель Spring MVC для передачи данных в представление
     // выход: имя представления dashboard или перенаправление на логин
     // логика:
-    //  - получает пользователя по имени из userDetails
-    //  - добавляет в модель доступные модули, статистику успеваемости и количество завершенных модулей
+    //  - получает снимок текущего пользователя (кэшируется по идентификатору из principal)
+    //  - добавляет в модель прогресс по доступным модулям, статистику успеваемости и количество завершенных модулей
+    //  - количество завершенных модулей считается по уже полученному прогрессу, без дополнительных запросов
     //  - возвращает шаблон student/dashboard
     @GetMapping("/dashboard")
     public String studentDashboard(@AuthenticationPrincipal UserDetails userDetails, Model model) {
-        Optional<User> userOptional = userService.findByUsername(userDetails.getUsername());
+        Optional<UserSnapshotDTO> userOptional = userService.getCurrentUser(userDetails);
         if (userOptional.isPresent()) {
-            User user = userOptional.get();
-            List<Module> modules = studentService.getAvailableModulesForStudent(user.getId());
+            UserSnapshotDTO user = userOptional.get();
+            List<ModuleProgressDTO> modules = studentService.getModulesProgress(user.getId());
 
             model.addAttribute("user", user);
             model.addAttribute("modules", modules);
             model.addAttribute("successRate", studentService.getUserSuccessRate(user.getId()));
-            model.addAttribute("completedModules", studentService.getCompletedModulesCount(user.getId()));
+            model.addAttribute("completedModules", studentService.countCompleted(modules));
 
             return "student/dashboard";
         }
@@ -78,16 +94,15 @@ public class StudentController {
     //   - model - модель Spring MVC для передачи данных в представление
     // выход: имя представления со списком модулей или перенаправление на логин
     // логика:
-    //  - получает студента по имени из userDetails
-    //  - добавляет в модель список доступных модулей
+    //  - получает снимок текущего студента (кэшируется по идентификатору из principal)
+    //  - добавляет в модель список доступных модулей с прогрессом студента
     //  - возвращает шаблон student/modules
     @GetMapping("/modules")
     public String listModules(@AuthenticationPrincipal UserDetails userDetails, Model model) {
-        Optional<User> userOptional = userService.findByUsername(userDetails.getUsername());
+        Optional<UserSnapshotDTO> userOptional = userService.getCurrentUser(userDetails);
         if (userOptional.isPresent()) {
-            User student = userOptional.get();
-            List<Module> modules = studentService.getAvailableModulesForStudent(student.getId());
-            model.addAttribute("modules", modules);
+            UserSnapshotDTO student = userOptional.get();
+            model.addAttribute("modules", studentService.getModulesProgress(student.getId()));
             return "student/modules";
         }
         return "redirect:/login";
@@ -98,13 +113,13 @@ public class StudentController {
     //   - userDetails - данные аутентифицированного пользователя
     //   - exerciseId - идентификатор упражнения
     //   - selectedAnswer - выбранный студентом ответ
-    //   - timeSpent - время, затраченное на ответ (в секундах, по умолчанию 0)
-    //   - nextExerciseIndex - индекс следующего упражнения (опционально)
+    //   - mode - "review" для ответа из сессии повторения (опционально)
+    //   - session - HTTP-сессия (состояние практики и момент показа вопроса)
     //   - redirectAttributes - атрибуты для перенаправления (результаты, ошибки)
-    // выход: строка перенаправления на страницу практики модуля
+    // выход: строка перенаправления на страницу практики или повторения модуля
     // логика:
-    //  - сохраняет попытку ответа студента
-    //  - проверяет правильность ответа
+    //  - время ответа измеряется сервером от показа вопроса (параметр браузера не используется)
+    //  - сохраняет попытку ответа студента; ответ на текущий вопрос практики переводит ее к следующему
     //  - добавляет флаги для отображения результата
     // исключения:
     //  - Exception - если произошла ошибка при сохранении попытки или проверке ответа
@@ -112,22 +127,26 @@ public class StudentController {
     public String submitAnswer(@AuthenticationPrincipal UserDetails userDetails,
                                @PathVariable Long exerciseId,
                                @RequestParam String selectedAnswer,
-                               @RequestParam(defaultValue = "0") Integer timeSpent,
-                               @RequestParam(required = false) Integer nextExerciseIndex,
+                               @RequestParam(required = false) String mode,
+                               HttpSession session,
                                RedirectAttributes redirectAttributes) {
         try {
-            Optional<User> userOptional = userService.findByUsername(userDetails.getUsername());
-            Optional<Exercise> exerciseOptional = exerciseService.getExerciseById(exerciseId);
+            Optional<UserSnapshotDTO> userOptional = userService.getCurrentUser(userDetails);
+            Optional<ExerciseSnapshotDTO> exerciseOptional = studentService.getPracticeExercise(exerciseId);
 
             if (userOptional.isPresent() && exerciseOptional.isPresent()) {
-                User user = userOptional.get();
-                Exercise exercise = exerciseOptional.get();
+                UserSnapshotDTO user = userOptional.get();
+                ExerciseSnapshotDTO exercise = exerciseOptional.get();
+                Integer timeSpent = practiceSessionService.takeAnswerTime(session, exerciseId);
 
-                // сохранить попытку
-                studentService.saveAttempt(user, exercise, selectedAnswer, timeSpent);
+                // сохранить попытку (ответ повторения пишется сразу, чтобы сдвинуть срок слова)
+                boolean review = "review".equals(mode);
+                Attempt attempt = review
+                        ? studentService.saveReviewAttempt(userService.getUserReference(user.getId()), exercise.toReference(), selectedAnswer, timeSpent)
+                        : studentService.saveAttempt(userService.getUserReference(user.getId()), exercise.toReference(), selectedAnswer, timeSpent);
 
                 // проверить правильность ответа
-                boolean isCorrect = studentService.checkAnswer(exercise, selectedAnswer);
+                boolean isCorrect = attempt.isCorrect();
 
                 // добавить флаги для отображения результата
                 redirectAttributes.addFlashAttribute("showResult", true);
@@ -135,12 +154,10 @@ public class StudentController {
                 redirectAttributes.addFlashAttribute("correctAnswer", exercise.getCorrectAnswer());
                 redirectAttributes.addFlashAttribute("selectedAnswer", selectedAnswer);
 
-                // если передан индекс следующего упражнения, перенаправить на него
-                if (nextExerciseIndex != null) {
-                    redirectAttributes.addAttribute("exerciseIndex", nextExerciseIndex);
+                if (review) {
+                    return "redirect:/student/modules/" + exercise.getModuleId() + "/review";
                 }
-
-                return "redirect:/student/modules/" + exercise.getModule().getId() + "/practice";
+                return "redirect:/student/modules/" + exercise.getModuleId() + "/practice";
             }
         } catch (Exception e) {
             redirectAttributes.addFlashAttribute("error", "Error submitting answer: " + e.getMessage());
@@ -153,93 +170,186 @@ public class StudentController {
     // вход:
     //   - userDetails - данные аутентифицированного пользователя
     //   - id - идентификатор модуля
-    //   - exerciseIndex - индекс текущего упражнения (по умолчанию 0)
+    //   - exerciseIndex - переход к упражнению по индексу (опционально, 0 - начать сначала)
+    //   - session - HTTP-сессия (состояние практики)
     //   - model - модель Spring MVC для передачи данных в представление
     // выход: имя представления для практики или перенаправление
     // логика:
-    //  - проверяет доступ студента к модулю
-    //  - получает список упражнений модуля
-    //  - определяет текущее упражнение по индексу
-    //  - добавляет в модель данные модуля, упражнений и информацию о прогрессе
-    // исключения:
-    //  - возможны исключения при работе с базой данных
+    //  - состояние практики (порядок упражнений, позиция) хранится в сессии; доступ к модулю проверяется
+    //    и модуль загружается только при начале практики
+    //  - текущее упражнение берется из кэша по идентификатору, в модель кладется только оно
+    //  - после последнего упражнения практика закрывается и открываются результаты
     @GetMapping("/modules/{id}/practice")
     public String practiceModule(@AuthenticationPrincipal UserDetails userDetails,
                                  @PathVariable Long id,
-                                 @RequestParam(defaultValue = "0") Integer exerciseIndex,
+                                 @RequestParam(required = false) Integer exerciseIndex,
+                                 HttpSession session,
                                  Model model) {
-        Optional<User> userOptional = userService.findByUsername(userDetails.getUsername());
-        if (userOptional.isPresent()) {
-            User student = userOptional.get();
+        Optional<UserSnapshotDTO> userOptional = userService.getCurrentUser(userDetails);
+        if (userOptional.isEmpty()) {
+            return "redirect:/student/modules";
+        }
 
-            // проверить, доступен ли модуль студенту
-            List<Module> availableModules = studentService.getAvailableModulesForStudent(student.getId());
-            boolean hasAccess = availableModules.stream().anyMatch(m -> m.getId().equals(id));
+        Optional<PracticeSession> practiceOptional = practiceSessionService.openPractice(session, userOptional.get(), id);
+        if (practiceOptional.isEmpty()) {
+            return "redirect:/student/modules?error=access_denied";
+        }
+        PracticeSession practice = practiceOptional.get();
 
-            if (!hasAccess) {
-                return "redirect:/student/modules?error=access_denied";
-            }
+        // проверить, есть ли упражнения
+        if (practice.getTotal() == 0) {
+            practiceSessionService.finishPractice(session);
+            return "redirect:/student/modules/" + id + "/words?error=no_exercises";
+        }
+        if (exerciseIndex != null) {
+            practice.moveTo(exerciseIndex);
+        }
 
-            Module module = moduleService.getModuleById(id).orElse(null);
-            if (module != null) {
-                List<Exercise> exercises = studentService.getExercisesForModule(id);
+        Optional<ExerciseSnapshotDTO> currentExercise = practiceSessionService.showCurrent(session, practice);
+        if (currentExercise.isEmpty()) {
+            // если упражнения закончились, перенаправить на результаты
+            practiceSessionService.finishPractice(session);
+            return "redirect:/student/results";
+        }
 
-                // проверить, есть ли упражнения
-                if (exercises.isEmpty()) {
-                    return "redirect:/student/modules/" + id + "/words?error=no_exercises";
-                }
+        model.addAttribute("practice", practice);
+        model.addAttribute("currentExercise", currentExercise.get());
+        model.addAttribute("currentExerciseIndex", practice.getCursor());
+        model.addAttribute("totalExercises", practice.getTotal());
+        model.addAttribute("isLastExercise", practice.getCursor() == practice.getTotal() - 1);
 
-                Exercise currentExercise = studentService.getExerciseByIndex(id, exerciseIndex);
+        return "student/practice";
+    }
 
-                if (currentExercise == null) {
-                    // если упражнения закончились, перенаправить на результаты
-                    return "redirect:/student/results";
-                }
+    // practiceSession - страница практики модуля без перезагрузок
+    // вход:
+    //   - userDetails - данные аутентифицированного пользователя
+    //   - id - идентификатор модуля
+    //   - model - модель Spring MVC для передачи данных в представление
+    // выход: имя представления или перенаправление
+    // логика:
+    //  - страница отдается без упражнений: вопросы загружаются пакетами через /student/api/practice,
+    //    ответы отправляются туда же пакетами
+    @GetMapping("/modules/{id}/practice/session")
+    public String practiceSession(@AuthenticationPrincipal UserDetails userDetails,
+                                  @PathVariable Long id,
+                                  Model model) {
+        Optional<UserSnapshotDTO> userOptional = userService.getCurrentUser(userDetails);
+        if (userOptional.isEmpty()) {
+            return "redirect:/student/modules";
+        }
+        if (!studentService.canAccessModule(userOptional.get().getGroupId(), id)) {
+            return "redirect:/student/modules?error=access_denied";
+        }
 
-                model.addAttribute("module", module);
-                model.addAttribute("exercises", exercises);
-                model.addAttribute("currentExercise", currentExercise);
-                model.addAttribute("currentExerciseIndex", exerciseIndex);
-                model.addAttribute("totalExercises", exercises.size());
-                model.addAttribute("isLastExercise", exerciseIndex == exercises.size() - 1);
+        Optional<Module> module = moduleService.getModuleById(id);
+        if (module.isEmpty()) {
+            return "redirect:/student/modules";
+        }
+        if (studentService.getTotalExercisesInModule(id) == 0) {
+            return "redirect:/student/modules/" + id + "/words?error=no_exercises";
+        }
 
-                return "student/practice";
-            }
+        model.addAttribute("module", module.get());
+        model.addAttribute("batchSize", Math.min(10, practiceSessionService.getMaxBatchSize()));
+        return "student/practice-session";
+    }
+
+    // startReview - начало сессии интервального повторения модуля
+    // вход:
+    //   - userDetails - данные аутентифицированного пользователя
+    //   - id - идентификатор модуля
+    // выход: перенаправление на страницу повторения
+    // логика:
+    //  - новые слова модуля добавляются в повторение один раз за сессию, дальше вопросы выбираются по сроку
+    @GetMapping("/modules/{id}/review/start")
+    public String startReview(@AuthenticationPrincipal UserDetails userDetails, @PathVariable Long id) {
+        Optional<UserSnapshotDTO> userOptional = userService.getCurrentUser(userDetails);
+        if (userOptional.isEmpty()) {
+            return "redirect:/student/modules";
         }
-        return "redirect:/student/modules";
+        if (!studentService.canAccessModule(userOptional.get().getGroupId(), id)) {
+            return "redirect:/student/modules?error=access_denied";
+        }
+        spacedRepetitionService.startReview(userOptional.get().getId(), id);
+        return "redirect:/student/modules/" + id + "/review";
+    }
+
+    // reviewModule - следующий вопрос сессии повторения
+    // вход:
+    //   - userDetails - данные аутентифицированного пользователя
+    //   - id - идентификатор модуля
+    //   - model - модель Spring MVC для передачи данных в представление
+    // выход: имя представления повторения или перенаправление
+    // логика:
+    //  - показывается упражнение слова с самым ранним сроком повторения (один индексированный запрос)
+    //  - момент показа запоминается в сессии для измерения времени ответа
+    //  - если повторять нечего, страница сообщает об этом вместо вопроса
+    @GetMapping("/modules/{id}/review")
+    public String reviewModule(@AuthenticationPrincipal UserDetails userDetails,
+                               @PathVariable Long id,
+                               HttpSession session,
+                               Model model) {
+        Optional<UserSnapshotDTO> userOptional = userService.getCurrentUser(userDetails);
+        if (userOptional.isEmpty()) {
+            return "redirect:/student/modules";
+        }
+        UserSnapshotDTO student = userOptional.get();
+        if (!studentService.canAccessModule(student.getGroupId(), id)) {
+            return "redirect:/student/modules?error=access_denied";
+        }
+
+        Optional<Module> module = moduleService.getModuleById(id);
+        if (module.isEmpty()) {
+            return "redirect:/student/modules";
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        ExerciseSnapshotDTO currentExercise = spacedRepetitionService.nextDue(student.getId(), id, now).orElse(null);
+        if (currentExercise != null) {
+            practiceSessionService.markReviewShown(session, id, currentExercise.getId());
+        }
+        model.addAttribute("module", module.get());
+        model.addAttribute("currentExercise", currentExercise);
+        model.addAttribute("dueCount", spacedRepetitionService.countDue(student.getId(), id, now));
+        return "student/review";
     }
 
     // viewResults - отображение результатов и статистики студента
     // вход:
     //   - userDetails - данные аутентифицированного пользователя
+    //   - before, beforeId - курсор страницы истории (время и идентификатор последней показанной попытки)
+    //   - size - количество попыток на странице
     //   - model - модель Spring MVC для передачи данных в представление
     // выход: имя представления с результатами или перенаправление на логин
     // логика:
-    //  - получает все попытки студента
-    //  - подсчитывает статистику: количество правильных/неправильных ответов, уникальные модули
-    //  - добавляет статистику и попытки в модель
+    //  - итоговые счетчики (правильные/неправильные ответы, модули) берутся из сводной статистики студента
+    //  - история попыток выводится страницами по курсору (attemptTime, id), от новых к старым
     @GetMapping("/results")
-    public String viewResults(@AuthenticationPrincipal UserDetails userDetails, Model model) {
-        Optional<User> userOptional = userService.findByUsername(userDetails.getUsername());
+    public String viewResults(@AuthenticationPrincipal UserDetails userDetails,
+                              @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime before,
+                              @RequestParam(required = false) Long beforeId,
+                              @RequestParam(defaultValue = "50") int size,
+                              Model model) {
+        Optional<UserSnapshotDTO> userOptional = userService.getCurrentUser(userDetails);
         if (userOptional.isPresent()) {
-            User user = userOptional.get();
-            List<Attempt> attempts = studentService.getUserAttempts(user.getId());
-
-            // подсчет статистики в контроллере
-            long correctCount = attempts.stream().filter(Attempt::isCorrect).count();
-            long incorrectCount = attempts.size() - correctCount;
-
-            // Уникальные модули
-            long uniqueModulesCount = attempts.stream()
-                    .map(attempt -> attempt.getExercise().getModule().getTitle())
-                    .distinct()
-                    .count();
-
-            model.addAttribute("attempts", attempts);
+            UserSnapshotDTO user = userOptional.get();
+            StudentAttemptStats summary = studentService.getAttemptSummary(user.getId());
+            AttemptHistoryPageDTO page = studentService.getAttemptHistory(user.getId(), before, beforeId, size);
+
+            long totalCount = summary.getTotalAttempts();
+            long correctCount = summary.getCorrectAttempts();
+            double successRate = totalCount == 0 ? 0.0 : (double) correctCount / totalCount * 100;
+
+            model.addAttribute("attempts", page.getAttempts());
+            model.addAttribute("page", page);
+            model.addAttribute("pageSize", size);
+            model.addAttribute("firstPage", before == null || beforeId == null);
+            model.addAttribute("totalCount", totalCount);
             model.addAttribute("correctCount", correctCount);
-            model.addAttribute("incorrectCount", incorrectCount);
-            model.addAttribute("uniqueModulesCount", uniqueModulesCount);
-            model.addAttribute("successRate", studentService.getUserSuccessRate(user.getId()));
+            model.addAttribute("incorrectCount", totalCount - correctCount);
+            model.addAttribute("uniqueModulesCount", summary.getDistinctModules());
+            model.addAttribute("successRate", successRate);
 
             return "student/results";
         }
@@ -260,13 +370,12 @@ public class StudentController {
     public String viewModuleWords(@AuthenticationPrincipal UserDetails userDetails,
                                   @PathVariable Long id,
                                   Model model) {
-        Optional<User> userOptional = userService.findByUsername(userDetails.getUsername());
+        Optional<UserSnapshotDTO> userOptional = userService.getCurrentUser(userDetails);
         if (userOptional.isPresent()) {
-            User student = userOptional.get();
+            UserSnapshotDTO student = userOptional.get();
 
             // проверить, доступен ли модуль студенту
-            List<Module> availableModules = studentService.getAvailableModulesForStudent(student.getId());
-            boolean hasAccess = availableModules.stream().anyMatch(m -> m.getId().equals(id));
+            boolean hasAccess = studentService.canAccessModule(student.getGroupId(), id);
 
             if (!hasAccess) {
                 return "redirect:/student/modules?error=access_denied";
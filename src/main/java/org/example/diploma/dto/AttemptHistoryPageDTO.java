@@ -0,0 +1,25 @@
+package org.example.diploma.dto;
+
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+// страница истории попыток студента (keyset-пагинация по (attemptTime, id), от новых к старым)
+@Data
+public class AttemptHistoryPageDTO {
+    private List<StudentDetailedStatsDTO> attempts;
+    private boolean hasNext;
+    private LocalDateTime nextBeforeTime; // курсор следующей страницы: время последней попытки на странице
+    private Long nextBeforeId;            // курсор следующей страницы: идентификатор последней попытки на странице
+
+    public AttemptHistoryPageDTO(List<StudentDetailedStatsDTO> attempts, boolean hasNext) {
+        this.attempts = attempts;
+        this.hasNext = hasNext;
+        if (hasNext) {
+            StudentDetailedStatsDTO last = attempts.get(attempts.size() - 1);
+            this.nextBeforeTime = last.getAttemptTime();
+            this.nextBeforeId = last.getAttemptId();
+        }
+    }
+}
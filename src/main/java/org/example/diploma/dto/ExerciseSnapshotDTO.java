@@ -0,0 +1,72 @@
+package org.example.diploma.dto;
+
+import org.example.diploma.model.Exercise;
+import org.example.diploma.model.Module;
+
+// ExerciseSnapshotDTO - неизменяемый снимок упражнения для кэша практики
+// назначение: хранится в кэше между запросами, не связан с сессией Hibernate
+public final class ExerciseSnapshotDTO {
+    private final Long id;
+    private final Long moduleId;
+    private final String question;
+    private final String correctAnswer;
+    private final String option1;
+    private final String option2;
+    private final String option3;
+    private final String option4;
+    private final Long sourceWordId;
+
+    public ExerciseSnapshotDTO(Long id, Long moduleId, String question, String correctAnswer,
+                               String option1, String option2, String option3, String option4, Long sourceWordId) {
+        this.id = id;
+        this.moduleId = moduleId;
+        this.question = question;
+        this.correctAnswer = correctAnswer;
+        this.option1 = option1;
+        this.option2 = option2;
+        this.option3 = option3;
+        this.option4 = option4;
+        this.sourceWordId = sourceWordId;
+    }
+
+    // from - снимок упражнения
+    // вход:
+    //   - exercise - упражнение
+    //   - moduleId - идентификатор модуля (передается явно, чтобы не загружать ленивую связь)
+    public static ExerciseSnapshotDTO from(Exercise exercise, Long moduleId) {
+        return new ExerciseSnapshotDTO(exercise.getId(), moduleId, exercise.getQuestion(), exercise.getCorrectAnswer(),
+                exercise.getOption1(), exercise.getOption2(), exercise.getOption3(), exercise.getOption4(),
+                exercise.getSourceWordId());
+    }
+
+    // toReference - упражнение-ссылка для записи попытки
+    // выход: несохраняемый объект Exercise с идентификатором, ответами и ссылкой на модуль по идентификатору
+    // примечание: используется только там, где нужны идентификаторы (пакетная запись попыток)
+    public Exercise toReference() {
+        Module module = new Module();
+        module.setId(moduleId);
+
+        Exercise exercise = new Exercise();
+        exercise.setId(id);
+        exercise.setModule(module);
+        exercise.setQuestion(question);
+        exercise.setCorrectAnswer(correctAnswer);
+        exercise.setOption1(option1);
+        exercise.setOption2(option2);
+        exercise.setOption3(option3);
+        exercise.setOption4(option4);
+        exercise.setSourceWordId(sourceWordId);
+        return exercise;
+    }
+
+    // геттеры
+    public Long getId() { return id; }
+    public Long getModuleId() { return moduleId; }
+    public String getQuestion() { return question; }
+    public String getCorrectAnswer() { return correctAnswer; }
+    public String getOption1() { return option1; }
+    public String getOption2() { return option2; }
+    public String getOption3() { return option3; }
+    public String getOption4() { return option4; }
+    public Long getSourceWordId() { return sourceWordId; }
+}
@@ -0,0 +1,17 @@
+package org.example.diploma.dto;
+
+import lombok.Data;
+
+// итоги синхронизации упражнений модуля со словами
+@Data
+public class ExerciseSyncResultDTO {
+    private int created;   // упражнения для новых слов
+    private int refreshed; // упражнения с обновленными вариантами или привязанные к исходному слову
+    private int removed;   // удаленные упражнения удаленных или повторяющихся слов
+    private int retired;   // такие же упражнения с историей попыток студентов: скрыты из модуля, но не удалены
+
+    // getChanged - количество записанных строк
+    public int getChanged() {
+        return created + refreshed + removed + retired;
+    }
+}
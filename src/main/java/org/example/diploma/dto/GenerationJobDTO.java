@@ -0,0 +1,34 @@
+package org.example.diploma.dto;
+
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+// состояние фоновой задачи генерации упражнений (ответ эндпоинта опроса)
+@Data
+public class GenerationJobDTO {
+    private String jobId;
+    private Long moduleId;
+    private String status;      // QUEUED, RUNNING, COMPLETED, FAILED
+    private int total;          // сколько строк упражнений будет записано (известно после сравнения со словами)
+    private int done;           // сколько уже записано
+    private int percent;
+    private String error;
+    private ExerciseSyncResultDTO result; // итоги синхронизации (после завершения)
+    private LocalDateTime createdAt;
+    private LocalDateTime finishedAt;
+
+    public GenerationJobDTO(String jobId, Long moduleId, String status, int total, int done, String error,
+                            ExerciseSyncResultDTO result, LocalDateTime createdAt, LocalDateTime finishedAt) {
+        this.jobId = jobId;
+        this.moduleId = moduleId;
+        this.status = status;
+        this.total = total;
+        this.done = done;
+        this.percent = "COMPLETED".equals(status) ? 100 : total == 0 ? 0 : (int) (done * 100L / total);
+        this.error = error;
+        this.result = result;
+        this.createdAt = createdAt;
+        this.finishedAt = finishedAt;
+    }
+}
@@ -0,0 +1,20 @@
+package org.example.diploma.dto;
+
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// отчет по группе: итоги, строки студентов и модулей (строится одним запросом, см. GroupStatsService)
+@Data
+public class GroupStatsReportDTO {
+    private Long groupId;
+    private long studentCount;
+    private long activeStudents;             // студенты хотя бы с одной попыткой
+    private long totalAttempts;
+    private long correctAttempts;
+    private double successRate;
+    private Double averageTimeSpentSeconds;  // null, если время ответов неизвестно
+    private List<StudentStatsDTO> students = new ArrayList<>();
+    private List<ModuleGroupStatsDTO> modules = new ArrayList<>();
+}
@@ -0,0 +1,26 @@
+package org.example.diploma.dto;
+
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+// приращения статистики группы за окно объединения (сообщение потока живой статистики)
+@Data
+public class LiveStatsDeltaDTO {
+    private Long groupId;
+    private long version;         // наибольший номер вошедшего пакета попыток (сравнивается с версией снимка)
+    private long totalAttempts;   // новые попытки группы за окно
+    private long correctAttempts; // из них правильные
+    private List<StudentDelta> students = new ArrayList<>();
+
+    // приращения одного студента
+    @Data
+    public static class StudentDelta {
+        private Long studentId;
+        private long totalAttempts;
+        private long correctAttempts;
+        private LocalDateTime lastActivity;
+    }
+}
@@ -0,0 +1,15 @@
+package org.example.diploma.dto;
+
+import lombok.Data;
+
+// общее количество упражнений в модуле
+@Data
+public class ModuleExerciseCountDTO {
+    private Long moduleId;
+    private Long exerciseCount;
+
+    public ModuleExerciseCountDTO(Long moduleId, Long exerciseCount) {
+        this.moduleId = moduleId;
+        this.exerciseCount = exerciseCount;
+    }
+}
@@ -0,0 +1,17 @@
+package org.example.diploma.dto;
+
+import lombok.Data;
+
+// количество упражнений модуля и количество решенных студентом упражнений
+@Data
+public class ModuleExerciseProgressDTO {
+    private Long moduleId;
+    private Long totalExercises;
+    private Long solvedExercises;
+
+    public ModuleExerciseProgressDTO(Long moduleId, Long totalExercises, Long solvedExercises) {
+        this.moduleId = moduleId;
+        this.totalExercises = totalExercises;
+        this.solvedExercises = solvedExercises;
+    }
+}
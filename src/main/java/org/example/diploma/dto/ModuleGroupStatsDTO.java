@@ -0,0 +1,15 @@
+package org.example.diploma.dto;
+
+import lombok.Data;
+
+// статистика группы по одному модулю
+@Data
+public class ModuleGroupStatsDTO {
+    private Long moduleId;
+    private String title;
+    private long studentsAttempted;
+    private long totalAttempts;
+    private long correctAttempts;
+    private double successRate;
+    private Double averageTimeSpentSeconds; // null, если время ответов неизвестно
+}
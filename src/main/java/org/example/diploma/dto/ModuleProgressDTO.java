@@ -6,6 +6,9 @@ public class ModuleProgressDTO {
     private Module module;
     private double progress;
     private boolean completed;
+    private long totalExercises;
+    private long solvedExercises;
+    private long wordCount;
 
     public ModuleProgressDTO(Module module, double progress) {
         this.module = module;
@@ -13,6 +16,13 @@ public class ModuleProgressDTO {
         this.completed = progress >= 100.0;
     }
 
+    // конструктор по количеству упражнений (модуль без упражнений не считается завершенным)
+    public ModuleProgressDTO(Module module, long totalExercises, long solvedExercises) {
+        this(module, totalExercises > 0 ? (double) solvedExercises / totalExercises * 100 : 0.0);
+        this.totalExercises = totalExercises;
+        this.solvedExercises = solvedExercises;
+    }
+
     // Геттеры и сеттеры
     public Module getModule() { return module; }
     public void setModule(Module module) { this.module = module; }
@@ -22,4 +32,13 @@ public class ModuleProgressDTO {
 
     public boolean isCompleted() { return completed; }
     public void setCompleted(boolean completed) { this.completed = completed; }
+
+    public long getTotalExercises() { return totalExercises; }
+    public void setTotalExercises(long totalExercises) { this.totalExercises = totalExercises; }
+
+    public long getSolvedExercises() { return solvedExercises; }
+    public void setSolvedExercises(long solvedExercises) { this.solvedExercises = solvedExercises; }
+
+    public long getWordCount() { return wordCount; }
+    public void setWordCount(long wordCount) { this.wordCount = wordCount; }
 }
@@ -0,0 +1,17 @@
+package org.example.diploma.dto;
+
+import lombok.Data;
+
+// количество упражнений модуля, на которые студент хотя бы раз ответил правильно
+@Data
+public class ModuleSolvedCountDTO {
+    private Long studentId;
+    private Long moduleId;
+    private Long solvedExercises;
+
+    public ModuleSolvedCountDTO(Long studentId, Long moduleId, Long solvedExercises) {
+        this.studentId = studentId;
+        this.moduleId = moduleId;
+        this.solvedExercises = solvedExercises;
+    }
+}
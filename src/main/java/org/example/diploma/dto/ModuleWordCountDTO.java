@@ -0,0 +1,15 @@
+package org.example.diploma.dto;
+
+import lombok.Data;
+
+// количество слов в модуле
+@Data
+public class ModuleWordCountDTO {
+    private Long moduleId;
+    private Long wordCount;
+
+    public ModuleWordCountDTO(Long moduleId, Long wordCount) {
+        this.moduleId = moduleId;
+        this.wordCount = wordCount;
+    }
+}
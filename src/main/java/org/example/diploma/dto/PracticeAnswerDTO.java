@@ -0,0 +1,10 @@
+package org.example.diploma.dto;
+
+import lombok.Data;
+
+// ответ студента в пакете ответов практики (время ответа измеряется сервером)
+@Data
+public class PracticeAnswerDTO {
+    private Long exerciseId;
+    private String selectedAnswer;
+}
@@ -0,0 +1,16 @@
+package org.example.diploma.dto;
+
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// пакет вопросов практики модуля
+@Data
+public class PracticeBatchDTO {
+    private Long moduleId;
+    private int offset;         // позиция первого вопроса пакета в модуле
+    private int total;          // всего упражнений в модуле
+    private Integer nextOffset; // позиция следующего пакета (null - вопросы закончились)
+    private List<PracticeQuestionDTO> questions = new ArrayList<>();
+}
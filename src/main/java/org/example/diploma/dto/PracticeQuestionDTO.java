@@ -0,0 +1,22 @@
+package org.example.diploma.dto;
+
+import lombok.Data;
+
+import java.util.List;
+
+// вопрос практики для браузера: без правильного ответа
+@Data
+public class PracticeQuestionDTO {
+    private Long id;
+    private String question;
+    private List<String> options;
+
+    // from - вопрос по снимку упражнения (варианты в том же порядке, что на странице практики)
+    public static PracticeQuestionDTO from(ExerciseSnapshotDTO exercise) {
+        PracticeQuestionDTO dto = new PracticeQuestionDTO();
+        dto.setId(exercise.getId());
+        dto.setQuestion(exercise.getQuestion());
+        dto.setOptions(List.of(exercise.getOption1(), exercise.getOption2(), exercise.getOption3(), exercise.getOption4()));
+        return dto;
+    }
+}
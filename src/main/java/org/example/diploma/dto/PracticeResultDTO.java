@@ -0,0 +1,11 @@
+package org.example.diploma.dto;
+
+import lombok.Data;
+
+// результат проверки одного ответа практики
+@Data
+public class PracticeResultDTO {
+    private Long exerciseId;
+    private boolean correct;
+    private String correctAnswer;
+}
@@ -0,0 +1,71 @@
+package org.example.diploma.dto;
+
+import java.io.Serializable;
+
+// PracticeSession - состояние практики модуля в HTTP-сессии студента
+// назначение: порядок упражнений и позиция хранятся на сервере, страница вопроса запрашивает
+// одно упражнение по идентификатору, а время ответа измеряется сервером
+public class PracticeSession implements Serializable {
+    private final Long moduleId;
+    private final String moduleTitle;       // для заголовка страницы без загрузки модуля на каждый вопрос
+    private final String moduleDescription;
+    private final long[] exerciseIds;
+    private final long startedAt;   // начало практики, мс
+    private int cursor;
+    private Long shownExerciseId;   // последний показанный вопрос
+    private long shownAt;           // момент показа, мс
+
+    public PracticeSession(Long moduleId, String moduleTitle, String moduleDescription, long[] exerciseIds,
+                           long startedAt) {
+        this.moduleId = moduleId;
+        this.moduleTitle = moduleTitle;
+        this.moduleDescription = moduleDescription;
+        this.exerciseIds = exerciseIds;
+        this.startedAt = startedAt;
+    }
+
+    // isFinished - все упражнения пройдены
+    public boolean isFinished() {
+        return cursor >= exerciseIds.length;
+    }
+
+    // getCurrentExerciseId - упражнение на текущей позиции (null после последнего)
+    public Long getCurrentExerciseId() {
+        return isFinished() ? null : exerciseIds[cursor];
+    }
+
+    // advance - переход к следующему упражнению
+    public void advance() {
+        if (!isFinished()) {
+            cursor++;
+        }
+    }
+
+    // moveTo - переход к позиции (ограничивается границами списка)
+    public void moveTo(int index) {
+        cursor = Math.max(0, Math.min(index, exerciseIds.length));
+    }
+
+    // markShown - запоминание показанного вопроса и момента показа
+    public void markShown(Long exerciseId, long now) {
+        if (!exerciseId.equals(shownExerciseId)) {
+            shownExerciseId = exerciseId;
+            shownAt = now;
+        }
+    }
+
+    // clearShown - вопрос отвечен, повторный ответ на него не измеряется
+    public void clearShown() {
+        shownExerciseId = null;
+    }
+
+    // геттеры
+    public Long getModuleId() { return moduleId; }
+    public String getModuleTitle() { return moduleTitle; }
+    public String getModuleDescription() { return moduleDescription; }
+    public int getCursor() { return cursor; }
+    public int getTotal() { return exerciseIds.length; }
+    public long getStartedAt() { return startedAt; }
+    public Long getShownExerciseId() { return shownExerciseId; }
+    public long getShownAt() { return shownAt; }
+}
@@ -15,6 +15,7 @@ public class StudentStatsDTO {
     private LocalDateTime lastActivity;
     private Long totalModules;
     private Long completedModules;
+    private Double averageTimeSpentSeconds; // заполняется в отчете группы (GroupStatsService)
 
     // конструктор
     public StudentStatsDTO(Long studentId, String studentName, Long totalAttempts,
@@ -35,4 +36,11 @@ public class StudentStatsDTO {
         this.groupId = groupId;
         this.groupName = groupName;
     }
+
+    // конструктор для чтения из сводной таблицы student_attempt_stats
+    public StudentStatsDTO(Long studentId, String studentName, Long groupId, String groupName,
+                           Long totalAttempts, Long correctAttempts, LocalDateTime lastActivity, Long totalModules) {
+        this(studentId, studentName, groupId, groupName, totalAttempts, correctAttempts, lastActivity);
+        this.totalModules = totalModules;
+    }
 }
\ No newline at end of file
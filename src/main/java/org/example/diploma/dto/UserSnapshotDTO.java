@@ -0,0 +1,31 @@
+package org.example.diploma.dto;
+
+import org.example.diploma.model.User;
+
+// UserSnapshotDTO - неизменяемый снимок текущего пользователя
+// назначение: короткоживущий кэш пользователя для контроллеров вместо поиска по имени на каждом запросе
+public final class UserSnapshotDTO {
+    private final Long id;
+    private final String username;
+    private final String role;
+    private final Long groupId;
+
+    public UserSnapshotDTO(Long id, String username, String role, Long groupId) {
+        this.id = id;
+        this.username = username;
+        this.role = role;
+        this.groupId = groupId;
+    }
+
+    // from - снимок пользователя (идентификатор группы берется без загрузки ленивой связи)
+    public static UserSnapshotDTO from(User user) {
+        return new UserSnapshotDTO(user.getId(), user.getUsername(), user.getRole(),
+                user.getGroup() != null ? user.getGroup().getId() : null);
+    }
+
+    // геттеры
+    public Long getId() { return id; }
+    public String getUsername() { return username; }
+    public String getRole() { return role; }
+    public Long getGroupId() { return groupId; }
+}
@@ -0,0 +1,15 @@
+package org.example.diploma.dto;
+
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// результат массового импорта слов в модуль
+@Data
+public class WordImportResultDTO {
+    private int accepted;   // добавлено новых слов
+    private int duplicates; // пропущено: пара уже есть в модуле или повторяется в файле
+    private int rejected;   // отклонено: строка не разобрана или поле пустое/слишком длинное
+    private List<String> errors = new ArrayList<>(); // первые ошибки с номерами строк
+}
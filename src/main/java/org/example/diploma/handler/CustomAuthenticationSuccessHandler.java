@@ -1,6 +1,7 @@
 package org.example.diploma.handler;
 
-import org.example.diploma.model.User;
+import org.example.diploma.dto.UserSnapshotDTO;
+import org.example.diploma.security.CustomUserDetails;
 import org.example.diploma.service.UserService;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -26,20 +27,29 @@ public class CustomAuthenticationSuccessHandler implements AuthenticationSuccess
     @Override
     public void onAuthenticationSuccess(HttpServletRequest request, HttpServletResponse response,
                                         Authentication authentication) throws IOException {
-        String username = authentication.getName();
-        Optional<User> userOptional = userService.findByUsername(username);
+        // роль берется из principal, без повторного поиска пользователя
+        if (authentication.getPrincipal() instanceof CustomUserDetails principal) {
+            redirectByRole(response, principal.getRole());
+            return;
+        }
+
+        Optional<UserSnapshotDTO> userOptional = userService.findByUsername(authentication.getName())
+                .map(UserSnapshotDTO::from);
 
         if (userOptional.isPresent()) {
-            User user = userOptional.get();
-            if ("TEACHER".equals(user.getRole())) {
-                response.sendRedirect("/teacher/dashboard");
-            } else if ("STUDENT".equals(user.getRole())) {
-                response.sendRedirect("/student/dashboard");
-            } else {
-                response.sendRedirect("/dashboard");
-            }
+            redirectByRole(response, userOptional.get().getRole());
         } else {
             response.sendRedirect("/login?error");
         }
     }
+
+    private void redirectByRole(HttpServletResponse response, String role) throws IOException {
+        if ("TEACHER".equals(role)) {
+            response.sendRedirect("/teacher/dashboard");
+        } else if ("STUDENT".equals(role)) {
+            response.sendRedirect("/student/dashboard");
+        } else {
+            response.sendRedirect("/dashboard");
+        }
+    }
 }
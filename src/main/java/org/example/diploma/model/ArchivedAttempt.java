@@ -0,0 +1,34 @@
+package org.example.diploma.model;
+
+//попытка, перенесенная из attempts в архив (пишется и читается только через JDBC: архиватор и выгрузка)
+
+import jakarta.persistence.*;
+import lombok.Data;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "attempts_archive", indexes = {
+        @Index(name = "idx_attempts_archive_user_time", columnList = "user_id, attempt_time")
+})
+@Data
+public class ArchivedAttempt {
+    @Id
+    private Long id;
+
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Column(name = "exercise_id")
+    private Long exerciseId;
+
+    @Column(nullable = false)
+    private String selectedAnswer;
+
+    @Column(nullable = false)
+    private boolean isCorrect;
+
+    @Column(nullable = false)
+    private LocalDateTime attemptTime;
+
+    private Integer timeSpentSeconds;
+}
@@ -7,7 +7,14 @@ import lombok.Data;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "attempts")
+@Table(name = "attempts", indexes = {
+        // история и счетчики студента: WHERE user_id = ? ORDER BY attempt_time DESC, id DESC
+        @Index(name = "idx_attempts_user_time", columnList = "user_id, attempt_time, id"),
+        // решенные упражнения: WHERE user_id = ? AND exercise_id = ? AND is_correct = true
+        @Index(name = "idx_attempts_user_exercise_correct", columnList = "user_id, exercise_id, is_correct"),
+        // попытки по упражнению (прогресс модуля, проверка истории перед удалением упражнения)
+        @Index(name = "idx_attempts_exercise_user", columnList = "exercise_id, user_id, is_correct")
+})
 @Data
 public class Attempt {
     @Id
@@ -0,0 +1,40 @@
+package org.example.diploma.model;
+
+//итоги архивированных попыток студента по упражнению (заменяют строки attempts старше горизонта хранения)
+
+import jakarta.persistence.*;
+import lombok.Data;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "attempt_summaries", indexes = {
+        // проверка, есть ли у упражнения история попыток (синхронизация упражнений модуля)
+        @Index(name = "idx_attempt_summaries_exercise", columnList = "exercise_id")
+})
+@IdClass(AttemptSummaryId.class)
+@Data
+public class AttemptSummary {
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Id
+    @Column(name = "exercise_id")
+    private Long exerciseId;
+
+    @Column(nullable = false)
+    private long totalAttempts;
+
+    @Column(nullable = false)
+    private long correctAttempts;
+
+    @Column(nullable = false)
+    private long totalTimeSpentSeconds;
+
+    @Column(nullable = false)
+    private long timedAttempts; // попытки с известным временем ответа
+
+    private LocalDateTime firstAttemptTime;
+
+    private LocalDateTime lastAttemptTime;
+}
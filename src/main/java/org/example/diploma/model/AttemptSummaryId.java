@@ -0,0 +1,11 @@
+package org.example.diploma.model;
+
+import lombok.Data;
+import java.io.Serializable;
+
+// составной ключ AttemptSummary (студент + упражнение)
+@Data
+public class AttemptSummaryId implements Serializable {
+    private Long userId;
+    private Long exerciseId;
+}
@@ -4,7 +4,9 @@ import jakarta.persistence.*;
 import lombok.Data;
 
 @Entity
-@Table(name = "exercises")
+@Table(name = "exercises", indexes = {
+        @Index(name = "idx_exercises_module_source", columnList = "module_id, source_word_id")
+})
 @Data
 public class Exercise {
     @Id
@@ -33,6 +35,18 @@ public class Exercise {
     @JoinColumn(name = "module_id")
     private Module module;
 
+    // слово, по которому сгенерировано упражнение (без внешнего ключа: слово можно удалить, упражнение останется)
+    @Column(name = "source_word_id")
+    private Long sourceWordId;
+
+    // идентификаторы слов неправильных вариантов через запятую
+    @Column(name = "distractor_word_ids")
+    private String distractorWordIds;
+
+    // упражнение выведено из модуля (слово удалено или повторяется), но сохранено ради истории попыток
+    @Column(nullable = false)
+    private boolean retired;
+
     public void setType(String multipleChoice) {
     }
 }
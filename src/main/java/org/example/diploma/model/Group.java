@@ -6,7 +6,9 @@ import java.util.ArrayList;
 import java.util.List;
 
 @Entity
-@Table(name = "study_groups")
+@Table(name = "study_groups", indexes = {
+        @Index(name = "idx_study_groups_teacher_name", columnList = "teacher_id, name")
+})
 @Data
 public class Group {
     @Id
@@ -29,7 +31,11 @@ public class Group {
     @JoinTable(
             name = "group_modules",
             joinColumns = @JoinColumn(name = "group_id"),
-            inverseJoinColumns = @JoinColumn(name = "module_id")
+            inverseJoinColumns = @JoinColumn(name = "module_id"),
+            indexes = {
+                    @Index(name = "idx_group_modules_group_module", columnList = "group_id, module_id"),
+                    @Index(name = "idx_group_modules_module", columnList = "module_id")
+            }
     )
     private List<Module> assignedModules = new ArrayList<>();
 
@@ -6,7 +6,9 @@ import java.util.List;
 import java.util.ArrayList;
 
 @Entity
-@Table(name = "modules")
+@Table(name = "modules", indexes = {
+        @Index(name = "idx_modules_user_title", columnList = "user_id, title")
+})
 @Data
 public class Module {
     @Id
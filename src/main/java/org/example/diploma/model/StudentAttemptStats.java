@@ -0,0 +1,27 @@
+package org.example.diploma.model;
+
+//сводная статистика попыток студента (поддерживается инкрементально при записи попыток)
+
+import jakarta.persistence.*;
+import lombok.Data;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "student_attempt_stats")
+@Data
+public class StudentAttemptStats {
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Column(nullable = false)
+    private long totalAttempts;
+
+    @Column(nullable = false)
+    private long correctAttempts;
+
+    private LocalDateTime lastActivity;
+
+    @Column(nullable = false)
+    private long distinctModules; // количество модулей, в которых были попытки
+}
@@ -0,0 +1,38 @@
+package org.example.diploma.model;
+
+//сводная статистика попыток студента в разрезе модуля
+
+import jakarta.persistence.*;
+import lombok.Data;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "student_module_stats", indexes = {
+        // строки студента: отчет группы и пересчет количества модулей студента
+        @Index(name = "idx_student_module_stats_user", columnList = "user_id")
+})
+@IdClass(StudentModuleStatsId.class)
+@Data
+public class StudentModuleStats {
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Id
+    @Column(name = "module_id")
+    private Long moduleId;
+
+    @Column(nullable = false)
+    private long totalAttempts;
+
+    @Column(nullable = false)
+    private long correctAttempts;
+
+    @Column(nullable = false)
+    private long timeSpentSeconds; // сумма времени ответов, у которых время известно
+
+    @Column(nullable = false)
+    private long timedAttempts;    // количество таких ответов
+
+    private LocalDateTime lastActivity;
+}
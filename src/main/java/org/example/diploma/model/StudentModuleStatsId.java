@@ -0,0 +1,11 @@
+package org.example.diploma.model;
+
+import lombok.Data;
+import java.io.Serializable;
+
+// составной ключ StudentModuleStats (студент + модуль)
+@Data
+public class StudentModuleStatsId implements Serializable {
+    private Long userId;
+    private Long moduleId;
+}
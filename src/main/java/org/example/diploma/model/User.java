@@ -8,7 +8,12 @@ import java.util.ArrayList;
 import java.util.List;
 
 @Entity
-@Table(name = "users")
+@Table(name = "users", indexes = {
+        // студенты группы: WHERE group_id = ? AND role = 'STUDENT'
+        @Index(name = "idx_users_group_role", columnList = "group_id, role"),
+        // студенты без группы: WHERE role = ? AND group_id IS NULL
+        @Index(name = "idx_users_role_group", columnList = "role, group_id")
+})
 @Data
 public class User {
     @Id
@@ -4,7 +4,9 @@ import jakarta.persistence.*;
 import lombok.Data;
 
 @Entity
-@Table(name = "words")
+@Table(name = "words", indexes = {
+        @Index(name = "idx_words_module", columnList = "module_id")
+})
 @Data
 public class Word {
     @Id
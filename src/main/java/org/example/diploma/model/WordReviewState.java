@@ -0,0 +1,41 @@
+package org.example.diploma.model;
+
+//состояние интервального повторения слова студентом (алгоритм SM-2)
+
+import jakarta.persistence.*;
+import lombok.Data;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "word_review_states", indexes = {
+        // следующее слово к повторению: WHERE user_id = ? AND module_id = ? AND due_at <= ? ORDER BY due_at
+        @Index(name = "idx_word_review_states_due", columnList = "user_id, module_id, due_at")
+})
+@IdClass(WordReviewStateId.class)
+@Data
+public class WordReviewState {
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Id
+    @Column(name = "word_id")
+    private Long wordId;
+
+    @Column(name = "module_id", nullable = false)
+    private Long moduleId;
+
+    @Column(nullable = false)
+    private int repetitions; // правильных ответов подряд
+
+    @Column(nullable = false)
+    private int intervalDays; // текущий интервал повторения (0 - слово еще изучается)
+
+    @Column(nullable = false)
+    private int easeFactor; // коэффициент легкости SM-2, умноженный на 100 (250 = 2.5)
+
+    @Column(name = "due_at", nullable = false)
+    private LocalDateTime dueAt;
+
+    private LocalDateTime lastReviewedAt;
+}
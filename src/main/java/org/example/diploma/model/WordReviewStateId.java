@@ -0,0 +1,11 @@
+package org.example.diploma.model;
+
+import lombok.Data;
+import java.io.Serializable;
+
+// составной ключ WordReviewState (студент + слово)
+@Data
+public class WordReviewStateId implements Serializable {
+    private Long userId;
+    private Long wordId;
+}
@@ -1,12 +1,16 @@
 package org.example.diploma.repository;
 
+import org.example.diploma.dto.ModuleExerciseProgressDTO;
+import org.example.diploma.dto.ModuleSolvedCountDTO;
 import org.example.diploma.dto.StudentDetailedStatsDTO;
-import org.example.diploma.dto.StudentStatsDTO;
 import org.example.diploma.model.Attempt;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 public interface AttemptRepository extends JpaRepository<Attempt, Long> {
@@ -14,51 +18,26 @@ public interface AttemptRepository extends JpaRepository<Attempt, Long> {
     // findByUserId - поиск всех попыток пользователя
     // вход: userId - идентификатор пользователя
     // выход: список попыток пользователя
-    List<Attempt> findByUserId(Long userId);
+    // примечание: условие по колонке user_id (производный запрос соединяет users и фильтрует по users.id)
+    @Query("SELECT a FROM Attempt a WHERE a.user.id = :userId")
+    List<Attempt> findByUserId(@Param("userId") Long userId);
 
     // findByUserIdAndExerciseModuleId - поиск попыток пользователя по конкретному модулю
     // вход:
     //   - userId - идентификатор пользователя
     //   - moduleId - идентификатор модуля
     // выход: список попыток пользователя в указанном модуле
-    List<Attempt> findByUserIdAndExerciseModuleId(Long userId, Long moduleId);
+    @Query("SELECT a FROM Attempt a JOIN a.exercise e WHERE a.user.id = :userId AND e.module.id = :moduleId")
+    List<Attempt> findByUserIdAndExerciseModuleId(@Param("userId") Long userId, @Param("moduleId") Long moduleId);
 
     // existsByUserIdAndExerciseIdAndIsCorrectTrue - проверка существования правильной попытки
     // вход:
     //   - userId - идентификатор пользователя
     //   - exerciseId - идентификатор упражнения
     // выход: true - если у пользователя есть правильная попытка для данного упражнения, иначе false
-    boolean existsByUserIdAndExerciseIdAndIsCorrectTrue(Long userId, Long exerciseId);
-
-    // countCorrectAttemptsByUserId - подсчет количества правильных попыток пользователя
-    // вход: userId - идентификатор пользователя
-    // выход: количество правильных попыток пользователя
-    @Query("SELECT COUNT(a) FROM Attempt a WHERE a.user.id = :userId AND a.isCorrect = true")
-    Long countCorrectAttemptsByUserId(Long userId);
-
-    // countTotalAttemptsByUserId - подсчет общего количества попыток пользователя
-    // вход: userId - идентификатор пользователя
-    // выход: общее количество попыток пользователя
-    @Query("SELECT COUNT(a) FROM Attempt a WHERE a.user.id = :userId")
-    Long countTotalAttemptsByUserId(Long userId);
-
-    // findStudentStatsByGroupId - получение статистики студентов по группе
-    // вход: groupId - идентификатор группы
-    // выход: список DTO со статистикой студентов группы
-    // возвращаемые данные для каждого студента:
-    //   - идентификатор студента
-    //   - имя пользователя
-    //   - идентификатор группы
-    //   - название группы
-    //   - общее количество попыток
-    //   - количество правильных попыток
-    //   - время последней попытки
-    @Query("SELECT new org.example.diploma.dto.StudentStatsDTO(" +
-            "u.id, u.username, u.group.id, u.group.name, COUNT(a), SUM(CASE WHEN a.isCorrect = true THEN 1 ELSE 0 END), MAX(a.attemptTime)) " +
-            "FROM User u LEFT JOIN Attempt a ON u.id = a.user.id " +
-            "WHERE u.group.id = :groupId AND u.role = 'STUDENT' " +
-            "GROUP BY u.id, u.username, u.group.id, u.group.name")
-    List<StudentStatsDTO> findStudentStatsByGroupId(@Param("groupId") Long groupId);
+    @Query("SELECT COUNT(a) > 0 FROM Attempt a " +
+            "WHERE a.user.id = :userId AND a.exercise.id = :exerciseId AND a.isCorrect = true")
+    boolean existsByUserIdAndExerciseIdAndIsCorrectTrue(@Param("userId") Long userId, @Param("exerciseId") Long exerciseId);
 
     // findDetailedStatsByStudentId - получение детальной статистики по студенту
     // вход: studentId - идентификатор студента
@@ -81,39 +60,74 @@ public interface AttemptRepository extends JpaRepository<Attempt, Long> {
             "ORDER BY a.attemptTime DESC")
     List<StudentDetailedStatsDTO> findDetailedStatsByStudentId(@Param("studentId") Long studentId);
 
-    // findStudentStatsByTeacherId - получение статистики студентов преподавателя
-    // вход: teacherId - идентификатор преподавателя
-    // выход: список DTO со статистикой студентов всех групп преподавателя
-    // возвращаемые данные для каждого студента:
-    //   - идентификатор студента
-    //   - имя пользователя
-    //   - идентификатор группы
-    //   - название группы
-    //   - общее количество попыток
-    //   - количество правильных попыток
-    //   - время последней попытки
-    @Query("SELECT new org.example.diploma.dto.StudentStatsDTO(" +
-            "u.id, u.username, u.group.id, u.group.name, COUNT(a), SUM(CASE WHEN a.isCorrect = true THEN 1 ELSE 0 END), MAX(a.attemptTime)) " +
-            "FROM User u LEFT JOIN Attempt a ON u.id = a.user.id " +
-            "WHERE u.group.teacher.id = :teacherId AND u.role = 'STUDENT' " +
-            "GROUP BY u.id, u.username, u.group.id, u.group.name")
-    List<StudentStatsDTO> findStudentStatsByTeacherId(@Param("teacherId") Long teacherId);
+    // findHistoryFirstPage - первая страница истории попыток студента
+    // вход:
+    //   - studentId - идентификатор студента
+    //   - pageable - размер страницы (номер страницы не используется, смещение всегда 0)
+    // выход: попытки от новых к старым в виде DTO (модуль и упражнение подтягиваются одним JOIN)
+    @Query("SELECT new org.example.diploma.dto.StudentDetailedStatsDTO(" +
+            "a.id, m.title, e.question, a.selectedAnswer, e.correctAnswer, a.isCorrect, a.attemptTime, a.timeSpentSeconds) " +
+            "FROM Attempt a JOIN a.exercise e JOIN e.module m " +
+            "WHERE a.user.id = :studentId " +
+            "ORDER BY a.attemptTime DESC, a.id DESC")
+    List<StudentDetailedStatsDTO> findHistoryFirstPage(@Param("studentId") Long studentId, Pageable pageable);
 
-    // countTotalAttemptsByGroupId - подсчет общего количества попыток в группе
-    // вход: groupId - идентификатор группы
-    // выход: общее количество попыток всех студентов группы
-    @Query("SELECT COUNT(a) FROM Attempt a WHERE a.user.group.id = :groupId")
-    Long countTotalAttemptsByGroupId(@Param("groupId") Long groupId);
+    // findHistoryPageBefore - следующая страница истории попыток студента (keyset-пагинация)
+    // вход:
+    //   - studentId - идентификатор студента
+    //   - beforeTime, beforeId - курсор: время и идентификатор последней попытки предыдущей страницы
+    //   - pageable - размер страницы
+    // выход: попытки строго старше курсора в порядке (attemptTime, id) по убыванию
+    // логика:
+    //  - вместо OFFSET используется условие по курсору, поэтому глубокие страницы читаются так же быстро, как первая
+    //  - id разрешает попытки с одинаковым временем, ни одна строка не теряется и не повторяется
+    @Query("SELECT new org.example.diploma.dto.StudentDetailedStatsDTO(" +
+            "a.id, m.title, e.question, a.selectedAnswer, e.correctAnswer, a.isCorrect, a.attemptTime, a.timeSpentSeconds) " +
+            "FROM Attempt a JOIN a.exercise e JOIN e.module m " +
+            "WHERE a.user.id = :studentId " +
+            "AND (a.attemptTime < :beforeTime OR (a.attemptTime = :beforeTime AND a.id < :beforeId)) " +
+            "ORDER BY a.attemptTime DESC, a.id DESC")
+    List<StudentDetailedStatsDTO> findHistoryPageBefore(@Param("studentId") Long studentId,
+                                                        @Param("beforeTime") LocalDateTime beforeTime,
+                                                        @Param("beforeId") Long beforeId,
+                                                        Pageable pageable);
 
-    // countCorrectAttemptsByGroupId - подсчет количества правильных попыток в группе
-    // вход: groupId - идентификатор группы
-    // выход: количество правильных попыток всех студентов группы
-    @Query("SELECT COUNT(a) FROM Attempt a WHERE a.user.group.id = :groupId AND a.isCorrect = true")
-    Long countCorrectAttemptsByGroupId(@Param("groupId") Long groupId);
+    // countSolvedExercisesByStudents - количество решенных упражнений по модулям для набора студентов
+    // вход: studentIds - идентификаторы студентов
+    // выход: список DTO (студент, модуль, количество упражнений с хотя бы одной правильной попыткой)
+    // логика:
+    //  - один агрегирующий запрос на весь набор студентов вместо запроса на каждого студента и упражнение
+    //  - решенные упражнения берутся из попыток и из итогов архивированных попыток (attempt_summaries);
+    //    UNION убирает повторы, поэтому упражнение, решенное и до, и после архивации, считается один раз
+    //  - выведенные из модуля упражнения (retired) не считаются, как и в общем количестве упражнений
+    @Query("SELECT new org.example.diploma.dto.ModuleSolvedCountDTO(s.userId, e.module.id, COUNT(e)) " +
+            "FROM (SELECT a.user.id AS userId, a.exercise.id AS exerciseId FROM Attempt a " +
+            "      WHERE a.user.id IN :studentIds AND a.isCorrect = true " +
+            "      UNION " +
+            "      SELECT r.userId AS userId, r.exerciseId AS exerciseId FROM AttemptSummary r " +
+            "      WHERE r.userId IN :studentIds AND r.correctAttempts > 0) s " +
+            "JOIN Exercise e ON e.id = s.exerciseId " +
+            "WHERE e.retired = false " +
+            "GROUP BY s.userId, e.module.id")
+    List<ModuleSolvedCountDTO> countSolvedExercisesByStudents(@Param("studentIds") Collection<Long> studentIds);
 
-    // countModulesAttemptedByStudent - подсчет количества модулей, в которых студент делал попытки
-    // вход: studentId - идентификатор студента
-    // выход: количество уникальных модулей, в которых студент выполнял упражнения
-    @Query("SELECT COUNT(DISTINCT e.module.id) FROM Attempt a JOIN a.exercise e WHERE a.user.id = :studentId")
-    Long countModulesAttemptedByStudent(@Param("studentId") Long studentId);
-}
\ No newline at end of file
+    // findModuleProgressByStudent - прогресс студента по набору модулей одним запросом
+    // вход:
+    //   - studentId - идентификатор студента
+    //   - moduleIds - идентификаторы модулей
+    // выход: список DTO (модуль, всего упражнений, решено упражнений); модули без упражнений в результат не попадают
+    // логика:
+    //  - для каждого упражнения модулей проверяется наличие правильной попытки студента (индекс по exercise_id, user_id)
+    //    или правильных архивированных попыток в attempt_summaries (первичный ключ user_id, exercise_id)
+    //  - решенное упражнение считается один раз независимо от количества правильных попыток
+    //  - выведенные из модуля упражнения (retired) не входят ни в общее, ни в решенное количество
+    @Query("SELECT new org.example.diploma.dto.ModuleExerciseProgressDTO(e.module.id, COUNT(e), " +
+            "SUM(CASE WHEN EXISTS (SELECT 1 FROM Attempt a WHERE a.exercise.id = e.id AND a.user.id = :studentId AND a.isCorrect = true) " +
+            "      OR EXISTS (SELECT 1 FROM AttemptSummary r WHERE r.exerciseId = e.id AND r.userId = :studentId AND r.correctAttempts > 0) " +
+            "    THEN 1L ELSE 0L END)) " +
+            "FROM Exercise e " +
+            "WHERE e.module.id IN :moduleIds AND e.retired = false " +
+            "GROUP BY e.module.id")
+    List<ModuleExerciseProgressDTO> findModuleProgressByStudent(@Param("studentId") Long studentId,
+                                                                @Param("moduleIds") Collection<Long> moduleIds);
+}
@@ -1,8 +1,13 @@
 package org.example.diploma.repository;
 
+import org.example.diploma.dto.ModuleExerciseCountDTO;
 import org.example.diploma.model.Exercise;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 public interface ExerciseRepository extends JpaRepository<Exercise, Long> {
 
@@ -10,8 +15,17 @@ public interface ExerciseRepository extends JpaRepository<Exercise, Long> {
     // вход: moduleId - идентификатор модуля
     // выход: список упражнений, принадлежащих указанному модулю
     // логика:
-    //  - возвращает все упражнения, связанные с модулем по foreign key
-    List<Exercise> findByModuleId(Long moduleId);
+    //  - возвращает упражнения, связанные с модулем по foreign key, кроме выведенных из модуля (retired)
+    @Query("SELECT e FROM Exercise e WHERE e.module.id = :moduleId AND e.retired = false")
+    List<Exercise> findByModuleId(@Param("moduleId") Long moduleId);
+
+    // findModuleIdById - идентификатор модуля упражнения
+    // вход: id - идентификатор упражнения
+    // выход: Optional<Long> - идентификатор модуля, если упражнение найдено
+    // логика:
+    //  - читается только внешний ключ, упражнение и модуль не загружаются
+    @Query("SELECT e.module.id FROM Exercise e WHERE e.id = :id")
+    Optional<Long> findModuleIdById(@Param("id") Long id);
 
     // deleteByModuleId - удаление всех упражнений по идентификатору модуля
     // вход: moduleId - идентификатор модуля
@@ -20,4 +34,13 @@ public interface ExerciseRepository extends JpaRepository<Exercise, Long> {
     //  - удаляет все упражнения, связанные с указанным модулем
     //  - используется при удалении модуля для каскадного удаления упражнений
     void deleteByModuleId(Long moduleId);
+
+    // countByModuleIds - количество упражнений в каждом из указанных модулей
+    // вход: moduleIds - идентификаторы модулей
+    // выход: список DTO (модуль, количество упражнений); модули без упражнений в результат не попадают
+    // логика:
+    //  - выведенные из модуля упражнения (retired) не считаются
+    @Query("SELECT new org.example.diploma.dto.ModuleExerciseCountDTO(e.module.id, COUNT(e)) " +
+            "FROM Exercise e WHERE e.module.id IN :moduleIds AND e.retired = false GROUP BY e.module.id")
+    List<ModuleExerciseCountDTO> countByModuleIds(@Param("moduleIds") Collection<Long> moduleIds);
 }
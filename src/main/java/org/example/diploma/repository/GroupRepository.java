@@ -1,9 +1,12 @@
 package org.example.diploma.repository;
 
 import org.example.diploma.model.Group;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import java.util.List;
+import java.util.Optional;
 
 public interface GroupRepository extends JpaRepository<Group, Long> {
 
@@ -14,6 +17,16 @@ public interface GroupRepository extends JpaRepository<Group, Long> {
     //  - возвращает все группы, созданные преподавателем
     List<Group> findByTeacherId(Long teacherId);
 
+    // findWithTeacherAndModulesById - группа вместе с преподавателем и назначенными модулями
+    // вход: id - идентификатор группы
+    // выход: Optional<Group> - группа, если найдена
+    // логика:
+    //  - один запрос с LEFT JOIN (граф сущности): страница группы и изменение назначенных модулей
+    //    обращаются к этим связям после закрытия сессии
+    @EntityGraph(attributePaths = {"teacher", "assignedModules"})
+    @Query("SELECT g FROM Group g WHERE g.id = :id")
+    Optional<Group> findWithTeacherAndModulesById(@Param("id") Long id);
+
     // findGroupsByModuleId - поиск групп, которым назначен указанный модуль
     // вход: moduleId - идентификатор модуля
     // выход: список групп, в которые назначен указанный модуль
@@ -2,6 +2,8 @@ package org.example.diploma.repository;
 
 import org.example.diploma.model.Module;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import java.util.List;
 
 public interface ModuleRepository extends JpaRepository<Module, Long> {
@@ -14,6 +16,14 @@ public interface ModuleRepository extends JpaRepository<Module, Long> {
     //  - используется для отображения модулей преподавателя в личном кабинете
     List<Module> findByUserId(Long userId);
 
+    // findAssignedToStudent - модули, назначенные группе студента
+    // вход: studentId - идентификатор студента
+    // выход: список модулей в порядке идентификаторов; пустой, если студент не состоит в группе
+    // логика:
+    //  - один запрос через группу студента и таблицу назначений, без загрузки пользователя и группы
+    @Query("SELECT m FROM User u JOIN u.group g JOIN g.assignedModules m WHERE u.id = :studentId ORDER BY m.id")
+    List<Module> findAssignedToStudent(@Param("studentId") Long studentId);
+
     // existsByTitleAndUserId - проверка уникальности названия модуля для пользователя
     // вход:
     //   - title - название модуля для проверки
@@ -25,4 +35,11 @@ public interface ModuleRepository extends JpaRepository<Module, Long> {
     //  - используется для валидации при создании и редактировании модулей
     //  - предотвращает создание дублирующихся модулей у одного преподавателя
     boolean existsByTitleAndUserId(String title, Long userId);
-}
\ No newline at end of file
+
+    // existsByIdAndUserId - проверка, что модуль принадлежит пользователю
+    // вход:
+    //   - id - идентификатор модуля
+    //   - userId - идентификатор пользователя (преподавателя)
+    // выход: true, если модуль существует и создан указанным пользователем
+    boolean existsByIdAndUserId(Long id, Long userId);
+}
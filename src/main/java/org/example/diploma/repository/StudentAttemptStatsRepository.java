@@ -0,0 +1,35 @@
+package org.example.diploma.repository;
+
+import org.example.diploma.dto.StudentStatsDTO;
+import org.example.diploma.model.StudentAttemptStats;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+
+public interface StudentAttemptStatsRepository extends JpaRepository<StudentAttemptStats, Long> {
+
+    // findStudentStatsByGroupId - статистика студентов группы из сводной таблицы
+    // вход: groupId - идентификатор группы
+    // выход: список DTO со статистикой студентов группы
+    // логика:
+    //  - читает готовые счетчики из student_attempt_stats вместо GROUP BY по всей таблице attempts
+    //  - студенты без попыток попадают в результат с нулевыми счетчиками (LEFT JOIN)
+    @Query("SELECT new org.example.diploma.dto.StudentStatsDTO(" +
+            "u.id, u.username, u.group.id, u.group.name, COALESCE(s.totalAttempts, 0L), COALESCE(s.correctAttempts, 0L), " +
+            "s.lastActivity, COALESCE(s.distinctModules, 0L)) " +
+            "FROM User u LEFT JOIN StudentAttemptStats s ON s.userId = u.id " +
+            "WHERE u.group.id = :groupId AND u.role = 'STUDENT'")
+    List<StudentStatsDTO> findStudentStatsByGroupId(@Param("groupId") Long groupId);
+
+    // findStudentStatsByTeacherId - статистика студентов всех групп преподавателя из сводной таблицы
+    // вход: teacherId - идентификатор преподавателя
+    // выход: список DTO со статистикой студентов
+    @Query("SELECT new org.example.diploma.dto.StudentStatsDTO(" +
+            "u.id, u.username, u.group.id, u.group.name, COALESCE(s.totalAttempts, 0L), COALESCE(s.correctAttempts, 0L), " +
+            "s.lastActivity, COALESCE(s.distinctModules, 0L)) " +
+            "FROM User u LEFT JOIN StudentAttemptStats s ON s.userId = u.id " +
+            "WHERE u.group.teacher.id = :teacherId AND u.role = 'STUDENT'")
+    List<StudentStatsDTO> findStudentStatsByTeacherId(@Param("teacherId") Long teacherId);
+}
@@ -1,8 +1,13 @@
 package org.example.diploma.repository;
 
+import org.example.diploma.dto.ModuleWordCountDTO;
 import org.example.diploma.model.Word;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 public interface WordRepository extends JpaRepository<Word, Long> {
 
@@ -14,6 +19,14 @@ public interface WordRepository extends JpaRepository<Word, Long> {
     //  - используется для отображения словаря модуля и генерации упражнений
     List<Word> findByModuleId(Long moduleId);
 
+    // findModuleIdById - идентификатор модуля слова
+    // вход: id - идентификатор слова
+    // выход: Optional<Long> - идентификатор модуля, если слово найдено
+    // логика:
+    //  - читается только внешний ключ, слово и модуль не загружаются
+    @Query("SELECT w.module.id FROM Word w WHERE w.id = :id")
+    Optional<Long> findModuleIdById(@Param("id") Long id);
+
     // deleteByModuleId - удаление всех слов по идентификатору модуля
     // вход: moduleId - идентификатор модуля
     // выход: void
@@ -22,4 +35,13 @@ public interface WordRepository extends JpaRepository<Word, Long> {
     //  - используется при удалении модуля для каскадного удаления слов
     //  - обеспечивает целостность данных при удалении модулей
     void deleteByModuleId(Long moduleId);
-}
\ No newline at end of file
+
+    // countByModuleIds - количество слов в каждом из указанных модулей
+    // вход: moduleIds - идентификаторы модулей
+    // выход: список DTO (модуль, количество слов); модули без слов в результат не попадают
+    // логика:
+    //  - заменяет обращение к коллекции module.words в представлениях (загрузка всех слов каждого модуля)
+    @Query("SELECT new org.example.diploma.dto.ModuleWordCountDTO(w.module.id, COUNT(w)) " +
+            "FROM Word w WHERE w.module.id IN :moduleIds GROUP BY w.module.id")
+    List<ModuleWordCountDTO> countByModuleIds(@Param("moduleIds") Collection<Long> moduleIds);
+}
@@ -0,0 +1,28 @@
+package org.example.diploma.security;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+
+import java.util.Collection;
+
+// CustomUserDetails - principal Spring Security с данными пользователя из базы
+// назначение: контроллерам не нужно искать пользователя по имени на каждом запросе
+// примечание: groupId фиксируется при входе; актуальная группа берется из UserService.getCurrentUser
+public class CustomUserDetails extends User {
+    private final Long userId;
+    private final String role;
+    private final Long groupId;
+
+    public CustomUserDetails(Long userId, String username, String password, String role, Long groupId,
+                             Collection<? extends GrantedAuthority> authorities) {
+        super(username, password, authorities);
+        this.userId = userId;
+        this.role = role;
+        this.groupId = groupId;
+    }
+
+    // геттеры
+    public Long getUserId() { return userId; }
+    public String getRole() { return role; }
+    public Long getGroupId() { return groupId; }
+}
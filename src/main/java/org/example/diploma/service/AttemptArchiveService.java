@@ -0,0 +1,250 @@
+package org.example.diploma.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@Service
+public class AttemptArchiveService {
+    private static final Logger log = LoggerFactory.getLogger(AttemptArchiveService.class);
+
+    private static final String RANGE_CONDITION = "attempt_time >= ? AND attempt_time < ?";
+
+    // промежуточная таблица для EXCHANGE PARTITION: копия структуры attempts без секций
+    private static final String EXCHANGE_TABLE = "attempts_exchange";
+
+    private static final String COPY_RANGE_SQL = copyToArchiveSql("attempts", RANGE_CONDITION);
+    private static final String MERGE_RANGE_SQL = mergeSummariesSql("attempts", RANGE_CONDITION);
+    private static final String DELETE_RANGE_SQL = "DELETE FROM attempts WHERE " + RANGE_CONDITION;
+
+    private static final String COPY_EXCHANGED_SQL = copyToArchiveSql(EXCHANGE_TABLE, null);
+    private static final String MERGE_EXCHANGED_SQL = mergeSummariesSql(EXCHANGE_TABLE, null);
+
+    private static final String MAX_PARTITION = "p_max";
+    private static final DateTimeFormatter PARTITION_NAME = DateTimeFormatter.ofPattern("'p'yyyyMM");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int horizonMonths;
+    private final int futurePartitions;
+
+    // Конструктор AttemptArchiveService - внедрение зависимостей
+    // вход:
+    //   - jdbcTemplate - шаблон для переноса строк и обслуживания секций
+    //   - transactionManager - менеджер транзакций (каждый месяц переносится отдельной транзакцией)
+    //   - horizonMonths - сколько полных месяцев попыток хранится в attempts (кроме текущего)
+    //   - futurePartitions - сколько месячных секций создается заранее
+    // выход: созданный экземпляр AttemptArchiveService
+    @Autowired
+    public AttemptArchiveService(JdbcTemplate jdbcTemplate,
+                                 PlatformTransactionManager transactionManager,
+                                 @Value("${app.attempts.archive.horizon-months:12}") int horizonMonths,
+                                 @Value("${app.attempts.archive.future-partitions:3}") int futurePartitions) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.horizonMonths = horizonMonths;
+        this.futurePartitions = futurePartitions;
+    }
+
+    // archiveOnSchedule - ежедневный запуск архивации (повторный запуск в тот же день ничего не делает)
+    @Scheduled(cron = "${app.attempts.archive.cron:0 30 3 * * *}")
+    public void archiveOnSchedule() {
+        archive(LocalDate.now());
+    }
+
+    // archive - перенос попыток старше горизонта хранения в архив
+    // вход: today - текущая дата (граница считается от начала ее месяца)
+    // выход: количество перенесенных попыток
+    // логика:
+    //  - граница: начало месяца today минус horizonMonths месяцев; более старые попытки переносятся по месяцам
+    //  - вместе со строками в attempts_archive пополняются итоги attempt_summaries (студент, упражнение)
+    //  - сводные таблицы student_attempt_stats/student_module_stats не меняются: они уже учитывают эти попытки
+    //  - на секционированной таблице (MySQL) заранее создаются секции будущих месяцев, а секции старше границы
+    //    выносятся целиком (archivePartitionsBefore); на остальных базах строки переносятся запросами (archiveRowsBefore)
+    public long archive(LocalDate today) {
+        LocalDateTime cutoff = today.withDayOfMonth(1).minusMonths(horizonMonths).atStartOfDay();
+
+        long moved;
+        if (isPartitioned()) {
+            addFuturePartitions(today);
+            moved = archivePartitionsBefore(cutoff);
+        } else {
+            moved = archiveRowsBefore(cutoff);
+        }
+
+        if (moved > 0) {
+            log.info("Archived {} attempts older than {}", moved, cutoff);
+        }
+        return moved;
+    }
+
+    // archiveRowsBefore - построчный перенос попыток старше границы (таблица без секций)
+    // логика:
+    //  - месяц переносится одной транзакцией: строки копируются в attempts_archive, по ним пополняются итоги,
+    //    затем строки удаляются из attempts; при сбое месяц остается целиком в attempts и переносится
+    //    при следующем запуске, итоги не удваиваются
+    private long archiveRowsBefore(LocalDateTime cutoff) {
+        Timestamp oldest = jdbcTemplate.queryForObject(
+                "SELECT MIN(attempt_time) FROM attempts WHERE attempt_time < ?", Timestamp.class, Timestamp.valueOf(cutoff));
+        if (oldest == null) {
+            return 0;
+        }
+
+        long moved = 0;
+        LocalDateTime from = oldest.toLocalDateTime().toLocalDate().withDayOfMonth(1).atStartOfDay();
+        while (from.isBefore(cutoff)) {
+            LocalDateTime to = from.plusMonths(1).isAfter(cutoff) ? cutoff : from.plusMonths(1);
+            Timestamp fromTs = Timestamp.valueOf(from);
+            Timestamp toTs = Timestamp.valueOf(to);
+            Integer rows = transactionTemplate.execute(status -> {
+                jdbcTemplate.update(COPY_RANGE_SQL, fromTs, toTs);
+                jdbcTemplate.update(MERGE_RANGE_SQL, fromTs, toTs);
+                return jdbcTemplate.update(DELETE_RANGE_SQL, fromTs, toTs);
+            });
+            moved += rows == null ? 0 : rows;
+            from = to;
+        }
+        return moved;
+    }
+
+    // archivePartitionsBefore - вынос месячных секций attempts, целиком лежащих до границы архивации
+    // логика:
+    //  - секция обменивается (EXCHANGE PARTITION) с пустой таблицей attempts_exchange той же структуры - это
+    //    операция над метаданными, строки attempts не копируются и не удаляются, затем пустая секция удаляется
+    //  - строки из attempts_exchange переносятся в архив и итоги (finishExchange), после чего таблица удаляется
+    //  - если предыдущий запуск прервался после обмена, оставшаяся attempts_exchange дообрабатывается первой
+    private long archivePartitionsBefore(LocalDateTime cutoff) {
+        long moved = finishExchange();
+
+        List<String> expired = new ArrayList<>();
+        readPartitions().forEach((name, bound) -> {
+            if (bound != null && !bound.atStartOfDay().isAfter(cutoff)) {
+                expired.add(name);
+            }
+        });
+
+        for (String name : expired) {
+            jdbcTemplate.execute("CREATE TABLE " + EXCHANGE_TABLE + " LIKE attempts");
+            jdbcTemplate.execute("ALTER TABLE " + EXCHANGE_TABLE + " REMOVE PARTITIONING");
+            jdbcTemplate.execute("ALTER TABLE attempts EXCHANGE PARTITION " + name + " WITH TABLE " + EXCHANGE_TABLE);
+            jdbcTemplate.execute("ALTER TABLE attempts DROP PARTITION " + name);
+            log.info("Dropped archived attempts partition {}", name);
+            moved += finishExchange();
+        }
+        return moved;
+    }
+
+    // finishExchange - перенос строк вынесенной секции из attempts_exchange в архив и удаление attempts_exchange
+    // выход: количество перенесенных попыток (0, если таблицы нет или ее строки уже в архиве)
+    // логика:
+    //  - копирование и итоги выполняются одной транзакцией, поэтому по наличию в архиве любой строки
+    //    attempts_exchange видно, что перенос уже выполнен и осталось только удалить таблицу
+    private long finishExchange() {
+        Boolean exists = jdbcTemplate.queryForObject(
+                "SELECT EXISTS (SELECT 1 FROM information_schema.tables WHERE table_schema = DATABASE() AND table_name = ?)",
+                Boolean.class, EXCHANGE_TABLE);
+        if (!Boolean.TRUE.equals(exists)) {
+            return 0;
+        }
+
+        Long firstId = jdbcTemplate.queryForObject("SELECT MIN(id) FROM " + EXCHANGE_TABLE, Long.class);
+        Integer rows = 0;
+        if (firstId != null && !Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                "SELECT EXISTS (SELECT 1 FROM attempts_archive WHERE id = ?)", Boolean.class, firstId))) {
+            rows = transactionTemplate.execute(status -> {
+                int copied = jdbcTemplate.update(COPY_EXCHANGED_SQL);
+                jdbcTemplate.update(MERGE_EXCHANGED_SQL);
+                return copied;
+            });
+        }
+        jdbcTemplate.execute("DROP TABLE " + EXCHANGE_TABLE);
+        return rows == null ? 0 : rows;
+    }
+
+    // isPartitioned - таблица attempts секционирована (только MySQL, см. миграцию V4)
+    private boolean isPartitioned() {
+        String product = jdbcTemplate.execute((ConnectionCallback<String>) connection ->
+                connection.getMetaData().getDatabaseProductName());
+        if (!"MySQL".equalsIgnoreCase(product)) {
+            return false;
+        }
+        return !readPartitions().isEmpty();
+    }
+
+    // readPartitions - секции attempts по возрастанию: имя -> верхняя граница (null для MAXVALUE)
+    private Map<String, LocalDate> readPartitions() {
+        Map<String, LocalDate> partitions = new LinkedHashMap<>();
+        jdbcTemplate.query(
+                "SELECT partition_name, partition_description FROM information_schema.partitions " +
+                "WHERE table_schema = DATABASE() AND table_name = 'attempts' AND partition_name IS NOT NULL " +
+                "ORDER BY partition_ordinal_position",
+                rs -> {
+                    String bound = rs.getString(2).replace("'", "");
+                    partitions.put(rs.getString(1), "MAXVALUE".equals(bound) ? null : LocalDate.parse(bound.substring(0, 10)));
+                });
+        return partitions;
+    }
+
+    // addFuturePartitions - секции для текущего и следующих futurePartitions месяцев, отделяемые от p_max
+    // логика:
+    //  - миграция V4 создает месячные секции с запасом, поэтому p_max всегда пуста и REORGANIZE не переписывает строки
+    private void addFuturePartitions(LocalDate today) {
+        LocalDate highest = readPartitions().values().stream()
+                .filter(bound -> bound != null)
+                .max(LocalDate::compareTo)
+                .orElse(null);
+
+        LocalDate month = today.withDayOfMonth(1);
+        for (int i = 0; i <= futurePartitions; i++, month = month.plusMonths(1)) {
+            LocalDate bound = month.plusMonths(1);
+            if (highest != null && !bound.isAfter(highest)) {
+                continue;
+            }
+            jdbcTemplate.execute("ALTER TABLE attempts REORGANIZE PARTITION " + MAX_PARTITION + " INTO (" +
+                    "PARTITION " + month.format(PARTITION_NAME) + " VALUES LESS THAN ('" + bound + "'), " +
+                    "PARTITION " + MAX_PARTITION + " VALUES LESS THAN (MAXVALUE))");
+            highest = bound;
+            log.info("Added attempts partition {}", month.format(PARTITION_NAME));
+        }
+    }
+
+    // copyToArchiveSql - копирование строк source (с необязательным условием) в attempts_archive
+    private static String copyToArchiveSql(String source, String condition) {
+        return "INSERT INTO attempts_archive (id, user_id, exercise_id, selected_answer, is_correct, attempt_time, time_spent_seconds) " +
+                "SELECT id, user_id, exercise_id, selected_answer, is_correct, attempt_time, time_spent_seconds FROM " + source +
+                (condition == null ? "" : " WHERE " + condition);
+    }
+
+    // mergeSummariesSql - пополнение итогов attempt_summaries по строкам source (с необязательным условием)
+    private static String mergeSummariesSql(String source, String condition) {
+        return "INSERT INTO attempt_summaries (user_id, exercise_id, total_attempts, correct_attempts, total_time_spent_seconds, " +
+                "timed_attempts, first_attempt_time, last_attempt_time) " +
+                "SELECT user_id, exercise_id, COUNT(*), SUM(CASE WHEN is_correct THEN 1 ELSE 0 END), " +
+                "COALESCE(SUM(time_spent_seconds), 0), COUNT(time_spent_seconds), MIN(attempt_time), MAX(attempt_time) " +
+                "FROM " + source + " WHERE user_id IS NOT NULL AND exercise_id IS NOT NULL" +
+                (condition == null ? "" : " AND " + condition) + " " +
+                "GROUP BY user_id, exercise_id " +
+                "ON DUPLICATE KEY UPDATE total_attempts = total_attempts + VALUES(total_attempts), " +
+                "correct_attempts = correct_attempts + VALUES(correct_attempts), " +
+                "total_time_spent_seconds = total_time_spent_seconds + VALUES(total_time_spent_seconds), " +
+                "timed_attempts = timed_attempts + VALUES(timed_attempts), " +
+                "first_attempt_time = LEAST(COALESCE(first_attempt_time, VALUES(first_attempt_time)), VALUES(first_attempt_time)), " +
+                "last_attempt_time = GREATEST(COALESCE(last_attempt_time, VALUES(last_attempt_time)), VALUES(last_attempt_time))";
+    }
+}
@@ -0,0 +1,246 @@
+package org.example.diploma.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import javax.sql.DataSource;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+
+@Service
+public class AttemptExportService {
+
+    // формат выгрузки
+    public enum Format {
+        CSV, NDJSON
+    }
+
+    // область выгрузки: условие по user_id внутри каждой ветви UNION ALL (горячая таблица и архив),
+    // чтобы обе таблицы читались по индексу пользователя, а не целиком
+    public enum Scope {
+        STUDENT("user_id = ?"),
+        GROUP("user_id IN (SELECT id FROM users WHERE group_id = ?)"),
+        TEACHER("user_id IN (SELECT su.id FROM users su JOIN study_groups sg ON sg.id = su.group_id WHERE sg.teacher_id = ?)");
+
+        private final String sql;
+
+        Scope(String userCondition) {
+            this.sql = "SELECT a.id, u.username, g.name AS group_name, m.title, e.question, a.selected_answer, " +
+                    "e.correct_answer, a.is_correct, a.attempt_time, a.time_spent_seconds " +
+                    "FROM (SELECT id, user_id, exercise_id, selected_answer, is_correct, attempt_time, time_spent_seconds " +
+                    "      FROM attempts WHERE " + userCondition +
+                    "      UNION ALL " +
+                    "      SELECT id, user_id, exercise_id, selected_answer, is_correct, attempt_time, time_spent_seconds " +
+                    "      FROM attempts_archive WHERE " + userCondition + ") a " +
+                    "JOIN users u ON u.id = a.user_id " +
+                    "LEFT JOIN study_groups g ON g.id = u.group_id " +
+                    "JOIN exercises e ON e.id = a.exercise_id " +
+                    "JOIN modules m ON m.id = e.module_id " +
+                    "ORDER BY a.user_id, a.attempt_time, a.id";
+        }
+    }
+
+    private static final String[] COLUMNS = {
+            "attemptId", "student", "group", "module", "question", "selectedAnswer", "correctAnswer",
+            "correct", "attemptTime", "timeSpentSeconds"
+    };
+
+    private static final int WRITE_BUFFER = 64 * 1024;
+
+    private final JdbcTemplate streamingJdbcTemplate;
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+
+    // Конструктор AttemptExportService - внедрение зависимостей
+    // вход:
+    //   - dataSource - источник соединений (для выгрузки создается отдельный JdbcTemplate с потоковым fetchSize)
+    //   - jdbcTemplate - общий шаблон для проверок доступа
+    //   - objectMapper - Jackson для записи NDJSON
+    //   - fetchSize - размер выборки курсора; Integer.MIN_VALUE включает построчную передачу в MySQL Connector/J
+    // выход: созданный экземпляр AttemptExportService
+    @Autowired
+    public AttemptExportService(DataSource dataSource,
+                                JdbcTemplate jdbcTemplate,
+                                ObjectMapper objectMapper,
+                                @Value("${app.export.fetch-size:-2147483648}") int fetchSize) {
+        this.streamingJdbcTemplate = new JdbcTemplate(dataSource);
+        this.streamingJdbcTemplate.setFetchSize(fetchSize);
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+    }
+
+    // export - потоковая выгрузка попыток в выходной поток
+    // вход:
+    //   - scope - область выгрузки (студент, группа, все группы преподавателя)
+    //   - id - идентификатор студента, группы или преподавателя
+    //   - format - CSV или NDJSON
+    //   - out - выходной поток ответа (сжатие, если нужно, настраивается вызывающей стороной)
+    // выход: количество выгруженных строк
+    // логика:
+    //  - строки читаются однонаправленным курсором и сразу пишутся в поток, список попыток в памяти не строится
+    //  - память не зависит от количества строк: в памяти только текущая строка и буфер записи
+    //  - в выгрузку входят и попытки, перенесенные архиватором в attempts_archive; условие области стоит
+    //    в обеих ветвях объединения, поэтому читаются только попытки выбранных студентов
+    public long export(Scope scope, Long id, Format format, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), WRITE_BUFFER);
+        RowWriter rowWriter = format == Format.NDJSON ? new NdjsonRowWriter(writer) : new CsvRowWriter(writer);
+
+        long[] rows = {0};
+        try {
+            rowWriter.start();
+            streamingJdbcTemplate.query(scope.sql, rs -> {
+                try {
+                    rowWriter.write(rs);
+                    rows[0]++;
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }, id, id);
+        } catch (UncheckedIOException e) {
+            // клиент оборвал соединение - курсор закрывается вместе с запросом
+            throw e.getCause();
+        }
+        writer.flush();
+        return rows[0];
+    }
+
+    // isGroupOfTeacher - проверка, что группа принадлежит преподавателю
+    public boolean isGroupOfTeacher(Long groupId, Long teacherId) {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                "SELECT EXISTS (SELECT 1 FROM study_groups WHERE id = ? AND teacher_id = ?)",
+                Boolean.class, groupId, teacherId));
+    }
+
+    // isStudentOfTeacher - проверка, что студент состоит в одной из групп преподавателя
+    public boolean isStudentOfTeacher(Long studentId, Long teacherId) {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                "SELECT EXISTS (SELECT 1 FROM users u JOIN study_groups g ON g.id = u.group_id WHERE u.id = ? AND g.teacher_id = ?)",
+                Boolean.class, studentId, teacherId));
+    }
+
+    private interface RowWriter {
+        void start() throws IOException;
+
+        void write(ResultSet rs) throws SQLException, IOException;
+    }
+
+    // CsvRowWriter - строки CSV (RFC 4180): поля с запятыми, кавычками и переводами строк берутся в кавычки
+    // примечание: текстовые поля, которые табличный редактор принял бы за формулу (начинаются с =, +, -, @,
+    //   табуляции или возврата каретки; ответы студентов - произвольный текст), экранируются префиксом '
+    private static final class CsvRowWriter implements RowWriter {
+        private final Writer writer;
+
+        private CsvRowWriter(Writer writer) {
+            this.writer = writer;
+        }
+
+        @Override
+        public void start() throws IOException {
+            writer.write(String.join(",", COLUMNS));
+            writer.write("\r\n");
+        }
+
+        @Override
+        public void write(ResultSet rs) throws SQLException, IOException {
+            writer.write(Long.toString(rs.getLong(1)));
+            for (int column = 2; column <= 7; column++) {
+                writer.write(',');
+                writeField(rs.getString(column));
+            }
+            writer.write(',');
+            writer.write(rs.getBoolean(8) ? "true" : "false");
+            writer.write(',');
+            Timestamp time = rs.getTimestamp(9);
+            if (time != null) {
+                writer.write(time.toLocalDateTime().toString());
+            }
+            writer.write(',');
+            int spent = rs.getInt(10);
+            if (!rs.wasNull()) {
+                writer.write(Integer.toString(spent));
+            }
+            writer.write("\r\n");
+        }
+
+        private void writeField(String value) throws IOException {
+            if (value == null) {
+                return;
+            }
+            if (isFormulaLike(value)) {
+                value = "'" + value;
+            }
+            boolean quote = false;
+            for (int i = 0; i < value.length() && !quote; i++) {
+                char c = value.charAt(i);
+                quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+            }
+            if (!quote) {
+                writer.write(value);
+                return;
+            }
+            writer.write('"');
+            writer.write(value.replace("\"", "\"\""));
+            writer.write('"');
+        }
+
+        private static boolean isFormulaLike(String value) {
+            if (value.isEmpty()) {
+                return false;
+            }
+            char first = value.charAt(0);
+            return first == '=' || first == '+' || first == '-' || first == '@' || first == '\t' || first == '\r';
+        }
+    }
+
+    // NdjsonRowWriter - один JSON-объект на строку, генератор Jackson переиспользуется для всех строк
+    private final class NdjsonRowWriter implements RowWriter {
+        private final Writer writer;
+        private JsonGenerator generator;
+
+        private NdjsonRowWriter(Writer writer) {
+            this.writer = writer;
+        }
+
+        @Override
+        public void start() throws IOException {
+            generator = objectMapper.getFactory().createGenerator(writer);
+            generator.setRootValueSeparator(null);
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            // flush генератора не должен сбрасывать буфер записи на каждую строку
+            generator.disable(JsonGenerator.Feature.FLUSH_PASSED_TO_STREAM);
+        }
+
+        @Override
+        public void write(ResultSet rs) throws SQLException, IOException {
+            generator.writeStartObject();
+            generator.writeNumberField(COLUMNS[0], rs.getLong(1));
+            for (int column = 2; column <= 7; column++) {
+                generator.writeStringField(COLUMNS[column - 1], rs.getString(column));
+            }
+            generator.writeBooleanField(COLUMNS[7], rs.getBoolean(8));
+            Timestamp time = rs.getTimestamp(9);
+            generator.writeStringField(COLUMNS[8], time != null ? time.toLocalDateTime().toString() : null);
+            int spent = rs.getInt(10);
+            if (rs.wasNull()) {
+                generator.writeNullField(COLUMNS[9]);
+            } else {
+                generator.writeNumberField(COLUMNS[9], spent);
+            }
+            generator.writeEndObject();
+            generator.flush();
+            writer.write('\n');
+        }
+    }
+}
@@ -0,0 +1,273 @@
+package org.example.diploma.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.example.diploma.model.Attempt;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+@Service
+public class AttemptIngestionService {
+    private static final Logger log = LoggerFactory.getLogger(AttemptIngestionService.class);
+
+    private static final String INSERT_SQL =
+            "INSERT INTO attempts (user_id, exercise_id, selected_answer, is_correct, attempt_time, time_spent_seconds) " +
+            "VALUES (?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final AttemptStatsRollupService rollupService;
+    private final SpacedRepetitionService spacedRepetitionService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Counter dropped;
+    private final boolean async;
+    private final int batchSize;
+    private final long offerTimeoutMs;
+    private final BlockingQueue<Attempt> queue;
+    private final ScheduledExecutorService flusher;
+    private final AtomicBoolean flushScheduled = new AtomicBoolean(false);
+    private final Object flushLock = new Object();
+    private volatile boolean stopped;
+
+    // Конструктор AttemptIngestionService - внедрение зависимостей и настройка буфера
+    // вход:
+    //   - jdbcTemplate - шаблон для пакетной вставки попыток
+    //   - transactionManager - менеджер транзакций (каждый пакет пишется в одной транзакции)
+    //   - rollupService - сервис сводной статистики, обновляемой вместе с пакетом
+    //   - spacedRepetitionService - сроки повторения слов, обновляемые вместе с пакетом
+    //   - eventPublisher - публикация AttemptsRecordedEvent для живой статистики
+    //   - meterRegistry - реестр метрик (счетчик потерянных попыток app.attempts.dropped)
+    //   - mode - режим записи: async (буфер + фоновые пакеты) или sync (запись в потоке запроса)
+    //   - capacity - максимальный размер буфера попыток
+    //   - batchSize - размер JDBC-пакета
+    //   - flushIntervalMs - период принудительного сброса буфера
+    //   - offerTimeoutMs - сколько поток запроса ждет места в буфере перед синхронной записью
+    // выход: созданный экземпляр AttemptIngestionService
+    @Autowired
+    public AttemptIngestionService(JdbcTemplate jdbcTemplate,
+                                   PlatformTransactionManager transactionManager,
+                                   AttemptStatsRollupService rollupService,
+                                   SpacedRepetitionService spacedRepetitionService,
+                                   ApplicationEventPublisher eventPublisher,
+                                   MeterRegistry meterRegistry,
+                                   @Value("${app.attempts.ingestion.mode:async}") String mode,
+                                   @Value("${app.attempts.ingestion.capacity:10000}") int capacity,
+                                   @Value("${app.attempts.ingestion.batch-size:200}") int batchSize,
+                                   @Value("${app.attempts.ingestion.flush-interval-ms:500}") long flushIntervalMs,
+                                   @Value("${app.attempts.ingestion.offer-timeout-ms:50}") long offerTimeoutMs) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.rollupService = rollupService;
+        this.spacedRepetitionService = spacedRepetitionService;
+        this.eventPublisher = eventPublisher;
+        this.dropped = Counter.builder("app.attempts.dropped")
+                .description("Buffered attempts that could not be written and were discarded")
+                .register(meterRegistry);
+        this.async = !"sync".equalsIgnoreCase(mode);
+        this.batchSize = batchSize;
+        this.offerTimeoutMs = offerTimeoutMs;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+
+        if (async) {
+            this.flusher = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread thread = new Thread(r, "attempt-ingestion");
+                thread.setDaemon(true);
+                return thread;
+            });
+            this.flusher.scheduleWithFixedDelay(this::flushQuietly, flushIntervalMs, flushIntervalMs, TimeUnit.MILLISECONDS);
+        } else {
+            this.flusher = null;
+        }
+    }
+
+    // submit - прием попытки на запись
+    // вход: attempt - заполненная (еще не сохраненная) попытка
+    // выход: void
+    // логика:
+    //  - в режиме sync попытка сразу пишется в базу в потоке запроса
+    //  - в режиме async попытка кладется в буфер, при наборе полного пакета запускается сброс
+    //  - если буфер переполнен дольше offerTimeoutMs, попытка пишется синхронно (обратное давление)
+    //  - после shutdown буфер больше никто не сбрасывает, поэтому попытка пишется синхронно
+    public void submit(Attempt attempt) {
+        if (!async || stopped) {
+            writeBatch(List.of(attempt), true);
+            return;
+        }
+
+        boolean accepted;
+        try {
+            accepted = queue.offer(attempt, offerTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            accepted = false;
+        }
+
+        if (!accepted) {
+            // буфер полон - запрос платит за запись сам, чтобы не терять данные
+            writeBatch(List.of(attempt), true);
+            return;
+        }
+
+        if (stopped) {
+            // остановка началась, пока попытка вставала в буфер: последний сброс мог уже пройти
+            flush();
+            return;
+        }
+
+        if (queue.size() >= batchSize && flushScheduled.compareAndSet(false, true)) {
+            try {
+                flusher.execute(() -> {
+                    flushScheduled.set(false);
+                    flushQuietly();
+                });
+            } catch (RejectedExecutionException e) {
+                // фоновый поток уже остановлен - буфер сбрасывает сам запрос
+                flushScheduled.set(false);
+                flush();
+            }
+        }
+    }
+
+    // submitNow - запись попытки в потоке запроса в любом режиме
+    // вход: attempt - заполненная (еще не сохраненная) попытка
+    // выход: void
+    // логика:
+    //  - используется сессией повторения: срок слова должен сдвинуться до выбора следующего вопроса
+    public void submitNow(Attempt attempt) {
+        writeBatch(List.of(attempt), true);
+    }
+
+    // flush - сброс всего содержимого буфера в базу пакетами
+    // вход: отсутствует
+    // выход: количество записанных попыток
+    public int flush() {
+        int written = 0;
+        synchronized (flushLock) {
+            List<Attempt> batch = new ArrayList<>(batchSize);
+            while (queue.drainTo(batch, batchSize) > 0) {
+                writeBatch(batch, false);
+                written += batch.size();
+                batch.clear();
+            }
+        }
+        return written;
+    }
+
+    // getPendingCount - количество попыток, ожидающих записи
+    // вход: отсутствует
+    // выход: текущий размер буфера
+    public int getPendingCount() {
+        return queue.size();
+    }
+
+    // isAsync - включен ли асинхронный режим записи
+    public boolean isAsync() {
+        return async;
+    }
+
+    // shutdown - остановка фонового потока с гарантированным сбросом буфера
+    // логика:
+    //  - вызывается контейнером при остановке приложения, пока DataSource еще доступен
+    //  - флаг stopped выставляется до остановки потока: следующие попытки submit пишет синхронно
+    @PreDestroy
+    public void shutdown() {
+        stopped = true;
+        if (flusher != null) {
+            flusher.shutdown();
+            try {
+                flusher.awaitTermination(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        int written = flush();
+        if (written > 0) {
+            log.info("Flushed {} pending attempts on shutdown", written);
+        }
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (Exception e) {
+            log.error("Attempt flush failed", e);
+        }
+    }
+
+    // writeBatch - запись пакета попыток одной транзакцией
+    // вход:
+    //   - batch - попытки
+    //   - requestThread - запись в потоке запроса: ошибка передается вызывающему
+    // логика:
+    //  - вставка идет через JDBC batch в обход Hibernate, поэтому IDENTITY-ключи не мешают пакетированию
+    //  - сводная статистика (student_attempt_stats) и сроки повторения слов обновляются в той же транзакции
+    //  - в той же транзакции публикуется AttemptsRecordedEvent: слушатели получают его только после фиксации,
+    //    поэтому откаченный пакет (и его повтор по одной попытке) не учитывается дважды
+    //  - при ошибке пакета из буфера попытки пишутся по одной, чтобы одна плохая строка не уносила весь пакет;
+    //    попытка, которую не удалось записать и по одной, теряется и учитывается в app.attempts.dropped
+    private void writeBatch(List<Attempt> batch, boolean requestThread) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> insert(batch));
+        } catch (RuntimeException e) {
+            if (requestThread) {
+                throw e;
+            }
+            if (batch.size() == 1) {
+                drop(batch.get(0), e);
+                return;
+            }
+            log.warn("Batch insert of {} attempts failed, retrying one by one", batch.size(), e);
+            for (Attempt attempt : batch) {
+                try {
+                    transactionTemplate.executeWithoutResult(status -> insert(List.of(attempt)));
+                } catch (RuntimeException single) {
+                    drop(attempt, single);
+                }
+            }
+        }
+    }
+
+    private void drop(Attempt attempt, RuntimeException cause) {
+        dropped.increment();
+        log.error("Dropping attempt of user {} for exercise {}",
+                attempt.getUser().getId(), attempt.getExercise().getId(), cause);
+    }
+
+    private void insert(List<Attempt> batch) {
+        jdbcTemplate.batchUpdate(INSERT_SQL, batch, batch.size(), (ps, attempt) -> {
+            ps.setLong(1, attempt.getUser().getId());
+            ps.setLong(2, attempt.getExercise().getId());
+            ps.setString(3, attempt.getSelectedAnswer());
+            ps.setBoolean(4, attempt.isCorrect());
+            ps.setTimestamp(5, Timestamp.valueOf(attempt.getAttemptTime()));
+            if (attempt.getTimeSpentSeconds() != null) {
+                ps.setInt(6, attempt.getTimeSpentSeconds());
+            } else {
+                ps.setNull(6, Types.INTEGER);
+            }
+        });
+        rollupService.apply(batch);
+        spacedRepetitionService.apply(batch);
+        eventPublisher.publishEvent(new AttemptsRecordedEvent(batch));
+    }
+}
@@ -0,0 +1,265 @@
+package org.example.diploma.service;
+
+import org.example.diploma.model.Attempt;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+@Service
+public class AttemptStatsRollupService {
+    private static final Logger log = LoggerFactory.getLogger(AttemptStatsRollupService.class);
+
+    private static final String UPSERT_MODULE_SQL =
+            "INSERT INTO student_module_stats (user_id, module_id, total_attempts, correct_attempts, time_spent_seconds, " +
+            "timed_attempts, last_activity) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?) " +
+            "ON DUPLICATE KEY UPDATE total_attempts = total_attempts + VALUES(total_attempts), " +
+            "correct_attempts = correct_attempts + VALUES(correct_attempts), " +
+            "time_spent_seconds = time_spent_seconds + VALUES(time_spent_seconds), " +
+            "timed_attempts = timed_attempts + VALUES(timed_attempts), " +
+            "last_activity = GREATEST(COALESCE(last_activity, VALUES(last_activity)), VALUES(last_activity))";
+
+    private static final String UPSERT_STUDENT_SQL =
+            "INSERT INTO student_attempt_stats (user_id, total_attempts, correct_attempts, last_activity, distinct_modules) " +
+            "VALUES (?, ?, ?, ?, 0) " +
+            "ON DUPLICATE KEY UPDATE total_attempts = total_attempts + VALUES(total_attempts), " +
+            "correct_attempts = correct_attempts + VALUES(correct_attempts), " +
+            "last_activity = GREATEST(COALESCE(last_activity, VALUES(last_activity)), VALUES(last_activity))";
+
+    private static final String REFRESH_DISTINCT_MODULES_SQL =
+            "UPDATE student_attempt_stats SET distinct_modules = " +
+            "(SELECT COUNT(*) FROM student_module_stats m WHERE m.user_id = student_attempt_stats.user_id) " +
+            "WHERE user_id = ?";
+
+    // попытки по (студент, упражнение): строки attempts и итоги архивированных попыток из attempt_summaries
+    private static final String ALL_ATTEMPTS_SQL = attemptsByExerciseSql("");
+    private static final String STUDENT_ATTEMPTS_SQL = attemptsByExerciseSql(" WHERE user_id = ?");
+
+    private static final String REBUILD_MODULE_SQL = rebuildModuleSql(ALL_ATTEMPTS_SQL);
+    private static final String REBUILD_STUDENT_MODULE_SQL = rebuildModuleSql(STUDENT_ATTEMPTS_SQL);
+    private static final String REBUILD_STUDENT_SQL = rebuildStudentSql("");
+    private static final String REBUILD_ONE_STUDENT_SQL = rebuildStudentSql(" WHERE user_id = ?");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean rebuildOnStartup;
+    private final boolean verifyOnStartup;
+
+    // Конструктор AttemptStatsRollupService - внедрение зависимостей
+    // вход:
+    //   - jdbcTemplate - шаблон для пакетного обновления сводных таблиц
+    //   - transactionManager - менеджер транзакций для полного пересчета
+    //   - rebuildOnStartup - пересчитать сводные таблицы с нуля при старте приложения
+    //   - verifyOnStartup - сверить сводные таблицы с таблицей attempts при старте приложения
+    // выход: созданный экземпляр AttemptStatsRollupService
+    @Autowired
+    public AttemptStatsRollupService(JdbcTemplate jdbcTemplate,
+                                     PlatformTransactionManager transactionManager,
+                                     @Value("${app.stats.rollup.rebuild-on-startup:false}") boolean rebuildOnStartup,
+                                     @Value("${app.stats.rollup.verify-on-startup:false}") boolean verifyOnStartup) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.rebuildOnStartup = rebuildOnStartup;
+        this.verifyOnStartup = verifyOnStartup;
+    }
+
+    // apply - инкрементальное обновление сводных таблиц пакетом попыток
+    // вход: attempts - только что записанные попытки
+    // выход: void
+    // логика:
+    //  - вызывается в той же транзакции, что и вставка попыток, поэтому счетчики не расходятся с attempts
+    //  - попытки агрегируются в памяти по (студент, модуль) и по студенту, в базу уходит по одному upsert на ключ
+    //  - количество модулей пересчитывается только для затронутых студентов по маленькой таблице student_module_stats
+    //  - строки пишутся в порядке (студент, модуль), а не в порядке попыток: пакеты фоновой записи и записи
+    //    в потоке запроса блокируют общие сводные строки в одном порядке и не взаимоблокируются
+    public void apply(List<Attempt> attempts) {
+        if (attempts.isEmpty()) {
+            return;
+        }
+
+        Map<List<Long>, Counters> byModule = new TreeMap<>(
+                Comparator.<List<Long>, Long>comparing(key -> key.get(0)).thenComparing(key -> key.get(1)));
+        Map<Long, Counters> byStudent = new TreeMap<>();
+        for (Attempt attempt : attempts) {
+            Long userId = attempt.getUser().getId();
+            Long moduleId = attempt.getExercise().getModule().getId();
+            byModule.computeIfAbsent(List.of(userId, moduleId), key -> new Counters()).add(attempt);
+            byStudent.computeIfAbsent(userId, key -> new Counters()).add(attempt);
+        }
+
+        List<Object[]> moduleRows = new ArrayList<>(byModule.size());
+        byModule.forEach((key, c) -> moduleRows.add(new Object[]{key.get(0), key.get(1), c.total, c.correct,
+                c.timeSpent, c.timed, Timestamp.valueOf(c.lastActivity)}));
+        jdbcTemplate.batchUpdate(UPSERT_MODULE_SQL, moduleRows);
+
+        List<Object[]> studentRows = new ArrayList<>(byStudent.size());
+        byStudent.forEach((userId, c) -> studentRows.add(
+                new Object[]{userId, c.total, c.correct, Timestamp.valueOf(c.lastActivity)}));
+        jdbcTemplate.batchUpdate(UPSERT_STUDENT_SQL, studentRows);
+
+        jdbcTemplate.batchUpdate(REFRESH_DISTINCT_MODULES_SQL,
+                byStudent.keySet().stream().map(userId -> new Object[]{userId}).collect(Collectors.toList()));
+    }
+
+    // rebuild - полный пересчет сводных таблиц по таблице attempts
+    // вход: отсутствует
+    // выход: void
+    // логика:
+    //  - очищает сводные таблицы и заполняет их двумя INSERT ... SELECT с GROUP BY
+    //  - архивированные попытки берутся из итогов attempt_summaries
+    //  - используется после миграции, восстановления из бэкапа или при обнаружении расхождений
+    //  - выполняется одной транзакцией, читатели видят либо старые, либо новые счетчики
+    public void rebuild() {
+        transactionTemplate.executeWithoutResult(status -> rebuildTables());
+        log.info("Attempt stats rollup rebuilt");
+    }
+
+    private void rebuildTables() {
+        jdbcTemplate.update("DELETE FROM student_attempt_stats");
+        jdbcTemplate.update("DELETE FROM student_module_stats");
+        jdbcTemplate.update(REBUILD_MODULE_SQL);
+        jdbcTemplate.update(REBUILD_STUDENT_SQL);
+    }
+
+    // rebuildStudents - пересчет сводных строк отдельных студентов после удаления их попыток
+    // вход: userIds - студенты, у которых удалены попытки
+    // выход: void
+    // логика:
+    //  - вызывается в транзакции удаления, поэтому сводные таблицы не расходятся с attempts
+    //  - уменьшить счетчики нельзя (last_activity и число модулей не вычитаются), поэтому строки студента
+    //    удаляются и собираются заново по его попыткам (индекс attempts по user_id) и итогам attempt_summaries
+    //  - студент без оставшихся попыток остается без строк, как до первого ответа
+    public void rebuildStudents(Collection<Long> userIds) {
+        if (userIds.isEmpty()) {
+            return;
+        }
+        List<Object[]> byStudent = userIds.stream().map(userId -> new Object[]{userId}).collect(Collectors.toList());
+        jdbcTemplate.batchUpdate("DELETE FROM student_attempt_stats WHERE user_id = ?", byStudent);
+        jdbcTemplate.batchUpdate("DELETE FROM student_module_stats WHERE user_id = ?", byStudent);
+        jdbcTemplate.batchUpdate(REBUILD_STUDENT_MODULE_SQL,
+                userIds.stream().map(userId -> new Object[]{userId, userId}).collect(Collectors.toList()));
+        jdbcTemplate.batchUpdate(REBUILD_ONE_STUDENT_SQL, byStudent);
+    }
+
+    // verify - сверка сводной таблицы студентов с таблицей attempts (и итогами архивированных попыток)
+    // вход: отсутствует
+    // выход: список идентификаторов студентов, у которых счетчики расходятся
+    // логика:
+    //  - выполняет тяжелый GROUP BY по attempts, поэтому предназначен для обслуживания, а не для запросов страниц
+    public List<Long> verify() {
+        Map<Long, List<Object>> raw = new HashMap<>();
+        jdbcTemplate.query(
+                "SELECT a.user_id, SUM(a.total), SUM(a.correct), COUNT(DISTINCT e.module_id) " +
+                "FROM (" + ALL_ATTEMPTS_SQL + ") a JOIN exercises e ON e.id = a.exercise_id GROUP BY a.user_id",
+                rs -> {
+                    raw.put(rs.getLong(1), List.of(rs.getLong(2), rs.getLong(3), rs.getLong(4)));
+                });
+
+        Map<Long, List<Object>> rollup = new HashMap<>();
+        jdbcTemplate.query(
+                "SELECT user_id, total_attempts, correct_attempts, distinct_modules FROM student_attempt_stats",
+                rs -> {
+                    rollup.put(rs.getLong(1), List.of(rs.getLong(2), rs.getLong(3), rs.getLong(4)));
+                });
+
+        List<Long> mismatched = new ArrayList<>();
+        for (Map.Entry<Long, List<Object>> entry : raw.entrySet()) {
+            if (!Objects.equals(entry.getValue(), rollup.remove(entry.getKey()))) {
+                mismatched.add(entry.getKey());
+            }
+        }
+        // строки сводной таблицы без единой попытки тоже считаются расхождением
+        mismatched.addAll(rollup.keySet());
+        return mismatched;
+    }
+
+    // onApplicationReady - обслуживание сводных таблиц при старте приложения
+    // логика:
+    //  - если сводная таблица пуста, а попытки уже есть (первый запуск после обновления), выполняется rebuild
+    //  - флаги rebuild-on-startup и verify-on-startup позволяют запустить пересчет или сверку вручную
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        boolean rollupEmpty = !Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                "SELECT EXISTS (SELECT 1 FROM student_attempt_stats)", Boolean.class));
+        boolean attemptsPresent = Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                "SELECT EXISTS (SELECT 1 FROM attempts) OR EXISTS (SELECT 1 FROM attempt_summaries)", Boolean.class));
+
+        if (rebuildOnStartup || (rollupEmpty && attemptsPresent)) {
+            rebuild();
+        }
+        if (verifyOnStartup) {
+            List<Long> mismatched = verify();
+            if (mismatched.isEmpty()) {
+                log.info("Attempt stats rollup is consistent with attempts");
+            } else {
+                log.warn("Attempt stats rollup differs from attempts for {} students: {}", mismatched.size(), mismatched);
+            }
+        }
+    }
+
+    // attemptsByExerciseSql - попытки по (студент, упражнение) с условием на обе части UNION ALL
+    private static String attemptsByExerciseSql(String condition) {
+        return "SELECT user_id, exercise_id, COUNT(*) AS total, SUM(CASE WHEN is_correct THEN 1 ELSE 0 END) AS correct, " +
+                "COALESCE(SUM(time_spent_seconds), 0) AS time_spent, COUNT(time_spent_seconds) AS timed, " +
+                "MAX(attempt_time) AS last_time FROM attempts" + condition + " GROUP BY user_id, exercise_id " +
+                "UNION ALL " +
+                "SELECT user_id, exercise_id, total_attempts, correct_attempts, total_time_spent_seconds, timed_attempts, " +
+                "last_attempt_time FROM attempt_summaries" + condition;
+    }
+
+    private static String rebuildModuleSql(String attempts) {
+        return "INSERT INTO student_module_stats (user_id, module_id, total_attempts, correct_attempts, time_spent_seconds, " +
+                "timed_attempts, last_activity) " +
+                "SELECT a.user_id, e.module_id, SUM(a.total), SUM(a.correct), SUM(a.time_spent), SUM(a.timed), MAX(a.last_time) " +
+                "FROM (" + attempts + ") a JOIN exercises e ON e.id = a.exercise_id " +
+                "GROUP BY a.user_id, e.module_id";
+    }
+
+    private static String rebuildStudentSql(String condition) {
+        return "INSERT INTO student_attempt_stats (user_id, total_attempts, correct_attempts, last_activity, distinct_modules) " +
+                "SELECT user_id, SUM(total_attempts), SUM(correct_attempts), MAX(last_activity), COUNT(*) " +
+                "FROM student_module_stats" + condition + " GROUP BY user_id";
+    }
+
+    // Counters - счетчики одного ключа внутри пакета
+    private static class Counters {
+        private long total;
+        private long correct;
+        private long timeSpent;
+        private long timed;
+        private LocalDateTime lastActivity;
+
+        private void add(Attempt attempt) {
+            total++;
+            if (attempt.isCorrect()) {
+                correct++;
+            }
+            if (attempt.getTimeSpentSeconds() != null) {
+                timeSpent += attempt.getTimeSpentSeconds();
+                timed++;
+            }
+            if (lastActivity == null || attempt.getAttemptTime().isAfter(lastActivity)) {
+                lastActivity = attempt.getAttemptTime();
+            }
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package org.example.diploma.service;
+
+import org.example.diploma.model.Attempt;
+
+import java.util.List;
+
+// AttemptsRecordedEvent - событие записи пакета попыток
+// назначение: публикуется AttemptIngestionService в транзакции пакета, слушатели получают его после фиксации
+public class AttemptsRecordedEvent {
+    private final List<Attempt> attempts;
+
+    public AttemptsRecordedEvent(List<Attempt> attempts) {
+        this.attempts = List.copyOf(attempts);
+    }
+
+    public List<Attempt> getAttempts() { return attempts; }
+}
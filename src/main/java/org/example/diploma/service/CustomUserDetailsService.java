@@ -2,6 +2,7 @@ package org.example.diploma.service;
 
 import org.example.diploma.model.User;
 import org.example.diploma.repository.UserRepository;
+import org.example.diploma.security.CustomUserDetails;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
@@ -28,9 +29,13 @@ public class CustomUserDetailsService implements UserDetailsService {
         User user = userRepository.findByUsername(username)
                 .orElseThrow(() -> new UsernameNotFoundException("User not found: " + username));
 
-        return new org.springframework.security.core.userdetails.User(
+        // principal несет идентификатор, роль и группу, чтобы не искать пользователя по имени на каждом запросе
+        return new CustomUserDetails(
+                user.getId(),
                 user.getUsername(),
                 user.getPassword(),
+                user.getRole(),
+                user.getGroup() != null ? user.getGroup().getId() : null,
                 getAuthorities(user)
         );
     }
@@ -0,0 +1,114 @@
+package org.example.diploma.service;
+
+import org.example.diploma.dto.ExerciseSnapshotDTO;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+@Service
+public class ExerciseCache {
+    private final int maxModules;
+    private final LinkedHashMap<Long, List<ExerciseSnapshotDTO>> byModule;
+    private final Map<Long, ExerciseSnapshotDTO> byExercise = new HashMap<>();
+    private long generation;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong invalidations = new AtomicLong();
+
+    // Конструктор ExerciseCache - создание LRU-кэша упражнений
+    // вход: maxModules - максимальное количество модулей в кэше
+    // выход: созданный экземпляр ExerciseCache
+    public ExerciseCache(@Value("${app.exercises.cache.max-modules:500}") int maxModules) {
+        this.maxModules = maxModules;
+        this.byModule = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, List<ExerciseSnapshotDTO>> eldest) {
+                if (size() > ExerciseCache.this.maxModules) {
+                    eldest.getValue().forEach(snapshot -> byExercise.remove(snapshot.getId()));
+                    evictions.incrementAndGet();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    // getModuleExercises - упражнения модуля из кэша с загрузкой при промахе
+    // вход:
+    //   - moduleId - идентификатор модуля
+    //   - loader - функция загрузки упражнений модуля из базы
+    // выход: неизменяемый список снимков упражнений в порядке загрузки
+    // логика:
+    //  - загрузка выполняется вне блокировки
+    //  - если за время загрузки кэш инвалидировали, загруженные данные отдаются вызывающему, но не кэшируются
+    public List<ExerciseSnapshotDTO> getModuleExercises(Long moduleId, Function<Long, List<ExerciseSnapshotDTO>> loader) {
+        long loadGeneration;
+        synchronized (this) {
+            List<ExerciseSnapshotDTO> cached = byModule.get(moduleId);
+            if (cached != null) {
+                hits.incrementAndGet();
+                return cached;
+            }
+            loadGeneration = generation;
+        }
+
+        misses.incrementAndGet();
+        List<ExerciseSnapshotDTO> loaded = List.copyOf(loader.apply(moduleId));
+
+        synchronized (this) {
+            if (loadGeneration == generation) {
+                byModule.put(moduleId, loaded);
+                loaded.forEach(snapshot -> byExercise.put(snapshot.getId(), snapshot));
+            }
+        }
+        return loaded;
+    }
+
+    // getExercise - упражнение по идентификатору, если его модуль уже в кэше
+    // вход: exerciseId - идентификатор упражнения
+    // выход: снимок упражнения или null
+    // примечание: null учитывается как промах - вызывающий идет в базу
+    public synchronized ExerciseSnapshotDTO getExercise(Long exerciseId) {
+        ExerciseSnapshotDTO snapshot = byExercise.get(exerciseId);
+        if (snapshot != null) {
+            hits.incrementAndGet();
+        } else {
+            misses.incrementAndGet();
+        }
+        return snapshot;
+    }
+
+    // evictModule - удаление модуля из кэша после изменения его упражнений
+    // вход: moduleId - идентификатор модуля
+    public synchronized void evictModule(Long moduleId) {
+        generation++;
+        List<ExerciseSnapshotDTO> removed = byModule.remove(moduleId);
+        if (removed != null) {
+            removed.forEach(snapshot -> byExercise.remove(snapshot.getId()));
+            invalidations.incrementAndGet();
+        }
+    }
+
+    // evictAll - полная очистка кэша
+    public synchronized void evictAll() {
+        generation++;
+        invalidations.addAndGet(byModule.size());
+        byModule.clear();
+        byExercise.clear();
+    }
+
+    // метрики кэша
+    public long getHits() { return hits.get(); }
+    public long getMisses() { return misses.get(); }
+    public long getEvictions() { return evictions.get(); }
+    public long getInvalidations() { return invalidations.get(); }
+    public synchronized int getSize() { return byModule.size(); }
+}
@@ -1,31 +1,113 @@
 package org.example.diploma.service;
 
+import org.example.diploma.dto.ExerciseSnapshotDTO;
+import org.example.diploma.dto.ExerciseSyncResultDTO;
 import org.example.diploma.model.Exercise;
 import org.example.diploma.model.Module;
 import org.example.diploma.model.Word;
 import org.example.diploma.repository.ExerciseRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 import java.util.List;
 import java.util.Optional;
 
 import java.util.*;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 @Service
 public class ExerciseService {
     private final ExerciseRepository exerciseRepository;
     private final WordService wordService;
+    private final ExerciseCache exerciseCache;
+    private final AttemptStatsRollupService rollupService;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final Long generatorSeed;
+    private final int insertBatchSize;
+
+    private static final String INSERT_SQL =
+            "INSERT INTO exercises (question, correct_answer, option1, option2, option3, option4, module_id, " +
+            "source_word_id, distractor_word_ids, retired) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, FALSE)";
+
+    private static final String UPDATE_OPTIONS_SQL =
+            "UPDATE exercises SET option1 = ?, option2 = ?, option3 = ?, option4 = ?, " +
+            "source_word_id = ?, distractor_word_ids = ? WHERE id = ?";
+
+    // префиксы вопросов, по которым определяется язык вопроса и исходное слово старых упражнений
+    private static final String ENGLISH_QUESTION_PREFIX = "What is the translation of: ";
+    private static final String RUSSIAN_QUESTION_PREFIX = "Как переводится: ";
 
     // Конструктор ExerciseService - внедрение зависимостей
     // вход:
     //   - exerciseRepository - репозиторий для работы с упражнениями
     //   - wordService - сервис для работы со словами
+    //   - exerciseCache - кэш снимков упражнений по модулям
+    //   - rollupService - сводные таблицы статистики (пересчет при удалении попыток вместе с упражнениями)
+    //   - jdbcTemplate - шаблон для пакетной вставки сгенерированных упражнений
+    //   - transactionManager - менеджер транзакций (генерация модуля сохраняется одной транзакцией)
+    //   - generatorSeed - seed генератора вариантов (не задан - случайный; задан - воспроизводимая генерация)
+    //   - insertBatchSize - размер JDBC-пакета при сохранении упражнений
     // выход: созданный экземпляр ExerciseService
     @Autowired
-    public ExerciseService(ExerciseRepository exerciseRepository, WordService wordService) {
+    public ExerciseService(ExerciseRepository exerciseRepository, WordService wordService, ExerciseCache exerciseCache,
+                           AttemptStatsRollupService rollupService, JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                           @Value("${app.exercises.generator.seed:#{null}}") Long generatorSeed,
+                           @Value("${app.exercises.generator.batch-size:500}") int insertBatchSize) {
         this.exerciseRepository = exerciseRepository;
         this.wordService = wordService;
+        this.exerciseCache = exerciseCache;
+        this.rollupService = rollupService;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.generatorSeed = generatorSeed;
+        this.insertBatchSize = insertBatchSize;
+    }
+
+    // getExerciseSnapshots - упражнения модуля для практики (через кэш)
+    // вход: moduleId - идентификатор модуля
+    // выход: неизменяемый список снимков упражнений в порядке findByModuleId
+    // логика:
+    //  - первый запрос загружает модуль из базы, последующие обслуживаются из кэша
+    //  - кэш сбрасывается при любом изменении упражнений модуля через этот сервис
+    public List<ExerciseSnapshotDTO> getExerciseSnapshots(Long moduleId) {
+        return exerciseCache.getModuleExercises(moduleId, id -> exerciseRepository.findByModuleId(id).stream()
+                .map(exercise -> ExerciseSnapshotDTO.from(exercise, id))
+                .collect(Collectors.toList()));
+    }
+
+    // getExerciseSnapshot - снимок упражнения по идентификатору
+    // вход: id - идентификатор упражнения
+    // выход: Optional<ExerciseSnapshotDTO> - снимок, если упражнение найдено
+    // логика:
+    //  - если модуль упражнения уже в кэше, обращения к базе нет
+    //  - иначе упражнение загружается, а его модуль прогревается в кэше
+    //  - выведенное из модуля упражнение (retired) не выдается
+    public Optional<ExerciseSnapshotDTO> getExerciseSnapshot(Long id) {
+        ExerciseSnapshotDTO cached = exerciseCache.getExercise(id);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        return exerciseRepository.findById(id).filter(exercise -> !exercise.isRetired()).map(exercise -> {
+            Long moduleId = exercise.getModule().getId();
+            return getExerciseSnapshots(moduleId).stream()
+                    .filter(snapshot -> snapshot.getId().equals(id))
+                    .findFirst()
+                    .orElseGet(() -> ExerciseSnapshotDTO.from(exercise, moduleId));
+        });
+    }
+
+    // evictModuleExercises - сброс кэша упражнений модуля
+    // вход: moduleId - идентификатор модуля
+    // выход: void
+    // логика:
+    //  - используется, когда упражнения модуля меняются в обход этого сервиса (например, при удалении модуля)
+    public void evictModuleExercises(Long moduleId) {
+        exerciseCache.evictModule(moduleId);
     }
 
     // getExercisesByModuleId - получение всех упражнений по идентификатору модуля
@@ -46,14 +128,68 @@ public class ExerciseService {
     // вход: exercise - объект упражнения для сохранения
     // выход: сохраненный объект упражнения
     public Exercise saveExercise(Exercise exercise) {
-        return exerciseRepository.save(exercise);
+        Exercise saved = exerciseRepository.save(exercise);
+        if (saved.getModule() != null) {
+            exerciseCache.evictModule(saved.getModule().getId());
+        } else {
+            exerciseCache.evictAll();
+        }
+        return saved;
+    }
+
+    // getModuleIdByExerciseId - идентификатор модуля, которому принадлежит упражнение
+    // вход: id - идентификатор упражнения
+    // выход: Optional<Long> - идентификатор модуля, если упражнение найдено
+    public Optional<Long> getModuleIdByExerciseId(Long id) {
+        return exerciseRepository.findModuleIdById(id);
     }
 
     // deleteExercise - удаление упражнения по идентификатору
     // вход: id - идентификатор упражнения для удаления
     // выход: void
+    // логика:
+    //  - у attempts нет внешних ключей (секционирование, миграция V4), поэтому попытки упражнения удаляются явно
+    //    в той же транзакции, что и упражнение, вместе с пересчетом сводных таблиц затронутых студентов
     public void deleteExercise(Long id) {
-        exerciseRepository.deleteById(id);
+        Optional<Long> moduleId = getModuleIdByExerciseId(id);
+        transactionTemplate.executeWithoutResult(status -> {
+            deleteAttempts("exercise_id = ?", id);
+            exerciseRepository.deleteById(id);
+        });
+        moduleId.ifPresentOrElse(exerciseCache::evictModule, exerciseCache::evictAll);
+    }
+
+    // deleteModuleAttempts - удаление попыток по упражнениям модуля и состояний повторения его слов
+    // вход: moduleId - идентификатор модуля
+    // выход: void
+    // логика:
+    //  - вызывается в транзакции удаления модуля до удаления самих упражнений
+    public void deleteModuleAttempts(Long moduleId) {
+        deleteAttempts("exercise_id IN (SELECT id FROM exercises WHERE module_id = ?)", moduleId);
+        jdbcTemplate.update("DELETE FROM word_review_states WHERE module_id = ?", moduleId);
+    }
+
+    // deleteAttempts - удаление попыток упражнений (оперативных и архивированных) и пересчет сводных таблиц
+    // логика:
+    //  - архивированные строки ищутся по итогам attempt_summaries (индекс по exercise_id) и удаляются
+    //    по студентам через индекс attempts_archive (user_id, attempt_time)
+    //  - сводные строки затронутых студентов пересобираются после удаления
+    private void deleteAttempts(String exerciseCondition, Long id) {
+        Set<Long> students = new HashSet<>(jdbcTemplate.queryForList(
+                "SELECT DISTINCT user_id FROM attempts WHERE " + exerciseCondition + " AND user_id IS NOT NULL",
+                Long.class, id));
+        List<Long> archived = jdbcTemplate.queryForList(
+                "SELECT DISTINCT user_id FROM attempt_summaries WHERE " + exerciseCondition, Long.class, id);
+        students.addAll(archived);
+        if (students.isEmpty()) {
+            return;
+        }
+
+        jdbcTemplate.update("DELETE FROM attempts WHERE " + exerciseCondition, id);
+        jdbcTemplate.batchUpdate("DELETE FROM attempts_archive WHERE user_id = ? AND " + exerciseCondition,
+                archived.stream().map(userId -> new Object[]{userId, id}).collect(Collectors.toList()));
+        jdbcTemplate.update("DELETE FROM attempt_summaries WHERE " + exerciseCondition, id);
+        rollupService.rebuildStudents(students);
     }
 
     // deleteExercisesByModuleId - удаление всех упражнений по идентификатору модуля
@@ -63,6 +199,7 @@ public class ExerciseService {
     //  - используется для каскадного удаления при удалении модуля
     public void deleteExercisesByModuleId(Long moduleId) {
         exerciseRepository.deleteByModuleId(moduleId);
+        exerciseCache.evictModule(moduleId);
     }
 
     // generateMultipleChoiceExercise - генерация упражнения с множественным выбором для слова
@@ -76,77 +213,279 @@ public class ExerciseService {
     //  - выбирает 3 случайных слова для неправильных вариантов ответа
     //  - перемешивает варианты ответов
     // исключения:
-    //  - RuntimeException - если в модуле меньше 4 слов
+    //  - RuntimeException - если в модуле меньше 4 слов или слово не принадлежит модулю
     public Exercise generateMultipleChoiceExercise(Module module, Word word) {
         List<Word> allWords = wordService.getWordsByModuleId(module.getId());
 
-        // надо убедиться, что в модуле достаточно слов для создания вариантов ответа
-        if (allWords.size() < 4) {
-            throw new RuntimeException("Module must have at least 4 words to generate exercises");
+        int index = -1;
+        for (int i = 0; i < allWords.size() && index < 0; i++) {
+            if (allWords.get(i).getId().equals(word.getId())) {
+                index = i;
+            }
         }
+        if (index < 0) {
+            throw new RuntimeException("Word does not belong to module");
+        }
+        return newGenerator().generateOne(module, allWords, index);
+    }
 
-        // создать упражнение
-        Exercise exercise = new Exercise();
-        exercise.setType("MULTIPLE_CHOICE");
-        exercise.setModule(module);
+    // generateExercisesForModule - синхронизация упражнений модуля со словами
+    // вход: module - модуль, для которого генерируются упражнения
+    // выход: ExerciseSyncResultDTO с количеством созданных, обновленных и удаленных упражнений
+    public ExerciseSyncResultDTO generateExercisesForModule(Module module) {
+        return generateExercisesForModule(module, (done, total) -> { });
+    }
 
-        // случайным образом выбрать, на каком языке будет вопрос
-        Random random = new Random();
-        boolean isEnglishQuestion = random.nextBoolean();
+    // generateExercisesForModule - синхронизация упражнений модуля со словами с отчетом о ходе записи
+    // вход:
+    //   - module - модуль, для которого генерируются упражнения
+    //   - progress - получает (записано, всего) после каждого JDBC-пакета
+    // выход: ExerciseSyncResultDTO
+    // логика:
+    //  - каждое упражнение помнит исходное слово (source_word_id) и слова неправильных вариантов (distractor_word_ids)
+    //  - упражнения создаются только для слов, у которых их еще нет
+    //  - если слово неправильного варианта удалено, варианты упражнения выбираются заново (вопрос и ответ не меняются)
+    //  - упражнения удаленных слов и повторные упражнения одного слова удаляются; если по ним есть попытки
+    //    студентов, они выводятся из модуля (retired): история сохраняется, но упражнение не показывается
+    //    и не входит в прогресс модуля
+    //  - упражнения, созданные до учета исходного слова, привязываются к слову по тексту вопроса
+    //  - записываются только изменившиеся строки: пакетами в одной транзакции
+    // исключения:
+    //  - RuntimeException - если нужно создать или обновить упражнения, а в модуле меньше 4 слов
+    public ExerciseSyncResultDTO generateExercisesForModule(Module module, GenerationProgress progress) {
+        List<Word> words = wordService.getWordsByModuleId(module.getId());
+        ExerciseSyncResultDTO result = transactionTemplate.execute(status -> syncExercises(module, words, progress));
+        exerciseCache.evictModule(module.getId());
+        return result;
+    }
 
-        if (isEnglishQuestion) {
-            exercise.setQuestion("What is the translation of: " + word.getEnglish() + "?");
-            exercise.setCorrectAnswer(word.getRussian());
-        } else {
-            exercise.setQuestion("Как переводится: " + word.getRussian() + "?");
-            exercise.setCorrectAnswer(word.getEnglish());
+    private ExerciseSyncResultDTO syncExercises(Module module, List<Word> words, GenerationProgress progress) {
+        Map<Long, Integer> indexById = new HashMap<>();
+        Map<String, Integer> indexByEnglish = new HashMap<>();
+        Map<String, Integer> indexByRussian = new HashMap<>();
+        for (int i = 0; i < words.size(); i++) {
+            Word word = words.get(i);
+            indexById.put(word.getId(), i);
+            indexByEnglish.putIfAbsent(word.getEnglish(), i);
+            indexByRussian.putIfAbsent(word.getRussian(), i);
         }
 
-        // выбирать 3 случайных слова для неправильных вариантов ответа
-        List<Word> otherWords = allWords.stream()
-                .filter(w -> !w.getId().equals(word.getId()))
-                .collect(Collectors.toList());
+        ExerciseSyncResultDTO result = new ExerciseSyncResultDTO();
+        boolean[] covered = new boolean[words.size()];
+        List<Long> toDelete = new ArrayList<>();
+        List<Long> toRetire = new ArrayList<>();
+        List<Exercise> toUpdate = new ArrayList<>();
+        List<Object[]> toLink = new ArrayList<>();
+        MultipleChoiceGenerator.Session session = null;
 
-        Collections.shuffle(otherWords);
-        List<Word> wrongOptions = otherWords.subList(0, 3);
+        for (ExistingExercise existing : loadExistingExercises(module.getId())) {
+            Integer index = existing.sourceWordId != null
+                    ? indexById.get(existing.sourceWordId)
+                    : matchLegacySource(existing, indexByEnglish, indexByRussian, words);
 
-        // собрать все варианты ответов
-        List<String> allOptions = new ArrayList<>();
-        allOptions.add(exercise.getCorrectAnswer());
+            if (index == null || covered[index]) {
+                if (existing.hasAttempts) {
+                    toRetire.add(existing.id);
+                } else {
+                    toDelete.add(existing.id);
+                }
+                continue;
+            }
+            covered[index] = true;
+
+            Word source = words.get(index);
+            boolean isEnglishQuestion = existing.question.startsWith(ENGLISH_QUESTION_PREFIX);
+            String distractorIds = existing.sourceWordId != null
+                    ? existing.distractorWordIds
+                    : distractorIdsFromOptions(existing, isEnglishQuestion ? indexByRussian : indexByEnglish, words);
 
-        for (Word wrongWord : wrongOptions) {
-            if (isEnglishQuestion) {
-                allOptions.add(wrongWord.getRussian());
-            } else {
-                allOptions.add(wrongWord.getEnglish());
+            if (distractorsValid(distractorIds, source.getId(), indexById)) {
+                if (existing.sourceWordId == null) {
+                    toLink.add(new Object[]{source.getId(), distractorIds, existing.id});
+                }
+                continue;
             }
+
+            if (session == null) {
+                session = newGenerator().forWords(words);
+            }
+            Exercise exercise = existing.toExercise();
+            session.refresh(exercise, index, isEnglishQuestion);
+            toUpdate.add(exercise);
         }
 
-        // перемешать варианты ответов
-        Collections.shuffle(allOptions);
+        List<Exercise> toInsert = new ArrayList<>();
+        for (int i = 0; i < words.size(); i++) {
+            if (!covered[i]) {
+                if (session == null) {
+                    session = newGenerator().forWords(words);
+                }
+                toInsert.add(session.create(module, i));
+            }
+        }
 
-        // установить варианты ответов
-        exercise.setOption1(allOptions.get(0));
-        exercise.setOption2(allOptions.get(1));
-        exercise.setOption3(allOptions.get(2));
-        exercise.setOption4(allOptions.get(3));
+        result.setCreated(toInsert.size());
+        result.setRefreshed(toUpdate.size() + toLink.size());
+        result.setRemoved(toDelete.size());
+        result.setRetired(toRetire.size());
 
-        return exercise;
+        int total = result.getChanged();
+        int[] done = {0};
+        progress.update(0, total);
+
+        // попытка, записанная после загрузки упражнений, оставляет упражнение на месте - оно выводится из модуля
+        inBatches(toDelete, batch -> {
+            List<Object[]> ids = batch.stream().map(id -> new Object[]{id}).collect(Collectors.toList());
+            jdbcTemplate.batchUpdate("DELETE FROM exercises WHERE id = ? " +
+                    "AND NOT EXISTS (SELECT 1 FROM attempts a WHERE a.exercise_id = exercises.id)", ids);
+            jdbcTemplate.batchUpdate("UPDATE exercises SET retired = TRUE WHERE id = ?", ids);
+        }, done, total, progress);
+        inBatches(toRetire, batch -> jdbcTemplate.batchUpdate("UPDATE exercises SET retired = TRUE WHERE id = ?",
+                batch.stream().map(id -> new Object[]{id}).collect(Collectors.toList())), done, total, progress);
+        inBatches(toLink, batch -> jdbcTemplate.batchUpdate(
+                "UPDATE exercises SET source_word_id = ?, distractor_word_ids = ? WHERE id = ?", batch), done, total, progress);
+        inBatches(toUpdate, batch -> jdbcTemplate.batchUpdate(UPDATE_OPTIONS_SQL, batch, batch.size(), (ps, exercise) -> {
+            ps.setString(1, exercise.getOption1());
+            ps.setString(2, exercise.getOption2());
+            ps.setString(3, exercise.getOption3());
+            ps.setString(4, exercise.getOption4());
+            ps.setLong(5, exercise.getSourceWordId());
+            ps.setString(6, exercise.getDistractorWordIds());
+            ps.setLong(7, exercise.getId());
+        }), done, total, progress);
+        inBatches(toInsert, batch -> jdbcTemplate.batchUpdate(INSERT_SQL, batch, batch.size(), (ps, exercise) -> {
+            ps.setString(1, exercise.getQuestion());
+            ps.setString(2, exercise.getCorrectAnswer());
+            ps.setString(3, exercise.getOption1());
+            ps.setString(4, exercise.getOption2());
+            ps.setString(5, exercise.getOption3());
+            ps.setString(6, exercise.getOption4());
+            ps.setLong(7, module.getId());
+            ps.setLong(8, exercise.getSourceWordId());
+            ps.setString(9, exercise.getDistractorWordIds());
+        }), done, total, progress);
+        return result;
     }
 
-    // generateExercisesForModule - генерация упражнений для всех слов модуля
-    // вход: module - модуль, для которого генерируются упражнения
-    // выход: void
-    // логика:
-    //  - для каждого слова в модуле создает одно упражнение
-    //  - сохраняет все сгенерированные упражнения в базу данных
-    public void generateExercisesForModule(Module module) {
-        List<Word> words = wordService.getWordsByModuleId(module.getId());
+    // loadExistingExercises - действующие упражнения модуля в виде строк JDBC (без загрузки сущностей и ленивых связей)
+    private List<ExistingExercise> loadExistingExercises(Long moduleId) {
+        return jdbcTemplate.query(
+                "SELECT e.id, e.source_word_id, e.distractor_word_ids, e.question, e.correct_answer, " +
+                "e.option1, e.option2, e.option3, e.option4, " +
+                "(EXISTS (SELECT 1 FROM attempts a WHERE a.exercise_id = e.id) " +
+                "OR EXISTS (SELECT 1 FROM attempt_summaries s WHERE s.exercise_id = e.id)) AS has_attempts " +
+                "FROM exercises e WHERE e.module_id = ? AND e.retired = FALSE ORDER BY e.id",
+                (rs, rowNum) -> {
+                    ExistingExercise existing = new ExistingExercise();
+                    existing.id = rs.getLong(1);
+                    long sourceWordId = rs.getLong(2);
+                    existing.sourceWordId = rs.wasNull() ? null : sourceWordId;
+                    existing.distractorWordIds = rs.getString(3);
+                    existing.question = rs.getString(4);
+                    existing.correctAnswer = rs.getString(5);
+                    existing.options = new String[]{rs.getString(6), rs.getString(7), rs.getString(8), rs.getString(9)};
+                    existing.hasAttempts = rs.getBoolean(10);
+                    return existing;
+                }, moduleId);
+    }
 
-        // создать по одному упражнению для каждого слова в модуле
-        for (Word word : words) {
-            Exercise exercise = generateMultipleChoiceExercise(module, word);
-            saveExercise(exercise);
+    // matchLegacySource - поиск исходного слова упражнения, созданного до учета source_word_id
+    private static Integer matchLegacySource(ExistingExercise existing, Map<String, Integer> indexByEnglish,
+                                             Map<String, Integer> indexByRussian, List<Word> words) {
+        String question = existing.question;
+        if (!question.endsWith("?")) {
+            return null;
+        }
+        if (question.startsWith(ENGLISH_QUESTION_PREFIX)) {
+            Integer index = indexByEnglish.get(question.substring(ENGLISH_QUESTION_PREFIX.length(), question.length() - 1));
+            return index != null && words.get(index).getRussian().equals(existing.correctAnswer) ? index : null;
         }
+        if (question.startsWith(RUSSIAN_QUESTION_PREFIX)) {
+            Integer index = indexByRussian.get(question.substring(RUSSIAN_QUESTION_PREFIX.length(), question.length() - 1));
+            return index != null && words.get(index).getEnglish().equals(existing.correctAnswer) ? index : null;
+        }
+        return null;
+    }
+
+    // distractorIdsFromOptions - идентификаторы слов неправильных вариантов по их тексту (null, если слово не найдено)
+    private static String distractorIdsFromOptions(ExistingExercise existing, Map<String, Integer> indexByOption,
+                                                   List<Word> words) {
+        StringBuilder ids = new StringBuilder();
+        for (String option : existing.options) {
+            if (option.equals(existing.correctAnswer)) {
+                continue;
+            }
+            Integer index = indexByOption.get(option);
+            if (index == null) {
+                return null;
+            }
+            if (ids.length() > 0) {
+                ids.append(',');
+            }
+            ids.append(words.get(index).getId());
+        }
+        return ids.toString();
+    }
+
+    // distractorsValid - все слова неправильных вариантов существуют, их ровно 3 и среди них нет исходного слова
+    private static boolean distractorsValid(String distractorIds, Long sourceWordId, Map<Long, Integer> indexById) {
+        if (distractorIds == null || distractorIds.isEmpty()) {
+            return false;
+        }
+        String[] parts = distractorIds.split(",");
+        if (parts.length != MultipleChoiceGenerator.DISTRACTORS) {
+            return false;
+        }
+        for (String part : parts) {
+            Long id;
+            try {
+                id = Long.valueOf(part.trim());
+            } catch (NumberFormatException e) {
+                return false;
+            }
+            if (id.equals(sourceWordId) || !indexById.containsKey(id)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private <T> void inBatches(List<T> rows, Consumer<List<T>> writer,
+                               int[] done, int total, GenerationProgress progress) {
+        for (int from = 0; from < rows.size(); from += insertBatchSize) {
+            List<T> batch = rows.subList(from, Math.min(from + insertBatchSize, rows.size()));
+            writer.accept(batch);
+            done[0] += batch.size();
+            progress.update(done[0], total);
+        }
+    }
+
+    // ExistingExercise - строка существующего упражнения модуля
+    private static final class ExistingExercise {
+        private Long id;
+        private Long sourceWordId;
+        private String distractorWordIds;
+        private String question;
+        private String correctAnswer;
+        private String[] options;
+        private boolean hasAttempts;
+
+        private Exercise toExercise() {
+            Exercise exercise = new Exercise();
+            exercise.setId(id);
+            exercise.setQuestion(question);
+            exercise.setCorrectAnswer(correctAnswer);
+            return exercise;
+        }
+    }
+
+    // GenerationProgress - получатель хода генерации (используется фоновыми задачами)
+    @FunctionalInterface
+    public interface GenerationProgress {
+        void update(int done, int total);
+    }
+
+    private MultipleChoiceGenerator newGenerator() {
+        return new MultipleChoiceGenerator(generatorSeed != null ? new SplittableRandom(generatorSeed) : new SplittableRandom());
     }
-}
\ No newline at end of file
+}
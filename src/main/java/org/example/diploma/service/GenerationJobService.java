@@ -0,0 +1,176 @@
+package org.example.diploma.service;
+
+import jakarta.annotation.PreDestroy;
+import org.example.diploma.dto.ExerciseSyncResultDTO;
+import org.example.diploma.dto.GenerationJobDTO;
+import org.example.diploma.model.Module;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Service
+public class GenerationJobService {
+    private static final Logger log = LoggerFactory.getLogger(GenerationJobService.class);
+
+    private final ModuleService moduleService;
+    private final ExerciseService exerciseService;
+    private final ThreadPoolExecutor executor;
+    private final long retentionMs;
+
+    private final Map<String, Job> jobs = new ConcurrentHashMap<>();
+    private final Map<Long, Job> activeByModule = new ConcurrentHashMap<>();
+
+    // Конструктор GenerationJobService - внедрение зависимостей и создание пула задач
+    // вход:
+    //   - moduleService - сервис для работы с модулями
+    //   - exerciseService - сервис генерации упражнений
+    //   - threads - количество потоков генерации
+    //   - queueCapacity - максимальное количество задач в очереди
+    //   - retentionMs - сколько хранить завершенные задачи для опроса
+    // выход: созданный экземпляр GenerationJobService
+    @Autowired
+    public GenerationJobService(ModuleService moduleService,
+                                ExerciseService exerciseService,
+                                @Value("${app.jobs.generation.threads:2}") int threads,
+                                @Value("${app.jobs.generation.queue-capacity:100}") int queueCapacity,
+                                @Value("${app.jobs.generation.retention-ms:3600000}") long retentionMs) {
+        this.moduleService = moduleService;
+        this.exerciseService = exerciseService;
+        this.retentionMs = retentionMs;
+        AtomicInteger counter = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), r -> {
+            Thread thread = new Thread(r, "exercise-generation-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    // submit - запуск генерации упражнений модуля в фоне
+    // вход:
+    //   - moduleId - идентификатор модуля
+    //   - ownerId - идентификатор преподавателя, запустившего задачу (только он может ее опрашивать)
+    // выход: состояние задачи
+    // логика:
+    //  - для модуля одновременно существует не более одной активной задачи: повторный запрос
+    //    (двойной клик, второй запрос) получает уже запущенную задачу и не создает дубликаты упражнений
+    //  - если очередь пула заполнена, задача сразу завершается с ошибкой
+    public GenerationJobDTO submit(Long moduleId, Long ownerId) {
+        pruneFinished();
+
+        Job[] created = new Job[1];
+        Job job = activeByModule.computeIfAbsent(moduleId, id -> {
+            created[0] = new Job(UUID.randomUUID().toString(), id, ownerId);
+            jobs.put(created[0].id, created[0]);
+            return created[0];
+        });
+
+        if (job == created[0]) {
+            try {
+                executor.execute(() -> run(job));
+            } catch (RejectedExecutionException e) {
+                job.fail("Too many generation jobs are queued, try again later");
+                activeByModule.remove(moduleId, job);
+            }
+        }
+        return job.toDTO();
+    }
+
+    // getJob - состояние задачи для опроса
+    // вход:
+    //   - jobId - идентификатор задачи
+    //   - ownerId - идентификатор преподавателя
+    // выход: Optional с состоянием задачи; пустой, если задача не найдена или принадлежит другому преподавателю
+    public Optional<GenerationJobDTO> getJob(String jobId, Long ownerId) {
+        Job job = jobs.get(jobId);
+        if (job == null || !job.ownerId.equals(ownerId)) {
+            return Optional.empty();
+        }
+        return Optional.of(job.toDTO());
+    }
+
+    // shutdown - остановка пула при остановке приложения (текущие транзакции дописываются)
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+        try {
+            executor.awaitTermination(30, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void run(Job job) {
+        job.status = "RUNNING";
+        try {
+            Optional<Module> module = moduleService.getModuleById(job.moduleId);
+            if (module.isEmpty()) {
+                job.fail("Module not found");
+                return;
+            }
+            job.result = exerciseService.generateExercisesForModule(module.get(), (done, total) -> {
+                job.total = total;
+                job.done = done;
+            });
+            job.finish();
+        } catch (RuntimeException e) {
+            log.warn("Exercise generation for module {} failed", job.moduleId, e);
+            job.fail(e.getMessage());
+        } finally {
+            activeByModule.remove(job.moduleId, job);
+        }
+    }
+
+    private void pruneFinished() {
+        LocalDateTime threshold = LocalDateTime.now().minusNanos(retentionMs * 1_000_000L);
+        jobs.values().removeIf(job -> job.finishedAt != null && job.finishedAt.isBefore(threshold));
+    }
+
+    // Job - изменяемое состояние задачи; поля volatile, так как пишет поток генерации, а читают потоки запросов
+    private static final class Job {
+        private final String id;
+        private final Long moduleId;
+        private final Long ownerId;
+        private final LocalDateTime createdAt = LocalDateTime.now();
+        private volatile String status = "QUEUED";
+        private volatile int total;
+        private volatile int done;
+        private volatile String error;
+        private volatile ExerciseSyncResultDTO result;
+        private volatile LocalDateTime finishedAt;
+
+        private Job(String id, Long moduleId, Long ownerId) {
+            this.id = id;
+            this.moduleId = moduleId;
+            this.ownerId = ownerId;
+        }
+
+        private void finish() {
+            finishedAt = LocalDateTime.now();
+            status = "COMPLETED";
+        }
+
+        private void fail(String message) {
+            error = message;
+            finishedAt = LocalDateTime.now();
+            status = "FAILED";
+        }
+
+        private GenerationJobDTO toDTO() {
+            return new GenerationJobDTO(id, moduleId, status, total, done, error, result, createdAt, finishedAt);
+        }
+    }
+}
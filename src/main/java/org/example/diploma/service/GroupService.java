@@ -13,16 +13,19 @@ import java.util.Optional;
 public class GroupService {
     private final GroupRepository groupRepository;
     private final UserService userService;
+    private final ModuleAccessIndex moduleAccessIndex;
 
     // Конструктор GroupService - внедрение зависимостей
     // вход:
     //   - groupRepository - репозиторий для работы с группами
     //   - userService - сервис для работы с пользователями
+    //   - moduleAccessIndex - индекс модулей, назначенных группам
     // выход: созданный экземпляр GroupService
     @Autowired
-    public GroupService(GroupRepository groupRepository, UserService userService) {
+    public GroupService(GroupRepository groupRepository, UserService userService, ModuleAccessIndex moduleAccessIndex) {
         this.groupRepository = groupRepository;
         this.userService = userService;
+        this.moduleAccessIndex = moduleAccessIndex;
     }
 
     // getTeacherGroups - получение всех групп преподавателя
@@ -39,6 +42,15 @@ public class GroupService {
         return groupRepository.findById(id);
     }
 
+    // getGroupWithModules - получение группы вместе с преподавателем и назначенными модулями
+    // вход: id - идентификатор группы
+    // выход: Optional<Group> - группа с загруженными связями teacher и assignedModules, если найдена
+    // логика:
+    //  - используется там, где эти связи читаются вне транзакции (страница группы, назначение модулей)
+    public Optional<Group> getGroupWithModules(Long id) {
+        return groupRepository.findWithTeacherAndModulesById(id);
+    }
+
     // saveGroup - сохранение группы в базу данных
     // вход: group - объект группы для сохранения
     // выход: сохраненный объект группы
@@ -52,8 +64,12 @@ public class GroupService {
     // логика:
     //  - удаляет группу из базы данных
     //  - студенты, привязанные к группе, остаются в системе, но теряют привязку к группе
+    //  - снимки пользователей сбрасываются, так как у студентов меняется группа
+    //  - группа удаляется из индекса назначенных модулей
     public void deleteGroup(Long id) {
         groupRepository.deleteById(id);
+        moduleAccessIndex.onGroupDeleted(id);
+        userService.evictUserSnapshots();
     }
 
     // isGroupNameUniqueForTeacher - проверка уникальности названия группы для преподавателя
@@ -76,15 +92,18 @@ public class GroupService {
     // выход: void
     // логика:
     //  - добавляет модуль в список назначенных модулей группы
-    //  - проверяет, что модуль еще не назначен группе
+    //  - проверяет по идентификатору, что модуль еще не назначен группе
+    //    (группа загружается вместе с назначенными модулями, связи модулей не затрагиваются)
+    //  - после сохранения обновляет индекс назначенных модулей
     public void assignModuleToGroup(Long groupId, Module module) {
-        Optional<Group> groupOptional = getGroupById(groupId);
+        Optional<Group> groupOptional = getGroupWithModules(groupId);
         if (groupOptional.isPresent()) {
             Group group = groupOptional.get();
-            if (!group.getAssignedModules().contains(module)) {
+            if (group.getAssignedModules().stream().noneMatch(assigned -> assigned.getId().equals(module.getId()))) {
                 group.getAssignedModules().add(module);
                 groupRepository.save(group);
             }
+            moduleAccessIndex.onModuleAssigned(groupId, module.getId());
         }
     }
 
@@ -96,12 +115,14 @@ public class GroupService {
     // логика:
     //  - удаляет модуль из списка назначенных модулей группы
     //  - фильтрует список модулей, оставляя только те, у которых ID не совпадает с удаляемым
+    //  - после сохранения обновляет индекс назначенных модулей
     public void removeModuleFromGroup(Long groupId, Long moduleId) {
-        Optional<Group> groupOptional = getGroupById(groupId);
+        Optional<Group> groupOptional = getGroupWithModules(groupId);
         if (groupOptional.isPresent()) {
             Group group = groupOptional.get();
             group.getAssignedModules().removeIf(module -> module.getId().equals(moduleId));
             groupRepository.save(group);
+            moduleAccessIndex.onModuleRemoved(groupId, moduleId);
         }
     }
 
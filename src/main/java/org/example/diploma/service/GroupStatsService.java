@@ -0,0 +1,138 @@
+package org.example.diploma.service;
+
+import org.example.diploma.dto.GroupStatsReportDTO;
+import org.example.diploma.dto.ModuleGroupStatsDTO;
+import org.example.diploma.dto.StudentStatsDTO;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.sql.Timestamp;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Service
+public class GroupStatsService {
+
+    // строки (студент, модуль) сводной таблицы student_module_stats для студентов группы;
+    // студент без попыток дает одну строку с пустыми полями модуля
+    private static final String GROUP_ROWS_SQL =
+            "SELECT u.id, u.username, g.id, g.name, m.id, m.title, s.total_attempts, s.correct_attempts, " +
+            "s.time_spent_seconds, s.timed_attempts, s.last_activity " +
+            "FROM users u JOIN study_groups g ON g.id = u.group_id " +
+            "LEFT JOIN student_module_stats s ON s.user_id = u.id " +
+            "LEFT JOIN modules m ON m.id = s.module_id " +
+            "WHERE u.group_id = ? AND u.role = 'STUDENT' ORDER BY u.username, u.id";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    // Конструктор GroupStatsService - внедрение зависимостей
+    // вход: jdbcTemplate - шаблон для потокового чтения строк статистики группы
+    // выход: созданный экземпляр GroupStatsService
+    @Autowired
+    public GroupStatsService(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    // getGroupReport - полная статистика группы за один запрос
+    // вход: groupId - идентификатор группы
+    // выход: GroupStatsReportDTO с итогами группы, строками студентов (по имени) и модулей (по названию)
+    // логика:
+    //  - один проход по строкам (студент, модуль) сводной таблицы student_module_stats, строки не
+    //    накапливаются: каждая сразу прибавляется к итогам группы, студента и модуля
+    //  - сводная таблица учитывает и архивированные попытки, сырые попытки не читаются
+    //  - среднее время считается только по ответам с известным временем
+    public GroupStatsReportDTO getGroupReport(Long groupId) {
+        GroupStatsReportDTO report = new GroupStatsReportDTO();
+        report.setGroupId(groupId);
+        Map<Long, StudentStatsDTO> students = new LinkedHashMap<>();
+        Map<Long, ModuleGroupStatsDTO> modules = new LinkedHashMap<>();
+        Map<Long, long[]> studentTimes = new LinkedHashMap<>();
+        Map<Long, long[]> moduleTimes = new LinkedHashMap<>();
+        long[] groupTime = new long[2];
+
+        jdbcTemplate.query(GROUP_ROWS_SQL, rs -> {
+            long studentId = rs.getLong(1);
+            StudentStatsDTO student = students.get(studentId);
+            if (student == null) {
+                student = new StudentStatsDTO(studentId, rs.getString(2), rs.getLong(3), rs.getString(4),
+                        0L, 0L, null, 0L);
+                students.put(studentId, student);
+            }
+
+            long moduleId = rs.getLong(5);
+            if (rs.wasNull()) {
+                return;
+            }
+            long total = rs.getLong(7);
+            long correct = rs.getLong(8);
+            long timeSpent = rs.getLong(9);
+            long timed = rs.getLong(10);
+            Timestamp lastActivity = rs.getTimestamp(11);
+
+            student.setTotalAttempts(student.getTotalAttempts() + total);
+            student.setCorrectAttempts(student.getCorrectAttempts() + correct);
+            student.setTotalModules(student.getTotalModules() + 1);
+            if (lastActivity != null && (student.getLastActivity() == null
+                    || lastActivity.toLocalDateTime().isAfter(student.getLastActivity()))) {
+                student.setLastActivity(lastActivity.toLocalDateTime());
+            }
+            addTime(studentTimes.computeIfAbsent(studentId, id -> new long[2]), timeSpent, timed);
+
+            ModuleGroupStatsDTO module = modules.get(moduleId);
+            if (module == null) {
+                module = new ModuleGroupStatsDTO();
+                module.setModuleId(moduleId);
+                module.setTitle(rs.getString(6));
+                modules.put(moduleId, module);
+            }
+            module.setStudentsAttempted(module.getStudentsAttempted() + 1);
+            module.setTotalAttempts(module.getTotalAttempts() + total);
+            module.setCorrectAttempts(module.getCorrectAttempts() + correct);
+            addTime(moduleTimes.computeIfAbsent(moduleId, id -> new long[2]), timeSpent, timed);
+
+            report.setTotalAttempts(report.getTotalAttempts() + total);
+            report.setCorrectAttempts(report.getCorrectAttempts() + correct);
+            addTime(groupTime, timeSpent, timed);
+        }, groupId);
+
+        for (StudentStatsDTO student : students.values()) {
+            student.setSuccessRate(successRate(student.getTotalAttempts(), student.getCorrectAttempts()));
+            student.setAverageTimeSpentSeconds(averageTime(studentTimes.get(student.getStudentId())));
+            if (student.getTotalAttempts() > 0) {
+                report.setActiveStudents(report.getActiveStudents() + 1);
+            }
+            report.getStudents().add(student);
+        }
+        for (ModuleGroupStatsDTO module : modules.values()) {
+            module.setSuccessRate(successRate(module.getTotalAttempts(), module.getCorrectAttempts()));
+            module.setAverageTimeSpentSeconds(averageTime(moduleTimes.get(module.getModuleId())));
+            report.getModules().add(module);
+        }
+        report.getModules().sort(Comparator.comparing(ModuleGroupStatsDTO::getTitle, String.CASE_INSENSITIVE_ORDER));
+
+        report.setStudentCount(students.size());
+        report.setSuccessRate(successRate(report.getTotalAttempts(), report.getCorrectAttempts()));
+        report.setAverageTimeSpentSeconds(averageTime(groupTime));
+        return report;
+    }
+
+    private static void addTime(long[] time, long timeSpent, long timed) {
+        time[0] += timeSpent;
+        time[1] += timed;
+    }
+
+    // averageTime - среднее время ответа с точностью до десятой секунды (null без измеренных ответов)
+    private static Double averageTime(long[] time) {
+        if (time == null || time[1] == 0) {
+            return null;
+        }
+        return Math.round(time[0] * 10.0 / time[1]) / 10.0;
+    }
+
+    // successRate - процент правильных ответов, округленный как в StatsService
+    private static double successRate(long total, long correct) {
+        return total > 0 ? Math.round((double) correct / total * 100.0) : 0.0;
+    }
+}
@@ -0,0 +1,376 @@
+package org.example.diploma.service;
+
+import jakarta.annotation.PreDestroy;
+import org.example.diploma.dto.LiveStatsDeltaDTO;
+import org.example.diploma.model.Attempt;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+@Service
+public class LiveStatsService {
+    private static final Logger log = LoggerFactory.getLogger(LiveStatsService.class);
+
+    static final String DELTA_EVENT = "stats";
+    private static final long HEARTBEAT_INTERVAL_MS = 25_000;
+    // сколько после выдачи снимка хранятся разосланные окна, пока страница открывает поток
+    private static final long SUBSCRIBE_GRACE_MS = 30_000;
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final long timeoutMs;
+    private final int queueSize;
+    private final ScheduledExecutorService scheduler;
+    private final ExecutorService sender;
+
+    private final Map<Long, Set<Subscriber>> subscribersByGroup = new ConcurrentHashMap<>();
+    private final ConcurrentLinkedQueue<PendingBatch> pending = new ConcurrentLinkedQueue<>();
+    private final ConcurrentLinkedDeque<Window> recent = new ConcurrentLinkedDeque<>();
+    private final AtomicLong version = new AtomicLong();
+    private long windowSequence;
+    private volatile long snapshotIssuedAt = Long.MIN_VALUE / 2;
+
+    // Конструктор LiveStatsService - внедрение зависимостей и запуск рассылки
+    // вход:
+    //   - jdbcTemplate - шаблон для определения групп студентов из окна
+    //   - windowMs - окно объединения приращений (не чаще одного сообщения группе за окно)
+    //   - timeoutMs - время жизни одного подключения (браузер переподключается сам)
+    //   - queueSize - очередь неотправленных сообщений одного подключения; при переполнении подключение закрывается
+    //   - senders - потоки отправки (медленный браузер задерживает только свое подключение, а не рассылку)
+    // выход: созданный экземпляр LiveStatsService
+    @Autowired
+    public LiveStatsService(NamedParameterJdbcTemplate jdbcTemplate,
+                            @Value("${app.stats.live.window-ms:1000}") long windowMs,
+                            @Value("${app.stats.live.timeout-ms:1800000}") long timeoutMs,
+                            @Value("${app.stats.live.queue-size:16}") int queueSize,
+                            @Value("${app.stats.live.senders:4}") int senders) {
+        this(jdbcTemplate, windowMs, timeoutMs, queueSize, Executors.newFixedThreadPool(senders, r -> {
+            Thread thread = new Thread(r, "live-stats-send");
+            thread.setDaemon(true);
+            return thread;
+        }));
+    }
+
+    // Конструктор LiveStatsService - с готовым пулом отправки (тесты медленных подключений)
+    LiveStatsService(NamedParameterJdbcTemplate jdbcTemplate, long windowMs, long timeoutMs, int queueSize,
+                     ExecutorService sender) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.timeoutMs = timeoutMs;
+        this.queueSize = queueSize;
+        this.sender = sender;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "live-stats");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.scheduler.scheduleWithFixedDelay(this::publishQuietly, windowMs, windowMs, TimeUnit.MILLISECONDS);
+        this.scheduler.scheduleWithFixedDelay(this::heartbeat, HEARTBEAT_INTERVAL_MS, HEARTBEAT_INTERVAL_MS,
+                TimeUnit.MILLISECONDS);
+    }
+
+    // getSnapshotVersion - версия приращений, уже вошедших в снимок статистики
+    // выход: номер последнего записанного пакета попыток
+    // логика:
+    //  - вызывается до чтения снимка: пакет с номером не больше версии зафиксирован раньше и в снимок вошел
+    //  - страница передает версию в subscribe и отбрасывает сообщения с версией не новее своей
+    //  - после выдачи снимка пакеты учитываются и без подписчиков (SUBSCRIBE_GRACE_MS), пока страница открывает поток
+    public long getSnapshotVersion() {
+        snapshotIssuedAt = System.currentTimeMillis();
+        return version.get();
+    }
+
+    // subscribe - подписка преподавателя на приращения статистики группы
+    // вход:
+    //   - groupId - идентификатор группы (право доступа проверяет вызывающий)
+    //   - since - версия снимка страницы (getSnapshotVersion)
+    // выход: SseEmitter потока событий "stats" с LiveStatsDeltaDTO
+    // логика:
+    //  - страница показывает снимок статистики, поток только добавляет к нему приращения;
+    //    подписка не выполняет запросов статистики
+    //  - окна, разосланные между снимком и подпиской, сразу отправляются одним сообщением
+    public SseEmitter subscribe(Long groupId, long since) {
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        Subscriber subscriber = new Subscriber(groupId, emitter, since);
+        Runnable remove = () -> unsubscribe(subscriber);
+        emitter.onCompletion(remove);
+        emitter.onTimeout(remove);
+        emitter.onError(error -> remove.run());
+
+        // рассылка окна, начатая до чтения recent, ждет конца подписки и не доставляет окно второй раз
+        synchronized (subscriber) {
+            subscribersByGroup.compute(groupId, (id, subscribers) -> {
+                Set<Subscriber> group = subscribers == null ? new CopyOnWriteArraySet<>() : subscribers;
+                group.add(subscriber);
+                return group;
+            });
+            List<Window> missed = new ArrayList<>(recent);
+            if (!missed.isEmpty()) {
+                subscriber.deliver(missed.get(missed.size() - 1).sequence(), () -> groupDelta(groupId, missed, since));
+            }
+        }
+        return emitter;
+    }
+
+    // getSubscriberCount - количество открытых подключений
+    public int getSubscriberCount() {
+        return subscribersByGroup.values().stream().mapToInt(Set::size).sum();
+    }
+
+    // onAttemptsRecorded - учет записанного пакета попыток
+    // вход: event - событие записи пакета (после фиксации транзакции)
+    // логика:
+    //  - каждый пакет получает следующий номер версии
+    //  - пока никто не смотрит статистику, пакет пропускается без какой-либо работы
+    //  - иначе попытки суммируются по студентам пакета и ждут конца окна
+    @TransactionalEventListener
+    public void onAttemptsRecorded(AttemptsRecordedEvent event) {
+        long batchVersion = version.incrementAndGet();
+        if (subscribersByGroup.isEmpty() && !inGracePeriod()) {
+            return;
+        }
+        Map<Long, LiveStatsDeltaDTO.StudentDelta> byStudent = new HashMap<>();
+        for (Attempt attempt : event.getAttempts()) {
+            LiveStatsDeltaDTO.StudentDelta delta = byStudent.computeIfAbsent(attempt.getUser().getId(), userId -> {
+                LiveStatsDeltaDTO.StudentDelta created = new LiveStatsDeltaDTO.StudentDelta();
+                created.setStudentId(userId);
+                return created;
+            });
+            add(delta, 1, attempt.isCorrect() ? 1 : 0, attempt.getAttemptTime());
+        }
+        pending.add(new PendingBatch(batchVersion, byStudent.values()));
+    }
+
+    // publish - рассылка приращений, накопленных за окно
+    // выход: количество поставленных в очередь сообщений (по одному на подключение)
+    // логика:
+    //  - группы студентов окна определяются одним запросом по первичному ключу users,
+    //    независимо от количества подключенных преподавателей
+    //  - каждая группа с подписчиками получает одно сообщение с суммой по группе и по студентам;
+    //    подключению уходят только пакеты новее его снимка, версия сообщения - наибольший номер пакета в нем
+    //  - сообщение ставится в очередь подключения, отправку выполняют потоки sender
+    //  - окно хранится SUBSCRIBE_GRACE_MS для подписок, открытых после него (см. subscribe)
+    public synchronized int publish() {
+        long now = System.currentTimeMillis();
+        while (!recent.isEmpty() && now - recent.peekFirst().publishedAt() > SUBSCRIBE_GRACE_MS) {
+            recent.pollFirst();
+        }
+        List<PendingBatch> drained = new ArrayList<>();
+        for (PendingBatch batch = pending.poll(); batch != null; batch = pending.poll()) {
+            drained.add(batch);
+        }
+        if (drained.isEmpty() || (subscribersByGroup.isEmpty() && !inGracePeriod())) {
+            return 0;
+        }
+
+        Set<Long> studentIds = new HashSet<>();
+        drained.forEach(batch -> batch.students().forEach(delta -> studentIds.add(delta.getStudentId())));
+        Map<Long, Long> groupByStudent = new HashMap<>();
+        jdbcTemplate.query("SELECT id, group_id FROM users WHERE id IN (:ids) AND group_id IS NOT NULL",
+                new MapSqlParameterSource("ids", studentIds),
+                rs -> {
+                    groupByStudent.put(rs.getLong(1), rs.getLong(2));
+                });
+
+        Window window = new Window(++windowSequence, now, drained, groupByStudent);
+        recent.addLast(window);
+        List<Window> windows = List.of(window);
+        long oldest = drained.stream().mapToLong(PendingBatch::version).min().orElse(0);
+
+        int sent = 0;
+        for (Map.Entry<Long, Set<Subscriber>> group : subscribersByGroup.entrySet()) {
+            // подписчики со снимком старше всех пакетов окна получают общее сообщение группы
+            Map<Long, LiveStatsDeltaDTO> bySince = new HashMap<>();
+            for (Subscriber subscriber : group.getValue()) {
+                long since = Math.max(subscriber.since, oldest - 1);
+                if (subscriber.deliver(window.sequence(), () -> bySince.computeIfAbsent(since,
+                        key -> groupDelta(group.getKey(), windows, key)))) {
+                    sent++;
+                }
+            }
+        }
+        return sent;
+    }
+
+    // shutdown - закрытие подключений и остановка рассылки при остановке приложения
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+        sender.shutdownNow();
+        subscribersByGroup.values().forEach(subscribers -> subscribers.forEach(subscriber -> subscriber.emitter.complete()));
+        subscribersByGroup.clear();
+    }
+
+    // groupDelta - сумма пакетов новее since по студентам группы
+    private static LiveStatsDeltaDTO groupDelta(Long groupId, List<Window> windows, long since) {
+        LiveStatsDeltaDTO groupDelta = new LiveStatsDeltaDTO();
+        groupDelta.setGroupId(groupId);
+        Map<Long, LiveStatsDeltaDTO.StudentDelta> byStudent = new HashMap<>();
+        for (Window window : windows) {
+            for (PendingBatch batch : window.batches()) {
+                if (batch.version() <= since) {
+                    continue;
+                }
+                for (LiveStatsDeltaDTO.StudentDelta delta : batch.students()) {
+                    if (!groupId.equals(window.groupByStudent().get(delta.getStudentId()))) {
+                        continue;
+                    }
+                    LiveStatsDeltaDTO.StudentDelta student = byStudent.computeIfAbsent(delta.getStudentId(), id -> {
+                        LiveStatsDeltaDTO.StudentDelta created = new LiveStatsDeltaDTO.StudentDelta();
+                        created.setStudentId(id);
+                        groupDelta.getStudents().add(created);
+                        return created;
+                    });
+                    add(student, delta.getTotalAttempts(), delta.getCorrectAttempts(), delta.getLastActivity());
+                    groupDelta.setTotalAttempts(groupDelta.getTotalAttempts() + delta.getTotalAttempts());
+                    groupDelta.setCorrectAttempts(groupDelta.getCorrectAttempts() + delta.getCorrectAttempts());
+                    groupDelta.setVersion(Math.max(groupDelta.getVersion(), batch.version()));
+                }
+            }
+        }
+        return groupDelta;
+    }
+
+    private static void add(LiveStatsDeltaDTO.StudentDelta delta, long total, long correct, LocalDateTime lastActivity) {
+        delta.setTotalAttempts(delta.getTotalAttempts() + total);
+        delta.setCorrectAttempts(delta.getCorrectAttempts() + correct);
+        if (delta.getLastActivity() == null || lastActivity.isAfter(delta.getLastActivity())) {
+            delta.setLastActivity(lastActivity);
+        }
+    }
+
+    private boolean inGracePeriod() {
+        return System.currentTimeMillis() - snapshotIssuedAt <= SUBSCRIBE_GRACE_MS;
+    }
+
+    private void publishQuietly() {
+        try {
+            publish();
+        } catch (Exception e) {
+            log.error("Live stats publish failed", e);
+        }
+    }
+
+    // heartbeat - комментарий в каждый поток, чтобы прокси не закрывали простаивающие подключения
+    private void heartbeat() {
+        subscribersByGroup.values().forEach(subscribers ->
+                subscribers.forEach(subscriber -> subscriber.offer(SseEmitter.event().comment("ping"))));
+    }
+
+    private void unsubscribe(Subscriber subscriber) {
+        subscribersByGroup.computeIfPresent(subscriber.groupId, (id, subscribers) -> {
+            subscribers.remove(subscriber);
+            return subscribers.isEmpty() ? null : subscribers;
+        });
+    }
+
+    // PendingBatch - приращения студентов одного записанного пакета попыток
+    private record PendingBatch(long version, Collection<LiveStatsDeltaDTO.StudentDelta> students) {
+    }
+
+    // Window - разосланное окно: пакеты и группы их студентов
+    private record Window(long sequence, long publishedAt, List<PendingBatch> batches, Map<Long, Long> groupByStudent) {
+    }
+
+    // Subscriber - подключение с собственной очередью сообщений
+    // логика:
+    //  - рассылка не ждет браузер: сообщение кладется в очередь, отправку выполняет один поток sender за раз
+    //  - переполненная очередь означает, что браузер не успевает читать поток: подключение закрывается,
+    //    страница переподключится и перечитает снимок
+    //  - каждое окно доставляется один раз, даже если подписка и рассылка пересеклись
+    private final class Subscriber {
+        private final Long groupId;
+        private final SseEmitter emitter;
+        private final long since;
+        private final BlockingQueue<SseEmitter.SseEventBuilder> queue;
+        private final AtomicBoolean sending = new AtomicBoolean();
+        private long deliveredWindow;
+
+        private Subscriber(Long groupId, SseEmitter emitter, long since) {
+            this.groupId = groupId;
+            this.emitter = emitter;
+            this.since = since;
+            this.queue = new ArrayBlockingQueue<>(queueSize);
+        }
+
+        // deliver - постановка в очередь приращений до окна window включительно, если они еще не доставлены
+        private synchronized boolean deliver(long window, Supplier<LiveStatsDeltaDTO> delta) {
+            if (window <= deliveredWindow) {
+                return false;
+            }
+            deliveredWindow = window;
+            LiveStatsDeltaDTO message = delta.get();
+            return message.getTotalAttempts() > 0
+                    && offer(SseEmitter.event().name(DELTA_EVENT).data(message, MediaType.APPLICATION_JSON));
+        }
+
+        private boolean offer(SseEmitter.SseEventBuilder event) {
+            if (!queue.offer(event)) {
+                log.warn("Live stats subscriber of group {} is too slow, closing the stream", groupId);
+                unsubscribe(this);
+                queue.clear();
+                emitter.complete();
+                return false;
+            }
+            schedule();
+            return true;
+        }
+
+        private void schedule() {
+            if (sending.compareAndSet(false, true)) {
+                try {
+                    sender.execute(this::drain);
+                } catch (RejectedExecutionException e) {
+                    // приложение останавливается
+                    sending.set(false);
+                }
+            }
+        }
+
+        private void drain() {
+            try {
+                for (SseEmitter.SseEventBuilder event = queue.poll(); event != null; event = queue.poll()) {
+                    emitter.send(event);
+                }
+            } catch (IOException | IllegalStateException e) {
+                // браузер закрыл подключение
+                unsubscribe(this);
+                queue.clear();
+            } finally {
+                sending.set(false);
+            }
+            if (!queue.isEmpty()) {
+                schedule();
+            }
+        }
+    }
+}
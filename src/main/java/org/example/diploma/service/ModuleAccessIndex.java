@@ -0,0 +1,112 @@
+package org.example.diploma.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+@Service
+public class ModuleAccessIndex {
+    private final JdbcTemplate jdbcTemplate;
+    private final Map<Long, Set<Long>> modulesByGroup = new HashMap<>();
+    private long generation;
+
+    // Конструктор ModuleAccessIndex - создание индекса назначенных модулей
+    // вход: jdbcTemplate - шаблон для чтения таблицы group_modules
+    // выход: созданный экземпляр ModuleAccessIndex
+    @Autowired
+    public ModuleAccessIndex(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    // canAccess - проверка доступа группы к модулю
+    // вход:
+    //   - groupId - идентификатор группы студента (может быть null)
+    //   - moduleId - идентификатор модуля
+    // выход: true, если модуль назначен группе
+    // логика:
+    //  - множество модулей группы хранится в памяти, проверка выполняется без обращения к Hibernate
+    //  - при первом обращении к группе (холодный старт) ее модули читаются одним запросом из group_modules
+    //  - загруженное множество не кладется в индекс, если за время загрузки назначения изменились
+    public boolean canAccess(Long groupId, Long moduleId) {
+        if (groupId == null || moduleId == null) {
+            return false;
+        }
+        return getModuleIds(groupId).contains(moduleId);
+    }
+
+    // getModuleIds - идентификаторы модулей, назначенных группе
+    // вход: groupId - идентификатор группы
+    // выход: неизменяемое множество идентификаторов модулей
+    public Set<Long> getModuleIds(Long groupId) {
+        long loadGeneration;
+        synchronized (this) {
+            Set<Long> cached = modulesByGroup.get(groupId);
+            if (cached != null) {
+                return cached;
+            }
+            loadGeneration = generation;
+        }
+
+        Set<Long> loaded = Set.copyOf(jdbcTemplate.queryForList(
+                "SELECT module_id FROM group_modules WHERE group_id = ?", Long.class, groupId));
+
+        synchronized (this) {
+            if (loadGeneration == generation) {
+                modulesByGroup.put(groupId, loaded);
+            }
+        }
+        return loaded;
+    }
+
+    // onModuleAssigned - учет назначения модуля группе (вызывается после сохранения)
+    public synchronized void onModuleAssigned(Long groupId, Long moduleId) {
+        generation++;
+        Set<Long> current = modulesByGroup.get(groupId);
+        if (current != null && !current.contains(moduleId)) {
+            Set<Long> updated = new HashSet<>(current);
+            updated.add(moduleId);
+            modulesByGroup.put(groupId, Set.copyOf(updated));
+        }
+    }
+
+    // onModuleRemoved - учет снятия модуля с группы (вызывается после сохранения)
+    public synchronized void onModuleRemoved(Long groupId, Long moduleId) {
+        generation++;
+        Set<Long> current = modulesByGroup.get(groupId);
+        if (current != null && current.contains(moduleId)) {
+            Set<Long> updated = new HashSet<>(current);
+            updated.remove(moduleId);
+            modulesByGroup.put(groupId, Set.copyOf(updated));
+        }
+    }
+
+    // onGroupDeleted - удаление группы из индекса
+    public synchronized void onGroupDeleted(Long groupId) {
+        generation++;
+        modulesByGroup.remove(groupId);
+    }
+
+    // onModuleDeleted - удаление модуля из всех групп индекса
+    public synchronized void onModuleDeleted(Long moduleId) {
+        generation++;
+        modulesByGroup.replaceAll((groupId, moduleIds) -> {
+            if (!moduleIds.contains(moduleId)) {
+                return moduleIds;
+            }
+            Set<Long> updated = new HashSet<>(moduleIds);
+            updated.remove(moduleId);
+            return Set.copyOf(updated);
+        });
+    }
+
+    // evictAll - полная очистка индекса (следующие проверки перечитают группы из базы)
+    public synchronized void evictAll() {
+        generation++;
+        modulesByGroup.clear();
+    }
+}
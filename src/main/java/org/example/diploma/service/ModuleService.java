@@ -1,10 +1,14 @@
 package org.example.diploma.service;
 
+import org.example.diploma.dto.ExerciseSyncResultDTO;
 import org.example.diploma.model.Module;
 import org.example.diploma.model.User;
 import org.example.diploma.repository.ModuleRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 import java.util.List;
 import java.util.Optional;
 
@@ -12,16 +16,26 @@ import java.util.Optional;
 public class ModuleService {
     private final ModuleRepository moduleRepository;
     private final ExerciseService exerciseService;
+    private final ModuleAccessIndex moduleAccessIndex;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
 
     // Конструктор ModuleService - внедрение зависимостей
     // вход:
     //   - moduleRepository - репозиторий для работы с модулями
     //   - exerciseService - сервис для работы с упражнениями
+    //   - moduleAccessIndex - индекс модулей, назначенных группам
+    //   - jdbcTemplate - шаблон для удаления назначений модуля группам
+    //   - transactionManager - менеджер транзакций (модуль удаляется вместе с попытками одной транзакцией)
     // выход: созданный экземпляр ModuleService
     @Autowired
-    public ModuleService(ModuleRepository moduleRepository, ExerciseService exerciseService) {
+    public ModuleService(ModuleRepository moduleRepository, ExerciseService exerciseService, ModuleAccessIndex moduleAccessIndex,
+                         JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager) {
         this.moduleRepository = moduleRepository;
         this.exerciseService = exerciseService;
+        this.moduleAccessIndex = moduleAccessIndex;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
     }
 
     // getUserModules - получение всех модулей пользователя (преподавателя)
@@ -51,8 +65,19 @@ public class ModuleService {
     // логика:
     //  - удаляет модуль из базы данных
     //  - связанные слова и упражнения удаляются каскадно через соответствующие сервисы
+    //  - попытки по упражнениям модуля и состояния повторения его слов удаляются явно (внешних ключей у них нет)
+    //    в той же транзакции, сводные таблицы затронутых студентов пересчитываются
+    //  - назначения модуля группам удаляются там же: иначе внешний ключ group_modules не дает удалить
+    //    модуль, назначенный хотя бы одной группе
+    //  - кэш упражнений модуля сбрасывается, модуль удаляется из индекса назначенных модулей
     public void deleteModule(Long id) {
-        moduleRepository.deleteById(id);
+        transactionTemplate.executeWithoutResult(status -> {
+            exerciseService.deleteModuleAttempts(id);
+            jdbcTemplate.update("DELETE FROM group_modules WHERE module_id = ?", id);
+            moduleRepository.deleteById(id);
+        });
+        exerciseService.evictModuleExercises(id);
+        moduleAccessIndex.onModuleDeleted(id);
     }
 
     // isModuleTitleUniqueForUser - проверка уникальности названия модуля для пользователя
@@ -68,16 +93,26 @@ public class ModuleService {
         return !moduleRepository.existsByTitleAndUserId(title, userId);
     }
 
+    // isModuleOwnedBy - проверка, что модуль принадлежит преподавателю
+    // вход:
+    //   - moduleId - идентификатор модуля
+    //   - userId - идентификатор преподавателя
+    // выход: true, если модуль создан указанным преподавателем
+    public boolean isModuleOwnedBy(Long moduleId, Long userId) {
+        return moduleRepository.existsByIdAndUserId(moduleId, userId);
+    }
+
     // generateExercisesForModule - генерация упражнений для модуля
     // вход: moduleId - идентификатор модуля
-    // выход: void
+    // выход: итоги синхронизации упражнений со словами (пустые, если модуль не найден)
     // логика:
     //  - вызывает сервис упражнений для генерации упражнений на основе слов модуля
-    //  - создает упражнения типа MULTIPLE_CHOICE для каждого слова в модуле
-    public void generateExercisesForModule(Long moduleId) {
+    //  - создает упражнения типа MULTIPLE_CHOICE только для слов, у которых их еще нет
+    public ExerciseSyncResultDTO generateExercisesForModule(Long moduleId) {
         Optional<Module> moduleOptional = getModuleById(moduleId);
         if (moduleOptional.isPresent()) {
-            exerciseService.generateExercisesForModule(moduleOptional.get());
+            return exerciseService.generateExercisesForModule(moduleOptional.get());
         }
+        return new ExerciseSyncResultDTO();
     }
 }
\ No newline at end of file
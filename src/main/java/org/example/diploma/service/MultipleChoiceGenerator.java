@@ -0,0 +1,172 @@
+package org.example.diploma.service;
+
+import org.example.diploma.model.Exercise;
+import org.example.diploma.model.Module;
+import org.example.diploma.model.Word;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.random.RandomGenerator;
+
+// MultipleChoiceGenerator - генерация упражнений с множественным выбором по списку слов модуля
+// назначение: слова загружаются один раз, неправильные варианты выбираются за O(1) на упражнение
+// примечание: класс без состояния Spring, поэтому используется и сервисом, и бенчмарками
+public class MultipleChoiceGenerator {
+    public static final int OPTIONS = 4;
+    public static final int DISTRACTORS = OPTIONS - 1;
+
+    private final RandomGenerator random;
+
+    // Конструктор MultipleChoiceGenerator
+    // вход: random - генератор случайных чисел (с фиксированным seed генерация воспроизводима)
+    public MultipleChoiceGenerator(RandomGenerator random) {
+        this.random = random;
+    }
+
+    // generate - упражнения для всех слов модуля
+    // вход:
+    //   - module - модуль, к которому относятся упражнения
+    //   - words - все слова модуля
+    // выход: список упражнений в порядке слов (еще не сохраненных)
+    // исключения:
+    //  - RuntimeException - если в модуле меньше 4 слов
+    public List<Exercise> generate(Module module, List<Word> words) {
+        Session session = forWords(words);
+        List<Exercise> exercises = new ArrayList<>(words.size());
+        for (int i = 0; i < words.size(); i++) {
+            exercises.add(session.create(module, i));
+        }
+        return exercises;
+    }
+
+    // generateOne - упражнение для одного слова модуля
+    // вход:
+    //   - module - модуль
+    //   - words - все слова модуля
+    //   - index - позиция слова, для которого создается упражнение
+    // выход: сгенерированное упражнение
+    public Exercise generateOne(Module module, List<Word> words, int index) {
+        return forWords(words).create(module, index);
+    }
+
+    // forWords - сессия генерации по фиксированному списку слов
+    // вход: words - все слова модуля
+    // выход: Session для создания упражнений и обновления вариантов по позициям слов
+    // исключения:
+    //  - RuntimeException - если в модуле меньше 4 слов
+    public Session forWords(List<Word> words) {
+        return new Session(words);
+    }
+
+    // Session - генерация по одному списку слов; пул индексов создается один раз на весь модуль
+    public final class Session {
+        private final List<Word> words;
+        private final DistractorSampler sampler;
+        private final int[] distractors = new int[DISTRACTORS];
+
+        private Session(List<Word> words) {
+            this.words = words;
+            this.sampler = new DistractorSampler(words.size());
+        }
+
+        // create - новое упражнение для слова на позиции index
+        public Exercise create(Module module, int index) {
+            Word word = words.get(index);
+            boolean isEnglishQuestion = random.nextBoolean();
+
+            Exercise exercise = new Exercise();
+            exercise.setType("MULTIPLE_CHOICE");
+            exercise.setModule(module);
+            exercise.setSourceWordId(word.getId());
+            if (isEnglishQuestion) {
+                exercise.setQuestion("What is the translation of: " + word.getEnglish() + "?");
+                exercise.setCorrectAnswer(word.getRussian());
+            } else {
+                exercise.setQuestion("Как переводится: " + word.getRussian() + "?");
+                exercise.setCorrectAnswer(word.getEnglish());
+            }
+            fillOptions(exercise, index, isEnglishQuestion);
+            return exercise;
+        }
+
+        // refresh - новые неправильные варианты для существующего упражнения (вопрос и ответ не меняются)
+        // вход:
+        //   - exercise - упражнение, варианты которого нужно обновить
+        //   - index - позиция исходного слова упражнения
+        //   - isEnglishQuestion - вопрос задан по-английски (варианты - русские слова)
+        public void refresh(Exercise exercise, int index, boolean isEnglishQuestion) {
+            exercise.setSourceWordId(words.get(index).getId());
+            fillOptions(exercise, index, isEnglishQuestion);
+        }
+
+        private void fillOptions(Exercise exercise, int index, boolean isEnglishQuestion) {
+            sampler.sample(index, distractors);
+
+            String[] options = new String[OPTIONS];
+            options[0] = exercise.getCorrectAnswer();
+            StringBuilder ids = new StringBuilder();
+            for (int k = 0; k < DISTRACTORS; k++) {
+                Word wrong = words.get(distractors[k]);
+                options[k + 1] = isEnglishQuestion ? wrong.getRussian() : wrong.getEnglish();
+                if (k > 0) {
+                    ids.append(',');
+                }
+                ids.append(wrong.getId());
+            }
+
+            // перемешать 4 варианта (Фишер-Йетс)
+            for (int k = OPTIONS - 1; k > 0; k--) {
+                int j = random.nextInt(k + 1);
+                String tmp = options[k];
+                options[k] = options[j];
+                options[j] = tmp;
+            }
+
+            exercise.setOption1(options[0]);
+            exercise.setOption2(options[1]);
+            exercise.setOption3(options[2]);
+            exercise.setOption4(options[3]);
+            exercise.setDistractorWordIds(ids.toString());
+        }
+    }
+
+    // DistractorSampler - выбор 3 разных индексов, не совпадающих с индексом слова
+    // логика:
+    //  - pool - перестановка индексов 0..n-1, pos - позиция каждого индекса в pool
+    //  - индекс слова переставляется в конец, затем частичный Фишер-Йетс выбирает 3 индекса из первых n-1
+    //  - перестановка не восстанавливается: любая перестановка годится как источник следующей выборки
+    private final class DistractorSampler {
+        private final int[] pool;
+        private final int[] pos;
+
+        private DistractorSampler(int size) {
+            if (size < OPTIONS) {
+                throw new RuntimeException("Module must have at least 4 words to generate exercises");
+            }
+            pool = new int[size];
+            pos = new int[size];
+            for (int i = 0; i < size; i++) {
+                pool[i] = i;
+                pos[i] = i;
+            }
+        }
+
+        private void sample(int exclude, int[] out) {
+            int last = pool.length - 1;
+            swap(pos[exclude], last);
+            for (int k = 0; k < out.length; k++) {
+                swap(k, k + random.nextInt(last - k));
+                out[k] = pool[k];
+            }
+        }
+
+        private void swap(int a, int b) {
+            int va = pool[a];
+            int vb = pool[b];
+            pool[a] = vb;
+            pool[b] = va;
+            pos[vb] = a;
+            pos[va] = b;
+        }
+    }
+}
@@ -0,0 +1,296 @@
+package org.example.diploma.service;
+
+import jakarta.servlet.http.HttpSession;
+import org.example.diploma.dto.ExerciseSnapshotDTO;
+import org.example.diploma.dto.PracticeAnswerDTO;
+import org.example.diploma.dto.PracticeBatchDTO;
+import org.example.diploma.dto.PracticeQuestionDTO;
+import org.example.diploma.dto.PracticeResultDTO;
+import org.example.diploma.dto.PracticeSession;
+import org.example.diploma.dto.UserSnapshotDTO;
+import org.example.diploma.model.Attempt;
+import org.example.diploma.model.Module;
+import org.example.diploma.model.User;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Optional;
+
+@Service
+public class PracticeSessionService {
+    static final String PRACTICE_ATTRIBUTE = "practiceSession";
+    static final String REVIEW_ATTRIBUTE = "reviewSession";
+    // моменты выдачи вопросов пакетами (идентификатор упражнения -> мс) и момент последнего пакета ответов
+    static final String BATCH_SERVED_ATTRIBUTE = "practiceBatchServed";
+    static final String BATCH_ANSWERED_ATTRIBUTE = "practiceBatchAnsweredAt";
+    // верхняя граница измеренного времени ответа: вкладка могла быть оставлена открытой надолго
+    static final int MAX_TIME_SPENT_SECONDS = 600;
+
+    private final StudentService studentService;
+    private final UserService userService;
+    private final ModuleService moduleService;
+    private final int maxBatchSize;
+
+    // Конструктор PracticeSessionService - внедрение зависимостей
+    // вход:
+    //   - studentService - сервис студента (упражнения из кэша, доступ к модулям, запись попыток)
+    //   - userService - сервис пользователей (ссылка на студента для попыток)
+    //   - moduleService - сервис модулей (заголовок модуля при начале практики)
+    //   - maxBatchSize - максимальное количество вопросов или ответов в одном пакете
+    // выход: созданный экземпляр PracticeSessionService
+    @Autowired
+    public PracticeSessionService(StudentService studentService,
+                                  UserService userService,
+                                  ModuleService moduleService,
+                                  @Value("${app.practice.max-batch-size:50}") int maxBatchSize) {
+        this.studentService = studentService;
+        this.userService = userService;
+        this.moduleService = moduleService;
+        this.maxBatchSize = maxBatchSize;
+    }
+
+    // getMaxBatchSize - ограничение размера пакета
+    public int getMaxBatchSize() {
+        return maxBatchSize;
+    }
+
+    // getBatch - пакет вопросов практики модуля
+    // вход:
+    //   - session - HTTP-сессия студента (запоминаются моменты выдачи вопросов)
+    //   - moduleId - идентификатор модуля (доступ проверяется вызывающим)
+    //   - offset - позиция первого вопроса
+    //   - limit - желаемый размер пакета (ограничивается maxBatchSize)
+    // выход: PracticeBatchDTO с вопросами без правильных ответов и позицией следующего пакета
+    // логика:
+    //  - упражнения берутся из кэша упражнений модуля, порядок тот же, что у страницы практики
+    //  - момент выдачи каждого вопроса сохраняется в сессии для измерения времени ответа сервером;
+    //    хранится не больше 4 * maxBatchSize последних вопросов (клиент подгружает пакеты заранее)
+    public PracticeBatchDTO getBatch(HttpSession session, Long moduleId, int offset, int limit) {
+        List<ExerciseSnapshotDTO> exercises = studentService.getPracticeExercises(moduleId);
+        int from = Math.min(Math.max(offset, 0), exercises.size());
+        int to = Math.min(from + Math.min(Math.max(limit, 1), maxBatchSize), exercises.size());
+
+        PracticeBatchDTO batch = new PracticeBatchDTO();
+        batch.setModuleId(moduleId);
+        batch.setOffset(from);
+        batch.setTotal(exercises.size());
+        batch.setNextOffset(to < exercises.size() ? to : null);
+
+        long now = System.currentTimeMillis();
+        LinkedHashMap<Long, Long> served = servedQuestions(session);
+        for (ExerciseSnapshotDTO exercise : exercises.subList(from, to)) {
+            batch.getQuestions().add(PracticeQuestionDTO.from(exercise));
+            served.remove(exercise.getId());
+            served.put(exercise.getId(), now);
+        }
+        Iterator<Long> eldest = served.keySet().iterator();
+        while (served.size() > 4 * maxBatchSize) {
+            eldest.next();
+            eldest.remove();
+        }
+        session.setAttribute(BATCH_SERVED_ATTRIBUTE, served);
+        return batch;
+    }
+
+    // submitAnswers - проверка и запись пакета ответов
+    // вход:
+    //   - session - HTTP-сессия студента (моменты выдачи вопросов)
+    //   - student - снимок текущего студента
+    //   - answers - ответы (не больше maxBatchSize)
+    // выход: Optional с результатами в порядке ответов; пустой, если какое-то упражнение не найдено
+    //        или модуль упражнения не назначен группе студента (тогда ничего не записывается)
+    // логика:
+    //  - сначала проверяются все упражнения, затем попытки передаются в AttemptIngestionService
+    //    через StudentService.saveAttempt (обновляются и сроки интервального повторения)
+    //  - время ответа измеряется сервером (takeBatchAnswerTimes), значение клиента не используется
+    // исключения:
+    //  - IllegalArgumentException - пакет пуст, больше maxBatchSize или ответ без упражнения
+    public Optional<List<PracticeResultDTO>> submitAnswers(HttpSession session, UserSnapshotDTO student,
+                                                           List<PracticeAnswerDTO> answers) {
+        if (answers == null || answers.isEmpty() || answers.size() > maxBatchSize) {
+            throw new IllegalArgumentException("Answer batch must contain 1.." + maxBatchSize + " answers");
+        }
+
+        List<ExerciseSnapshotDTO> exercises = new ArrayList<>(answers.size());
+        for (PracticeAnswerDTO answer : answers) {
+            if (answer.getExerciseId() == null || answer.getSelectedAnswer() == null) {
+                throw new IllegalArgumentException("Each answer needs exerciseId and selectedAnswer");
+            }
+            Optional<ExerciseSnapshotDTO> exercise = studentService.getPracticeExercise(answer.getExerciseId());
+            if (exercise.isEmpty() || !studentService.canAccessModule(student.getGroupId(), exercise.get().getModuleId())) {
+                return Optional.empty();
+            }
+            exercises.add(exercise.get());
+        }
+
+        Integer[] timeSpent = takeBatchAnswerTimes(session, exercises);
+        User user = userService.getUserReference(student.getId());
+        List<PracticeResultDTO> results = new ArrayList<>(answers.size());
+        for (int i = 0; i < answers.size(); i++) {
+            PracticeAnswerDTO answer = answers.get(i);
+            ExerciseSnapshotDTO exercise = exercises.get(i);
+            Attempt attempt = studentService.saveAttempt(user, exercise.toReference(), answer.getSelectedAnswer(), timeSpent[i]);
+
+            PracticeResultDTO result = new PracticeResultDTO();
+            result.setExerciseId(exercise.getId());
+            result.setCorrect(attempt.isCorrect());
+            result.setCorrectAnswer(exercise.getCorrectAnswer());
+            results.add(result);
+        }
+        return Optional.of(results);
+    }
+
+    // takeBatchAnswerTimes - время ответов пакета, измеренное сервером
+    // вход:
+    //   - session - HTTP-сессия студента
+    //   - exercises - упражнения ответов пакета
+    // выход: секунды на каждый ответ (не больше MAX_TIME_SPENT_SECONDS) или null для вопросов,
+    //        которые не выдавались в этой сессии или на которые уже был ответ
+    // логика:
+    //  - окно ответа начинается с выдачи самого раннего из вопросов пакета, но не раньше предыдущего
+    //    пакета ответов, и делится поровну между измеренными ответами
+    //  - каждая выдача вопроса измеряется один раз
+    private Integer[] takeBatchAnswerTimes(HttpSession session, List<ExerciseSnapshotDTO> exercises) {
+        long now = System.currentTimeMillis();
+        LinkedHashMap<Long, Long> served = servedQuestions(session);
+        Long answeredAt = (Long) session.getAttribute(BATCH_ANSWERED_ATTRIBUTE);
+
+        Integer[] timeSpent = new Integer[exercises.size()];
+        long windowStart = Long.MAX_VALUE;
+        int measured = 0;
+        for (int i = 0; i < exercises.size(); i++) {
+            Long servedAt = served.remove(exercises.get(i).getId());
+            if (servedAt != null) {
+                windowStart = Math.min(windowStart, servedAt);
+                timeSpent[i] = 0;
+                measured++;
+            }
+        }
+        if (measured > 0) {
+            if (answeredAt != null) {
+                windowStart = Math.max(windowStart, answeredAt);
+            }
+            int seconds = (int) Math.min(MAX_TIME_SPENT_SECONDS, Math.max(0, (now - windowStart) / 1000 / measured));
+            for (int i = 0; i < timeSpent.length; i++) {
+                if (timeSpent[i] != null) {
+                    timeSpent[i] = seconds;
+                }
+            }
+        }
+        session.setAttribute(BATCH_SERVED_ATTRIBUTE, served);
+        session.setAttribute(BATCH_ANSWERED_ATTRIBUTE, now);
+        return timeSpent;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static LinkedHashMap<Long, Long> servedQuestions(HttpSession session) {
+        LinkedHashMap<Long, Long> served = (LinkedHashMap<Long, Long>) session.getAttribute(BATCH_SERVED_ATTRIBUTE);
+        return served != null ? served : new LinkedHashMap<>();
+    }
+
+    // openPractice - состояние практики модуля из HTTP-сессии
+    // вход:
+    //   - session - HTTP-сессия студента
+    //   - student - снимок текущего студента
+    //   - moduleId - идентификатор модуля
+    // выход: Optional с состоянием практики; пустой, если модуль не найден или не назначен группе студента
+    // логика:
+    //  - доступ проверяется всегда (по индексу назначенных модулей, без обращений к базе): модуль могли снять
+    //    с группы или студента перевести в другую группу посреди практики - тогда практика удаляется из сессии
+    //  - незавершенная практика того же модуля продолжается без загрузки модуля
+    //  - иначе модуль загружается один раз, порядок упражнений (только идентификаторы)
+    //    берется из кэша упражнений, и состояние сохраняется в сессии
+    public Optional<PracticeSession> openPractice(HttpSession session, UserSnapshotDTO student, Long moduleId) {
+        PracticeSession practice = (PracticeSession) session.getAttribute(PRACTICE_ATTRIBUTE);
+        if (!studentService.canAccessModule(student.getGroupId(), moduleId)) {
+            if (practice != null && practice.getModuleId().equals(moduleId)) {
+                session.removeAttribute(PRACTICE_ATTRIBUTE);
+            }
+            return Optional.empty();
+        }
+        if (practice != null && practice.getModuleId().equals(moduleId) && !practice.isFinished()) {
+            return Optional.of(practice);
+        }
+        Optional<Module> module = moduleService.getModuleById(moduleId);
+        if (module.isEmpty()) {
+            return Optional.empty();
+        }
+
+        long[] exerciseIds = studentService.getPracticeExercises(moduleId).stream()
+                .mapToLong(ExerciseSnapshotDTO::getId)
+                .toArray();
+        practice = new PracticeSession(moduleId, module.get().getTitle(), module.get().getDescription(), exerciseIds,
+                System.currentTimeMillis());
+        session.setAttribute(PRACTICE_ATTRIBUTE, practice);
+        return Optional.of(practice);
+    }
+
+    // showCurrent - упражнение текущей позиции практики
+    // вход:
+    //   - session - HTTP-сессия студента
+    //   - practice - состояние практики
+    // выход: Optional со снимком упражнения; пустой, если упражнения закончились
+    // логика:
+    //  - упражнение берется из кэша по идентификатору; удаленные после начала практики пропускаются
+    //  - момент показа запоминается для измерения времени ответа (повторный показ его не сбрасывает)
+    public Optional<ExerciseSnapshotDTO> showCurrent(HttpSession session, PracticeSession practice) {
+        while (!practice.isFinished()) {
+            Optional<ExerciseSnapshotDTO> exercise = studentService.getPracticeExercise(practice.getCurrentExerciseId())
+                    .filter(snapshot -> practice.getModuleId().equals(snapshot.getModuleId()));
+            if (exercise.isPresent()) {
+                practice.markShown(exercise.get().getId(), System.currentTimeMillis());
+                session.setAttribute(PRACTICE_ATTRIBUTE, practice);
+                return exercise;
+            }
+            practice.advance();
+        }
+        session.setAttribute(PRACTICE_ATTRIBUTE, practice);
+        return Optional.empty();
+    }
+
+    // finishPractice - удаление завершенной практики из сессии
+    public void finishPractice(HttpSession session) {
+        session.removeAttribute(PRACTICE_ATTRIBUTE);
+    }
+
+    // markReviewShown - запоминание показанного вопроса повторения (для измерения времени ответа)
+    public void markReviewShown(HttpSession session, Long moduleId, Long exerciseId) {
+        PracticeSession review = (PracticeSession) session.getAttribute(REVIEW_ATTRIBUTE);
+        if (review == null || !review.getModuleId().equals(moduleId)) {
+            review = new PracticeSession(moduleId, null, null, new long[0], System.currentTimeMillis());
+        }
+        review.markShown(exerciseId, System.currentTimeMillis());
+        session.setAttribute(REVIEW_ATTRIBUTE, review);
+    }
+
+    // takeAnswerTime - время ответа, измеренное сервером
+    // вход:
+    //   - session - HTTP-сессия студента
+    //   - exerciseId - упражнение, на которое пришел ответ
+    // выход: секунды с момента показа вопроса (не больше MAX_TIME_SPENT_SECONDS) или null,
+    //        если этот вопрос не показывался в сессии (например, ответ из старой вкладки)
+    // логика:
+    //  - ответ на текущий вопрос практики переводит практику на следующее упражнение
+    public Integer takeAnswerTime(HttpSession session, Long exerciseId) {
+        long now = System.currentTimeMillis();
+        for (String attribute : new String[]{PRACTICE_ATTRIBUTE, REVIEW_ATTRIBUTE}) {
+            PracticeSession state = (PracticeSession) session.getAttribute(attribute);
+            if (state == null || !exerciseId.equals(state.getShownExerciseId())) {
+                continue;
+            }
+            int seconds = (int) Math.min(MAX_TIME_SPENT_SECONDS, Math.max(0, (now - state.getShownAt()) / 1000));
+            if (exerciseId.equals(state.getCurrentExerciseId())) {
+                state.advance();
+            }
+            state.clearShown();
+            session.setAttribute(attribute, state);
+            return seconds;
+        }
+        return null;
+    }
+}
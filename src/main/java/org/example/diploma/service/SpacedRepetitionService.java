@@ -0,0 +1,240 @@
+package org.example.diploma.service;
+
+import org.example.diploma.dto.ExerciseSnapshotDTO;
+import org.example.diploma.model.Attempt;
+import org.example.diploma.model.WordReviewState;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+@Service
+public class SpacedRepetitionService {
+    static final int INITIAL_EASE_FACTOR = 250;
+    static final int MIN_EASE_FACTOR = 130;
+    // слово с неправильным ответом возвращается в ту же сессию повторения
+    static final int RELEARN_DELAY_MINUTES = 10;
+
+    private static final String SEED_SQL =
+            "INSERT INTO word_review_states (user_id, word_id, module_id, repetitions, interval_days, ease_factor, due_at) " +
+            "SELECT ?, w.id, w.module_id, 0, 0, " + INITIAL_EASE_FACTOR + ", ? FROM words w " +
+            "WHERE w.module_id = ? AND NOT EXISTS " +
+            "(SELECT 1 FROM word_review_states s WHERE s.user_id = ? AND s.word_id = w.id)";
+
+    private static final String NEXT_DUE_SQL =
+            "SELECT e.id FROM word_review_states s " +
+            "JOIN exercises e ON e.module_id = s.module_id AND e.source_word_id = s.word_id AND e.retired = FALSE " +
+            "WHERE s.user_id = ? AND s.module_id = ? AND s.due_at <= ? " +
+            "ORDER BY s.due_at, s.word_id LIMIT 1";
+
+    // строка заменяется, только если ответ не старше уже записанного (last_reviewed_at присваивается последним:
+    // MySQL вычисляет присваивания слева направо, и условие должно видеть прежнее значение)
+    private static final String NEWER = "last_reviewed_at IS NULL OR last_reviewed_at <= VALUES(last_reviewed_at)";
+    private static final String UPSERT_SQL =
+            "INSERT INTO word_review_states (user_id, word_id, module_id, repetitions, interval_days, ease_factor, " +
+            "due_at, last_reviewed_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?) " +
+            "ON DUPLICATE KEY UPDATE " +
+            "module_id = CASE WHEN " + NEWER + " THEN VALUES(module_id) ELSE module_id END, " +
+            "repetitions = CASE WHEN " + NEWER + " THEN VALUES(repetitions) ELSE repetitions END, " +
+            "interval_days = CASE WHEN " + NEWER + " THEN VALUES(interval_days) ELSE interval_days END, " +
+            "ease_factor = CASE WHEN " + NEWER + " THEN VALUES(ease_factor) ELSE ease_factor END, " +
+            "due_at = CASE WHEN " + NEWER + " THEN VALUES(due_at) ELSE due_at END, " +
+            "last_reviewed_at = CASE WHEN " + NEWER + " THEN VALUES(last_reviewed_at) ELSE last_reviewed_at END";
+
+    private static final String COUNT_DUE_SQL =
+            "SELECT COUNT(*) FROM word_review_states s " +
+            "WHERE s.user_id = ? AND s.module_id = ? AND s.due_at <= ? AND EXISTS (SELECT 1 FROM exercises e " +
+            "WHERE e.module_id = s.module_id AND e.source_word_id = s.word_id AND e.retired = FALSE)";
+
+    private static final Comparator<List<Long>> KEY_ORDER =
+            Comparator.<List<Long>, Long>comparing(key -> key.get(0)).thenComparing(key -> key.get(1));
+
+    private final ExerciseService exerciseService;
+    private final JdbcTemplate jdbcTemplate;
+
+    // Конструктор SpacedRepetitionService - внедрение зависимостей
+    // вход:
+    //   - exerciseService - сервис упражнений (снимки упражнений берутся из кэша)
+    //   - jdbcTemplate - шаблон для выборки следующего слова, заполнения новых слов и записи ответов
+    // выход: созданный экземпляр SpacedRepetitionService
+    @Autowired
+    public SpacedRepetitionService(ExerciseService exerciseService, JdbcTemplate jdbcTemplate) {
+        this.exerciseService = exerciseService;
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    // startReview - подготовка сессии повторения модуля
+    // вход:
+    //   - userId - идентификатор студента
+    //   - moduleId - идентификатор модуля
+    // выход: количество слов модуля, впервые добавленных в повторение
+    // логика:
+    //  - слова без состояния получают состояние "к повторению сейчас" одним INSERT ... SELECT
+    //  - выполняется один раз при открытии сессии, а не на каждый вопрос
+    public int startReview(Long userId, Long moduleId) {
+        return jdbcTemplate.update(SEED_SQL, userId, Timestamp.valueOf(LocalDateTime.now()), moduleId, userId);
+    }
+
+    // nextDue - следующее упражнение к повторению
+    // вход:
+    //   - userId - идентификатор студента
+    //   - moduleId - идентификатор модуля
+    //   - now - текущий момент
+    // выход: Optional со снимком упражнения слова с самым ранним сроком; пустой, если повторять пока нечего
+    // логика:
+    //  - один запрос по индексу (user_id, module_id, due_at) с LIMIT 1: стоимость не зависит от размера модуля,
+    //    упражнения модуля целиком не загружаются
+    //  - упражнение слова находится по индексу (module_id, source_word_id); слова без упражнений пропускаются
+    public Optional<ExerciseSnapshotDTO> nextDue(Long userId, Long moduleId, LocalDateTime now) {
+        List<Long> ids = jdbcTemplate.queryForList(NEXT_DUE_SQL, Long.class, userId, moduleId, Timestamp.valueOf(now));
+        return ids.isEmpty() ? Optional.empty() : exerciseService.getExerciseSnapshot(ids.get(0));
+    }
+
+    // countDue - количество слов модуля, которые пора повторить
+    // логика:
+    //  - считаются только слова с действующим упражнением, как в nextDue: слова без упражнения или с выведенным
+    //    упражнением не показываются, поэтому не входят и в счетчик
+    public long countDue(Long userId, Long moduleId, LocalDateTime now) {
+        Long count = jdbcTemplate.queryForObject(COUNT_DUE_SQL, Long.class, userId, moduleId, Timestamp.valueOf(now));
+        return count == null ? 0 : count;
+    }
+
+    // apply - обновление состояний слов по пакету записанных попыток
+    // вход: attempts - только что записанные попытки (в порядке ответов)
+    // выход: void
+    // логика:
+    //  - вызывается AttemptIngestionService в транзакции вставки пакета, рядом с обновлением сводных таблиц
+    //  - учитываются попытки упражнений, созданных по слову; ответы обычной практики тоже двигают сроки
+    //  - текущие состояния пакета читаются одним запросом без блокировки, шаг SM-2 считается в памяти
+    //    по всем ответам (студент, слово) пакета по порядку, результат пишется одним пакетным upsert
+    //  - блокирующее чтение (FOR UPDATE) не используется: в MySQL (REPEATABLE READ) оно ставит gap-блокировки
+    //    на отсутствующие строки, и upsert двух пакетов, пишущих в те же промежутки, взаимоблокируется
+    //  - upsert по первичному ключу не падает, если первое состояние слова создается одновременно другим пакетом,
+    //    и не перезаписывает состояние, записанное по более позднему ответу; строки пишутся в порядке ключа
+    //  - примечание: ответы на одно слово в двух одновременных пакетах считаются от одного прочитанного состояния,
+    //    сохраняется результат более позднего ответа
+    public void apply(List<Attempt> attempts) {
+        List<Attempt> answers = attempts.stream()
+                .filter(attempt -> attempt.getExercise().getSourceWordId() != null && attempt.getExercise().getModule() != null)
+                .sorted(Comparator.comparing(Attempt::getAttemptTime))
+                .collect(Collectors.toList());
+        if (answers.isEmpty()) {
+            return;
+        }
+
+        Set<Long> userIds = new LinkedHashSet<>();
+        Set<Long> wordIds = new LinkedHashSet<>();
+        for (Attempt attempt : answers) {
+            userIds.add(attempt.getUser().getId());
+            wordIds.add(attempt.getExercise().getSourceWordId());
+        }
+        Map<List<Long>, WordReviewState> states = loadStates(userIds, wordIds);
+
+        Map<List<Long>, WordReviewState> changed = new TreeMap<>(KEY_ORDER);
+        for (Attempt attempt : answers) {
+            Long userId = attempt.getUser().getId();
+            Long wordId = attempt.getExercise().getSourceWordId();
+            List<Long> key = List.of(userId, wordId);
+            WordReviewState state = states.computeIfAbsent(key, k -> {
+                WordReviewState created = new WordReviewState();
+                created.setUserId(userId);
+                created.setWordId(wordId);
+                created.setEaseFactor(INITIAL_EASE_FACTOR);
+                return created;
+            });
+            state.setModuleId(attempt.getExercise().getModule().getId());
+            schedule(state, quality(attempt.isCorrect(), attempt.getTimeSpentSeconds()), attempt.getAttemptTime());
+            changed.put(key, state);
+        }
+
+        List<Object[]> rows = new ArrayList<>(changed.size());
+        for (WordReviewState state : changed.values()) {
+            rows.add(new Object[]{state.getUserId(), state.getWordId(), state.getModuleId(), state.getRepetitions(),
+                    state.getIntervalDays(), state.getEaseFactor(), Timestamp.valueOf(state.getDueAt()),
+                    Timestamp.valueOf(state.getLastReviewedAt())});
+        }
+        jdbcTemplate.batchUpdate(UPSERT_SQL, rows);
+    }
+
+    // loadStates - текущие состояния (студент, слово) пакета (обычное чтение, без блокировки строк)
+    private Map<List<Long>, WordReviewState> loadStates(Set<Long> userIds, Set<Long> wordIds) {
+        List<Object> args = new ArrayList<>(userIds);
+        args.addAll(wordIds);
+        Map<List<Long>, WordReviewState> states = new LinkedHashMap<>();
+        jdbcTemplate.query(
+                "SELECT user_id, word_id, repetitions, interval_days, ease_factor FROM word_review_states " +
+                "WHERE user_id IN (" + placeholders(userIds.size()) + ") AND word_id IN (" + placeholders(wordIds.size()) + ")",
+                rs -> {
+                    WordReviewState state = new WordReviewState();
+                    state.setUserId(rs.getLong(1));
+                    state.setWordId(rs.getLong(2));
+                    state.setRepetitions(rs.getInt(3));
+                    state.setIntervalDays(rs.getInt(4));
+                    state.setEaseFactor(rs.getInt(5));
+                    states.put(List.of(state.getUserId(), state.getWordId()), state);
+                }, args.toArray());
+        return states;
+    }
+
+    private static String placeholders(int count) {
+        return String.join(", ", Collections.nCopies(count, "?"));
+    }
+
+    // quality - оценка ответа по шкале SM-2 (0..5)
+    static int quality(boolean correct, Integer timeSpentSeconds) {
+        if (!correct) {
+            return 1;
+        }
+        if (timeSpentSeconds == null) {
+            return 4;
+        }
+        return timeSpentSeconds <= 5 ? 5 : timeSpentSeconds <= 20 ? 4 : 3;
+    }
+
+    // schedule - шаг алгоритма SM-2
+    // вход:
+    //   - state - состояние слова (изменяется)
+    //   - quality - оценка ответа 0..5
+    //   - now - момент ответа
+    // логика:
+    //  - оценка ниже 3: серия и интервал сбрасываются, слово возвращается через RELEARN_DELAY_MINUTES минут,
+    //    коэффициент легкости не меняется
+    //  - иначе интервал 1 день, затем 6 дней, затем предыдущий интервал * коэффициент легкости
+    //  - коэффициент легкости: EF + (0.1 - (5 - q) * (0.08 + (5 - q) * 0.02)), не ниже 1.3
+    static void schedule(WordReviewState state, int quality, LocalDateTime now) {
+        state.setLastReviewedAt(now);
+
+        if (quality < 3) {
+            state.setRepetitions(0);
+            state.setIntervalDays(0);
+            state.setDueAt(now.plusMinutes(RELEARN_DELAY_MINUTES));
+            return;
+        }
+
+        int miss = 5 - quality;
+        int easeFactor = state.getEaseFactor() + (10 - miss * (8 + miss * 2));
+        state.setEaseFactor(Math.max(MIN_EASE_FACTOR, easeFactor));
+
+        int interval = switch (state.getRepetitions()) {
+            case 0 -> 1;
+            case 1 -> 6;
+            default -> Math.max(1, Math.round(state.getIntervalDays() * state.getEaseFactor() / 100f));
+        };
+        state.setRepetitions(state.getRepetitions() + 1);
+        state.setIntervalDays(interval);
+        state.setDueAt(now.plusDays(interval));
+    }
+}
@@ -1,47 +1,58 @@
 package org.example.diploma.service;
 
+import io.micrometer.core.annotation.Timed;
+import org.example.diploma.dto.ModuleExerciseCountDTO;
+import org.example.diploma.dto.ModuleSolvedCountDTO;
 import org.example.diploma.dto.StudentStatsDTO;
 import org.example.diploma.dto.StudentDetailedStatsDTO;
 import org.example.diploma.model.Group;
 import org.example.diploma.repository.AttemptRepository;
+import org.example.diploma.repository.ExerciseRepository;
 import org.example.diploma.repository.GroupRepository;
+import org.example.diploma.repository.StudentAttemptStatsRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 @Service
+@Timed("app.service")
 public class StatsService {
     private final AttemptRepository attemptRepository;
     private final GroupRepository groupRepository;
+    private final StudentAttemptStatsRepository studentAttemptStatsRepository;
+    private final ExerciseRepository exerciseRepository;
 
     // Конструктор StatsService - внедрение зависимостей
     // вход:
     //   - attemptRepository - репозиторий для работы с попытками
     //   - groupRepository - репозиторий для работы с группами
+    //   - studentAttemptStatsRepository - репозиторий сводной статистики студентов
+    //   - exerciseRepository - репозиторий для подсчета упражнений в модулях
     // выход: созданный экземпляр StatsService
     @Autowired
-    public StatsService(AttemptRepository attemptRepository,  GroupRepository groupRepository) {
+    public StatsService(AttemptRepository attemptRepository,  GroupRepository groupRepository,
+                        StudentAttemptStatsRepository studentAttemptStatsRepository,
+                        ExerciseRepository exerciseRepository) {
         this.attemptRepository = attemptRepository;
         this.groupRepository = groupRepository;
+        this.studentAttemptStatsRepository = studentAttemptStatsRepository;
+        this.exerciseRepository = exerciseRepository;
     }
 
     // getStudentStatsByGroup - получение статистики студентов по группе
     // вход: groupId - идентификатор группы
     // выход: список DTO со статистикой студентов группы
     // логика:
-    //  - получает базовую статистику студентов из репозитория
-    //  - дополняет статистику информацией о количестве модулей, в которых студент делал попытки
+    //  - читает статистику студентов из сводной таблицы student_attempt_stats
+    //  - количество модулей, в которых студент делал попытки, уже лежит в сводной таблице
+    //  - количество завершенных модулей считается пакетно для всей группы (см. fillCompletedModules)
     public List<StudentStatsDTO> getStudentStatsByGroup(Long groupId) {
-        List<StudentStatsDTO> stats = attemptRepository.findStudentStatsByGroupId(groupId);
-
-        // дополнить статистику информацией о модулях
-        stats.forEach(stat -> {
-            Long modulesAttempted = attemptRepository.countModulesAttemptedByStudent(stat.getStudentId());
-            stat.setTotalModules(modulesAttempted);
-            // здесь можно добавить логику для completedModules, если нужно
-            stat.setCompletedModules(modulesAttempted); // временно
-        });
-
+        List<StudentStatsDTO> stats = studentAttemptStatsRepository.findStudentStatsByGroupId(groupId);
+        fillCompletedModules(stats);
         return stats;
     }
 
@@ -55,50 +66,6 @@ public class StatsService {
         return attemptRepository.findDetailedStatsByStudentId(studentId);
     }
 
-    // getGroupStats - получение общей статистики по группе
-    // вход: groupId - идентификатор группы
-    // выход: DTO со статистикой группы
-    // логика:
-    //  - подсчитывает общее количество попыток в группе
-    //  - подсчитывает количество правильных попыток
-    //  - вычисляет процент успешности (success rate)
-    public GroupStatsDTO getGroupStats(Long groupId) {
-        Long totalAttempts = attemptRepository.countTotalAttemptsByGroupId(groupId);
-        Long correctAttempts = attemptRepository.countCorrectAttemptsByGroupId(groupId);
-        Double successRate = totalAttempts > 0 ?
-                Math.round((correctAttempts.doubleValue() / totalAttempts.doubleValue()) * 100.0) : 0.0;
-
-        return new GroupStatsDTO(totalAttempts, correctAttempts, successRate);
-    }
-
-    // GroupStatsDTO - DTO для статистики группы
-    // назначение: передача агрегированной статистики по группе
-    // содержит:
-    //   - totalAttempts - общее количество попыток в группе
-    //   - correctAttempts - количество правильных попыток
-    //   - successRate - процент успешных попыток
-    public static class GroupStatsDTO {
-        private final Long totalAttempts;
-        private final Long correctAttempts;
-        private final Double successRate;
-
-        // Конструктор GroupStatsDTO
-        // вход:
-        //   - totalAttempts - общее количество попыток
-        //   - correctAttempts - количество правильных попыток
-        //   - successRate - процент успешности
-        public GroupStatsDTO(Long totalAttempts, Long correctAttempts, Double successRate) {
-            this.totalAttempts = totalAttempts;
-            this.correctAttempts = correctAttempts;
-            this.successRate = successRate;
-        }
-
-        // геттеры
-        public Long getTotalAttempts() { return totalAttempts; }
-        public Long getCorrectAttempts() { return correctAttempts; }
-        public Double getSuccessRate() { return successRate; }
-    }
-
     // getStudentStatsByTeacher - получение статистики студентов преподавателя с фильтрацией по группе
     // вход:
     //   - teacherId - идентификатор преподавателя
@@ -107,31 +74,53 @@ public class StatsService {
     // логика:
     //  - если groupId указан, возвращает статистику студентов только этой группы
     //  - если groupId не указан, возвращает статистику всех студентов преподавателя
-    //  - дополняет статистику информацией о модулях
+    //  - статистика читается из сводной таблицы student_attempt_stats
     public List<StudentStatsDTO> getStudentStatsByTeacher(Long teacherId, Long groupId) {
         if (groupId != null) {
             // фильтрация по конкретной группе
-            List<StudentStatsDTO> stats = attemptRepository.findStudentStatsByGroupId(groupId);
-            // дополнить статистику информацией о модулях
-            stats.forEach(stat -> {
-                Long modulesAttempted = attemptRepository.countModulesAttemptedByStudent(stat.getStudentId());
-                stat.setTotalModules(modulesAttempted);
-                stat.setCompletedModules(modulesAttempted); // временно
-            });
-            return stats;
+            return getStudentStatsByGroup(groupId);
         } else {
             // все студенты преподавателя
-            List<StudentStatsDTO> stats = attemptRepository.findStudentStatsByTeacherId(teacherId);
-            // дополнить статистику информацией о модулях
-            stats.forEach(stat -> {
-                Long modulesAttempted = attemptRepository.countModulesAttemptedByStudent(stat.getStudentId());
-                stat.setTotalModules(modulesAttempted);
-                stat.setCompletedModules(modulesAttempted); // временно
-            });
+            List<StudentStatsDTO> stats = studentAttemptStatsRepository.findStudentStatsByTeacherId(teacherId);
+            fillCompletedModules(stats);
             return stats;
         }
     }
 
+    // fillCompletedModules - заполнение количества завершенных модулей для набора студентов
+    // вход: stats - строки статистики студентов
+    // выход: void (заполняет completedModules в каждой строке)
+    // логика:
+    //  - модуль завершен, если студент правильно ответил на все его упражнения хотя бы один раз
+    //  - два агрегирующих запроса на весь набор студентов, независимо от его размера:
+    //    решенные упражнения по (студент, модуль) и количество упражнений в затронутых модулях
+    //  - результаты объединяются в памяти
+    private void fillCompletedModules(List<StudentStatsDTO> stats) {
+        Set<Long> activeStudentIds = stats.stream()
+                .filter(stat -> stat.getTotalAttempts() > 0)
+                .map(StudentStatsDTO::getStudentId)
+                .collect(Collectors.toSet());
+
+        Map<Long, Long> completedByStudent = new HashMap<>();
+        if (!activeStudentIds.isEmpty()) {
+            List<ModuleSolvedCountDTO> solved = attemptRepository.countSolvedExercisesByStudents(activeStudentIds);
+            Set<Long> moduleIds = solved.stream().map(ModuleSolvedCountDTO::getModuleId).collect(Collectors.toSet());
+
+            Map<Long, Long> exercisesByModule = moduleIds.isEmpty() ? Map.of() :
+                    exerciseRepository.countByModuleIds(moduleIds).stream()
+                            .collect(Collectors.toMap(ModuleExerciseCountDTO::getModuleId, ModuleExerciseCountDTO::getExerciseCount));
+
+            for (ModuleSolvedCountDTO row : solved) {
+                Long total = exercisesByModule.get(row.getModuleId());
+                if (total != null && row.getSolvedExercises() >= total) {
+                    completedByStudent.merge(row.getStudentId(), 1L, Long::sum);
+                }
+            }
+        }
+
+        stats.forEach(stat -> stat.setCompletedModules(completedByStudent.getOrDefault(stat.getStudentId(), 0L)));
+    }
+
     // getTeacherGroups - получение всех групп преподавателя для фильтра
     // вход: teacherId - идентификатор преподавателя
     // выход: список групп, принадлежащих преподавателю
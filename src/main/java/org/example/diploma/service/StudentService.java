@@ -1,25 +1,39 @@
 package org.example.diploma.service;
 
+import io.micrometer.core.annotation.Timed;
 import org.example.diploma.dto.*;
 import org.example.diploma.model.*;
 import org.example.diploma.model.Module;
-import org.example.diploma.repository.*;
 import org.example.diploma.repository.AttemptRepository;
 import org.example.diploma.repository.ModuleRepository;
+import org.example.diploma.repository.StudentAttemptStatsRepository;
+import org.example.diploma.repository.WordRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Random;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
+@Timed("app.service")
 public class StudentService {
     private final ModuleRepository moduleRepository;
     private final AttemptRepository attemptRepository;
     private final ExerciseService exerciseService;
     private final UserService userService;
+    private final AttemptIngestionService attemptIngestionService;
+    private final ModuleAccessIndex moduleAccessIndex;
+    private final StudentAttemptStatsRepository studentAttemptStatsRepository;
+    private final WordRepository wordRepository;
+
+    private static final int MAX_HISTORY_PAGE_SIZE = 200;
 
     // Конструктор StudentService - внедрение зависимостей
     // вход:
@@ -27,13 +41,23 @@ public class StudentService {
     //   - attemptRepository - репозиторий для работы с попытками
     //   - exerciseService - сервис для работы с упражнениями
     //   - userService - сервис для работы с пользователями
+    //   - attemptIngestionService - сервис пакетной записи попыток
+    //   - moduleAccessIndex - индекс модулей, назначенных группам
+    //   - studentAttemptStatsRepository - репозиторий сводной статистики попыток
+    //   - wordRepository - репозиторий слов (количество слов в модулях)
     // выход: созданный экземпляр StudentService
     @Autowired
-    public StudentService(ModuleRepository moduleRepository, AttemptRepository attemptRepository, ExerciseService exerciseService, UserService userService) {
+    public StudentService(ModuleRepository moduleRepository, AttemptRepository attemptRepository, ExerciseService exerciseService, UserService userService,
+                          AttemptIngestionService attemptIngestionService, ModuleAccessIndex moduleAccessIndex,
+                          StudentAttemptStatsRepository studentAttemptStatsRepository, WordRepository wordRepository) {
         this.moduleRepository = moduleRepository;
         this.attemptRepository = attemptRepository;
         this.exerciseService = exerciseService;
         this.userService = userService;
+        this.attemptIngestionService = attemptIngestionService;
+        this.moduleAccessIndex = moduleAccessIndex;
+        this.studentAttemptStatsRepository = studentAttemptStatsRepository;
+        this.wordRepository = wordRepository;
     }
 
     // getAvailableModules - получение всех доступных модулей
@@ -49,20 +73,22 @@ public class StudentService {
     // вход: studentId - идентификатор студента
     // выход: список модулей, назначенных группе студента
     // логика:
-    //  - если студент состоит в группе, возвращает модули, назначенные этой группе
+    //  - модули выбираются одним запросом через группу студента (пользователь и группа не загружаются)
     //  - если студент не в группе или у группы нет модулей, возвращает пустой список
+    //  - связи модулей (слова, упражнения) не загружены: представлениям нужны только поля модуля
     public List<Module> getAvailableModulesForStudent(Long studentId) {
-        Optional<User> studentOptional = userService.findUserById(studentId);
-        if (studentOptional.isPresent()) {
-            User student = studentOptional.get();
-
-            // если студент есть в группе, вернуть модули назначенные группе
-            if (student.getGroup() != null && student.getGroup().getAssignedModules() != null) {
-                return student.getGroup().getAssignedModules();
-            }
-        }
-        // если студента нет в группе или у группы нет модулей, вернуть пустой список
-        return new ArrayList<>();
+        return moduleRepository.findAssignedToStudent(studentId);
+    }
+
+    // canAccessModule - проверка доступа студента к модулю
+    // вход:
+    //   - groupId - идентификатор группы студента (из снимка текущего пользователя, может быть null)
+    //   - moduleId - идентификатор модуля
+    // выход: true, если модуль назначен группе студента
+    // логика:
+    //  - ответ берется из индекса назначенных модулей без загрузки пользователя, группы и модулей
+    public boolean canAccessModule(Long groupId, Long moduleId) {
+        return moduleAccessIndex.canAccess(groupId, moduleId);
     }
 
     // getExercisesForModule - получение упражнений по идентификатору модуля
@@ -83,13 +109,27 @@ public class StudentService {
         return exercise.getCorrectAnswer().equals(selectedAnswer);
     }
 
+    // getPracticeExercises - упражнения модуля для практики
+    // вход: moduleId - идентификатор модуля
+    // выход: неизменяемый список снимков упражнений (из кэша упражнений)
+    public List<ExerciseSnapshotDTO> getPracticeExercises(Long moduleId) {
+        return exerciseService.getExerciseSnapshots(moduleId);
+    }
+
+    // getPracticeExercise - упражнение для проверки ответа
+    // вход: exerciseId - идентификатор упражнения
+    // выход: Optional<ExerciseSnapshotDTO> - снимок упражнения, если найдено
+    public Optional<ExerciseSnapshotDTO> getPracticeExercise(Long exerciseId) {
+        return exerciseService.getExerciseSnapshot(exerciseId);
+    }
+
     // getExerciseByIndex - получение упражнения по индексу в модуле
     // вход:
     //   - moduleId - идентификатор модуля
     //   - exerciseIndex - индекс упражнения в списке
     // выход: упражнение по указанному индексу или null, если индекс невалидный
-    public Exercise getExerciseByIndex(Long moduleId, int exerciseIndex) {
-        List<Exercise> exercises = getExercisesForModule(moduleId);
+    public ExerciseSnapshotDTO getExerciseByIndex(Long moduleId, int exerciseIndex) {
+        List<ExerciseSnapshotDTO> exercises = getPracticeExercises(moduleId);
         if (exercises.isEmpty() || exerciseIndex < 0 || exerciseIndex >= exercises.size()) {
             return null;
         }
@@ -100,7 +140,7 @@ public class StudentService {
     // вход: moduleId - идентификатор модуля
     // выход: количество упражнений в модуле
     public int getTotalExercisesInModule(Long moduleId) {
-        return getExercisesForModule(moduleId).size();
+        return getPracticeExercises(moduleId).size();
     }
 
     // getExerciseById - получение упражнения по идентификатору
@@ -115,8 +155,8 @@ public class StudentService {
     // выход: случайное упражнение из модуля
     // исключения:
     //  - RuntimeException - если в модуле нет упражнений
-    public Exercise getRandomExerciseForModule(Long moduleId) {
-        List<Exercise> exercises = getExercisesForModule(moduleId);
+    public ExerciseSnapshotDTO getRandomExerciseForModule(Long moduleId) {
+        List<ExerciseSnapshotDTO> exercises = getPracticeExercises(moduleId);
         if (exercises.isEmpty()) {
             throw new RuntimeException("No exercises available for this module");
         }
@@ -131,12 +171,29 @@ public class StudentService {
     //   - exercise - упражнение
     //   - selectedAnswer - выбранный ответ
     //   - timeSpent - затраченное время в секундах
-    // выход: сохраненный объект Attempt
+    // выход: объект Attempt (в асинхронном режиме без идентификатора - он появится после записи пакета)
     // логика:
     //  - создает новую попытку с текущим временем
     //  - проверяет правильность ответа
-    //  - сохраняет попытку в базу данных
+    //  - передает попытку в AttemptIngestionService, который пишет ее пакетом вместе со сроками повторения слова
     public Attempt saveAttempt(User user, Exercise exercise, String selectedAnswer, Integer timeSpent) {
+        Attempt attempt = newAttempt(user, exercise, selectedAnswer, timeSpent);
+        attemptIngestionService.submit(attempt);
+        return attempt;
+    }
+
+    // saveReviewAttempt - сохранение ответа из сессии повторения
+    // вход: как у saveAttempt
+    // выход: сохраненный объект Attempt
+    // логика:
+    //  - попытка пишется сразу, чтобы следующий вопрос повторения уже учитывал новый срок слова
+    public Attempt saveReviewAttempt(User user, Exercise exercise, String selectedAnswer, Integer timeSpent) {
+        Attempt attempt = newAttempt(user, exercise, selectedAnswer, timeSpent);
+        attemptIngestionService.submitNow(attempt);
+        return attempt;
+    }
+
+    private Attempt newAttempt(User user, Exercise exercise, String selectedAnswer, Integer timeSpent) {
         Attempt attempt = new Attempt();
         attempt.setUser(user);
         attempt.setExercise(exercise);
@@ -144,8 +201,7 @@ public class StudentService {
         attempt.setCorrect(checkAnswer(exercise, selectedAnswer));
         attempt.setAttemptTime(LocalDateTime.now());
         attempt.setTimeSpentSeconds(timeSpent);
-
-        return attemptRepository.save(attempt);
+        return attempt;
     }
 
     // getUserAttempts - получение всех попыток пользователя
@@ -155,17 +211,74 @@ public class StudentService {
         return attemptRepository.findByUserId(userId);
     }
 
+    // getAttemptHistory - страница истории попыток студента
+    // вход:
+    //   - userId - идентификатор студента
+    //   - beforeTime, beforeId - курсор предыдущей страницы (null - первая страница)
+    //   - size - размер страницы (ограничивается MAX_HISTORY_PAGE_SIZE)
+    // выход: AttemptHistoryPageDTO с попытками и курсором следующей страницы
+    // логика:
+    //  - запрашивается на одну строку больше размера страницы, лишняя строка только сообщает о наличии следующей страницы
+    public AttemptHistoryPageDTO getAttemptHistory(Long userId, LocalDateTime beforeTime, Long beforeId, int size) {
+        int pageSize = Math.max(1, Math.min(size, MAX_HISTORY_PAGE_SIZE));
+        Pageable probe = PageRequest.of(0, pageSize + 1);
+
+        List<StudentDetailedStatsDTO> rows = (beforeTime == null || beforeId == null)
+                ? attemptRepository.findHistoryFirstPage(userId, probe)
+                : attemptRepository.findHistoryPageBefore(userId, beforeTime, beforeId, probe);
+
+        boolean hasNext = rows.size() > pageSize;
+        return new AttemptHistoryPageDTO(hasNext ? rows.subList(0, pageSize) : rows, hasNext);
+    }
+
+    // getAttemptSummary - итоговые счетчики попыток студента
+    // вход: userId - идентификатор студента
+    // выход: StudentAttemptStats (всего попыток, правильных, количество модулей); нули, если попыток нет
+    // логика:
+    //  - счетчики читаются одной строкой сводной таблицы student_attempt_stats, без обхода попыток в памяти
+    public StudentAttemptStats getAttemptSummary(Long userId) {
+        return studentAttemptStatsRepository.findById(userId).orElseGet(() -> {
+            StudentAttemptStats empty = new StudentAttemptStats();
+            empty.setUserId(userId);
+            return empty;
+        });
+    }
+
     // getUserSuccessRate - расчет процента успешных попыток пользователя
     // вход: userId - идентификатор пользователя
     // выход: процент правильных ответов (от 0 до 100)
     // логика:
     //  - вычисляет отношение правильных попыток к общему количеству
+    //  - счетчики читаются из сводной таблицы, поэтому учитывают и архивированные попытки
     public Double getUserSuccessRate(Long userId) {
-        Long total = attemptRepository.countTotalAttemptsByUserId(userId);
-        Long correct = attemptRepository.countCorrectAttemptsByUserId(userId);
+        StudentAttemptStats summary = getAttemptSummary(userId);
+        long total = summary.getTotalAttempts();
+        long correct = summary.getCorrectAttempts();
 
         if (total == 0) return 0.0;
-        return (correct.doubleValue() / total.doubleValue()) * 100;
+        return ((double) correct / total) * 100;
+    }
+
+    // getModulesProgress - прогресс студента по всем назначенным ему модулям
+    // вход: studentId - идентификатор студента
+    // выход: список ModuleProgressDTO в порядке назначенных модулей
+    // логика:
+    //  - количество упражнений и решенных упражнений по всем модулям считается одним агрегирующим запросом
+    //  - модуль считается завершенным, если студент правильно ответил на все его упражнения хотя бы один раз
+    //  - количество слов по всем модулям - еще один агрегирующий запрос (коллекция module.words не загружается)
+    public List<ModuleProgressDTO> getModulesProgress(Long studentId) {
+        List<ModuleProgressDTO> progress = buildModulesProgress(studentId, getAvailableModulesForStudent(studentId));
+        if (progress.isEmpty()) {
+            return progress;
+        }
+
+        Map<Long, Long> wordCounts = wordRepository.countByModuleIds(progress.stream()
+                        .map(row -> row.getModule().getId())
+                        .collect(Collectors.toList()))
+                .stream()
+                .collect(Collectors.toMap(ModuleWordCountDTO::getModuleId, ModuleWordCountDTO::getWordCount));
+        progress.forEach(row -> row.setWordCount(wordCounts.getOrDefault(row.getModule().getId(), 0L)));
+        return progress;
     }
 
     // getCompletedModulesCount - получение количества завершенных модулей для студента
@@ -175,15 +288,14 @@ public class StudentService {
     //  - модуль считается завершенным, если студент правильно ответил
     //    на все упражнения в этом модуле хотя бы один раз
     public int getCompletedModulesCount(Long studentId) {
-        List<Module> availableModules = getAvailableModulesForStudent(studentId);
-        int completedCount = 0;
+        return countCompleted(getModulesProgress(studentId));
+    }
 
-        for (Module module : availableModules) {
-            if (isModuleCompleted(studentId, module.getId())) {
-                completedCount++;
-            }
-        }
-        return completedCount;
+    // countCompleted - количество завершенных модулей в уже посчитанном прогрессе
+    // вход: progress - список прогресса по модулям
+    // выход: количество завершенных модулей
+    public int countCompleted(List<ModuleProgressDTO> progress) {
+        return (int) progress.stream().filter(ModuleProgressDTO::isCompleted).count();
     }
 
     // isModuleCompleted - проверка, завершен ли модуль для студента
@@ -197,23 +309,7 @@ public class StudentService {
     //  - проверяет наличие правильных ответов на все упражнения модуля
     //  - если в модуле нет упражнений, возвращает false
     public boolean isModuleCompleted(Long studentId, Long moduleId) {
-        List<Exercise> exercises = getExercisesForModule(moduleId);
-
-        // если в модуле нет упражнений, он не может быть завершен
-        if (exercises.isEmpty()) {
-            return false;
-        }
-
-        // проверить, есть ли правильные ответы на все упражнения модуля
-        for (Exercise exercise : exercises) {
-            boolean hasCorrectAttempt = attemptRepository.existsByUserIdAndExerciseIdAndIsCorrectTrue(
-                    studentId, exercise.getId());
-
-            if (!hasCorrectAttempt) {
-                return false;
-            }
-        }
-        return true;
+        return getSingleModuleProgress(studentId, moduleId).isCompleted();
     }
 
     // getModuleProgress - получение прогресса по модулю в процентах
@@ -224,17 +320,36 @@ public class StudentService {
     // логика:
     //  - вычисляет отношение завершенных упражнений к общему количеству упражнений в модуле
     public double getModuleProgress(Long studentId, Long moduleId) {
-        List<Exercise> exercises = getExercisesForModule(moduleId);
+        return getSingleModuleProgress(studentId, moduleId).getProgress();
+    }
 
-        if (exercises.isEmpty()) {
-            return 0.0;
+    private ModuleProgressDTO getSingleModuleProgress(Long studentId, Long moduleId) {
+        Module module = new Module();
+        module.setId(moduleId);
+        return buildModulesProgress(studentId, List.of(module)).get(0);
+    }
+
+    // buildModulesProgress - сборка прогресса по списку модулей
+    // логика:
+    //  - один запрос findModuleProgressByStudent на весь список модулей
+    //  - модули, которых нет в результате запроса, не содержат упражнений (прогресс 0)
+    private List<ModuleProgressDTO> buildModulesProgress(Long studentId, List<Module> modules) {
+        if (modules.isEmpty()) {
+            return new ArrayList<>();
         }
 
-        long completedExercises = exercises.stream()
-                .filter(exercise -> attemptRepository.existsByUserIdAndExerciseIdAndIsCorrectTrue(
-                        studentId, exercise.getId()))
-                .count();
+        Map<Long, ModuleExerciseProgressDTO> counts = attemptRepository.findModuleProgressByStudent(studentId,
+                        modules.stream().map(Module::getId).collect(Collectors.toList()))
+                .stream()
+                .collect(Collectors.toMap(ModuleExerciseProgressDTO::getModuleId, Function.identity()));
 
-        return (double) completedExercises / exercises.size() * 100;
+        List<ModuleProgressDTO> progress = new ArrayList<>(modules.size());
+        for (Module module : modules) {
+            ModuleExerciseProgressDTO row = counts.get(module.getId());
+            progress.add(row == null
+                    ? new ModuleProgressDTO(module, 0, 0)
+                    : new ModuleProgressDTO(module, row.getTotalExercises(), row.getSolvedExercises()));
+        }
+        return progress;
     }
 }
@@ -1,8 +1,11 @@
 package org.example.diploma.service;
 
+import org.example.diploma.dto.UserSnapshotDTO;
 import org.example.diploma.model.User;
 import org.example.diploma.repository.UserRepository;
+import org.example.diploma.security.CustomUserDetails;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.validation.BindingResult;
@@ -15,16 +18,19 @@ import java.util.Optional;
 public class UserService {
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
+    private final UserSnapshotCache userSnapshotCache;
 
     // Конструктор UserService - внедрение зависимостей
     // вход:
     //   - userRepository - репозиторий для работы с пользователями
     //   - passwordEncoder - кодировщик паролей Spring Security
+    //   - userSnapshotCache - кэш снимков текущих пользователей
     // выход: созданный экземпляр UserService
     @Autowired
-    public UserService(UserRepository userRepository, PasswordEncoder passwordEncoder) {
+    public UserService(UserRepository userRepository, PasswordEncoder passwordEncoder, UserSnapshotCache userSnapshotCache) {
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
+        this.userSnapshotCache = userSnapshotCache;
     }
 
     // validateRegistration - валидация данных регистрации пользователя
@@ -80,7 +86,43 @@ public class UserService {
     // выход: сохраненный объект пользователя
     // примечание: не кодирует пароль (используется для обновления данных без изменения пароля)
     public User saveUser(User user) {
-        return userRepository.save(user);
+        User saved = userRepository.save(user);
+        userSnapshotCache.invalidate(saved.getId());
+        return saved;
+    }
+
+    // getCurrentUser - снимок аутентифицированного пользователя
+    // вход: userDetails - principal из контекста Spring Security
+    // выход: Optional<UserSnapshotDTO> - снимок пользователя, если он существует
+    // логика:
+    //  - идентификатор берется из CustomUserDetails, снимок - из короткоживущего кэша (без запроса к базе)
+    //  - для principal другого типа (например, в тестах) пользователь ищется по имени
+    //  - кэш сбрасывается при сохранении пользователя через saveUser
+    public Optional<UserSnapshotDTO> getCurrentUser(UserDetails userDetails) {
+        if (userDetails == null) {
+            return Optional.empty();
+        }
+        if (userDetails instanceof CustomUserDetails customUserDetails) {
+            return Optional.ofNullable(userSnapshotCache.get(customUserDetails.getUserId(),
+                    id -> userRepository.findById(id).map(UserSnapshotDTO::from).orElse(null)));
+        }
+        Optional<UserSnapshotDTO> snapshot = userRepository.findByUsername(userDetails.getUsername()).map(UserSnapshotDTO::from);
+        snapshot.ifPresent(userSnapshotCache::put);
+        return snapshot;
+    }
+
+    // getUserReference - ссылка на пользователя без загрузки из базы
+    // вход: id - идентификатор пользователя
+    // выход: прокси User, пригодный для установки связей (владелец модуля, преподаватель группы, автор попытки)
+    public User getUserReference(Long id) {
+        return userRepository.getReferenceById(id);
+    }
+
+    // evictUserSnapshots - сброс всех снимков пользователей
+    // логика:
+    //  - используется при массовых изменениях пользователей (например, при удалении группы)
+    public void evictUserSnapshots() {
+        userSnapshotCache.invalidateAll();
     }
 
     // findByGroupId - поиск пользователей по идентификатору группы
@@ -0,0 +1,83 @@
+package org.example.diploma.service;
+
+import org.example.diploma.dto.UserSnapshotDTO;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+@Service
+public class UserSnapshotCache {
+    private final long ttlMillis;
+    private final int maxEntries;
+    private final Map<Long, Entry> entries = new ConcurrentHashMap<>();
+
+    // Конструктор UserSnapshotCache - создание кэша снимков пользователей с ограниченным временем жизни
+    // вход:
+    //   - ttlMillis - время жизни снимка
+    //   - maxEntries - максимальное количество снимков (при превышении кэш очищается от устаревших записей)
+    // выход: созданный экземпляр UserSnapshotCache
+    public UserSnapshotCache(@Value("${app.users.snapshot-ttl-ms:30000}") long ttlMillis,
+                             @Value("${app.users.snapshot-max-entries:10000}") int maxEntries) {
+        this.ttlMillis = ttlMillis;
+        this.maxEntries = maxEntries;
+    }
+
+    // get - снимок пользователя с загрузкой при промахе или истечении срока
+    // вход:
+    //   - userId - идентификатор пользователя
+    //   - loader - функция загрузки снимка из базы (может вернуть null, если пользователь не найден)
+    // выход: снимок пользователя или null
+    public UserSnapshotDTO get(Long userId, Function<Long, UserSnapshotDTO> loader) {
+        long now = System.currentTimeMillis();
+        Entry entry = entries.get(userId);
+        if (entry != null && entry.expiresAt > now) {
+            return entry.snapshot;
+        }
+
+        UserSnapshotDTO snapshot = loader.apply(userId);
+        if (snapshot != null) {
+            put(snapshot, now);
+        }
+        return snapshot;
+    }
+
+    // put - сохранение снимка (например, после поиска пользователя по имени)
+    public void put(UserSnapshotDTO snapshot) {
+        put(snapshot, System.currentTimeMillis());
+    }
+
+    // invalidate - удаление снимка после изменения пользователя
+    public void invalidate(Long userId) {
+        if (userId != null) {
+            entries.remove(userId);
+        }
+    }
+
+    // invalidateAll - полная очистка (массовые изменения, например удаление группы)
+    public void invalidateAll() {
+        entries.clear();
+    }
+
+    private void put(UserSnapshotDTO snapshot, long now) {
+        if (entries.size() >= maxEntries) {
+            entries.values().removeIf(e -> e.expiresAt <= now);
+            if (entries.size() >= maxEntries) {
+                entries.clear();
+            }
+        }
+        entries.put(snapshot.getId(), new Entry(snapshot, now + ttlMillis));
+    }
+
+    private static final class Entry {
+        private final UserSnapshotDTO snapshot;
+        private final long expiresAt;
+
+        private Entry(UserSnapshotDTO snapshot, long expiresAt) {
+            this.snapshot = snapshot;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
@@ -0,0 +1,173 @@
+package org.example.diploma.service;
+
+import org.example.diploma.dto.WordImportResultDTO;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+@Service
+public class WordImportService {
+    private static final String INSERT_SQL = "INSERT INTO words (english, russian, module_id) VALUES (?, ?, ?)";
+    private static final int MAX_WORD_LENGTH = 255;
+    private static final int MAX_REPORTED_ERRORS = 20;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final int maxRows;
+
+    // Конструктор WordImportService - внедрение зависимостей
+    // вход:
+    //   - jdbcTemplate - шаблон для пакетной вставки слов
+    //   - transactionManager - менеджер транзакций (импорт выполняется одной транзакцией)
+    //   - batchSize - размер JDBC-пакета
+    //   - maxRows - максимальное количество строк в одном импорте
+    // выход: созданный экземпляр WordImportService
+    @Autowired
+    public WordImportService(JdbcTemplate jdbcTemplate,
+                             PlatformTransactionManager transactionManager,
+                             @Value("${app.words.import.batch-size:500}") int batchSize,
+                             @Value("${app.words.import.max-rows:20000}") int maxRows) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.maxRows = maxRows;
+    }
+
+    // importWords - массовый импорт слов в модуль
+    // вход:
+    //   - moduleId - идентификатор модуля
+    //   - source - текст со строками "english<TAB>russian", "english;russian" или "english,russian"
+    // выход: WordImportResultDTO с количеством добавленных, повторяющихся и отклоненных строк
+    // логика:
+    //  - строки читаются по одной, в памяти держится только текущий пакет и множество уже известных пар
+    //  - пары, которые уже есть в модуле или повторяются в самом файле, пропускаются (без учета регистра и пробелов)
+    //  - пустые строки, строки-комментарии (#) и заголовок english/russian игнорируются
+    //  - вставка идет JDBC-пакетами в одной транзакции: при ошибке базы не добавляется ни одно слово
+    public WordImportResultDTO importWords(Long moduleId, Reader source) {
+        return transactionTemplate.execute(status -> {
+            try {
+                return importInTransaction(moduleId, source);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    private WordImportResultDTO importInTransaction(Long moduleId, Reader source) throws IOException {
+        WordImportResultDTO result = new WordImportResultDTO();
+        Set<String> known = new HashSet<>();
+        jdbcTemplate.query("SELECT english, russian FROM words WHERE module_id = ?",
+                rs -> {
+                    known.add(key(rs.getString(1), rs.getString(2)));
+                }, moduleId);
+
+        List<Object[]> batch = new ArrayList<>(batchSize);
+        BufferedReader reader = source instanceof BufferedReader buffered ? buffered : new BufferedReader(source);
+        String line;
+        int lineNumber = 0;
+        int rows = 0;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            String trimmed = line.strip();
+            if (trimmed.isEmpty() || trimmed.startsWith("#")) {
+                continue;
+            }
+
+            String[] pair = split(trimmed);
+            if (lineNumber == 1 && pair != null && "english".equalsIgnoreCase(pair[0]) && "russian".equalsIgnoreCase(pair[1])) {
+                continue;
+            }
+            if (++rows > maxRows) {
+                reject(result, lineNumber, "import is limited to " + maxRows + " rows");
+                break;
+            }
+            if (pair == null) {
+                reject(result, lineNumber, "expected two columns");
+                continue;
+            }
+            if (pair[0].isEmpty() || pair[1].isEmpty()) {
+                reject(result, lineNumber, "empty word or translation");
+                continue;
+            }
+            if (pair[0].length() > MAX_WORD_LENGTH || pair[1].length() > MAX_WORD_LENGTH) {
+                reject(result, lineNumber, "word is longer than " + MAX_WORD_LENGTH + " characters");
+                continue;
+            }
+            if (!known.add(key(pair[0], pair[1]))) {
+                result.setDuplicates(result.getDuplicates() + 1);
+                continue;
+            }
+
+            batch.add(new Object[]{pair[0], pair[1], moduleId});
+            result.setAccepted(result.getAccepted() + 1);
+            if (batch.size() >= batchSize) {
+                jdbcTemplate.batchUpdate(INSERT_SQL, batch);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_SQL, batch);
+        }
+        return result;
+    }
+
+    // split - разбор строки на пару (english, russian)
+    // логика:
+    //  - разделитель: табуляция, иначе точка с запятой, иначе запятая (первое вхождение)
+    //  - поля в двойных кавычках (CSV) поддерживаются, "" внутри кавычек означает одну кавычку
+    //  - возвращает null, если в строке не ровно два поля
+    static String[] split(String line) {
+        char delimiter = line.indexOf('\t') >= 0 ? '\t' : line.indexOf(';') >= 0 ? ';' : ',';
+        List<String> fields = new ArrayList<>(2);
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"' && field.toString().isBlank()) {
+                field.setLength(0);
+                quoted = true;
+            } else if (c == delimiter) {
+                fields.add(field.toString().strip());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString().strip());
+        return fields.size() == 2 ? fields.toArray(new String[0]) : null;
+    }
+
+    private static String key(String english, String russian) {
+        return english.strip().toLowerCase(Locale.ROOT) + '\u0000' + russian.strip().toLowerCase(Locale.ROOT);
+    }
+
+    private static void reject(WordImportResultDTO result, int lineNumber, String reason) {
+        result.setRejected(result.getRejected() + 1);
+        if (result.getErrors().size() < MAX_REPORTED_ERRORS) {
+            result.getErrors().add("line " + lineNumber + ": " + reason);
+        }
+    }
+}
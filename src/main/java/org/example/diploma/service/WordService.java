@@ -52,6 +52,13 @@ public class WordService {
         wordRepository.deleteByModuleId(moduleId);
     }
 
+    // getModuleIdByWordId - идентификатор модуля, которому принадлежит слово
+    // вход: id - идентификатор слова
+    // выход: Optional<Long> - идентификатор модуля, если слово найдено
+    public Optional<Long> getModuleIdByWordId(Long id) {
+        return wordRepository.findModuleIdById(id);
+    }
+
     // getWordById - получение слова по идентификатору
     // вход: id - идентификатор слова
     // выход: Optional<Word> - слово, если найдено
@@ -0,0 +1,21 @@
+-- V1.1 - сводная статистика попыток по студенту и по (студент, модуль)
+-- таблицы заполняются при старте приложения: AttemptStatsRollupService пересчитывает их, если они пусты,
+-- а попытки уже есть (первый запуск на существующей базе)
+
+CREATE TABLE student_attempt_stats (
+    user_id          BIGINT NOT NULL,
+    total_attempts   BIGINT NOT NULL,
+    correct_attempts BIGINT NOT NULL,
+    last_activity    DATETIME(6),
+    distinct_modules BIGINT NOT NULL,
+    PRIMARY KEY (user_id)
+) ENGINE = InnoDB;
+
+CREATE TABLE student_module_stats (
+    user_id          BIGINT NOT NULL,
+    module_id        BIGINT NOT NULL,
+    total_attempts   BIGINT NOT NULL,
+    correct_attempts BIGINT NOT NULL,
+    last_activity    DATETIME(6),
+    PRIMARY KEY (module_id, user_id)
+) ENGINE = InnoDB;
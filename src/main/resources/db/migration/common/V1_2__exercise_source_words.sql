@@ -0,0 +1,6 @@
+-- V1.2 - исходное слово и слова-дистракторы упражнения для инкрементальной перегенерации модуля
+-- у упражнений, созданных до этой версии, столбцы пусты: следующая генерация модуля находит исходное слово
+-- по тексту вопроса и заполняет их (ExerciseService.matchLegacySource)
+
+ALTER TABLE exercises ADD COLUMN source_word_id BIGINT;
+ALTER TABLE exercises ADD COLUMN distractor_word_ids VARCHAR(255);
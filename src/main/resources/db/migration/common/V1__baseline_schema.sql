@@ -0,0 +1,78 @@
+-- V1 - исходная схема (совпадает со схемой, которую создавал ddl-auto=update до перехода на Flyway)
+-- существующая база помечается этой версией без выполнения скрипта, поэтому новые таблицы и столбцы
+-- добавляются только следующими версиями
+-- имена внешних ключей и уникального ключа взяты у Hibernate, чтобы новая база и база,
+-- помеченная baseline (spring.flyway.baseline-on-migrate), не отличались
+
+CREATE TABLE users (
+    id       BIGINT       NOT NULL AUTO_INCREMENT,
+    username VARCHAR(255) NOT NULL,
+    password VARCHAR(255) NOT NULL,
+    role     VARCHAR(255) NOT NULL,
+    group_id BIGINT,
+    PRIMARY KEY (id)
+) ENGINE = InnoDB;
+
+CREATE TABLE study_groups (
+    id          BIGINT       NOT NULL AUTO_INCREMENT,
+    name        VARCHAR(255) NOT NULL,
+    description VARCHAR(255),
+    teacher_id  BIGINT,
+    PRIMARY KEY (id)
+) ENGINE = InnoDB;
+
+CREATE TABLE modules (
+    id          BIGINT       NOT NULL AUTO_INCREMENT,
+    title       VARCHAR(255) NOT NULL,
+    description VARCHAR(255),
+    user_id     BIGINT,
+    PRIMARY KEY (id)
+) ENGINE = InnoDB;
+
+CREATE TABLE group_modules (
+    group_id  BIGINT NOT NULL,
+    module_id BIGINT NOT NULL
+) ENGINE = InnoDB;
+
+CREATE TABLE words (
+    id        BIGINT       NOT NULL AUTO_INCREMENT,
+    english   VARCHAR(255) NOT NULL,
+    russian   VARCHAR(255) NOT NULL,
+    module_id BIGINT,
+    PRIMARY KEY (id)
+) ENGINE = InnoDB;
+
+CREATE TABLE exercises (
+    id             BIGINT       NOT NULL AUTO_INCREMENT,
+    question       VARCHAR(255) NOT NULL,
+    correct_answer VARCHAR(255) NOT NULL,
+    option1        VARCHAR(255) NOT NULL,
+    option2        VARCHAR(255) NOT NULL,
+    option3        VARCHAR(255) NOT NULL,
+    option4        VARCHAR(255) NOT NULL,
+    module_id      BIGINT,
+    PRIMARY KEY (id)
+) ENGINE = InnoDB;
+
+CREATE TABLE attempts (
+    id                 BIGINT       NOT NULL AUTO_INCREMENT,
+    user_id            BIGINT,
+    exercise_id        BIGINT,
+    selected_answer    VARCHAR(255) NOT NULL,
+    is_correct         BIT          NOT NULL,
+    attempt_time       DATETIME(6)  NOT NULL,
+    time_spent_seconds INTEGER,
+    PRIMARY KEY (id)
+) ENGINE = InnoDB;
+
+ALTER TABLE users ADD CONSTRAINT UKr43af9ap4edm43mmtq01oddj6 UNIQUE (username);
+
+ALTER TABLE users ADD CONSTRAINT FKk9pxl88gur2a7trtih1eyhb1b FOREIGN KEY (group_id) REFERENCES study_groups (id);
+ALTER TABLE study_groups ADD CONSTRAINT FK2xihpewhbm3qmqb5lxiil912g FOREIGN KEY (teacher_id) REFERENCES users (id);
+ALTER TABLE modules ADD CONSTRAINT FK1gwwpqcxuy9xxcrs20vv8oa0m FOREIGN KEY (user_id) REFERENCES users (id);
+ALTER TABLE group_modules ADD CONSTRAINT FKe1xtx3onsq6wf9v6ia6m4dg55 FOREIGN KEY (group_id) REFERENCES study_groups (id);
+ALTER TABLE group_modules ADD CONSTRAINT FK1nek3668v7c7r2r1bgwvhofbp FOREIGN KEY (module_id) REFERENCES modules (id);
+ALTER TABLE words ADD CONSTRAINT FK57n22gknw05tnim9772s3v1ed FOREIGN KEY (module_id) REFERENCES modules (id);
+ALTER TABLE exercises ADD CONSTRAINT FKtpo97v86sj09fkr7l4bpxr7kk FOREIGN KEY (module_id) REFERENCES modules (id);
+ALTER TABLE attempts ADD CONSTRAINT FK9ajal069gdogf73v6rl1ic0bc FOREIGN KEY (user_id) REFERENCES users (id);
+ALTER TABLE attempts ADD CONSTRAINT FKt7rtk00k1t9q09b4o6o48j1q9 FOREIGN KEY (exercise_id) REFERENCES exercises (id);
@@ -0,0 +1,20 @@
+-- V2 - индексы для частых запросов (те же, что объявлены в @Table(indexes = ...) сущностей)
+
+-- attempts: история и счетчики студента (WHERE user_id = ? ORDER BY attempt_time DESC, id DESC)
+CREATE INDEX idx_attempts_user_time ON attempts (user_id, attempt_time, id);
+-- attempts: решенные упражнения студента (WHERE user_id = ? AND exercise_id = ? AND is_correct = true)
+CREATE INDEX idx_attempts_user_exercise_correct ON attempts (user_id, exercise_id, is_correct);
+-- attempts: попытки по упражнению (прогресс модуля, проверка истории перед удалением упражнения)
+CREATE INDEX idx_attempts_exercise_user ON attempts (exercise_id, user_id, is_correct);
+
+CREATE INDEX idx_exercises_module_source ON exercises (module_id, source_word_id);
+CREATE INDEX idx_words_module ON words (module_id);
+
+-- users: студенты группы (group_id = ? AND role = 'STUDENT') и студенты без группы (role = ? AND group_id IS NULL)
+CREATE INDEX idx_users_group_role ON users (group_id, role);
+CREATE INDEX idx_users_role_group ON users (role, group_id);
+
+CREATE INDEX idx_modules_user_title ON modules (user_id, title);
+CREATE INDEX idx_study_groups_teacher_name ON study_groups (teacher_id, name);
+CREATE INDEX idx_group_modules_group_module ON group_modules (group_id, module_id);
+CREATE INDEX idx_group_modules_module ON group_modules (module_id);
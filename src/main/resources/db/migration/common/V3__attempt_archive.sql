@@ -0,0 +1,28 @@
+-- V3 - архив попыток старше горизонта хранения и итоги по (студент, упражнение) для архивированных попыток
+
+CREATE TABLE attempt_summaries (
+    user_id                  BIGINT      NOT NULL,
+    exercise_id              BIGINT      NOT NULL,
+    total_attempts           BIGINT      NOT NULL,
+    correct_attempts         BIGINT      NOT NULL,
+    total_time_spent_seconds BIGINT      NOT NULL,
+    first_attempt_time       DATETIME(6),
+    last_attempt_time        DATETIME(6),
+    PRIMARY KEY (user_id, exercise_id)
+) ENGINE = InnoDB;
+
+CREATE INDEX idx_attempt_summaries_exercise ON attempt_summaries (exercise_id);
+
+-- строки переносятся из attempts без изменений; внешних ключей нет, архив не мешает удалять упражнения
+CREATE TABLE attempts_archive (
+    id                 BIGINT       NOT NULL,
+    user_id            BIGINT,
+    exercise_id        BIGINT,
+    selected_answer    VARCHAR(255) NOT NULL,
+    is_correct         BIT          NOT NULL,
+    attempt_time       DATETIME(6)  NOT NULL,
+    time_spent_seconds INTEGER,
+    PRIMARY KEY (id)
+) ENGINE = InnoDB;
+
+CREATE INDEX idx_attempts_archive_user_time ON attempts_archive (user_id, attempt_time);
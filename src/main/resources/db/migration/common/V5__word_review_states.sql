@@ -0,0 +1,15 @@
+-- V5 - состояние интервального повторения (SM-2) по (студент, слово)
+
+CREATE TABLE word_review_states (
+    user_id          BIGINT      NOT NULL,
+    word_id          BIGINT      NOT NULL,
+    module_id        BIGINT      NOT NULL,
+    repetitions      INTEGER     NOT NULL,
+    interval_days    INTEGER     NOT NULL,
+    ease_factor      INTEGER     NOT NULL,
+    due_at           DATETIME(6) NOT NULL,
+    last_reviewed_at DATETIME(6),
+    PRIMARY KEY (user_id, word_id)
+) ENGINE = InnoDB;
+
+CREATE INDEX idx_word_review_states_due ON word_review_states (user_id, module_id, due_at);
@@ -0,0 +1,22 @@
+-- V6 - время ответов в сводной статистике по (студент, модуль) для отчета группы одним запросом
+
+ALTER TABLE student_module_stats ADD COLUMN time_spent_seconds BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE student_module_stats ADD COLUMN timed_attempts BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE attempt_summaries ADD COLUMN timed_attempts BIGINT NOT NULL DEFAULT 0;
+
+CREATE INDEX idx_student_module_stats_user ON student_module_stats (user_id);
+
+-- до этой версии время записывалось у каждой попытки
+UPDATE attempt_summaries SET timed_attempts = total_attempts;
+
+UPDATE student_module_stats SET
+    time_spent_seconds =
+        COALESCE((SELECT SUM(a.time_spent_seconds) FROM attempts a JOIN exercises e ON e.id = a.exercise_id
+                  WHERE a.user_id = student_module_stats.user_id AND e.module_id = student_module_stats.module_id), 0)
+        + COALESCE((SELECT SUM(r.total_time_spent_seconds) FROM attempt_summaries r JOIN exercises e ON e.id = r.exercise_id
+                    WHERE r.user_id = student_module_stats.user_id AND e.module_id = student_module_stats.module_id), 0),
+    timed_attempts =
+        COALESCE((SELECT COUNT(a.time_spent_seconds) FROM attempts a JOIN exercises e ON e.id = a.exercise_id
+                  WHERE a.user_id = student_module_stats.user_id AND e.module_id = student_module_stats.module_id), 0)
+        + COALESCE((SELECT SUM(r.timed_attempts) FROM attempt_summaries r JOIN exercises e ON e.id = r.exercise_id
+                    WHERE r.user_id = student_module_stats.user_id AND e.module_id = student_module_stats.module_id), 0);
@@ -0,0 +1,4 @@
+-- V7 - выведенные из модуля упражнения: упражнение удаленного или повторяющегося слова с попытками студентов
+-- не удаляется (история попыток), а помечается retired и больше не показывается и не входит в прогресс модуля
+
+ALTER TABLE exercises ADD COLUMN retired BIT NOT NULL DEFAULT 0;
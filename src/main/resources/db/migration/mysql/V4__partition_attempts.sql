@@ -0,0 +1,39 @@
+-- V4 (только MySQL) - секционирование attempts по месяцам attempt_time и сжатие архива
+--
+-- ограничения секционирования MySQL:
+--  - секционированная таблица InnoDB не поддерживает внешние ключи, поэтому ссылки attempts на users и exercises
+--    снимаются (попытки пишутся только AttemptIngestionService, запросы статистики соединяют их через JOIN)
+--  - каждый уникальный ключ должен содержать столбец секционирования, поэтому первичный ключ - (id, attempt_time)
+--
+-- секции создаются по месяцам от месяца самой старой попытки до трех месяцев после текущего, плюс пустая p_max;
+-- дальнейшие месячные секции отделяет от пустой p_max AttemptArchiveService, он же выносит секции старше
+-- горизонта хранения в архив через EXCHANGE PARTITION и удаляет их (DROP PARTITION)
+
+ALTER TABLE attempts DROP FOREIGN KEY FK9ajal069gdogf73v6rl1ic0bc;
+ALTER TABLE attempts DROP FOREIGN KEY FKt7rtk00k1t9q09b4o6o48j1q9;
+
+ALTER TABLE attempts DROP PRIMARY KEY, ADD PRIMARY KEY (id, attempt_time);
+
+SET @first_month = (SELECT DATE(DATE_FORMAT(COALESCE(MIN(attempt_time), NOW()), '%Y-%m-01')) FROM attempts);
+SET @end_month = DATE(DATE_FORMAT(NOW(), '%Y-%m-01')) + INTERVAL 4 MONTH;
+SET SESSION group_concat_max_len = 1048576;
+
+SET @monthly_partitions = (
+    WITH RECURSIVE months (month_start) AS (
+        SELECT @first_month
+        UNION ALL
+        SELECT month_start + INTERVAL 1 MONTH FROM months WHERE month_start + INTERVAL 1 MONTH < @end_month
+    )
+    SELECT GROUP_CONCAT(CONCAT('PARTITION p', DATE_FORMAT(month_start, '%Y%m'),
+                               ' VALUES LESS THAN (''', month_start + INTERVAL 1 MONTH, ''')')
+                        ORDER BY month_start SEPARATOR ', ')
+    FROM months
+);
+
+SET @partition_ddl = CONCAT('ALTER TABLE attempts PARTITION BY RANGE COLUMNS (attempt_time) (',
+                            @monthly_partitions, ', PARTITION p_max VALUES LESS THAN (MAXVALUE))');
+PREPARE partition_attempts FROM @partition_ddl;
+EXECUTE partition_attempts;
+DEALLOCATE PREPARE partition_attempts;
+
+ALTER TABLE attempts_archive ROW_FORMAT = COMPRESSED KEY_BLOCK_SIZE = 8;
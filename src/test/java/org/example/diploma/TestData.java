@@ -0,0 +1,111 @@
+package org.example.diploma;
+
+import org.example.diploma.model.Exercise;
+import org.example.diploma.model.Group;
+import org.example.diploma.model.Module;
+import org.example.diploma.model.User;
+import org.example.diploma.model.Word;
+import org.example.diploma.repository.ExerciseRepository;
+import org.example.diploma.repository.GroupRepository;
+import org.example.diploma.repository.ModuleRepository;
+import org.example.diploma.repository.UserRepository;
+import org.example.diploma.repository.WordRepository;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+// TestData - общие тестовые данные: пользователи, группы, модули, слова и упражнения
+// логика:
+//  - каждая сущность сохраняется со сбросом сессии, чтобы ее видели сервисы, читающие таблицы через JDBC
+//  - в транзакционных тестах данные откатываются вместе с тестом
+@Component
+public class TestData {
+    private final UserRepository userRepository;
+    private final GroupRepository groupRepository;
+    private final ModuleRepository moduleRepository;
+    private final WordRepository wordRepository;
+    private final ExerciseRepository exerciseRepository;
+
+    // Конструктор TestData - внедрение репозиториев сущностей
+    public TestData(UserRepository userRepository, GroupRepository groupRepository, ModuleRepository moduleRepository,
+                    WordRepository wordRepository, ExerciseRepository exerciseRepository) {
+        this.userRepository = userRepository;
+        this.groupRepository = groupRepository;
+        this.moduleRepository = moduleRepository;
+        this.wordRepository = wordRepository;
+        this.exerciseRepository = exerciseRepository;
+    }
+
+    // user - пользователь без группы
+    // вход: username - имя (не короче 5 символов), role - роль TEACHER или STUDENT
+    public User user(String username, String role) {
+        return user(username, role, null);
+    }
+
+    // user - пользователь в группе
+    // вход: username - имя (не короче 5 символов), role - роль, group - группа или null
+    public User user(String username, String role, Group group) {
+        User user = new User();
+        user.setUsername(username);
+        user.setPassword("secret");
+        user.setRole(role);
+        user.setGroup(group);
+        return userRepository.saveAndFlush(user);
+    }
+
+    // group - группа преподавателя
+    // вход: teacher - преподаватель, name - название, assigned - модули, сразу назначенные группе
+    // примечание: назначения пишутся в group_modules вместе с группой, в обход хуков GroupService
+    public Group group(User teacher, String name, Module... assigned) {
+        Group group = new Group();
+        group.setName(name);
+        group.setTeacher(teacher);
+        group.getAssignedModules().addAll(List.of(assigned));
+        return groupRepository.saveAndFlush(group);
+    }
+
+    // module - пустой модуль преподавателя
+    public Module module(User teacher, String title) {
+        Module module = new Module();
+        module.setTitle(title);
+        module.setUser(teacher);
+        return moduleRepository.saveAndFlush(module);
+    }
+
+    // word - слово модуля
+    public Word word(Module module, String english, String russian) {
+        Word word = new Word();
+        word.setEnglish(english);
+        word.setRussian(russian);
+        word.setModule(module);
+        return wordRepository.saveAndFlush(word);
+    }
+
+    // exercise - упражнение модуля без исходного слова
+    // выход: упражнение "Translate <answer>" с правильным ответом answer в первом варианте
+    public Exercise exercise(Module module, String answer) {
+        Exercise exercise = new Exercise();
+        exercise.setModule(module);
+        exercise.setQuestion("Translate " + answer);
+        exercise.setCorrectAnswer(answer);
+        exercise.setOption1(answer);
+        exercise.setOption2("a");
+        exercise.setOption3("b");
+        exercise.setOption4("c");
+        return exerciseRepository.saveAndFlush(exercise);
+    }
+
+    // exercise - упражнение по слову: вопрос - английское слово, правильный ответ - перевод
+    public Exercise exercise(Word word) {
+        Exercise exercise = new Exercise();
+        exercise.setModule(word.getModule());
+        exercise.setQuestion(word.getEnglish());
+        exercise.setCorrectAnswer(word.getRussian());
+        exercise.setOption1(word.getRussian());
+        exercise.setOption2("a");
+        exercise.setOption3("b");
+        exercise.setOption4("c");
+        exercise.setSourceWordId(word.getId());
+        return exerciseRepository.saveAndFlush(exercise);
+    }
+}
@@ -0,0 +1,42 @@
+package org.example.diploma.controller;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.test.web.server.LocalManagementPort;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// ActuatorPortTests - метрики отдаются только на порту management.server.port
+// логика: приложение запускается на случайных портах (основной и management), запросы идут по HTTP;
+// экспорт в Prometheus в тестах по умолчанию выключен и включается @AutoConfigureObservability
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "management.server.port=0",
+        "management.endpoints.web.exposure.include=health,prometheus"})
+@AutoConfigureObservability
+class ActuatorPortTests {
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @LocalManagementPort
+    private int managementPort;
+
+    @Test
+    void prometheusIsServedOnManagementPortOnly() {
+        ResponseEntity<String> publicPort = restTemplate.getForEntity("/actuator/prometheus", String.class);
+        // без входа - перенаправление на страницу входа, эндпоинта на этом порту нет
+        assertThat(publicPort.getBody()).doesNotContain("app_exercise_cache_requests_total");
+
+        ResponseEntity<String> metrics = restTemplate.getForEntity(
+                "http://localhost:" + managementPort + "/actuator/prometheus", String.class);
+        assertThat(metrics.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(metrics.getBody())
+                .contains("app_exercise_cache_requests_total{result=\"hit\"}")
+                .contains("app_exercise_cache_requests_total{result=\"miss\"}");
+    }
+}
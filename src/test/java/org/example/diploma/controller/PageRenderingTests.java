@@ -0,0 +1,229 @@
+package org.example.diploma.controller;
+
+import org.example.diploma.TestData;
+import org.example.diploma.model.Exercise;
+import org.example.diploma.model.Group;
+import org.example.diploma.model.Module;
+import org.example.diploma.model.User;
+import org.example.diploma.model.Word;
+import org.example.diploma.repository.ExerciseRepository;
+import org.example.diploma.repository.GroupRepository;
+import org.example.diploma.repository.WordRepository;
+import org.example.diploma.security.CustomUserDetails;
+import org.example.diploma.service.GroupService;
+import org.example.diploma.service.LiveStatsService;
+import org.example.diploma.service.StudentService;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.test.web.servlet.request.RequestPostProcessor;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+// PageRenderingTests - отрисовка страниц без открытой сессии Hibernate
+// логика:
+//  - тесты не транзакционные, open-in-view и enable_lazy_load_no_trans выключены (как в приложении): обращение
+//    к незагруженной связи в контроллере или шаблоне - LazyInitializationException, страница ошибки или flash "error"
+//  - строгий бюджет запросов (app.query-budget.strict) проверяет каждый запрос и на N+1
+//  - отдельная база, так как данные не откатываются
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:pages;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1")
+@AutoConfigureMockMvc
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class PageRenderingTests {
+
+    @Autowired
+    private TestData testData;
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private GroupRepository groupRepository;
+    @Autowired
+    private WordRepository wordRepository;
+    @Autowired
+    private ExerciseRepository exerciseRepository;
+    @Autowired
+    private GroupService groupService;
+    @Autowired
+    private StudentService studentService;
+    @Autowired
+    private LiveStatsService liveStatsService;
+
+    private User teacher;
+    private User student;
+    private User freeStudent;
+    private Group group;
+    private Module module;
+    private Module unassigned;
+    private List<Exercise> exercises;
+
+    @BeforeAll
+    void createClassroom() {
+        teacher = testData.user("pages-teacher", "TEACHER");
+        group = testData.group(teacher, "pages");
+        student = testData.user("pages-student", "STUDENT", group);
+        freeStudent = testData.user("pages-free-student", "STUDENT");
+
+        module = module("Animals", "cat", "dog", "bird", "fish", "horse");
+        unassigned = module("Colors", "red", "blue", "green", "black", "white");
+        exercises = exerciseRepository.findByModuleId(module.getId());
+        groupService.assignModuleToGroup(group.getId(), module);
+        for (Exercise exercise : exercises.subList(0, 3)) {
+            studentService.saveAttempt(student, exercise, exercise.getCorrectAnswer(), 4);
+        }
+    }
+
+    @Test
+    void teacherPagesRender() throws Exception {
+        render(get("/teacher/dashboard"), teacher);
+        render(get("/teacher/modules"), teacher);
+        render(get("/teacher/modules/new"), teacher);
+        render(get("/teacher/modules/" + module.getId() + "/edit"), teacher);
+        render(get("/teacher/modules/" + module.getId() + "/exercises"), teacher);
+        render(get("/teacher/results"), teacher);
+        render(get("/teacher/results").param("groupId", group.getId().toString()), teacher);
+        render(get("/teacher/groups"), teacher);
+        render(get("/teacher/groups/new"), teacher);
+        render(get("/teacher/groups/" + group.getId()), teacher);
+        render(get("/teacher/groups/" + group.getId() + "/stats"), teacher);
+        render(get("/teacher/groups/" + group.getId() + "/students/" + student.getId() + "/stats"), teacher);
+    }
+
+    @Test
+    void studentPagesRender() throws Exception {
+        render(get("/student/dashboard"), student);
+        render(get("/student/modules"), student);
+        render(get("/student/modules/" + module.getId() + "/words"), student);
+        render(get("/student/modules/" + module.getId() + "/practice"), student);
+        render(get("/student/modules/" + module.getId() + "/practice/session"), student);
+        render(get("/student/modules/" + module.getId() + "/review"), student);
+        render(get("/student/results"), student);
+    }
+
+    @Test
+    void teacherActionsDoNotTouchUnloadedAssociations() throws Exception {
+        Long groupId = group.getId();
+        redirect(post("/teacher/groups/" + groupId + "/modules").param("moduleId", unassigned.getId().toString()),
+                "/teacher/groups/" + groupId);
+        assertThat(groupRepository.findGroupsByModuleId(unassigned.getId())).extracting(Group::getId).contains(groupId);
+        redirect(post("/teacher/groups/" + groupId + "/modules/" + unassigned.getId() + "/remove"),
+                "/teacher/groups/" + groupId);
+        assertThat(groupRepository.findGroupsByModuleId(unassigned.getId())).isEmpty();
+
+        redirect(post("/teacher/groups/" + groupId + "/students").param("studentId", freeStudent.getId().toString()),
+                "/teacher/groups/" + groupId);
+        redirect(post("/teacher/groups/" + groupId + "/students/" + freeStudent.getId() + "/remove"),
+                "/teacher/groups/" + groupId);
+
+        Word word = wordRepository.findByModuleId(unassigned.getId()).get(0);
+        redirect(post("/teacher/words/" + word.getId() + "/delete"),
+                "/teacher/modules/" + unassigned.getId() + "/edit");
+        Exercise exercise = exerciseRepository.findByModuleId(unassigned.getId()).get(0);
+        redirect(post("/teacher/exercises/" + exercise.getId() + "/delete"),
+                "/teacher/modules/" + unassigned.getId() + "/exercises");
+    }
+
+    @Test
+    void wordsCannotBeImportedIntoAnotherTeachersModule() throws Exception {
+        User stranger = testData.user("pages-other-teacher", "TEACHER");
+        int before = wordRepository.findByModuleId(unassigned.getId()).size();
+
+        MvcResult result = mockMvc.perform(withUser(post("/teacher/modules/" + unassigned.getId() + "/words/import")
+                        .param("text", "apple,яблоко"), stranger))
+                .andReturn();
+
+        assertThat(result.getResponse().getRedirectedUrl()).startsWith("/teacher/modules?error=");
+        assertThat(wordRepository.findByModuleId(unassigned.getId())).hasSize(before);
+    }
+
+    @Test
+    void studentAnswersAreRecorded() throws Exception {
+        Exercise exercise = exercises.get(3);
+        redirect(post("/student/exercises/" + exercise.getId() + "/submit")
+                .param("selectedAnswer", exercise.getCorrectAnswer()), "/student/modules/" + module.getId() + "/practice");
+
+        Exercise next = exercises.get(4);
+        MvcResult result = mockMvc.perform(post("/student/api/practice/answers")
+                        .with(as(student)).with(csrf())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[{\"exerciseId\":" + next.getId() + ",\"selectedAnswer\":\"" + next.getCorrectAnswer()
+                                + "\"}]"))
+                .andReturn();
+        assertThat(result.getResponse().getStatus()).isEqualTo(200);
+    }
+
+    @Test
+    void groupStatsStreamContinuesFromSnapshot() throws Exception {
+        MvcResult page = mockMvc.perform(withUser(get("/teacher/groups/" + group.getId() + "/stats"), teacher)).andReturn();
+        long version = (Long) page.getModelAndView().getModel().get("statsVersion");
+
+        // ответ после снимка разослан до открытия потока: поток отдает его сразу, попытки из снимка - нет
+        Exercise exercise = exercises.get(0);
+        studentService.saveAttempt(student, exercise, "wrong", 2);
+        liveStatsService.publish();
+
+        MvcResult stream = mockMvc.perform(withUser(get("/teacher/groups/" + group.getId() + "/stats/stream")
+                .param("since", Long.toString(version)), teacher)).andReturn();
+        assertThat(stream.getRequest().isAsyncStarted()).isTrue();
+        String events = "";
+        for (int i = 0; i < 50 && !events.contains("event:stats"); i++) {
+            Thread.sleep(100);
+            events = stream.getResponse().getContentAsString();
+        }
+        assertThat(events).contains("event:stats")
+                .contains("\"totalAttempts\":1,\"correctAttempts\":0")
+                .contains("\"studentId\":" + student.getId());
+    }
+
+    private void render(MockHttpServletRequestBuilder request, User user) throws Exception {
+        MvcResult result = mockMvc.perform(withUser(request, user)).andReturn();
+        assertThat(result.getResolvedException()).isNull();
+        assertThat(result.getResponse().getStatus()).isEqualTo(200);
+        assertThat(result.getModelAndView()).isNotNull();
+        assertThat(result.getModelAndView().getViewName()).isNotEqualTo("error");
+        assertThat(result.getModelAndView().getModel()).doesNotContainKey("error");
+    }
+
+    private void redirect(MockHttpServletRequestBuilder request, String location) throws Exception {
+        MvcResult result = mockMvc.perform(withUser(request, teacherOrStudent(location))).andReturn();
+        assertThat(result.getResolvedException()).isNull();
+        assertThat(result.getResponse().getRedirectedUrl()).isEqualTo(location);
+        assertThat(result.getFlashMap().get("error")).isNull();
+    }
+
+    private User teacherOrStudent(String location) {
+        return location.startsWith("/teacher") ? teacher : student;
+    }
+
+    private MockHttpServletRequestBuilder withUser(MockHttpServletRequestBuilder request, User user) {
+        return request.with(as(user)).with(csrf());
+    }
+
+    private static RequestPostProcessor as(User user) {
+        return SecurityMockMvcRequestPostProcessors.user(new CustomUserDetails(user.getId(), user.getUsername(), user.getPassword(), user.getRole(),
+                user.getGroup() != null ? user.getGroup().getId() : null,
+                List.of(new SimpleGrantedAuthority("ROLE_" + user.getRole()))));
+    }
+
+    // module - модуль преподавателя со словами и сгенерированными упражнениями
+    private Module module(String title, String... english) {
+        Module module = testData.module(teacher, title);
+        for (String text : english) {
+            testData.exercise(testData.word(module, text, text + "-ru"));
+        }
+        return module;
+    }
+}
@@ -0,0 +1,125 @@
+package org.example.diploma.repository;
+
+import org.example.diploma.config.QueryBudget;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// SchemaMigrationTests - общие миграции Flyway (без MySQL-специфичных из db/migration/mysql) и планы запросов AttemptRepository
+// логика:
+//  - схема создается миграциями, Hibernate только сверяет ее с моделью (ddl-auto=validate): контекст не поднимется,
+//    если миграции разошлись с сущностями
+//  - методы репозитория вызываются в QueryBudget.open, сгенерированный Hibernate SQL перехватывается
+//    HibernateQueryCounter и проверяется через EXPLAIN (H2 в режиме MySQL)
+//  - отдельная база, так как схема создается иначе, чем в остальных тестах
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:migrations;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        "spring.flyway.enabled=true",
+        "spring.flyway.locations=classpath:db/migration/common",
+        "spring.jpa.hibernate.ddl-auto=validate"})
+class SchemaMigrationTests {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private AttemptRepository attemptRepository;
+    @Autowired
+    private QueryBudget queryBudget;
+
+    @Test
+    void migrationsCreateHotPathIndexes() {
+        List<String> indexes = jdbcTemplate.queryForList(
+                "SELECT LOWER(index_name) FROM information_schema.indexes WHERE table_schema = 'public'", String.class);
+
+        assertThat(indexes).contains(
+                "idx_attempts_user_time", "idx_attempts_user_exercise_correct", "idx_attempts_exercise_user",
+                "idx_exercises_module_source", "idx_words_module", "idx_users_group_role", "idx_users_role_group",
+                "idx_modules_user_title", "idx_study_groups_teacher_name",
+                "idx_group_modules_group_module", "idx_group_modules_module",
+                "idx_attempt_summaries_exercise", "idx_attempts_archive_user_time",
+                "idx_word_review_states_due", "idx_student_module_stats_user");
+    }
+
+    @Test
+    void baselinedDatabaseReceivesEverySchemaChange() {
+        // база, созданная ddl-auto=update до перехода на Flyway: схема V1 без истории миграций
+        String url = "jdbc:h2:mem:legacy;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1";
+        Flyway.configure().dataSource(url, "sa", "").locations("classpath:db/migration/common").target("1")
+                .load().migrate();
+        JdbcTemplate legacy = new JdbcTemplate(new DriverManagerDataSource(url, "sa", ""));
+        // V1 не выполняется для такой базы, поэтому в нем только таблицы и столбцы приложения до Flyway
+        assertThat(legacy.queryForList("SELECT LOWER(table_name) FROM information_schema.tables " +
+                "WHERE table_schema = 'public' AND LOWER(table_name) <> 'flyway_schema_history'", String.class))
+                .containsExactlyInAnyOrder("users", "study_groups", "modules", "group_modules", "words", "exercises",
+                        "attempts");
+        assertThat(columns(legacy, "exercises")).containsExactlyInAnyOrder("id", "question", "correct_answer",
+                "option1", "option2", "option3", "option4", "module_id");
+        legacy.execute("DROP TABLE \"flyway_schema_history\"");
+
+        // как при старте приложения: baseline-on-migrate помечает базу версией 1, затем применяются V1.1+
+        Flyway.configure().dataSource(url, "sa", "").locations("classpath:db/migration/common")
+                .baselineOnMigrate(true).baselineVersion("1").load().migrate();
+
+        assertThat(columns(legacy, "exercises")).contains("source_word_id", "distractor_word_ids", "retired");
+        assertThat(columns(legacy, "student_attempt_stats")).contains("user_id", "distinct_modules");
+        assertThat(columns(legacy, "student_module_stats")).contains("module_id", "time_spent_seconds");
+        assertThat(columns(legacy, "word_review_states")).isNotEmpty();
+    }
+
+    @Test
+    void attemptRepositoryQueriesReadAttemptsByIndex() {
+        LocalDateTime now = LocalDateTime.now();
+        Timestamp time = Timestamp.valueOf(now);
+
+        // параметры EXPLAIN - в порядке "?" в сгенерированном SQL (лимит страницы - последним)
+        assertReadsAttemptsByIndex("findByUserId",
+                () -> attemptRepository.findByUserId(1L), 1L);
+        assertReadsAttemptsByIndex("findByUserIdAndExerciseModuleId",
+                () -> attemptRepository.findByUserIdAndExerciseModuleId(1L, 2L), 1L, 2L);
+        assertReadsAttemptsByIndex("existsByUserIdAndExerciseIdAndIsCorrectTrue",
+                () -> attemptRepository.existsByUserIdAndExerciseIdAndIsCorrectTrue(1L, 2L), 1L, 2L);
+        assertReadsAttemptsByIndex("findDetailedStatsByStudentId",
+                () -> attemptRepository.findDetailedStatsByStudentId(1L), 1L);
+        assertReadsAttemptsByIndex("findHistoryFirstPage",
+                () -> attemptRepository.findHistoryFirstPage(1L, PageRequest.of(0, 21)), 1L, 21);
+        assertReadsAttemptsByIndex("findHistoryPageBefore",
+                () -> attemptRepository.findHistoryPageBefore(1L, now, 3L, PageRequest.of(0, 21)),
+                1L, time, time, 3L, 21);
+        assertReadsAttemptsByIndex("countSolvedExercisesByStudents",
+                () -> attemptRepository.countSolvedExercisesByStudents(List.of(1L, 2L)), 1L, 2L, 1L, 2L);
+        assertReadsAttemptsByIndex("findModuleProgressByStudent",
+                () -> attemptRepository.findModuleProgressByStudent(1L, Set.of(1L)), 1L, 1L, 1L);
+    }
+
+    private static List<String> columns(JdbcTemplate jdbc, String table) {
+        return jdbc.queryForList("SELECT LOWER(column_name) FROM information_schema.columns " +
+                "WHERE table_schema = 'public' AND LOWER(table_name) = ?", String.class, table);
+    }
+
+    // assertReadsAttemptsByIndex - EXPLAIN единственного SELECT, выполненного call
+    // примечание: в плане H2 за таблицей следует комментарий со способом доступа: индекс или tableScan
+    private void assertReadsAttemptsByIndex(String name, Runnable call, Object... args) {
+        QueryBudget.Scope scope = queryBudget.open(name);
+        try (scope) {
+            call.run();
+        }
+        assertThat(scope.getCounts().getSql()).as(name).hasSize(1);
+        String sql = scope.getCounts().getSql().keySet().iterator().next();
+
+        String plan = jdbcTemplate.queryForObject("EXPLAIN " + sql, String.class, args);
+
+        assertThat(plan).as(name).contains("\"public\".\"attempts\"");
+        assertThat(plan).as(name + ": " + plan).doesNotContain("tableScan");
+    }
+}
@@ -0,0 +1,96 @@
+package org.example.diploma.service;
+
+import org.example.diploma.TestData;
+import org.example.diploma.dto.GroupStatsReportDTO;
+import org.example.diploma.dto.ModuleProgressDTO;
+import org.example.diploma.dto.StudentStatsDTO;
+import org.example.diploma.model.Exercise;
+import org.example.diploma.model.Group;
+import org.example.diploma.model.Module;
+import org.example.diploma.model.User;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.ByteArrayOutputStream;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@Transactional
+class AttemptArchiveServiceTests {
+
+    @Autowired
+    private TestData testData;
+    @Autowired
+    private AttemptArchiveService attemptArchiveService;
+    @Autowired
+    private AttemptStatsRollupService attemptStatsRollupService;
+    @Autowired
+    private AttemptExportService attemptExportService;
+    @Autowired
+    private StatsService statsService;
+    @Autowired
+    private GroupStatsService groupStatsService;
+    @Autowired
+    private StudentService studentService;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void archivingOldAttemptsKeepsTotalsAndProgress() throws Exception {
+        User teacher = testData.user("teacher-archive", "TEACHER");
+        Module module = testData.module(teacher, "Archive");
+        Exercise cat = testData.exercise(module, "cat");
+        Exercise dog = testData.exercise(module, "dog");
+
+        Group group = testData.group(teacher, "archive", module);
+        User student = testData.user("student-archive", "STUDENT", group);
+
+        studentService.saveAttempt(student, cat, "wrong", 5);
+        studentService.saveAttempt(student, cat, "cat", 4);
+        studentService.saveAttempt(student, dog, "dog", 3);
+        studentService.saveAttempt(student, dog, "wrong", 2);
+        // первые три попытки - двухлетней давности, последняя остается в горячей таблице
+        jdbcTemplate.update("UPDATE attempts SET attempt_time = ? WHERE user_id = ? AND time_spent_seconds > 2",
+                Timestamp.valueOf(LocalDate.now().minusYears(2).atStartOfDay()), student.getId());
+
+        GroupStatsReportDTO before = groupStatsService.getGroupReport(group.getId());
+        List<ModuleProgressDTO> progressBefore = studentService.getModulesProgress(student.getId());
+        assertThat(progressBefore.get(0).isCompleted()).isTrue();
+
+        long moved = attemptArchiveService.archive(LocalDate.now());
+
+        assertThat(moved).isEqualTo(3);
+        assertThat(count("attempts")).isEqualTo(1);
+        assertThat(count("attempts_archive")).isEqualTo(3);
+        assertThat(count("attempt_summaries")).isEqualTo(2);
+        assertThat(attemptArchiveService.archive(LocalDate.now())).isZero();
+
+        GroupStatsReportDTO after = groupStatsService.getGroupReport(group.getId());
+        assertThat(after.getTotalAttempts()).isEqualTo(before.getTotalAttempts()).isEqualTo(4L);
+        assertThat(after.getCorrectAttempts()).isEqualTo(before.getCorrectAttempts()).isEqualTo(2L);
+        assertThat(studentService.getModulesProgress(student.getId()).get(0).isCompleted()).isTrue();
+
+        StudentStatsDTO stat = statsService.getStudentStatsByGroup(group.getId()).get(0);
+        assertThat(stat.getCompletedModules()).isEqualTo(1L);
+
+        assertThat(attemptStatsRollupService.verify()).isEmpty();
+        attemptStatsRollupService.rebuild();
+        assertThat(attemptStatsRollupService.verify()).isEmpty();
+        assertThat(groupStatsService.getGroupReport(group.getId()).getTotalAttempts()).isEqualTo(4L);
+
+        long exported = attemptExportService.export(AttemptExportService.Scope.STUDENT, student.getId(),
+                AttemptExportService.Format.CSV, new ByteArrayOutputStream());
+        assertThat(exported).isEqualTo(4);
+    }
+
+    private long count(String table) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + table, Long.class);
+    }
+}
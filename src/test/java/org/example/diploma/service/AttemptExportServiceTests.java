@@ -0,0 +1,116 @@
+package org.example.diploma.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.example.diploma.TestData;
+import org.example.diploma.model.Exercise;
+import org.example.diploma.model.Group;
+import org.example.diploma.model.Module;
+import org.example.diploma.model.User;
+import org.example.diploma.repository.ExerciseRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@Transactional
+class AttemptExportServiceTests {
+
+    @Autowired
+    private TestData testData;
+    @Autowired
+    private AttemptExportService attemptExportService;
+    @Autowired
+    private StudentService studentService;
+    @Autowired
+    private ExerciseRepository exerciseRepository;
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void groupExportWritesEveryAttemptAsCsvAndNdjson() throws Exception {
+        User teacher = testData.user("teacher-export", "TEACHER");
+        Group group = testData.group(teacher, "export");
+        Module module = testData.module(teacher, "Quotes, \"tricky\"");
+
+        Exercise exercise = new Exercise();
+        exercise.setModule(module);
+        exercise.setQuestion("Translate \"hello, world\"");
+        exercise.setCorrectAnswer("привет, мир");
+        exercise.setOption1("привет, мир");
+        exercise.setOption2("a");
+        exercise.setOption3("b");
+        exercise.setOption4("c");
+        exerciseRepository.save(exercise);
+
+        User first = testData.user("export-a", "STUDENT", group);
+        User second = testData.user("export-b", "STUDENT", group);
+        studentService.saveAttempt(first, exercise, "привет, мир", 4);
+        studentService.saveAttempt(first, exercise, "a", null);
+        studentService.saveAttempt(second, exercise, "b", 7);
+        // студент группы другого преподавателя в выгрузку не попадает
+        User otherTeacher = testData.user("teacher-export-other", "TEACHER");
+        Group otherGroup = testData.group(otherTeacher, "export-other");
+        studentService.saveAttempt(testData.user("export-c", "STUDENT", otherGroup), exercise, "c", 2);
+
+        ByteArrayOutputStream csv = new ByteArrayOutputStream();
+        long csvRows = attemptExportService.export(AttemptExportService.Scope.GROUP, group.getId(),
+                AttemptExportService.Format.CSV, csv);
+        List<String> csvLines = csv.toString(StandardCharsets.UTF_8).lines().toList();
+
+        assertThat(csvRows).isEqualTo(3);
+        assertThat(csvLines).hasSize(4);
+        assertThat(csvLines.get(1)).contains(",export-a,export,\"Quotes, \"\"tricky\"\"\",\"Translate \"\"hello, world\"\"\",");
+
+        ByteArrayOutputStream ndjson = new ByteArrayOutputStream();
+        long ndjsonRows = attemptExportService.export(AttemptExportService.Scope.TEACHER, teacher.getId(),
+                AttemptExportService.Format.NDJSON, ndjson);
+        List<String> jsonLines = ndjson.toString(StandardCharsets.UTF_8).lines().toList();
+
+        assertThat(ndjsonRows).isEqualTo(3);
+        assertThat(jsonLines).hasSize(3);
+        JsonNode firstRow = objectMapper.readTree(jsonLines.get(0));
+        assertThat(firstRow.get("student").asText()).isEqualTo("export-a");
+        assertThat(firstRow.get("correctAnswer").asText()).isEqualTo("привет, мир");
+        assertThat(firstRow.get("correct").asBoolean()).isTrue();
+        assertThat(objectMapper.readTree(jsonLines.get(1)).get("timeSpentSeconds").isNull()).isTrue();
+
+        assertThat(attemptExportService.isGroupOfTeacher(group.getId(), teacher.getId())).isTrue();
+        assertThat(attemptExportService.isStudentOfTeacher(second.getId(), teacher.getId())).isTrue();
+        assertThat(attemptExportService.isStudentOfTeacher(teacher.getId(), teacher.getId())).isFalse();
+    }
+
+    @Test
+    void csvExportEscapesAnswersThatSpreadsheetsWouldEvaluate() throws Exception {
+        User teacher = testData.user("teacher-formula", "TEACHER");
+        Group group = testData.group(teacher, "formula");
+        Module module = testData.module(teacher, "Formulas");
+        Exercise exercise = testData.exercise(module, "кошка");
+
+        User student = testData.user("formula-a", "STUDENT", group);
+        List<String> answers = List.of("=HYPERLINK(\"http://evil\",\"x\")", "+1", "-2+3", "@SUM(A1)", "\tcmd", "кошка");
+        for (String answer : answers) {
+            studentService.saveAttempt(student, exercise, answer, 1);
+        }
+
+        ByteArrayOutputStream csv = new ByteArrayOutputStream();
+        attemptExportService.export(AttemptExportService.Scope.STUDENT, student.getId(),
+                AttemptExportService.Format.CSV, csv);
+        List<String> lines = csv.toString(StandardCharsets.UTF_8).lines().toList();
+
+        assertThat(lines).hasSize(answers.size() + 1);
+        assertThat(lines.get(1)).contains(",\"'=HYPERLINK(\"\"http://evil\"\",\"\"x\"\")\",");
+        assertThat(lines.get(2)).contains(",'+1,");
+        assertThat(lines.get(3)).contains(",'-2+3,");
+        assertThat(lines.get(4)).contains(",'@SUM(A1),");
+        assertThat(lines.get(5)).contains(",'\tcmd,");
+        assertThat(lines.get(6)).contains(",кошка,кошка,");
+    }
+}
@@ -0,0 +1,163 @@
+package org.example.diploma.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.diploma.TestData;
+import org.example.diploma.model.Attempt;
+import org.example.diploma.model.Exercise;
+import org.example.diploma.model.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// AttemptIngestionServiceTests - асинхронная запись попыток (в остальных тестах включен режим sync)
+// логика:
+//  - сервис создается в тесте в режиме async; фоновый сброс по таймеру отключен большим интервалом
+//  - события AttemptsRecordedEvent перехватываются: размер события - размер записанного пакета
+//  - тесты не транзакционные (пакеты пишет фоновый поток), поэтому отдельная база
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:ingestion;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1")
+class AttemptIngestionServiceTests {
+
+    private static final long NO_TIMER_MS = 3_600_000;
+
+    @Autowired
+    private TestData testData;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    @Autowired
+    private AttemptStatsRollupService rollupService;
+    @Autowired
+    private SpacedRepetitionService spacedRepetitionService;
+
+    private final List<Integer> writtenBatches = new CopyOnWriteArrayList<>();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private User student;
+    private Exercise exercise;
+
+    @BeforeEach
+    void createExercise() {
+        User teacher = testData.user("ingestion-teacher-" + System.nanoTime(), "TEACHER");
+        student = testData.user("ingestion-student-" + System.nanoTime(), "STUDENT");
+        exercise = testData.exercise(testData.module(teacher, "Ingestion"), "кот");
+    }
+
+    @Test
+    void bufferedAttemptsAreWrittenInBatches() throws Exception {
+        AttemptIngestionService service = service(100, 3, 50);
+        try {
+            service.submit(attempt(exercise));
+            service.submit(attempt(exercise));
+            assertThat(service.getPendingCount()).isEqualTo(2);
+            assertThat(storedAttempts()).isZero();
+
+            // полный пакет запускает сброс в фоновом потоке, не дожидаясь таймера
+            service.submit(attempt(exercise));
+            for (int i = 0; i < 50 && storedAttempts() < 3; i++) {
+                Thread.sleep(100);
+            }
+
+            assertThat(storedAttempts()).isEqualTo(3);
+            assertThat(service.getPendingCount()).isZero();
+            assertThat(writtenBatches).containsExactly(3);
+        } finally {
+            service.shutdown();
+        }
+    }
+
+    @Test
+    void fullBufferIsWrittenByRequestThread() {
+        AttemptIngestionService service = service(2, 100, 10);
+        try {
+            service.submit(attempt(exercise));
+            service.submit(attempt(exercise));
+
+            // буфер полон: попытка не теряется и не ждет, запрос пишет ее сам
+            service.submit(attempt(exercise));
+
+            assertThat(service.getPendingCount()).isEqualTo(2);
+            assertThat(storedAttempts()).isEqualTo(1);
+            assertThat(writtenBatches).containsExactly(1);
+        } finally {
+            service.shutdown();
+        }
+        assertThat(storedAttempts()).isEqualTo(3);
+    }
+
+    @Test
+    void shutdownDrainsBuffer() {
+        AttemptIngestionService service = service(100, 2, 50);
+        service.submit(attempt(exercise));
+        service.submit(attempt(exercise));
+        service.submit(attempt(exercise));
+        service.shutdown();
+
+        assertThat(service.getPendingCount()).isZero();
+        assertThat(storedAttempts()).isEqualTo(3);
+    }
+
+    @Test
+    void attemptsAfterShutdownAreWrittenSynchronously() {
+        AttemptIngestionService service = service(100, 2, 50);
+        service.shutdown();
+
+        // фоновый поток остановлен: полный пакет не отправляется ему, попытки пишет запрос
+        service.submit(attempt(exercise));
+        service.submit(attempt(exercise));
+
+        assertThat(service.getPendingCount()).isZero();
+        assertThat(storedAttempts()).isEqualTo(2);
+        assertThat(writtenBatches).containsExactly(1, 1);
+    }
+
+    @Test
+    void unwritableAttemptIsDroppedAndCounted() {
+        Exercise missing = new Exercise();
+        missing.setId(Long.MAX_VALUE);
+        missing.setModule(exercise.getModule());
+        missing.setCorrectAnswer("кот");
+
+        AttemptIngestionService service = service(100, 100, 50);
+        service.submit(attempt(exercise));
+        service.submit(attempt(missing));
+        service.submit(attempt(exercise));
+        service.flush();
+
+        // пакет откатился целиком, попытки переписаны по одной: две записаны, одна потеряна
+        assertThat(storedAttempts()).isEqualTo(2);
+        assertThat(writtenBatches).containsExactly(1, 1);
+        assertThat(meterRegistry.counter("app.attempts.dropped").count()).isEqualTo(1.0);
+        service.shutdown();
+    }
+
+    private AttemptIngestionService service(int capacity, int batchSize, long offerTimeoutMs) {
+        return new AttemptIngestionService(jdbcTemplate, transactionManager, rollupService, spacedRepetitionService,
+                event -> writtenBatches.add(((AttemptsRecordedEvent) event).getAttempts().size()), meterRegistry,
+                "async", capacity, batchSize, NO_TIMER_MS, offerTimeoutMs);
+    }
+
+    private int storedAttempts() {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM attempts WHERE user_id = ?", Integer.class,
+                student.getId());
+    }
+
+    private Attempt attempt(Exercise target) {
+        Attempt attempt = new Attempt();
+        attempt.setUser(student);
+        attempt.setExercise(target);
+        attempt.setSelectedAnswer("кот");
+        attempt.setCorrect(true);
+        attempt.setAttemptTime(LocalDateTime.now());
+        attempt.setTimeSpentSeconds(3);
+        return attempt;
+    }
+}
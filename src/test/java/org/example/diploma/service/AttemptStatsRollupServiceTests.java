@@ -0,0 +1,62 @@
+package org.example.diploma.service;
+
+import org.example.diploma.model.Attempt;
+import org.example.diploma.model.Exercise;
+import org.example.diploma.model.Module;
+import org.example.diploma.model.User;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AttemptStatsRollupServiceTests {
+
+    @Test
+    void rollupRowsAreWrittenInKeyOrder() {
+        List<List<Object>> moduleKeys = new ArrayList<>();
+        List<Object> studentKeys = new ArrayList<>();
+        // запись перехватывается: проверяется порядок строк в пакетах upsert
+        JdbcTemplate jdbc = new JdbcTemplate() {
+            @Override
+            public int[] batchUpdate(String sql, List<Object[]> batchArgs) {
+                for (Object[] row : batchArgs) {
+                    if (sql.startsWith("INSERT INTO student_module_stats")) {
+                        moduleKeys.add(List.of(row[0], row[1]));
+                    } else if (sql.startsWith("INSERT INTO student_attempt_stats")) {
+                        studentKeys.add(row[0]);
+                    }
+                }
+                return new int[batchArgs.size()];
+            }
+        };
+        AttemptStatsRollupService service = new AttemptStatsRollupService(jdbc, new DataSourceTransactionManager(), false, false);
+
+        // попытки в порядке ответов: ключи идут вразнобой
+        service.apply(List.of(attempt(3L, 20L), attempt(1L, 30L), attempt(3L, 10L), attempt(1L, 20L), attempt(2L, 10L),
+                attempt(1L, 30L)));
+
+        assertThat(moduleKeys).containsExactly(List.of(1L, 20L), List.of(1L, 30L), List.of(2L, 10L), List.of(3L, 10L),
+                List.of(3L, 20L));
+        assertThat(studentKeys).containsExactly(1L, 2L, 3L);
+    }
+
+    private static Attempt attempt(Long userId, Long moduleId) {
+        User user = new User();
+        user.setId(userId);
+        Module module = new Module();
+        module.setId(moduleId);
+        Exercise exercise = new Exercise();
+        exercise.setModule(module);
+        Attempt attempt = new Attempt();
+        attempt.setUser(user);
+        attempt.setExercise(exercise);
+        attempt.setCorrect(true);
+        attempt.setAttemptTime(LocalDateTime.now());
+        return attempt;
+    }
+}
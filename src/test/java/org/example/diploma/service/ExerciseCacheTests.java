@@ -0,0 +1,88 @@
+package org.example.diploma.service;
+
+import org.example.diploma.dto.ExerciseSnapshotDTO;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ExerciseCacheTests {
+
+    private final List<Long> loads = new ArrayList<>();
+
+    @Test
+    void lookupsAreCountedAsHitsAndMisses() {
+        ExerciseCache cache = new ExerciseCache(10);
+
+        assertThat(cache.getModuleExercises(1L, this::load)).extracting(ExerciseSnapshotDTO::getId).containsExactly(10L, 11L);
+        assertThat(cache.getModuleExercises(1L, this::load)).hasSize(2);
+        assertThat(cache.getExercise(11L)).extracting(ExerciseSnapshotDTO::getModuleId).isEqualTo(1L);
+        // упражнение модуля не из кэша - промах, вызывающий пойдет в базу
+        assertThat(cache.getExercise(20L)).isNull();
+
+        assertThat(loads).containsExactly(1L);
+        assertThat(cache.getHits()).isEqualTo(2);
+        assertThat(cache.getMisses()).isEqualTo(2);
+    }
+
+    @Test
+    void leastRecentlyUsedModuleIsEvicted() {
+        ExerciseCache cache = new ExerciseCache(2);
+        cache.getModuleExercises(1L, this::load);
+        cache.getModuleExercises(2L, this::load);
+        cache.getModuleExercises(1L, this::load);
+
+        cache.getModuleExercises(3L, this::load);
+
+        assertThat(cache.getSize()).isEqualTo(2);
+        assertThat(cache.getEvictions()).isEqualTo(1);
+        assertThat(cache.getExercise(20L)).isNull();
+        assertThat(cache.getExercise(10L)).isNotNull();
+        cache.getModuleExercises(1L, this::load);
+        assertThat(loads).containsExactly(1L, 2L, 3L);
+    }
+
+    @Test
+    void invalidatedModuleIsReloaded() {
+        ExerciseCache cache = new ExerciseCache(10);
+        cache.getModuleExercises(1L, this::load);
+
+        cache.evictModule(1L);
+
+        assertThat(cache.getInvalidations()).isEqualTo(1);
+        assertThat(cache.getExercise(10L)).isNull();
+        cache.getModuleExercises(1L, this::load);
+        assertThat(loads).containsExactly(1L, 1L);
+    }
+
+    @Test
+    void loadRacingWithInvalidationIsNotCached() {
+        ExerciseCache cache = new ExerciseCache(10);
+        // упражнения модуля меняются, пока загрузка читает старую версию
+        Function<Long, List<ExerciseSnapshotDTO>> stale = moduleId -> {
+            List<ExerciseSnapshotDTO> loaded = load(moduleId);
+            cache.evictModule(moduleId);
+            return loaded;
+        };
+
+        assertThat(cache.getModuleExercises(1L, stale)).hasSize(2);
+
+        assertThat(cache.getSize()).isZero();
+        assertThat(cache.getExercise(10L)).isNull();
+        cache.getModuleExercises(1L, this::load);
+        assertThat(loads).containsExactly(1L, 1L);
+    }
+
+    // load - два упражнения модуля с идентификаторами moduleId * 10 и moduleId * 10 + 1
+    private List<ExerciseSnapshotDTO> load(Long moduleId) {
+        loads.add(moduleId);
+        return List.of(snapshot(moduleId * 10, moduleId), snapshot(moduleId * 10 + 1, moduleId));
+    }
+
+    private static ExerciseSnapshotDTO snapshot(Long id, Long moduleId) {
+        return new ExerciseSnapshotDTO(id, moduleId, "q" + id, "a", "a", "b", "c", "d", id);
+    }
+}
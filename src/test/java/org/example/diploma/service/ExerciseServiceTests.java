@@ -0,0 +1,206 @@
+package org.example.diploma.service;
+
+import jakarta.persistence.EntityManager;
+import org.example.diploma.TestData;
+import org.example.diploma.config.QueryBudget;
+import org.example.diploma.dto.ExerciseSnapshotDTO;
+import org.example.diploma.dto.ExerciseSyncResultDTO;
+import org.example.diploma.dto.ModuleExerciseProgressDTO;
+import org.example.diploma.model.Exercise;
+import org.example.diploma.model.Module;
+import org.example.diploma.model.User;
+import org.example.diploma.model.Word;
+import org.example.diploma.repository.AttemptRepository;
+import org.example.diploma.repository.ExerciseRepository;
+import org.example.diploma.repository.WordRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@Transactional
+class ExerciseServiceTests {
+
+    @Autowired
+    private TestData testData;
+    @Autowired
+    private ExerciseService exerciseService;
+    @Autowired
+    private WordRepository wordRepository;
+    @Autowired
+    private ExerciseRepository exerciseRepository;
+    @Autowired
+    private AttemptRepository attemptRepository;
+    @Autowired
+    private ModuleService moduleService;
+    @Autowired
+    private StudentService studentService;
+    @Autowired
+    private AttemptArchiveService archiveService;
+    @Autowired
+    private AttemptStatsRollupService rollupService;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private EntityManager entityManager;
+    @Autowired
+    private QueryBudget queryBudget;
+
+    @Test
+    void regenerationWritesOnlyChangedExercises() {
+        User teacher = testData.user("teacher-sync", "TEACHER");
+        Module module = testData.module(teacher, "Sync");
+
+        List<Word> words = List.of(testData.word(module, "cat", "кошка"), testData.word(module, "dog", "собака"),
+                testData.word(module, "bird", "птица"), testData.word(module, "fish", "рыба"),
+                testData.word(module, "frog", "лягушка"));
+
+        ExerciseSyncResultDTO first = exerciseService.generateExercisesForModule(module);
+        assertThat(first.getCreated()).isEqualTo(5);
+        assertThat(first.getChanged()).isEqualTo(5);
+
+        ExerciseSyncResultDTO unchanged = exerciseService.generateExercisesForModule(module);
+        assertThat(unchanged.getChanged()).isZero();
+
+        Word removed = words.get(1);
+        long referencing = exerciseRepository.findByModuleId(module.getId()).stream()
+                .filter(exercise -> !exercise.getSourceWordId().equals(removed.getId()))
+                .filter(exercise -> distractorIds(exercise).contains(removed.getId()))
+                .count();
+        wordRepository.delete(removed);
+        Word added = testData.word(module, "horse", "лошадь");
+
+        ExerciseSyncResultDTO second = exerciseService.generateExercisesForModule(module);
+        // упражнения записываются через JDBC - сбросить сущности, прочитанные до синхронизации
+        entityManager.clear();
+        assertThat(second.getCreated()).isEqualTo(1);
+        assertThat(second.getRemoved()).isEqualTo(1);
+        assertThat(second.getRefreshed()).isEqualTo((int) referencing);
+
+        List<Exercise> exercises = exerciseRepository.findByModuleId(module.getId());
+        assertThat(exercises).extracting(Exercise::getSourceWordId)
+                .containsExactlyInAnyOrder(words.get(0).getId(), words.get(2).getId(), words.get(3).getId(),
+                        words.get(4).getId(), added.getId());
+        assertThat(exercises).allSatisfy(exercise -> {
+            assertThat(distractorIds(exercise)).hasSize(3).doesNotContain(removed.getId(), exercise.getSourceWordId());
+            assertThat(List.of(exercise.getOption1(), exercise.getOption2(), exercise.getOption3(), exercise.getOption4()))
+                    .contains(exercise.getCorrectAnswer()).doesNotContain("собака", "dog");
+        });
+    }
+
+    @Test
+    void deletingExercisesRemovesTheirAttemptsAndRebuildsStats() {
+        User teacher = testData.user("teacher-delete", "TEACHER");
+        User student = testData.user("student-delete", "STUDENT");
+        Module removed = module(teacher, "Removed", "cat", "dog", "bird", "fish");
+        Module kept = module(teacher, "Kept", "red", "blue", "green", "black");
+        List<Exercise> removedExercises = exerciseRepository.findByModuleId(removed.getId());
+        Exercise keptExercise = exerciseRepository.findByModuleId(kept.getId()).get(0);
+
+        // первая попытка старше горизонта хранения - попадает в архив и итоги attempt_summaries
+        studentService.saveAttempt(student, removedExercises.get(0), "x", 3);
+        jdbcTemplate.update("UPDATE attempts SET attempt_time = ? WHERE exercise_id = ?",
+                Timestamp.valueOf(LocalDateTime.now().minusYears(3)), removedExercises.get(0).getId());
+        assertThat(archiveService.archive(LocalDate.now())).isEqualTo(1);
+        studentService.saveAttempt(student, removedExercises.get(1), removedExercises.get(1).getCorrectAnswer(), 4);
+        studentService.saveAttempt(student, removedExercises.get(1), "x", 4);
+        studentService.saveAttempt(student, keptExercise, keptExercise.getCorrectAnswer(), 5);
+        assertThat(studentService.getAttemptSummary(student.getId()).getTotalAttempts()).isEqualTo(4);
+
+        exerciseService.deleteExercise(removedExercises.get(1).getId());
+        // сводные строки пересобираются через JDBC - сбросить прочитанные сущности
+        entityManager.clear();
+        assertThat(count("attempts WHERE exercise_id = ?", removedExercises.get(1).getId())).isZero();
+        assertThat(rollupService.verify()).isEmpty();
+        assertThat(studentService.getAttemptSummary(student.getId()).getTotalAttempts()).isEqualTo(2);
+
+        moduleService.deleteModule(removed.getId());
+        entityManager.clear();
+        assertThat(count("attempts_archive WHERE exercise_id = ?", removedExercises.get(0).getId())).isZero();
+        assertThat(count("attempt_summaries WHERE exercise_id = ?", removedExercises.get(0).getId())).isZero();
+        assertThat(count("student_module_stats WHERE module_id = ?", removed.getId())).isZero();
+        assertThat(rollupService.verify()).isEmpty();
+        assertThat(studentService.getAttemptSummary(student.getId()).getTotalAttempts()).isEqualTo(1);
+        assertThat(studentService.getAttemptSummary(student.getId()).getDistinctModules()).isEqualTo(1);
+    }
+
+    @Test
+    void exercisesWithAttemptsAreRetiredInsteadOfDeleted() {
+        User teacher = testData.user("teacher-retire", "TEACHER");
+        User student = testData.user("student-retire", "STUDENT");
+        Module module = module(teacher, "Retire", "cat", "dog", "bird", "fish", "frog");
+        Word removed = wordRepository.findByModuleId(module.getId()).get(0);
+        Exercise answered = exerciseRepository.findByModuleId(module.getId()).stream()
+                .filter(exercise -> exercise.getSourceWordId().equals(removed.getId()))
+                .findFirst().orElseThrow();
+        studentService.saveAttempt(student, answered, answered.getCorrectAnswer(), 4);
+        assertThat(exerciseService.getExerciseSnapshots(module.getId())).hasSize(5);
+
+        wordRepository.delete(removed);
+        ExerciseSyncResultDTO result = exerciseService.generateExercisesForModule(module);
+        entityManager.clear();
+
+        assertThat(result.getRetired()).isEqualTo(1);
+        assertThat(result.getRemoved()).isZero();
+        assertThat(exerciseRepository.findById(answered.getId())).get().extracting(Exercise::isRetired).isEqualTo(true);
+        assertThat(exerciseRepository.findByModuleId(module.getId())).hasSize(4)
+                .extracting(Exercise::getId).doesNotContain(answered.getId());
+        assertThat(exerciseService.getExerciseSnapshots(module.getId())).hasSize(4)
+                .extracting(ExerciseSnapshotDTO::getId).doesNotContain(answered.getId());
+        assertThat(exerciseService.getExerciseSnapshot(answered.getId())).isEmpty();
+
+        // история попыток остается, но выведенное упражнение не входит в прогресс модуля
+        assertThat(count("attempts WHERE exercise_id = ?", answered.getId())).isEqualTo(1);
+        ModuleExerciseProgressDTO progress = attemptRepository
+                .findModuleProgressByStudent(student.getId(), List.of(module.getId())).get(0);
+        assertThat(progress.getTotalExercises()).isEqualTo(4L);
+        assertThat(progress.getSolvedExercises()).isEqualTo(0L);
+
+        assertThat(exerciseService.generateExercisesForModule(module).getChanged()).isZero();
+    }
+
+    @Test
+    void practiceAfterFirstQuestionReadsExercisesFromCache() {
+        User teacher = testData.user("teacher-cache", "TEACHER");
+        Module module = module(teacher, "Cache", "cat", "dog", "bird", "fish");
+
+        // первый вопрос загружает модуль в кэш
+        List<ExerciseSnapshotDTO> exercises = exerciseService.getExerciseSnapshots(module.getId());
+
+        QueryBudget.Scope scope = queryBudget.open("practice " + module.getId());
+        try (scope) {
+            for (ExerciseSnapshotDTO exercise : exercises) {
+                assertThat(exerciseService.getExerciseSnapshots(module.getId())).hasSize(4);
+                assertThat(exerciseService.getExerciseSnapshot(exercise.getId())).contains(exercise);
+            }
+        }
+        assertThat(scope.getCounts().getStatements()).isZero();
+    }
+
+    private Module module(User teacher, String title, String... english) {
+        Module module = testData.module(teacher, title);
+        for (String text : english) {
+            testData.word(module, text, text + "-ru");
+        }
+        exerciseService.generateExercisesForModule(module);
+        return module;
+    }
+
+    private long count(String from, Long id) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + from, Long.class, id);
+    }
+
+    private static List<Long> distractorIds(Exercise exercise) {
+        return Arrays.stream(exercise.getDistractorWordIds().split(",")).map(Long::valueOf).toList();
+    }
+}
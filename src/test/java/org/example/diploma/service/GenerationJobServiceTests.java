@@ -0,0 +1,64 @@
+package org.example.diploma.service;
+
+import org.example.diploma.TestData;
+import org.example.diploma.dto.GenerationJobDTO;
+import org.example.diploma.model.Module;
+import org.example.diploma.model.User;
+import org.example.diploma.model.Word;
+import org.example.diploma.repository.ExerciseRepository;
+import org.example.diploma.repository.WordRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// без @Transactional: задача выполняется в отдельном потоке и должна видеть зафиксированные данные
+@SpringBootTest
+class GenerationJobServiceTests {
+
+    @Autowired
+    private TestData testData;
+    @Autowired
+    private GenerationJobService generationJobService;
+    @Autowired
+    private WordRepository wordRepository;
+    @Autowired
+    private ExerciseRepository exerciseRepository;
+
+    @Test
+    void concurrentSubmitsShareOneJobAndGenerateOnce() throws Exception {
+        User teacher = testData.user("teacher-jobs", "TEACHER");
+        Module module = testData.module(teacher, "Jobs");
+
+        // слова сохраняются одним пакетом, а не по одному через TestData
+        List<Word> words = new ArrayList<>();
+        for (int i = 0; i < 1200; i++) {
+            Word word = new Word();
+            word.setEnglish("en-" + i);
+            word.setRussian("ru-" + i);
+            word.setModule(module);
+            words.add(word);
+        }
+        wordRepository.saveAll(words);
+
+        GenerationJobDTO first = generationJobService.submit(module.getId(), teacher.getId());
+        GenerationJobDTO second = generationJobService.submit(module.getId(), teacher.getId());
+        assertThat(second.getJobId()).isEqualTo(first.getJobId());
+
+        GenerationJobDTO job = first;
+        for (int i = 0; i < 200 && !job.getStatus().equals("COMPLETED") && !job.getStatus().equals("FAILED"); i++) {
+            Thread.sleep(50);
+            job = generationJobService.getJob(first.getJobId(), teacher.getId()).orElseThrow();
+        }
+
+        assertThat(job.getStatus()).isEqualTo("COMPLETED");
+        assertThat(job.getPercent()).isEqualTo(100);
+        assertThat(job.getDone()).isEqualTo(1200);
+        assertThat(exerciseRepository.findByModuleId(module.getId())).hasSize(1200);
+        assertThat(generationJobService.getJob(first.getJobId(), teacher.getId() + 1)).isEmpty();
+    }
+}
@@ -0,0 +1,106 @@
+package org.example.diploma.service;
+
+import org.example.diploma.TestData;
+import org.example.diploma.dto.GroupStatsReportDTO;
+import org.example.diploma.dto.ModuleGroupStatsDTO;
+import org.example.diploma.dto.StudentStatsDTO;
+import org.example.diploma.model.Exercise;
+import org.example.diploma.model.Group;
+import org.example.diploma.model.Module;
+import org.example.diploma.model.User;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@Transactional
+class GroupStatsServiceTests {
+
+    @Autowired
+    private TestData testData;
+    @Autowired
+    private GroupStatsService groupStatsService;
+    @Autowired
+    private StatsService statsService;
+    @Autowired
+    private StudentService studentService;
+
+    @Test
+    void reportCombinesGroupStudentAndModuleTotals() {
+        User teacher = testData.user("teacher-report", "TEACHER");
+        Module animals = testData.module(teacher, "Animals");
+        Module colors = testData.module(teacher, "Colors");
+        Exercise cat = testData.exercise(animals, "cat");
+        Exercise dog = testData.exercise(animals, "dog");
+        Exercise red = testData.exercise(colors, "red");
+
+        Group group = testData.group(teacher, "report");
+        Group other = testData.group(teacher, "other");
+        User anna = testData.user("anna-s", "STUDENT", group);
+        User boris = testData.user("boris-s", "STUDENT", group);
+        testData.user("clara-s", "STUDENT", group);
+        User outsider = testData.user("outsider", "STUDENT", other);
+
+        studentService.saveAttempt(anna, cat, "cat", 4);
+        studentService.saveAttempt(anna, dog, "a", 6);
+        studentService.saveAttempt(anna, red, "red", null);   // время неизвестно
+        studentService.saveAttempt(boris, cat, "cat", 2);
+        studentService.saveAttempt(outsider, cat, "cat", 100);
+
+        GroupStatsReportDTO report = groupStatsService.getGroupReport(group.getId());
+
+        assertThat(report.getStudentCount()).isEqualTo(3);
+        assertThat(report.getActiveStudents()).isEqualTo(2);
+        assertThat(report.getTotalAttempts()).isEqualTo(4);
+        assertThat(report.getCorrectAttempts()).isEqualTo(3);
+        assertThat(report.getSuccessRate()).isEqualTo(75.0);
+        assertThat(report.getAverageTimeSpentSeconds()).isEqualTo(4.0);
+
+        // итоги совпадают со сводной таблицей студентов
+        List<StudentStatsDTO> rollup = statsService.getStudentStatsByGroup(group.getId());
+        assertThat(report.getTotalAttempts()).isEqualTo(rollup.stream().mapToLong(StudentStatsDTO::getTotalAttempts).sum());
+        assertThat(report.getCorrectAttempts()).isEqualTo(rollup.stream().mapToLong(StudentStatsDTO::getCorrectAttempts).sum());
+
+        assertThat(report.getStudents()).extracting(StudentStatsDTO::getStudentName)
+                .containsExactly("anna-s", "boris-s", "clara-s");
+        StudentStatsDTO annaStats = report.getStudents().get(0);
+        assertThat(annaStats.getTotalAttempts()).isEqualTo(3L);
+        assertThat(annaStats.getCorrectAttempts()).isEqualTo(2L);
+        assertThat(annaStats.getSuccessRate()).isEqualTo(67.0);
+        assertThat(annaStats.getTotalModules()).isEqualTo(2L);
+        assertThat(annaStats.getAverageTimeSpentSeconds()).isEqualTo(5.0);
+        assertThat(annaStats.getLastActivity()).isNotNull();
+        StudentStatsDTO claraStats = report.getStudents().get(2);
+        assertThat(claraStats.getTotalAttempts()).isZero();
+        assertThat(claraStats.getAverageTimeSpentSeconds()).isNull();
+        assertThat(claraStats.getLastActivity()).isNull();
+
+        assertThat(report.getModules()).extracting(ModuleGroupStatsDTO::getTitle).containsExactly("Animals", "Colors");
+        ModuleGroupStatsDTO animalStats = report.getModules().get(0);
+        assertThat(animalStats.getStudentsAttempted()).isEqualTo(2);
+        assertThat(animalStats.getTotalAttempts()).isEqualTo(3);
+        assertThat(animalStats.getCorrectAttempts()).isEqualTo(2);
+        assertThat(animalStats.getAverageTimeSpentSeconds()).isEqualTo(4.0);
+        ModuleGroupStatsDTO colorStats = report.getModules().get(1);
+        assertThat(colorStats.getSuccessRate()).isEqualTo(100.0);
+        assertThat(colorStats.getAverageTimeSpentSeconds()).isNull();
+    }
+
+    @Test
+    void emptyGroupGivesEmptyReport() {
+        Group group = testData.group(testData.user("teacher-empty", "TEACHER"), "empty");
+
+        GroupStatsReportDTO report = groupStatsService.getGroupReport(group.getId());
+
+        assertThat(report.getStudentCount()).isZero();
+        assertThat(report.getStudents()).isEmpty();
+        assertThat(report.getModules()).isEmpty();
+        assertThat(report.getSuccessRate()).isZero();
+        assertThat(report.getAverageTimeSpentSeconds()).isNull();
+    }
+}
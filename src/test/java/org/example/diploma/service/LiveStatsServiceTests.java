@@ -0,0 +1,128 @@
+package org.example.diploma.service;
+
+import org.example.diploma.TestData;
+import org.example.diploma.model.Attempt;
+import org.example.diploma.model.Group;
+import org.example.diploma.model.User;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@Transactional
+class LiveStatsServiceTests {
+
+    @Autowired
+    private TestData testData;
+    @Autowired
+    private LiveStatsService liveStatsService;
+    @Autowired
+    private NamedParameterJdbcTemplate jdbcTemplate;
+
+    @Test
+    void deltasAreCoalescedPerGroupWindow() {
+        User teacher = testData.user("teacher-live", "TEACHER");
+        Group watched = testData.group(teacher, "watched");
+        Group other = testData.group(teacher, "other");
+        User first = testData.user("student-live-1", "STUDENT", watched);
+        User second = testData.user("student-live-2", "STUDENT", watched);
+        User outsider = testData.user("student-live-3", "STUDENT", other);
+
+        // пока никто не подписан, пакеты не накапливаются
+        liveStatsService.onAttemptsRecorded(new AttemptsRecordedEvent(List.of(attempt(first, true))));
+        assertThat(liveStatsService.publish()).isZero();
+
+        long snapshot = liveStatsService.getSnapshotVersion();
+        SseEmitter teacherA = liveStatsService.subscribe(watched.getId(), snapshot);
+        SseEmitter teacherB = liveStatsService.subscribe(watched.getId(), snapshot);
+        try {
+            liveStatsService.onAttemptsRecorded(new AttemptsRecordedEvent(List.of(
+                    attempt(first, true), attempt(second, false))));
+            liveStatsService.onAttemptsRecorded(new AttemptsRecordedEvent(List.of(
+                    attempt(first, false), attempt(outsider, true))));
+
+            // два пакета за окно - одно сообщение на каждое подключение, группа без подписчиков пропускается
+            assertThat(liveStatsService.publish()).isEqualTo(2);
+            assertThat(liveStatsService.publish()).isZero();
+        } finally {
+            teacherA.complete();
+            teacherB.complete();
+        }
+    }
+
+    @Test
+    void batchesAlreadyInSnapshotAreNotSent() {
+        User teacher = testData.user("teacher-live-snapshot", "TEACHER");
+        Group watched = testData.group(teacher, "watched-snapshot");
+        User student = testData.user("student-live-snapshot", "STUDENT", watched);
+
+        SseEmitter open = liveStatsService.subscribe(watched.getId(), liveStatsService.getSnapshotVersion());
+        try {
+            // пакет до снимка второй страницы: первой странице он нужен, второй - уже учтен в снимке
+            liveStatsService.onAttemptsRecorded(new AttemptsRecordedEvent(List.of(attempt(student, true))));
+            SseEmitter reloaded = liveStatsService.subscribe(watched.getId(), liveStatsService.getSnapshotVersion());
+            try {
+                assertThat(liveStatsService.publish()).isEqualTo(1);
+
+                liveStatsService.onAttemptsRecorded(new AttemptsRecordedEvent(List.of(attempt(student, false))));
+                assertThat(liveStatsService.publish()).isEqualTo(2);
+            } finally {
+                reloaded.complete();
+            }
+        } finally {
+            open.complete();
+        }
+    }
+
+    @Test
+    void slowSubscriberIsDropped() throws Exception {
+        User teacher = testData.user("teacher-live-slow", "TEACHER");
+        Group watched = testData.group(teacher, "watched-slow");
+        User student = testData.user("student-live-slow", "STUDENT", watched);
+
+        // единственный поток отправки занят: сообщения копятся в очереди подключения (не больше двух)
+        ExecutorService sender = Executors.newSingleThreadExecutor();
+        CountDownLatch stuck = new CountDownLatch(1);
+        sender.execute(() -> {
+            try {
+                stuck.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        LiveStatsService service = new LiveStatsService(jdbcTemplate, 3_600_000, 60_000, 2, sender);
+        try {
+            service.subscribe(watched.getId(), service.getSnapshotVersion());
+            for (int window = 0; window < 2; window++) {
+                service.onAttemptsRecorded(new AttemptsRecordedEvent(List.of(attempt(student, true))));
+                assertThat(service.publish()).isEqualTo(1);
+            }
+
+            service.onAttemptsRecorded(new AttemptsRecordedEvent(List.of(attempt(student, true))));
+            assertThat(service.publish()).isZero();
+            assertThat(service.getSubscriberCount()).isZero();
+        } finally {
+            stuck.countDown();
+            service.shutdown();
+        }
+    }
+
+    private Attempt attempt(User user, boolean correct) {
+        Attempt attempt = new Attempt();
+        attempt.setUser(user);
+        attempt.setCorrect(correct);
+        attempt.setAttemptTime(LocalDateTime.now());
+        return attempt;
+    }
+}
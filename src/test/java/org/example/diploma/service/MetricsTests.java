@@ -0,0 +1,88 @@
+package org.example.diploma.service;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.example.diploma.TestData;
+import org.example.diploma.config.QueryBudget;
+import org.example.diploma.config.QueryMetricsFilter;
+import org.example.diploma.model.Group;
+import org.example.diploma.model.User;
+import org.example.diploma.repository.AttemptRepository;
+import org.example.diploma.repository.GroupRepository;
+import org.example.diploma.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.servlet.HandlerMapping;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@Transactional
+class MetricsTests {
+
+    @Autowired
+    private TestData testData;
+    @Autowired
+    private MeterRegistry meterRegistry;
+    @Autowired
+    private QueryBudget queryBudget;
+    @Autowired
+    private StatsService statsService;
+    @Autowired
+    private AttemptRepository attemptRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private GroupRepository groupRepository;
+
+    @Test
+    void serviceAndRepositoryCallsAreTimed() {
+        User teacher = testData.user("teacher-metrics", "TEACHER");
+        Group group = testData.group(teacher, "metrics");
+
+        long serviceCalls = timerCount(meterRegistry.find("app.service")
+                .tag("class", StatsService.class.getName()).tag("method", "getStudentStatsByGroup").timer());
+        long repositoryCalls = timerCount(meterRegistry.find("spring.data.repository.invocations")
+                .tag("repository", "AttemptRepository").tag("method", "count").timer());
+
+        statsService.getStudentStatsByGroup(group.getId());
+        attemptRepository.count();
+
+        assertThat(timerCount(meterRegistry.find("app.service")
+                .tag("class", StatsService.class.getName()).tag("method", "getStudentStatsByGroup")
+                .tag("exception", "none").timer())).isEqualTo(serviceCalls + 1);
+        assertThat(timerCount(meterRegistry.find("spring.data.repository.invocations")
+                .tag("repository", "AttemptRepository").tag("method", "count").tag("state", "SUCCESS")
+                .timer())).isEqualTo(repositoryCalls + 1);
+    }
+
+    @Test
+    void filterRecordsHibernateStatementsPerRequest() throws Exception {
+        QueryMetricsFilter filter = new QueryMetricsFilter(meterRegistry, queryBudget);
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/metrics-test/1");
+        request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/metrics-test/{id}");
+
+        filter.doFilter(request, new MockHttpServletResponse(), (req, res) -> {
+            userRepository.findAll();
+            groupRepository.findAll();
+        });
+
+        DistributionSummary statements = meterRegistry.find("hibernate.queries.per.request")
+                .tag("uri", "/metrics-test/{id}").tag("method", "GET").tag("outcome", "SUCCESSFUL")
+                .summary();
+        assertThat(statements).isNotNull();
+        assertThat(statements.count()).isEqualTo(1);
+        assertThat(statements.totalAmount()).isEqualTo(2.0);
+        assertThat(meterRegistry.find("hibernate.query.time.per.request")
+                .tag("uri", "/metrics-test/{id}").timer()).isNotNull();
+    }
+
+    private static long timerCount(Timer timer) {
+        return timer == null ? 0 : timer.count();
+    }
+}
@@ -0,0 +1,128 @@
+package org.example.diploma.service;
+
+import jakarta.persistence.EntityManager;
+import org.example.diploma.TestData;
+import org.example.diploma.model.Group;
+import org.example.diploma.model.Module;
+import org.example.diploma.model.User;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// ModuleAccessIndexTests - индекс назначенных модулей
+// примечание: тесты транзакционные, назначения Hibernate пишет в group_modules только при сбросе сессии,
+// поэтому множество группы загружается в индекс до изменений - дальше его поддерживают только хуки сервисов
+@SpringBootTest
+@Transactional
+class ModuleAccessIndexTests {
+
+    @Autowired
+    private TestData testData;
+    @Autowired
+    private ModuleAccessIndex moduleAccessIndex;
+    @Autowired
+    private GroupService groupService;
+    @Autowired
+    private ModuleService moduleService;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private EntityManager entityManager;
+
+    @Test
+    void assignmentHooksUpdateCachedGroup() {
+        User teacher = testData.user("index-teacher", "TEACHER");
+        Group group = testData.group(teacher, "index-group");
+        Module animals = testData.module(teacher, "Animals");
+        Module colors = testData.module(teacher, "Colors");
+        assertThat(moduleAccessIndex.canAccess(group.getId(), animals.getId())).isFalse();
+
+        groupService.assignModuleToGroup(group.getId(), animals);
+        assertThat(moduleAccessIndex.canAccess(group.getId(), animals.getId())).isTrue();
+
+        // строка в обход сервиса не видна: множество группы уже в памяти
+        jdbcTemplate.update("INSERT INTO group_modules (group_id, module_id) VALUES (?, ?)", group.getId(), colors.getId());
+        assertThat(moduleAccessIndex.canAccess(group.getId(), colors.getId())).isFalse();
+        jdbcTemplate.update("DELETE FROM group_modules WHERE module_id = ?", colors.getId());
+
+        groupService.assignModuleToGroup(group.getId(), colors);
+        assertThat(moduleAccessIndex.getModuleIds(group.getId())).containsExactlyInAnyOrder(animals.getId(), colors.getId());
+
+        groupService.removeModuleFromGroup(group.getId(), animals.getId());
+        assertThat(moduleAccessIndex.canAccess(group.getId(), animals.getId())).isFalse();
+        assertThat(moduleAccessIndex.canAccess(group.getId(), colors.getId())).isTrue();
+    }
+
+    @Test
+    void deletedModuleLeavesEveryGroup() {
+        User teacher = testData.user("index-module-owner", "TEACHER");
+        Group first = testData.group(teacher, "index-first");
+        Group second = testData.group(teacher, "index-second");
+        Module shared = testData.module(teacher, "Shared");
+        Module kept = testData.module(teacher, "Kept");
+        assertThat(moduleAccessIndex.getModuleIds(first.getId())).isEmpty();
+        assertThat(moduleAccessIndex.getModuleIds(second.getId())).isEmpty();
+        groupService.assignModuleToGroup(first.getId(), shared);
+        groupService.assignModuleToGroup(first.getId(), kept);
+        groupService.assignModuleToGroup(second.getId(), shared);
+        assertThat(moduleAccessIndex.canAccess(first.getId(), shared.getId())).isTrue();
+        assertThat(moduleAccessIndex.canAccess(second.getId(), shared.getId())).isTrue();
+        // назначения записываются в group_modules: удаление модуля должно снять их до внешнего ключа
+        entityManager.flush();
+        entityManager.clear();
+
+        moduleService.deleteModule(shared.getId());
+        entityManager.flush();
+
+        assertThat(moduleAccessIndex.getModuleIds(first.getId())).containsExactly(kept.getId());
+        assertThat(moduleAccessIndex.getModuleIds(second.getId())).isEmpty();
+        assertThat(jdbcTemplate.queryForList("SELECT module_id FROM group_modules WHERE group_id = ?", Long.class,
+                first.getId())).containsExactly(kept.getId());
+    }
+
+    @Test
+    void deletedGroupIsDroppedFromIndex() {
+        User teacher = testData.user("index-group-owner", "TEACHER");
+        Group group = testData.group(teacher, "index-deleted");
+        Module module = testData.module(teacher, "Deleted group module");
+        assertThat(moduleAccessIndex.canAccess(group.getId(), module.getId())).isFalse();
+        groupService.assignModuleToGroup(group.getId(), module);
+        assertThat(moduleAccessIndex.canAccess(group.getId(), module.getId())).isTrue();
+
+        groupService.deleteGroup(group.getId());
+
+        assertThat(moduleAccessIndex.canAccess(group.getId(), module.getId())).isFalse();
+    }
+
+    @Test
+    void coldLoadRacingWithAssignmentIsNotCached() {
+        List<Long> loads = new ArrayList<>();
+        ModuleAccessIndex[] index = new ModuleAccessIndex[1];
+        // загрузка читает group_modules, пока другой запрос назначает группе модуль 2
+        index[0] = new ModuleAccessIndex(new JdbcTemplate() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public <T> List<T> queryForList(String sql, Class<T> elementType, Object... args) {
+                loads.add((Long) args[0]);
+                if (loads.size() == 1) {
+                    index[0].onModuleAssigned(1L, 2L);
+                    return (List<T>) List.of(1L);
+                }
+                return (List<T>) List.of(1L, 2L);
+            }
+        });
+
+        // устаревший результат отдается вызывающему, но не кэшируется
+        assertThat(index[0].getModuleIds(1L)).containsExactly(1L);
+        assertThat(index[0].canAccess(1L, 2L)).isTrue();
+        assertThat(index[0].canAccess(1L, 2L)).isTrue();
+        assertThat(loads).containsExactly(1L, 1L);
+    }
+}
@@ -0,0 +1,63 @@
+package org.example.diploma.service;
+
+import org.example.diploma.model.Exercise;
+import org.example.diploma.model.Module;
+import org.example.diploma.model.Word;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.SplittableRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class MultipleChoiceGeneratorTests {
+
+    @Test
+    void everyExerciseHasCorrectAnswerAndThreeDistinctDistractors() {
+        List<Word> words = words(50);
+        List<Exercise> exercises = new MultipleChoiceGenerator(new SplittableRandom(7)).generate(new Module(), words);
+
+        assertThat(exercises).hasSize(words.size());
+        for (int i = 0; i < exercises.size(); i++) {
+            Exercise exercise = exercises.get(i);
+            Word word = words.get(i);
+            Set<String> options = new HashSet<>(List.of(
+                    exercise.getOption1(), exercise.getOption2(), exercise.getOption3(), exercise.getOption4()));
+
+            assertThat(options).hasSize(4).contains(exercise.getCorrectAnswer());
+            assertThat(exercise.getCorrectAnswer()).isIn(word.getEnglish(), word.getRussian());
+            assertThat(exercise.getQuestion()).containsAnyOf(word.getEnglish(), word.getRussian());
+        }
+    }
+
+    @Test
+    void sameSeedGivesSameExercises() {
+        List<Word> words = words(20);
+        List<Exercise> first = new MultipleChoiceGenerator(new SplittableRandom(42)).generate(new Module(), words);
+        List<Exercise> second = new MultipleChoiceGenerator(new SplittableRandom(42)).generate(new Module(), words);
+
+        assertThat(first).usingRecursiveFieldByFieldElementComparator().isEqualTo(second);
+    }
+
+    @Test
+    void modulesWithFewerThanFourWordsAreRejected() {
+        assertThatThrownBy(() -> new MultipleChoiceGenerator(new SplittableRandom()).generate(new Module(), words(3)))
+                .hasMessageContaining("at least 4 words");
+    }
+
+    private List<Word> words(int count) {
+        List<Word> words = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Word word = new Word();
+            word.setId((long) i);
+            word.setEnglish("en-" + i);
+            word.setRussian("ru-" + i);
+            words.add(word);
+        }
+        return words;
+    }
+}
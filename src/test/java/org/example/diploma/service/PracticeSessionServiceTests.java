@@ -0,0 +1,181 @@
+package org.example.diploma.service;
+
+import org.example.diploma.TestData;
+import org.example.diploma.dto.PracticeAnswerDTO;
+import org.example.diploma.dto.PracticeBatchDTO;
+import org.example.diploma.dto.PracticeQuestionDTO;
+import org.example.diploma.dto.PracticeResultDTO;
+import org.example.diploma.dto.PracticeSession;
+import org.example.diploma.dto.UserSnapshotDTO;
+import org.example.diploma.model.Exercise;
+import org.example.diploma.model.Group;
+import org.example.diploma.model.Module;
+import org.example.diploma.model.User;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockHttpSession;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@Transactional
+class PracticeSessionServiceTests {
+
+    @Autowired
+    private TestData testData;
+    @Autowired
+    private PracticeSessionService practiceSessionService;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void batchesCoverModuleAndGradeAnswers() {
+        User teacher = testData.user("teacher-batch", "TEACHER");
+        Module module = testData.module(teacher, "Batches");
+        Module foreign = testData.module(teacher, "Foreign");
+        for (String answer : List.of("one", "two", "three", "four", "five")) {
+            testData.exercise(module, answer);
+        }
+        Exercise hidden = testData.exercise(foreign, "hidden");
+
+        Group group = testData.group(teacher, "batch", module);
+        UserSnapshotDTO student = UserSnapshotDTO.from(testData.user("student-batch", "STUDENT", group));
+        MockHttpSession session = new MockHttpSession();
+
+        List<PracticeQuestionDTO> questions = new ArrayList<>();
+        List<Integer> batchSizes = new ArrayList<>();
+        Integer offset = 0;
+        while (offset != null) {
+            PracticeBatchDTO batch = practiceSessionService.getBatch(session, module.getId(), offset, 2);
+            assertThat(batch.getTotal()).isEqualTo(5);
+            batchSizes.add(batch.getQuestions().size());
+            questions.addAll(batch.getQuestions());
+            offset = batch.getNextOffset();
+        }
+        assertThat(batchSizes).containsExactly(2, 2, 1);
+        assertThat(questions).extracting(PracticeQuestionDTO::getId).doesNotHaveDuplicates().hasSize(5);
+
+        // правильный ответ - вариант с текстом вопроса; первый ответ неверный
+        List<PracticeAnswerDTO> answers = new ArrayList<>();
+        for (int i = 0; i < questions.size(); i++) {
+            PracticeQuestionDTO question = questions.get(i);
+            String correct = question.getQuestion().substring("Translate ".length());
+            answers.add(answer(question.getId(), i == 0 ? "a" : correct));
+        }
+
+        List<PracticeResultDTO> results = practiceSessionService.submitAnswers(session, student, answers).orElseThrow();
+        assertThat(results).extracting(PracticeResultDTO::getExerciseId)
+                .containsExactlyElementsOf(questions.stream().map(PracticeQuestionDTO::getId).toList());
+        assertThat(results).extracting(PracticeResultDTO::isCorrect).containsExactly(false, true, true, true, true);
+        assertThat(countAttempts(student.getId())).isEqualTo(5);
+        // время измерено сервером от выдачи вопросов (тест отвечает сразу)
+        assertThat(timeSpent(student.getId())).hasSize(5).containsOnly(0);
+
+        // упражнение модуля, не назначенного группе: пакет отклоняется целиком
+        Optional<List<PracticeResultDTO>> denied = practiceSessionService.submitAnswers(session, student,
+                List.of(answer(questions.get(0).getId(), "one"), answer(hidden.getId(), "hidden")));
+        assertThat(denied).isEmpty();
+        assertThat(countAttempts(student.getId())).isEqualTo(5);
+
+        // повторный ответ на уже измеренный вопрос записывается без времени
+        practiceSessionService.submitAnswers(session, student, List.of(answer(questions.get(1).getId(), "x"))).orElseThrow();
+        assertThat(timeSpent(student.getId())).hasSize(6).containsNull();
+    }
+
+    @Test
+    void batchAnswerTimeIsMeasuredFromServedQuestionsAndCapped() {
+        User teacher = testData.user("teacher-timing", "TEACHER");
+        Module module = testData.module(teacher, "Timing");
+        Exercise first = testData.exercise(module, "first");
+        Exercise second = testData.exercise(module, "second");
+
+        Group group = testData.group(teacher, "timing", module);
+        UserSnapshotDTO student = UserSnapshotDTO.from(testData.user("student-timing", "STUDENT", group));
+        MockHttpSession session = new MockHttpSession();
+
+        practiceSessionService.getBatch(session, module.getId(), 0, 2);
+        // вопросы выданы час назад: окно делится между двумя ответами и ограничивается сверху
+        @SuppressWarnings("unchecked")
+        Map<Long, Long> served = (Map<Long, Long>) session.getAttribute(PracticeSessionService.BATCH_SERVED_ATTRIBUTE);
+        served.replaceAll((id, at) -> at - 3_600_000);
+
+        practiceSessionService.submitAnswers(session, student,
+                List.of(answer(first.getId(), "first"), answer(second.getId(), "second"))).orElseThrow();
+        assertThat(timeSpent(student.getId())).containsOnly(PracticeSessionService.MAX_TIME_SPENT_SECONDS);
+    }
+
+    @Test
+    void sessionStateWalksModuleAndMeasuresAnswerTime() {
+        User teacher = testData.user("teacher-state", "TEACHER");
+        Module module = testData.module(teacher, "State");
+        Module foreign = testData.module(teacher, "Closed");
+        Exercise first = testData.exercise(module, "first");
+        Exercise second = testData.exercise(module, "second");
+
+        Group group = testData.group(teacher, "state", module);
+        UserSnapshotDTO student = UserSnapshotDTO.from(testData.user("student-state", "STUDENT", group));
+        MockHttpSession session = new MockHttpSession();
+
+        assertThat(practiceSessionService.openPractice(session, student, foreign.getId())).isEmpty();
+
+        PracticeSession practice = practiceSessionService.openPractice(session, student, module.getId()).orElseThrow();
+        assertThat(practice.getTotal()).isEqualTo(2);
+        assertThat(practice.getModuleTitle()).isEqualTo("State");
+        assertThat(practiceSessionService.showCurrent(session, practice).orElseThrow().getId()).isEqualTo(first.getId());
+
+        // ответ на вопрос, который не показывался, не измеряется и не двигает практику
+        assertThat(practiceSessionService.takeAnswerTime(session, second.getId())).isNull();
+        assertThat(practiceSessionService.takeAnswerTime(session, first.getId())).isBetween(0, 1);
+        assertThat(practiceSessionService.takeAnswerTime(session, first.getId())).isNull();
+
+        // та же практика продолжается со следующего упражнения
+        PracticeSession resumed = practiceSessionService.openPractice(session, student, module.getId()).orElseThrow();
+        assertThat(resumed).isSameAs(practice);
+        assertThat(practiceSessionService.showCurrent(session, resumed).orElseThrow().getId()).isEqualTo(second.getId());
+        practiceSessionService.takeAnswerTime(session, second.getId());
+        assertThat(practiceSessionService.showCurrent(session, resumed)).isEmpty();
+    }
+
+    @Test
+    void storedPracticeIsNotResumedAfterAccessIsLost() {
+        User teacher = testData.user("teacher-moved", "TEACHER");
+        Module module = testData.module(teacher, "Moved");
+        testData.exercise(module, "first");
+        testData.exercise(module, "second");
+
+        Group group = testData.group(teacher, "moved", module);
+        Group other = testData.group(teacher, "other");
+        User user = testData.user("student-moved", "STUDENT", group);
+        MockHttpSession session = new MockHttpSession();
+
+        practiceSessionService.openPractice(session, UserSnapshotDTO.from(user), module.getId()).orElseThrow();
+
+        // студента перевели в группу без модуля: сохраненная практика не продолжается
+        user.setGroup(other);
+        assertThat(practiceSessionService.openPractice(session, UserSnapshotDTO.from(user), module.getId())).isEmpty();
+        assertThat(session.getAttribute(PracticeSessionService.PRACTICE_ATTRIBUTE)).isNull();
+    }
+
+    private List<Integer> timeSpent(Long userId) {
+        return jdbcTemplate.queryForList("SELECT time_spent_seconds FROM attempts WHERE user_id = ?", Integer.class, userId);
+    }
+
+    private long countAttempts(Long userId) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM attempts WHERE user_id = ?", Long.class, userId);
+    }
+
+    private static PracticeAnswerDTO answer(Long exerciseId, String selected) {
+        PracticeAnswerDTO answer = new PracticeAnswerDTO();
+        answer.setExerciseId(exerciseId);
+        answer.setSelectedAnswer(selected);
+        return answer;
+    }
+}
@@ -0,0 +1,114 @@
+package org.example.diploma.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManager;
+import org.example.diploma.TestData;
+import org.example.diploma.config.QueryBudget;
+import org.example.diploma.model.Group;
+import org.example.diploma.model.User;
+import org.example.diploma.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+@Transactional
+class QueryBudgetTests {
+
+    @Autowired
+    private TestData testData;
+    @Autowired
+    private QueryBudget queryBudget;
+    @Autowired
+    private MeterRegistry meterRegistry;
+    @Autowired
+    private StatsService statsService;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private EntityManager entityManager;
+
+    @Test
+    void repeatedSelectWithDifferentParametersIsReportedAsNPlusOne() {
+        List<Long> studentIds = students("n-plus-one", 12);
+
+        assertThatThrownBy(() -> {
+            try (QueryBudget.Scope ignored = queryBudget.open("students one by one")) {
+                studentIds.forEach(id -> userRepository.findById(id));
+            }
+        }).isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("students one by one")
+                .hasMessageContaining("N+1: 12 x ");
+    }
+
+    @Test
+    void singleQueryForTheSameRowsStaysWithinBudget() {
+        List<Long> studentIds = students("one-query", 12);
+
+        try (QueryBudget.Scope scope = queryBudget.open("students in one query")) {
+            assertThat(userRepository.findAllById(studentIds)).hasSize(12);
+            scope.close();
+            assertThat(scope.getCounts().getStatements()).isEqualTo(1);
+        }
+    }
+
+    @Test
+    void groupStatsDoNotLoadStudentsOneByOne() {
+        List<Long> studentIds = students("stats", 12);
+        Long groupId = userRepository.findById(studentIds.get(0)).orElseThrow().getGroup().getId();
+        entityManager.clear();
+
+        try (QueryBudget.Scope ignored = queryBudget.open("group stats")) {
+            assertThat(statsService.getStudentStatsByGroup(groupId)).hasSize(12);
+        }
+    }
+
+    @Test
+    void budgetViolationIsCountedAndOnlyLoggedOutsideStrictMode() {
+        List<Long> studentIds = students("budget", 3);
+        QueryBudget lenient = new QueryBudget(meterRegistry, 2, 10, false);
+        QueryBudget strict = new QueryBudget(meterRegistry, 2, 10, true);
+        double before = violations("lenient");
+
+        try (QueryBudget.Scope scope = lenient.open("lenient")) {
+            studentIds.forEach(id -> userRepository.findById(id));
+            scope.close();
+            assertThat(scope.getCounts().getStatements()).isEqualTo(3);
+        }
+        assertThat(violations("lenient")).isEqualTo(before + 1);
+
+        entityManager.clear();
+        assertThatThrownBy(() -> {
+            try (QueryBudget.Scope ignored = strict.open("strict")) {
+                studentIds.forEach(id -> userRepository.findById(id));
+            }
+        }).isInstanceOf(IllegalStateException.class).hasMessageContaining("3 statements (budget 2)");
+    }
+
+    private double violations(String name) {
+        Counter counter = meterRegistry.find("hibernate.query.budget.violations")
+                .tag("name", name).tag("kind", "budget").counter();
+        return counter == null ? 0 : counter.count();
+    }
+
+    // students - группа с count студентами; контекст сохранения очищается, чтобы чтения шли в базу
+    private List<Long> students(String name, int count) {
+        User teacher = testData.user("teacher-" + name, "TEACHER");
+        Group group = testData.group(teacher, name);
+
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            ids.add(testData.user(name + "-student-" + i, "STUDENT", group).getId());
+        }
+        entityManager.clear();
+        return ids;
+    }
+}
@@ -0,0 +1,187 @@
+package org.example.diploma.service;
+
+import jakarta.persistence.EntityManager;
+import org.example.diploma.TestData;
+import org.example.diploma.dto.ExerciseSnapshotDTO;
+import org.example.diploma.model.Attempt;
+import org.example.diploma.model.Exercise;
+import org.example.diploma.model.Module;
+import org.example.diploma.model.User;
+import org.example.diploma.model.WordReviewState;
+import org.example.diploma.repository.ExerciseRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@Transactional
+class SpacedRepetitionServiceTests {
+
+    @Autowired
+    private TestData testData;
+    @Autowired
+    private SpacedRepetitionService spacedRepetitionService;
+    @Autowired
+    private StudentService studentService;
+    @Autowired
+    private ExerciseService exerciseService;
+    @Autowired
+    private ExerciseRepository exerciseRepository;
+    @Autowired
+    private EntityManager entityManager;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void answersRescheduleDueWords() {
+        User teacher = testData.user("teacher-review", "TEACHER");
+        User student = testData.user("student-review", "STUDENT");
+
+        Module module = testData.module(teacher, "Review");
+        testData.word(module, "cat", "кошка");
+        testData.word(module, "dog", "собака");
+        testData.word(module, "bird", "птица");
+        testData.word(module, "fish", "рыба");
+        exerciseService.generateExercisesForModule(module);
+        entityManager.clear();
+
+        assertThat(spacedRepetitionService.startReview(student.getId(), module.getId())).isEqualTo(4);
+        assertThat(spacedRepetitionService.startReview(student.getId(), module.getId())).isZero();
+
+        LocalDateTime now = LocalDateTime.now().plusSeconds(1);
+        assertThat(spacedRepetitionService.countDue(student.getId(), module.getId(), now)).isEqualTo(4);
+
+        // правильный ответ откладывает слово на день
+        ExerciseSnapshotDTO first = spacedRepetitionService.nextDue(student.getId(), module.getId(), now).orElseThrow();
+        Exercise exercise = exerciseRepository.findById(first.getId()).orElseThrow();
+        studentService.saveAttempt(student, exercise, exercise.getCorrectAnswer(), 3);
+        assertThat(spacedRepetitionService.countDue(student.getId(), module.getId(), now.plusSeconds(1))).isEqualTo(3);
+        assertThat(spacedRepetitionService.nextDue(student.getId(), module.getId(), now.plusSeconds(1)).orElseThrow().getId())
+                .isNotEqualTo(first.getId());
+
+        // неправильный ответ возвращает слово в сессию через несколько минут
+        ExerciseSnapshotDTO second = spacedRepetitionService.nextDue(student.getId(), module.getId(), now.plusSeconds(1))
+                .orElseThrow();
+        studentService.saveAttempt(student, exerciseRepository.findById(second.getId()).orElseThrow(), "wrong", 3);
+        assertThat(spacedRepetitionService.countDue(student.getId(), module.getId(), now.plusSeconds(1))).isEqualTo(2);
+        assertThat(spacedRepetitionService.countDue(student.getId(), module.getId(),
+                now.plusMinutes(SpacedRepetitionService.RELEARN_DELAY_MINUTES + 1))).isEqualTo(3);
+        assertThat(spacedRepetitionService.countDue(student.getId(), module.getId(), now.plusDays(2))).isEqualTo(4);
+    }
+
+    @Test
+    void dueCountSkipsWordsWithoutActiveExercise() {
+        User teacher = testData.user("teacher-due", "TEACHER");
+        User student = testData.user("student-due", "STUDENT");
+        Module module = testData.module(teacher, "Due");
+        testData.word(module, "cat", "кошка");
+        testData.word(module, "dog", "собака");
+        testData.word(module, "bird", "птица");
+        testData.word(module, "fish", "рыба");
+        exerciseService.generateExercisesForModule(module);
+        // слово без упражнения и слово с выведенным упражнением не показываются в сессии
+        testData.word(module, "frog", "лягушка");
+        Exercise retired = exerciseRepository.findByModuleId(module.getId()).get(0);
+        jdbcTemplate.update("UPDATE exercises SET retired = TRUE WHERE id = ?", retired.getId());
+
+        assertThat(spacedRepetitionService.startReview(student.getId(), module.getId())).isEqualTo(5);
+
+        LocalDateTime now = LocalDateTime.now().plusSeconds(1);
+        assertThat(spacedRepetitionService.countDue(student.getId(), module.getId(), now)).isEqualTo(3);
+        for (int i = 0; i < 3; i++) {
+            ExerciseSnapshotDTO due = spacedRepetitionService.nextDue(student.getId(), module.getId(), now).orElseThrow();
+            assertThat(due.getId()).isNotEqualTo(retired.getId());
+            studentService.saveAttempt(student, exerciseRepository.findById(due.getId()).orElseThrow(),
+                    due.getCorrectAnswer(), 3);
+        }
+        assertThat(spacedRepetitionService.countDue(student.getId(), module.getId(), now)).isZero();
+        assertThat(spacedRepetitionService.nextDue(student.getId(), module.getId(), now)).isEmpty();
+    }
+
+    @Test
+    void earlierAnswerDoesNotOverwriteLaterState() {
+        User teacher = testData.user("teacher-order", "TEACHER");
+        User student = testData.user("student-order", "STUDENT");
+        Module module = testData.module(teacher, "Order");
+        testData.word(module, "cat", "кошка");
+        testData.word(module, "dog", "собака");
+        testData.word(module, "bird", "птица");
+        testData.word(module, "fish", "рыба");
+        exerciseService.generateExercisesForModule(module);
+        entityManager.clear();
+        Exercise exercise = exerciseRepository.findByModuleId(module.getId()).get(0);
+        LocalDateTime later = LocalDateTime.now().withNano(0);
+
+        // пакет с более поздним ответом записан первым: пакет с ранним ответом его не перезаписывает
+        spacedRepetitionService.apply(List.of(attempt(student, exercise, true, later)));
+        spacedRepetitionService.apply(List.of(attempt(student, exercise, false, later.minusMinutes(1))));
+
+        Map<String, Object> state = jdbcTemplate.queryForMap(
+                "SELECT repetitions, last_reviewed_at FROM word_review_states WHERE user_id = ? AND word_id = ?",
+                student.getId(), exercise.getSourceWordId());
+        assertThat(((Number) state.get("repetitions")).intValue()).isEqualTo(1);
+        assertThat(((Timestamp) state.get("last_reviewed_at")).toLocalDateTime()).isEqualTo(later);
+    }
+
+    @Test
+    void successfulReviewsGrowInterval() {
+        WordReviewState state = new WordReviewState();
+        state.setEaseFactor(SpacedRepetitionService.INITIAL_EASE_FACTOR);
+        LocalDateTime now = LocalDateTime.of(2025, 1, 1, 12, 0);
+
+        SpacedRepetitionService.schedule(state, 5, now);
+        assertThat(state.getIntervalDays()).isEqualTo(1);
+        SpacedRepetitionService.schedule(state, 5, now);
+        assertThat(state.getIntervalDays()).isEqualTo(6);
+        SpacedRepetitionService.schedule(state, 4, now);
+        assertThat(state.getIntervalDays()).isEqualTo(Math.round(6 * state.getEaseFactor() / 100f));
+        assertThat(state.getDueAt()).isEqualTo(now.plusDays(state.getIntervalDays()));
+
+        for (int i = 0; i < 10; i++) {
+            SpacedRepetitionService.schedule(state, 3, now);
+        }
+        assertThat(state.getEaseFactor()).isEqualTo(SpacedRepetitionService.MIN_EASE_FACTOR);
+    }
+
+    @Test
+    void failedReviewResetsIntervalButKeepsEaseFactor() {
+        WordReviewState state = new WordReviewState();
+        state.setEaseFactor(SpacedRepetitionService.INITIAL_EASE_FACTOR);
+        LocalDateTime now = LocalDateTime.of(2025, 1, 1, 12, 0);
+        SpacedRepetitionService.schedule(state, 5, now);
+        SpacedRepetitionService.schedule(state, 4, now);
+        int easeFactor = state.getEaseFactor();
+
+        for (int quality = 0; quality < 3; quality++) {
+            SpacedRepetitionService.schedule(state, quality, now);
+            assertThat(state.getRepetitions()).isZero();
+            assertThat(state.getIntervalDays()).isZero();
+            assertThat(state.getEaseFactor()).isEqualTo(easeFactor);
+            assertThat(state.getDueAt()).isEqualTo(now.plusMinutes(SpacedRepetitionService.RELEARN_DELAY_MINUTES));
+        }
+
+        // после ошибки серия начинается заново с интервала в один день
+        SpacedRepetitionService.schedule(state, 5, now);
+        assertThat(state.getIntervalDays()).isEqualTo(1);
+    }
+
+    private static Attempt attempt(User student, Exercise exercise, boolean correct, LocalDateTime time) {
+        Attempt attempt = new Attempt();
+        attempt.setUser(student);
+        attempt.setExercise(exercise);
+        attempt.setSelectedAnswer(correct ? exercise.getCorrectAnswer() : "wrong");
+        attempt.setCorrect(correct);
+        attempt.setAttemptTime(time);
+        attempt.setTimeSpentSeconds(3);
+        return attempt;
+    }
+}
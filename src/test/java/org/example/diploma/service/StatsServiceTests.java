@@ -0,0 +1,96 @@
+package org.example.diploma.service;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.example.diploma.TestData;
+import org.example.diploma.dto.StudentStatsDTO;
+import org.example.diploma.model.Exercise;
+import org.example.diploma.model.Group;
+import org.example.diploma.model.Module;
+import org.example.diploma.model.User;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@Transactional
+class StatsServiceTests {
+
+    @Autowired
+    private TestData testData;
+    @Autowired
+    private StatsService statsService;
+    @Autowired
+    private StudentService studentService;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void groupStatsQueryCountDoesNotDependOnGroupSize() {
+        User teacher = testData.user("teacher1", "TEACHER");
+        Module module = testData.module(teacher, "Animals");
+        List<Exercise> exercises = List.of(testData.exercise(module, "cat"), testData.exercise(module, "dog"));
+
+        Group small = testData.group(teacher, "small");
+        Group large = testData.group(teacher, "large");
+        answerAll(students(small, 3), exercises);
+        answerAll(students(large, 30), exercises);
+
+        long smallQueries = countStatements(() -> statsService.getStudentStatsByGroup(small.getId()));
+        long largeQueries = countStatements(() -> statsService.getStudentStatsByGroup(large.getId()));
+
+        assertThat(smallQueries).isPositive();
+        assertThat(largeQueries).isEqualTo(smallQueries);
+    }
+
+    @Test
+    void completedModulesCountsOnlyFullySolvedModules() {
+        User teacher = testData.user("teacher2", "TEACHER");
+        Module finished = testData.module(teacher, "Colors");
+        Module started = testData.module(teacher, "Numbers");
+        List<Exercise> finishedExercises = List.of(testData.exercise(finished, "red"), testData.exercise(finished, "blue"));
+        Exercise startedExercise = testData.exercise(started, "one");
+        testData.exercise(started, "two");
+
+        Group group = testData.group(teacher, "group");
+        User student = testData.user("student-a", "STUDENT", group);
+        answerAll(List.of(student), finishedExercises);
+        answerAll(List.of(student), List.of(startedExercise));
+
+        StudentStatsDTO stat = statsService.getStudentStatsByGroup(group.getId()).get(0);
+
+        assertThat(stat.getTotalAttempts()).isEqualTo(3L);
+        assertThat(stat.getTotalModules()).isEqualTo(2L);
+        assertThat(stat.getCompletedModules()).isEqualTo(1L);
+    }
+
+    private long countStatements(Runnable action) {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        action.run();
+        return statistics.getPrepareStatementCount();
+    }
+
+    private void answerAll(List<User> students, List<Exercise> exercises) {
+        for (User student : students) {
+            for (Exercise exercise : exercises) {
+                studentService.saveAttempt(student, exercise, exercise.getCorrectAnswer(), 5);
+            }
+        }
+    }
+
+    private List<User> students(Group group, int count) {
+        List<User> students = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            students.add(testData.user(group.getName() + "-student-" + i, "STUDENT", group));
+        }
+        return students;
+    }
+}
@@ -0,0 +1,107 @@
+package org.example.diploma.service;
+
+import org.example.diploma.TestData;
+import org.example.diploma.dto.AttemptHistoryPageDTO;
+import org.example.diploma.dto.ModuleProgressDTO;
+import org.example.diploma.model.Exercise;
+import org.example.diploma.model.Group;
+import org.example.diploma.model.Module;
+import org.example.diploma.model.StudentAttemptStats;
+import org.example.diploma.model.User;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@Transactional
+class StudentServiceTests {
+
+    @Autowired
+    private TestData testData;
+    @Autowired
+    private StudentService studentService;
+    @Autowired
+    private GroupService groupService;
+
+    @Test
+    void modulesProgressCountsEachSolvedExerciseOnce() {
+        User teacher = testData.user("teacher", "TEACHER");
+        Module done = testData.module(teacher, "Food");
+        Module half = testData.module(teacher, "Travel");
+        Module empty = testData.module(teacher, "Empty");
+        Exercise apple = testData.exercise(done, "apple");
+        Exercise train = testData.exercise(half, "train");
+        testData.exercise(half, "plane");
+
+        Group group = testData.group(teacher, "group", done, half, empty);
+
+        User student = testData.user("student", "STUDENT", group);
+        studentService.saveAttempt(student, apple, "wrong", 3);
+        studentService.saveAttempt(student, apple, "apple", 3);
+        studentService.saveAttempt(student, apple, "apple", 2);
+        studentService.saveAttempt(student, train, "train", 4);
+
+        List<ModuleProgressDTO> progress = studentService.getModulesProgress(student.getId());
+
+        assertThat(progress).extracting(p -> p.getModule().getTitle()).containsExactly("Food", "Travel", "Empty");
+        assertThat(progress).extracting(ModuleProgressDTO::getSolvedExercises).containsExactly(1L, 1L, 0L);
+        assertThat(progress).extracting(ModuleProgressDTO::getProgress).containsExactly(100.0, 50.0, 0.0);
+        assertThat(studentService.countCompleted(progress)).isEqualTo(1);
+    }
+
+    @Test
+    void moduleAccessFollowsGroupAssignments() {
+        User teacher = testData.user("teacher-access", "TEACHER");
+        Module assigned = testData.module(teacher, "Assigned");
+        Module later = testData.module(teacher, "Later");
+
+        Group group = testData.group(teacher, "access", assigned);
+
+        assertThat(studentService.canAccessModule(group.getId(), assigned.getId())).isTrue();
+        assertThat(studentService.canAccessModule(group.getId(), later.getId())).isFalse();
+        assertThat(studentService.canAccessModule(null, assigned.getId())).isFalse();
+
+        groupService.assignModuleToGroup(group.getId(), later);
+        groupService.removeModuleFromGroup(group.getId(), assigned.getId());
+
+        assertThat(studentService.canAccessModule(group.getId(), later.getId())).isTrue();
+        assertThat(studentService.canAccessModule(group.getId(), assigned.getId())).isFalse();
+    }
+
+    @Test
+    void attemptHistoryPagesCoverEveryAttemptOnce() {
+        User teacher = testData.user("teacher-history", "TEACHER");
+        Module module = testData.module(teacher, "History");
+        Exercise word = testData.exercise(module, "word");
+        User student = testData.user("student-history", "STUDENT");
+        for (int i = 0; i < 5; i++) {
+            studentService.saveAttempt(student, word, i % 2 == 0 ? "word" : "wrong", i);
+        }
+
+        List<Long> seen = new ArrayList<>();
+        AttemptHistoryPageDTO page = studentService.getAttemptHistory(student.getId(), null, null, 2);
+        List<Integer> pageSizes = new ArrayList<>();
+        while (true) {
+            pageSizes.add(page.getAttempts().size());
+            page.getAttempts().forEach(attempt -> seen.add(attempt.getAttemptId()));
+            if (!page.isHasNext()) {
+                break;
+            }
+            page = studentService.getAttemptHistory(student.getId(), page.getNextBeforeTime(), page.getNextBeforeId(), 2);
+        }
+
+        assertThat(pageSizes).containsExactly(2, 2, 1);
+        assertThat(seen).doesNotHaveDuplicates().hasSize(5);
+
+        StudentAttemptStats summary = studentService.getAttemptSummary(student.getId());
+        assertThat(summary.getTotalAttempts()).isEqualTo(5L);
+        assertThat(summary.getCorrectAttempts()).isEqualTo(3L);
+        assertThat(summary.getDistinctModules()).isEqualTo(1L);
+    }
+}
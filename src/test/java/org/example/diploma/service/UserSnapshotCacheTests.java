@@ -0,0 +1,134 @@
+package org.example.diploma.service;
+
+import org.example.diploma.TestData;
+import org.example.diploma.dto.UserSnapshotDTO;
+import org.example.diploma.model.Group;
+import org.example.diploma.model.User;
+import org.example.diploma.repository.UserRepository;
+import org.example.diploma.security.CustomUserDetails;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@Transactional
+class UserSnapshotCacheTests {
+
+    @Autowired
+    private TestData testData;
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private GroupService groupService;
+    @Autowired
+    private UserRepository userRepository;
+
+    private final List<Long> loads = new ArrayList<>();
+
+    @Test
+    void snapshotExpiresAfterTtl() throws Exception {
+        UserSnapshotCache cache = new UserSnapshotCache(50, 100);
+        cache.get(1L, this::load);
+        cache.get(1L, this::load);
+        assertThat(loads).containsExactly(1L);
+
+        Thread.sleep(100);
+
+        cache.get(1L, this::load);
+        assertThat(loads).containsExactly(1L, 1L);
+    }
+
+    @Test
+    void cacheIsClearedWhenFull() {
+        UserSnapshotCache cache = new UserSnapshotCache(60_000, 2);
+        cache.get(1L, this::load);
+        cache.get(2L, this::load);
+
+        // третий снимок не помещается, а устаревших нет - кэш очищается целиком
+        cache.get(3L, this::load);
+        cache.get(3L, this::load);
+        cache.get(1L, this::load);
+
+        assertThat(loads).containsExactly(1L, 2L, 3L, 1L);
+    }
+
+    @Test
+    void missingUserIsNotCached() {
+        UserSnapshotCache cache = new UserSnapshotCache(60_000, 100);
+        Function<Long, UserSnapshotDTO> missing = id -> {
+            loads.add(id);
+            return null;
+        };
+
+        assertThat(cache.get(1L, missing)).isNull();
+        assertThat(cache.get(1L, missing)).isNull();
+        assertThat(loads).containsExactly(1L, 1L);
+    }
+
+    @Test
+    void savingUserRefreshesSnapshot() {
+        User student = testData.user("snapshot-student", "STUDENT");
+        CustomUserDetails principal = principal(student);
+        assertThat(userService.getCurrentUser(principal)).get().extracting(UserSnapshotDTO::getUsername)
+                .isEqualTo("snapshot-student");
+
+        student.setUsername("snapshot-renamed");
+        userService.saveUser(student);
+
+        assertThat(userService.getCurrentUser(principal)).get().extracting(UserSnapshotDTO::getUsername)
+                .isEqualTo("snapshot-renamed");
+    }
+
+    @Test
+    void groupMembershipChangesRefreshSnapshot() {
+        User teacher = testData.user("snapshot-teacher", "TEACHER");
+        Group group = testData.group(teacher, "snapshot-group");
+        User student = testData.user("snapshot-member", "STUDENT");
+        CustomUserDetails principal = principal(student);
+        assertThat(userService.getCurrentUser(principal)).get().extracting(UserSnapshotDTO::getGroupId).isNull();
+
+        groupService.addStudentToGroup(group.getId(), student.getId());
+        assertThat(userService.getCurrentUser(principal)).get().extracting(UserSnapshotDTO::getGroupId)
+                .isEqualTo(group.getId());
+
+        groupService.removeStudentFromGroup(student.getId());
+        assertThat(userService.getCurrentUser(principal)).get().extracting(UserSnapshotDTO::getGroupId).isNull();
+    }
+
+    @Test
+    void deletingGroupDropsAllSnapshots() {
+        User teacher = testData.user("snapshot-owner", "TEACHER");
+        Group group = testData.group(teacher, "snapshot-deleted");
+        CustomUserDetails principal = principal(teacher);
+        userService.getCurrentUser(principal);
+
+        // изменение в обход saveUser: снимок остается прежним до массового сброса
+        teacher.setUsername("snapshot-owner-renamed");
+        userRepository.save(teacher);
+        assertThat(userService.getCurrentUser(principal)).get().extracting(UserSnapshotDTO::getUsername)
+                .isEqualTo("snapshot-owner");
+
+        groupService.deleteGroup(group.getId());
+
+        assertThat(userService.getCurrentUser(principal)).get().extracting(UserSnapshotDTO::getUsername)
+                .isEqualTo("snapshot-owner-renamed");
+    }
+
+    private UserSnapshotDTO load(Long id) {
+        loads.add(id);
+        return new UserSnapshotDTO(id, "user-" + id, "STUDENT", null);
+    }
+
+    private static CustomUserDetails principal(User user) {
+        return new CustomUserDetails(user.getId(), user.getUsername(), user.getPassword(), user.getRole(), null,
+                List.of(new SimpleGrantedAuthority("ROLE_" + user.getRole())));
+    }
+}
@@ -0,0 +1,57 @@
+package org.example.diploma.service;
+
+import org.example.diploma.TestData;
+import org.example.diploma.dto.WordImportResultDTO;
+import org.example.diploma.model.Module;
+import org.example.diploma.model.User;
+import org.example.diploma.model.Word;
+import org.example.diploma.repository.WordRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.StringReader;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@Transactional
+class WordImportServiceTests {
+
+    @Autowired
+    private TestData testData;
+    @Autowired
+    private WordImportService wordImportService;
+    @Autowired
+    private WordRepository wordRepository;
+
+    @Test
+    void importSkipsDuplicatesAndRejectsBrokenLines() {
+        User teacher = testData.user("teacher-import", "TEACHER");
+        Module module = testData.module(teacher, "Import");
+        testData.word(module, "cat", "кошка");
+
+        String source = String.join("\n",
+                "english,russian",
+                "Cat, Кошка",
+                "dog\tсобака",
+                "\"hello, world\";\"привет, мир\"",
+                "",
+                "# comment",
+                "dog, собака",
+                "lonely",
+                "bird,",
+                "fish, рыба");
+
+        WordImportResultDTO result = wordImportService.importWords(module.getId(), new StringReader(source));
+
+        assertThat(result.getAccepted()).isEqualTo(3);
+        assertThat(result.getDuplicates()).isEqualTo(2);
+        assertThat(result.getRejected()).isEqualTo(2);
+        assertThat(result.getErrors()).containsExactly("line 8: expected two columns", "line 9: empty word or translation");
+        assertThat(wordRepository.findByModuleId(module.getId()))
+                .extracting(Word::getEnglish)
+                .containsExactlyInAnyOrder("cat", "dog", "hello, world", "fish");
+    }
+}